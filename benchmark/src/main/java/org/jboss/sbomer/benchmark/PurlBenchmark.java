@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Component;
+import org.jboss.sbomer.benchmark.SyntheticBoms.Ecosystem;
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
+import org.jboss.sbomer.core.features.sbom.utils.PurlRebuilder;
+import org.jboss.sbomer.core.features.sbom.utils.PurlSanitizer;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+/**
+ * Measures the parsing, validation, sanitization and rebuilding of purls, per component, see {@link PurlCache},
+ * {@link PurlSanitizer} and {@link PurlRebuilder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PurlBenchmark {
+
+    private static final int COMPONENTS = 1000;
+
+    @Param({ "MAVEN", "RPM", "GO", "NPM" })
+    Ecosystem ecosystem;
+
+    List<Component> valid;
+
+    List<Component> malformed;
+
+    List<String> malformedPurls;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        valid = SyntheticBoms.bom(ecosystem, COMPONENTS).getComponents().subList(1, COMPONENTS + 1);
+        malformed = new ArrayList<>(COMPONENTS);
+        malformedPurls = new ArrayList<>(COMPONENTS);
+
+        for (int i = 0; i < COMPONENTS; i++) {
+            Component component = SyntheticBoms.malformedComponent(ecosystem, i);
+            malformed.add(component);
+            malformedPurls.add(component.getPurl());
+        }
+    }
+
+    /**
+     * {@link SbomUtils#hasValidOrSanitizablePurl(Component)} replaces malformed purls, these are restored for every
+     * invocation.
+     */
+    @Setup(Level.Invocation)
+    public void restorePurls() {
+        for (int i = 0; i < COMPONENTS; i++) {
+            malformed.get(i).setPurl(malformedPurls.get(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMPONENTS)
+    public void hasValidPurl(Blackhole blackhole) {
+        for (Component component : valid) {
+            blackhole.consume(SbomUtils.hasValidOrSanitizablePurl(component));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMPONENTS)
+    public void hasSanitizablePurl(Blackhole blackhole) {
+        for (Component component : malformed) {
+            blackhole.consume(SbomUtils.hasValidOrSanitizablePurl(component));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMPONENTS)
+    public void sanitizePurl(Blackhole blackhole) {
+        for (String purl : malformedPurls) {
+            blackhole.consume(PurlSanitizer.sanitizePurl(purl));
+        }
+    }
+
+    /**
+     * Parses the purls without {@link PurlCache}, for comparison with {@link #parseCached(Blackhole)}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(COMPONENTS)
+    public void parse(Blackhole blackhole) throws MalformedPackageURLException {
+        for (Component component : valid) {
+            blackhole.consume(new PackageURL(component.getPurl()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMPONENTS)
+    public void parseCached(Blackhole blackhole) throws MalformedPackageURLException {
+        for (Component component : valid) {
+            blackhole.consume(PurlCache.parse(component.getPurl()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMPONENTS)
+    public void rebuildPurl(Blackhole blackhole) throws MalformedPackageURLException {
+        for (Component component : malformed) {
+            blackhole.consume(PurlRebuilder.rebuildPurlFromSyftComponent(component));
+        }
+    }
+}
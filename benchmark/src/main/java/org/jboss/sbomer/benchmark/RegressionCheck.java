@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Compares two JMH result files written with {@code -rf json} and fails when a benchmark got slower than the given
+ * threshold (in percent) compared to the baseline.
+ *
+ * <pre>
+ * java -cp benchmark/target/benchmarks.jar org.jboss.sbomer.benchmark.RegressionCheck baseline.json current.json 10
+ * </pre>
+ *
+ * All benchmarks report the average time, so a higher score is a regression.
+ */
+public class RegressionCheck {
+
+    private static final double DEFAULT_THRESHOLD = 10.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        Map<String, Double> baseline = read(Path.of(args[0]));
+        Map<String, Double> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double base = baseline.get(entry.getKey());
+
+            if (base == null || base == 0) {
+                System.out.printf("NEW        %s: %.3f%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            double change = (entry.getValue() - base) / base * 100;
+            boolean regression = change > threshold;
+
+            if (regression) {
+                regressions++;
+            }
+
+            System.out.printf(
+                    "%-10s %s: %.3f -> %.3f (%+.1f%%)%n",
+                    regression ? "REGRESSION" : "OK",
+                    entry.getKey(),
+                    base,
+                    entry.getValue(),
+                    change);
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the primary scores of a JMH result file, keyed by the benchmark name and its parameters.
+     */
+    static Map<String, Double> read(Path path) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+
+        for (JsonNode result : ObjectMapperProvider.json().readTree(path.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+
+            if (!params.isMissingNode()) {
+                key.append(params.toString());
+            }
+
+            scores.put(key.toString(), result.path("primaryMetric").path("score").asDouble());
+        }
+
+        return scores;
+    }
+}
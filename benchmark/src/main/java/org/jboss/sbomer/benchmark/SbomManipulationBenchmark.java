@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.jboss.sbomer.benchmark.SyntheticBoms.Ecosystem;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
+import org.jboss.sbomer.core.features.sbom.utils.DependencyGraph;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the updates of manifests done by the adjusters and processors, see {@link SbomUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SbomManipulationBenchmark {
+
+    @Param({ "MAVEN", "RPM", "GO", "NPM" })
+    Ecosystem ecosystem;
+
+    @Param({ "100", "1000", "10000", "100000" })
+    int components;
+
+    Bom bom;
+
+    /**
+     * A manifest with 10% more components than {@link #bom}, which are missing there.
+     */
+    Bom source;
+
+    Component component;
+
+    /**
+     * The benchmarks modify the manifest, a new one is needed for every invocation.
+     */
+    @Setup(Level.Invocation)
+    public void setup() {
+        bom = SyntheticBoms.bom(ecosystem, components);
+        source = SyntheticBoms.bom(ecosystem, components + components / 10);
+
+        // A component in the middle of the dependency tree
+        component = bom.getComponents().get(components / 2);
+    }
+
+    @Benchmark
+    public Bom updatePurl() {
+        SbomUtils.updatePurl(bom, component.getPurl(), component.getPurl() + "&relocated=true");
+        return bom;
+    }
+
+    @Benchmark
+    public Bom updateBomRef() {
+        SbomUtils.updateBomRef(bom, component, component.getBomRef(), component.getBomRef() + "&relocated=true");
+        return bom;
+    }
+
+    /**
+     * Renames the bom-refs of every 10th component, with a single index of the manifest.
+     */
+    @Benchmark
+    public Bom updateBomRefs() {
+        BomIndex index = BomIndex.of(bom);
+
+        for (int i = 0; i < bom.getComponents().size(); i += 10) {
+            Component c = bom.getComponents().get(i);
+            index.updateBomRef(c, c.getBomRef(), c.getBomRef() + "&relocated=true");
+        }
+
+        return bom;
+    }
+
+    @Benchmark
+    public Bom renameDependency() {
+        DependencyGraph graph = DependencyGraph.of(bom.getDependencies());
+        graph.rename(component.getBomRef(), component.getBomRef() + "&relocated=true");
+        bom.setDependencies(graph.toDependencies());
+        return bom;
+    }
+
+    @Benchmark
+    public Bom addMissingComponentsAndDependencies() {
+        SbomUtils.addMissingComponentsAndDependencies(bom, source);
+        return bom;
+    }
+}
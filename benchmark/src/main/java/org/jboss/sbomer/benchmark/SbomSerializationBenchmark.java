@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.benchmark.SyntheticBoms.Ecosystem;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Measures the conversions of manifests from and to JSON, and their validation, see {@link SbomUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SbomSerializationBenchmark {
+
+    @Param({ "MAVEN", "RPM", "GO", "NPM" })
+    Ecosystem ecosystem;
+
+    @Param({ "100", "1000", "10000", "100000" })
+    int components;
+
+    Bom bom;
+
+    JsonNode json;
+
+    Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        bom = SyntheticBoms.bom(ecosystem, components);
+        json = SbomUtils.toJsonNode(bom);
+        file = Files.createTempFile("sbomer-benchmark", ".json");
+
+        SbomUtils.toPath(bom, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Bom fromJsonNode() {
+        return SbomUtils.fromJsonNode(json);
+    }
+
+    @Benchmark
+    public JsonNode toJsonNode() {
+        return SbomUtils.toJsonNode(bom);
+    }
+
+    @Benchmark
+    public Bom fromPath() {
+        return SbomUtils.fromPath(file);
+    }
+
+    @Benchmark
+    public String toJson() throws GeneratorException {
+        return SbomUtils.toJson(bom);
+    }
+
+    @Benchmark
+    public List<ParseException> validate() throws IOException {
+        return SbomUtils.validate(json);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.cli.feature.sbom.adjuster.SyftImageAdjuster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the adjustment of container image manifests produced by Syft, see {@link SyftImageAdjuster}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SyftImageAdjusterBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    int components;
+
+    Path workDir;
+
+    Bom bom;
+
+    @Setup(Level.Trial)
+    public void setupWorkDir() throws IOException {
+        workDir = Files.createTempDirectory("sbomer-benchmark");
+
+        Files.writeString(
+                workDir.resolve("skopeo.json"),
+                """
+                        {
+                          "Name": "registry.com/rh-osbs/benchmark-rhel9",
+                          "Digest": "sha256:a43c117701dd6d012bb9da8974d2d332f70a688944ed19280a020d5357f8b22e",
+                          "Os": "linux",
+                          "Architecture": "amd64",
+                          "Labels": {
+                            "name": "benchmark/benchmark-rhel9"
+                          }
+                        }
+                        """);
+    }
+
+    /**
+     * The adjuster modifies the manifest, a new one is needed for every invocation.
+     */
+    @Setup(Level.Invocation)
+    public void setupBom() {
+        bom = SyntheticBoms.syftImage(components);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(workDir.resolve("skopeo.json"));
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    public Bom adjust() {
+        return new SyftImageAdjuster(workDir, null, true, null, null).adjust(bom);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Property;
+
+/**
+ * Generates synthetic manifests, resembling the ones produced by the generators, of the requested size.
+ */
+public final class SyntheticBoms {
+
+    /**
+     * The package ecosystems of the generated manifests.
+     */
+    public enum Ecosystem {
+        MAVEN("java-archive"),
+        RPM("rpm"),
+        GO("go-module"),
+        NPM("npm");
+
+        /**
+         * The Syft package type, used to rebuild purls.
+         */
+        private final String syftType;
+
+        Ecosystem(String syftType) {
+            this.syftType = syftType;
+        }
+    }
+
+    private SyntheticBoms() {
+        // This is a utility class
+    }
+
+    /**
+     * <p>
+     * Creates a manifest resembling the output of the generators for the given ecosystem, with {@code size}
+     * components.
+     * </p>
+     *
+     * <p>
+     * The main component depends on the first 50 components, every other component depends on two components, so that
+     * the dependency graph is a tree with about as many edges as components. Components have hashes, external
+     * references and the Syft package type property.
+     * </p>
+     *
+     * @param ecosystem the ecosystem of the components
+     * @param size the number of components
+     * @return the manifest
+     */
+    public static Bom bom(Ecosystem ecosystem, int size) {
+        Component main = component(ecosystem, "main", size);
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+
+        List<Component> components = new ArrayList<>(size + 1);
+        components.add(main);
+
+        for (int i = 0; i < size; i++) {
+            components.add(component(ecosystem, "package", i));
+        }
+
+        List<Dependency> dependencies = new ArrayList<>(size + 1);
+
+        for (Component component : components) {
+            dependencies.add(new Dependency(component.getBomRef()));
+        }
+
+        for (int i = 0; i < Math.min(50, size); i++) {
+            dependencies.get(0).addDependency(new Dependency(components.get(i + 1).getBomRef()));
+        }
+
+        for (int i = 0; i < size; i++) {
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                dependencies.get(i + 1).addDependency(new Dependency(components.get(child + 1).getBomRef()));
+            }
+        }
+
+        Bom bom = new Bom();
+        bom.setSerialNumber("urn:uuid:" + UUID.nameUUIDFromBytes((ecosystem + "-" + size).getBytes()));
+        bom.setMetadata(metadata);
+        bom.setComponents(components);
+        bom.setDependencies(dependencies);
+
+        return bom;
+    }
+
+    /**
+     * Creates a component of the given ecosystem, which has a purl that cannot be parsed as is, but can be sanitized.
+     *
+     * @param ecosystem the ecosystem of the component
+     * @param id the identifier of the component, used to build its name and version
+     * @return the component
+     */
+    public static Component malformedComponent(Ecosystem ecosystem, int id) {
+        Component component = component(ecosystem, "package", id);
+        component.setName(component.getName() + " (" + id + ")");
+        component.setPurl(component.getPurl().replace("@", "%%@") + "&odd key=odd value");
+        return component;
+    }
+
+    private static Component component(Ecosystem ecosystem, String prefix, int id) {
+        String group = switch (ecosystem) {
+            case MAVEN -> "org.example.group" + (id % 50);
+            case RPM -> null;
+            case GO -> "github.com/example" + (id % 50);
+            case NPM -> "@scope" + (id % 20);
+        };
+        String name = prefix + "-" + id;
+        String version = switch (ecosystem) {
+            case MAVEN -> "1.0." + id + ".redhat-00001";
+            case RPM -> "1.0." + id + "-1.el9";
+            case GO -> "v1." + id + ".0";
+            case NPM -> "1.0." + id;
+        };
+        String purl = switch (ecosystem) {
+            case MAVEN -> "pkg:maven/" + group + "/" + name + "@" + version + "?type=jar";
+            case RPM -> "pkg:rpm/redhat/" + name + "@" + version + "?arch=x86_64&upstream=" + name + "-" + version
+                    + ".src.rpm&distro=rhel-9.2";
+            case GO -> "pkg:golang/" + group + "/" + name + "@" + version;
+            case NPM -> "pkg:npm/%40" + group.substring(1) + "/" + name + "@" + version;
+        };
+
+        Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setScope(Component.Scope.REQUIRED);
+        component.setBomRef(purl);
+        component.setGroup(group);
+        component.setName(name);
+        component.setVersion(version);
+        component.setPurl(purl);
+
+        Hash hash = new Hash(Hash.Algorithm.SHA_256, String.format("%064x", (long) purl.hashCode() & 0xffffffffL));
+        component.setHashes(new ArrayList<>(List.of(hash)));
+
+        ExternalReference distribution = new ExternalReference();
+        distribution.setType(ExternalReference.Type.DISTRIBUTION);
+        distribution.setUrl("https://repository.example.com/" + ecosystem.name().toLowerCase() + "/" + name);
+        component.setExternalReferences(new ArrayList<>(List.of(distribution)));
+
+        component.setProperties(new ArrayList<>(List.of(property("syft:package:type", ecosystem.syftType))));
+
+        return component;
+    }
+
+    /**
+     * <p>
+     * Creates a manifest resembling the output of Syft for a container image, with {@code size} components.
+     * </p>
+     *
+     * <p>
+     * Every second component is an RPM, the others are Java archives. Every hundredth component duplicates the purl of
+     * the previous one, as Syft reports the same package found in different locations.
+     * </p>
+     *
+     * @param size the number of components
+     * @return the manifest
+     */
+    public static Bom syftImage(int size) {
+        Component image = new Component();
+        image.setType(Component.Type.CONTAINER);
+        image.setBomRef("3893910a10b83660");
+        image.setName("registry.com/rh-osbs/benchmark-rhel9");
+        image.setVersion("sha256:a43c117701dd6d012bb9da8974d2d332f70a688944ed19280a020d5357f8b22e");
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(image);
+        metadata.setProperties(
+                new ArrayList<>(
+                        List.of(
+                                property("syft:image:labels:com.redhat.component", "benchmark-container"),
+                                property("syft:image:labels:name", "benchmark/benchmark-rhel9"),
+                                property("syft:image:labels:vendor", "Red Hat, Inc."),
+                                property("syft:image:labels:version", "1.0.0"),
+                                property("syft:image:labels:release", "1.1718294415"))));
+
+        Bom bom = new Bom();
+        bom.setMetadata(metadata);
+
+        List<Component> components = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int id = i % 100 == 99 ? i - 1 : i;
+            components.add(id % 2 == 0 ? rpm(id) : jar(id));
+        }
+
+        bom.setComponents(components);
+        bom.setDependencies(new ArrayList<>());
+
+        return bom;
+    }
+
+    private static Component rpm(int id) {
+        String name = "package-" + id;
+        String version = "1.0." + id + "-1.el9";
+
+        Component component = component(
+                name,
+                version,
+                "pkg:rpm/redhat/" + name + "@" + version + "?arch=x86_64&upstream=" + name + "-" + version
+                        + ".src.rpm&distro=rhel-9.2",
+                "rpm",
+                "/var/lib/rpm/rpmdb.sqlite");
+        component.setPublisher("Red Hat, Inc.");
+
+        return component;
+    }
+
+    private static Component jar(int id) {
+        String name = "artifact-" + id;
+        String version = "1.0." + id + ".redhat-00001";
+
+        return component(
+                name,
+                version,
+                "pkg:maven/org.example.group" + (id % 50) + "/" + name + "@" + version,
+                "java-archive",
+                "/opt/app/lib/" + name + "-" + version + ".jar");
+    }
+
+    private static Component component(String name, String version, String purl, String type, String path) {
+        Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setBomRef(purl + "&package-id=" + Integer.toHexString(purl.hashCode()));
+        component.setName(name);
+        component.setVersion(version);
+        component.setPurl(purl);
+        component.setCpe("cpe:2.3:a:" + name + ":" + name + ":" + version + ":*:*:*:*:*:*:*");
+        component.setProperties(
+                new ArrayList<>(
+                        List.of(
+                                property("syft:package:foundBy", "cataloger"),
+                                property("syft:package:type", type),
+                                property("syft:location:0:layerID", "sha256:a43c117701dd6d012bb9"),
+                                property("syft:location:0:path", path),
+                                property("syft:metadata:size", "63864"))));
+
+        return component;
+    }
+
+    private static Property property(String name, String value) {
+        Property property = new Property();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+}
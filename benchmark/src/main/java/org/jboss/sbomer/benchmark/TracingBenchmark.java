@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmark;
+
+import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_IDENTIFIER_KEY;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+import org.jboss.sbomer.core.features.sbom.utils.SpanSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+
+/**
+ * Measures the overhead of a call instrumented with {@link OtelHelper#withSpan}, compared to the plain call
+ * ({@link #baseline()}).
+ *
+ * <p>
+ * The {@code tracing} parameter selects the setup:
+ * </p>
+ * <ul>
+ * <li>{@code DISABLED}: OpenTelemetry is not set up, as when {@code quarkus.otel.enabled} is {@code false},</li>
+ * <li>{@code ALL}: every span is recorded (with no exporter, only the cost of the spans is measured),</li>
+ * <li>{@code NONE}: spans are not sampled, see {@link SpanSampler},</li>
+ * <li>{@code RATE_LIMITED}: at most one span per second is recorded, the others are dropped.</li>
+ * </ul>
+ *
+ * <p>
+ * The attributes resemble the ones of the generation request spans, {@link #eagerAttributes()} builds them upfront (and
+ * copies the MDC) on every call, {@link #lazyAttributes()} only for recorded spans.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TracingBenchmark {
+
+    public enum Tracing {
+        DISABLED, ALL, NONE, RATE_LIMITED
+    }
+
+    @Param({ "DISABLED", "ALL", "NONE", "RATE_LIMITED" })
+    Tracing tracing;
+
+    Path workdir = Path.of("data", "sbom-request-abcdef123456");
+
+    long calls;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (tracing != Tracing.DISABLED) {
+            OpenTelemetrySdk.builder().setTracerProvider(SdkTracerProvider.builder().build()).buildAndRegisterGlobal();
+        }
+
+        OtelHelper.setSampler(switch (tracing) {
+            case NONE -> new SpanSampler(0, 0);
+            case RATE_LIMITED -> new SpanSampler(1, 1);
+            default -> SpanSampler.alwaysOn();
+        });
+
+        MDC.put(MDC_IDENTIFIER_KEY, "ABCDEF123456");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MDC.clear();
+        OtelHelper.setSampler(SpanSampler.alwaysOn());
+        GlobalOpenTelemetry.resetForTest();
+    }
+
+    @Benchmark
+    public long baseline() {
+        return action();
+    }
+
+    @Benchmark
+    public long eagerAttributes() {
+        return OtelHelper.withSpan(this.getClass(), ".eager", attributes(), MDC.getCopyOfContextMap(), this::action);
+    }
+
+    @Benchmark
+    public long lazyAttributes() {
+        return OtelHelper.withSpan(this.getClass(), ".lazy", this::attributes, this::action);
+    }
+
+    private long action() {
+        return ++calls;
+    }
+
+    private Map<String, String> attributes() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("generation.id", "ABCDEF123456");
+        attributes.put("generation.identifier", "quay.io/org/image@sha256:" + calls);
+        attributes.put("generation.type", "CONTAINERIMAGE");
+        attributes.put("generation.resource", "sbom-request-abcdef123456");
+        attributes.put("workdir.to.remove", workdir.toAbsolutePath().toString());
+        return attributes;
+    }
+}
@@ -18,13 +18,20 @@
 package org.jboss.sbomer.cli;
 
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.sbomer.cli.errors.SbomerExitCodeExceptionMapper;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.quarkus.arc.All;
 import io.quarkus.runtime.QuarkusApplication;
 import io.quarkus.runtime.annotations.QuarkusMain;
@@ -52,6 +59,14 @@ public class CLI implements QuarkusApplication {
     @Inject
     List<FeatureTopCommand> featureCommands;
 
+    /**
+     * File to write the summary of the metrics recorded during the run to. No summary is written if not set, except by
+     * the automated generation commands, which always write one into their workdir, see
+     * {@link MetricsHelper#SUMMARY_FILE_NAME}.
+     */
+    @ConfigProperty(name = "sbomer.metrics.summary-file")
+    Optional<Path> metricsSummaryFile;
+
     @Getter
     @Option(names = { "-v", "--verbose" }, scope = ScopeType.INHERIT)
     boolean verbose = false;
@@ -71,7 +86,16 @@ public class CLI implements QuarkusApplication {
         commandLine.setExitCodeExceptionMapper(new SbomerExitCodeExceptionMapper());
         commandLine.setCaseInsensitiveEnumValuesAllowed(true);
 
-        return commandLine.execute(args);
+        // Keeps the metrics of the run in memory, so that these can be summarized
+        MeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+
+        try {
+            return commandLine.execute(args);
+        } finally {
+            Metrics.removeRegistry(registry);
+            metricsSummaryFile.ifPresent(path -> MetricsHelper.writeSummary(registry, path));
+        }
     }
 
     public static class RunOnlyCallable extends RunAll {
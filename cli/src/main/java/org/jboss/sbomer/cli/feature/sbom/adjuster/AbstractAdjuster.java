@@ -51,7 +51,7 @@ public abstract class AbstractAdjuster implements Adjuster {
      *
      * @param components the components
      */
-    private void cleanupComponents(List<Component> components) {
+    protected void cleanupComponents(List<Component> components) {
         if (components == null) {
             return;
         }
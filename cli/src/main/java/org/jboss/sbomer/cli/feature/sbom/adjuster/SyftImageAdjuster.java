@@ -33,6 +33,7 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.addMissingCont
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -180,14 +181,17 @@ public class SyftImageAdjuster extends AbstractAdjuster {
                     "Sources metadata is empty, there are no Golang standard library feature components to add to the main manifest...");
         }
 
-        // Remove components from manifest according to 'paths' and 'includeRpms' parameters
+        // Remove components from manifest according to 'paths' and 'includeRpms' parameters, and adjust the retained
+        // ones, in a single pass over the component tree
         log.debug("Filtering out all components that do not meet requirements...");
 
-        filterComponents(bom.getComponents());
-        adjustProperties(bom);
+        adjustComponents(bom.getComponents(), true);
+        adjustMetadataProperties(bom);
         adjustNameAndPurl(bom);
 
-        cleanupComponents(bom);
+        // The main component is cleaned up only once its purl is set
+        cleanupComponent(bom.getMetadata().getComponent());
+        cleanupComponents(bom.getMetadata().getComponent().getComponents());
 
         adjustMainComponent(bom);
 
@@ -227,83 +231,98 @@ public class SyftImageAdjuster extends AbstractAdjuster {
     }
 
     /**
+     * <p>
      * Removes all components from the component tree that do not meet requirements: as defined by
      * {@link SyftImageAdjuster#includeRpms} and {@link SyftImageAdjuster#paths}.
+     * </p>
      *
-     * @param components the components to filter
+     * <p>
+     * The retained components are adjusted in the same pass: properties of the top-level components are adjusted (see
+     * {@link SyftImageAdjuster#adjustProperties(List)}) and every component is cleaned up (see
+     * {@link SyftImageAdjuster#cleanupComponent(Component)}).
+     * </p>
+     *
+     * @param components the components to filter and adjust
+     * @param topLevel whether the components are the top-level components of the manifest
      * @see SyftImageAdjuster#includeRpms
      * @see SyftImageAdjuster#paths
      */
-    private void filterComponents(List<Component> components) {
+    private void adjustComponents(List<Component> components, boolean topLevel) {
         if (components == null) {
             return;
         }
 
-        components.removeIf(c -> {
-            if (c.getPurl() == null) {
-                log.debug(
-                        "Component (of type '{}', cpe: '{}') does not have purl assigned, marked for removal",
-                        c.getType(),
-                        c.getCpe());
-                return true;
-            }
+        components.removeIf(this::isFilteredOut);
+
+        for (Component component : components) {
+            // Go deep
+            adjustComponents(component.getComponents(), false);
 
-            if (!SbomUtils.hasValidOrSanitizablePurl(c)) {
-                log.debug("Component has a purl ({}) which cannot be made valid!", c.getPurl());
-                return true;
+            if (topLevel) {
+                adjustProperties(component.getProperties());
             }
 
-            log.debug("Handling component '{}'", c.getPurl());
+            cleanupComponent(component);
+        }
+    }
 
-            // Handle RPMs
-            if (c.getPurl().startsWith("pkg:" + PackageURL.StandardTypes.RPM)) {
-                // Remove all components that are RPMs if the includeRpms is not set to true
-                log.debug("Component is of type RPM, to be removed: {} (includeRpms: {})", c.getPurl(), includeRpms);
-                return !includeRpms;
-            } else {
-                // Handle everything else
+    private boolean isFilteredOut(Component c) {
+        if (c.getPurl() == null) {
+            log.debug(
+                    "Component (of type '{}', cpe: '{}') does not have purl assigned, marked for removal",
+                    c.getType(),
+                    c.getCpe());
+            return true;
+        }
 
-                // If paths are not specified, include everything
-                if (paths == null || paths.isEmpty()) {
-                    log.debug("No paths provided, component won't be removed");
-                    return false;
-                }
+        if (!SbomUtils.hasValidOrSanitizablePurl(c)) {
+            log.debug("Component has a purl ({}) which cannot be made valid!", c.getPurl());
+            return true;
+        }
 
-                // Remove all components that are not on the paths we are interested in
-                boolean onPath = c.getProperties()
-                        .stream()
-                        .filter(p -> p.getName().equals("syft:location:0:path") && isOnPath(p.getValue()))
-                        .findAny()
-                        .isEmpty();
+        log.debug("Handling component '{}'", c.getPurl());
 
-                log.debug("Component on path: {}", onPath);
+        // Handle RPMs
+        if (c.getPurl().startsWith("pkg:" + PackageURL.StandardTypes.RPM)) {
+            // Remove all components that are RPMs if the includeRpms is not set to true
+            log.debug("Component is of type RPM, to be removed: {} (includeRpms: {})", c.getPurl(), includeRpms);
+            return !includeRpms;
+        } else {
+            // Handle everything else
 
-                return onPath;
+            // If paths are not specified, include everything
+            if (paths == null || paths.isEmpty()) {
+                log.debug("No paths provided, component won't be removed");
+                return false;
             }
-        });
 
-        // Go deep
-        components.forEach(c -> filterComponents(c.getComponents()));
+            // Remove all components that are not on the paths we are interested in
+            boolean onPath = c.getProperties()
+                    .stream()
+                    .filter(p -> p.getName().equals("syft:location:0:path") && isOnPath(p.getValue()))
+                    .findAny()
+                    .isEmpty();
+
+            log.debug("Component on path: {}", onPath);
+
+            return onPath;
+        }
     }
 
     /**
      * <p>
-     * Adjust properties in the manifest. This includes a few steps.
+     * Adjust properties of the main component.
      * </p>
      *
      * <p>
-     * If there are any properties in the metadata section, move these to the main component's properties.
-     * </p>
-     *
-     * <p>
-     * Adjusts any properties in the main component as well as for each component found in the component list
-     * (recursively). See {@link SyftImageAdjuster#adjustProperties(List)}.
+     * If there are any properties in the metadata section, move these to the main component's properties. Properties of
+     * the other components are adjusted by {@link SyftImageAdjuster#adjustComponents(List, boolean)}.
      * </p>
      *
      * @param bom The manifest to adjust the properties of.
      * @see SyftImageAdjuster#adjustProperties(List)
      */
-    private void adjustProperties(Bom bom) {
+    private void adjustMetadataProperties(Bom bom) {
         log.info("Adjusting manifest properties...");
 
         Component mainComponent = bom.getMetadata().getComponent();
@@ -324,10 +343,8 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             bom.getMetadata().setProperties(null);
         }
 
-        // Adjust main component's properties...
-        adjustProperties(bom.getMetadata().getComponent().getProperties());
-        // ...and any other properties found in the component tree.
-        bom.getComponents().forEach(c -> adjustProperties(c.getProperties()));
+        // Adjust main component's properties
+        adjustProperties(mainComponent.getProperties());
 
         log.info("Properties adjusted!");
     }
@@ -451,7 +468,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
     private void adjustDependencies(Bom bom) {
         List<Dependency> dependencies = new ArrayList<>();
 
-        populateDependencies(dependencies, bom.getComponents());
+        populateDependencies(dependencies, new HashSet<>(), bom.getComponents());
 
         // The image itself is the first element
         Dependency productDependency = dependencies.get(0);
@@ -459,9 +476,16 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         // If there are more dependencies (besides the main image), add all of them
         // as a product dependency
         if (dependencies.size() > 1) {
+            List<Dependency> dependsOn = new ArrayList<>();
+            Set<String> dependsOnRefs = new HashSet<>();
+
             for (Component component : bom.getComponents().subList(1, dependencies.size())) {
-                productDependency.addDependency(SbomUtils.createDependency(component.getBomRef()));
+                if (dependsOnRefs.add(component.getBomRef())) {
+                    dependsOn.add(SbomUtils.createDependency(component.getBomRef()));
+                }
             }
+
+            productDependency.setDependencies(dependsOn);
         }
 
         bom.setDependencies(dependencies);
@@ -475,8 +499,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * <p>
      * CAse where a component has nested components is handled as well.
      * </p>
+     *
+     * @param dependencies the dependencies to add to
+     * @param refs the refs of the {@code dependencies}
+     * @param components the components to add the dependencies for
      */
-    private void populateDependencies(List<Dependency> dependencies, List<Component> components) {
+    private void populateDependencies(List<Dependency> dependencies, Set<String> refs, List<Component> components) {
         if (components == null) {
             return;
         }
@@ -484,11 +512,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         components.forEach(component -> {
             // Check that there isn't already a dependency with the bom-ref equals to the new purl, otherwise do not
             // update it
-            if (!dependencies.stream().map(Dependency::getRef).toList().contains(component.getPurl())) {
+            if (!refs.contains(component.getPurl())) {
                 component.setBomRef(component.getPurl());
             }
             dependencies.add(SbomUtils.createDependency(component.getBomRef()));
-            populateDependencies(dependencies, component.getComponents());
+            refs.add(component.getBomRef());
+            populateDependencies(dependencies, refs, component.getComponents());
         });
 
     }
@@ -30,6 +30,8 @@ import io.smallrye.faulttolerance.api.BeforeRetry;
 import io.smallrye.faulttolerance.api.ExponentialBackoff;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HEAD;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
@@ -55,4 +57,42 @@ public interface KojiDownloadClient {
             @PathParam("version") String version,
             @PathParam("release") String release,
             @PathParam("remoteSourcesFileName") String remoteSourcesFileName);
+
+    /**
+     * Retrieves the headers of a sources file, without its content. Used to find out the size of the file and whether
+     * range requests are supported.
+     */
+    @HEAD
+    @Path("/{name}/{version}/{release}/files/remote-sources/{remoteSourcesFileName}")
+    @Retry(
+            maxRetries = KOJI_DOWNLOAD_CLIENT_MAX_RETRIES,
+            delay = KOJI_DOWNLOAD_CLIENT_DELAY,
+            delayUnit = ChronoUnit.SECONDS)
+    @ExponentialBackoff
+    @BeforeRetry(RetryLogger.class)
+    Response getSourcesFileInfo(
+            @PathParam("name") String name,
+            @PathParam("version") String version,
+            @PathParam("release") String release,
+            @PathParam("remoteSourcesFileName") String remoteSourcesFileName);
+
+    /**
+     * Downloads a part of a sources file.
+     *
+     * @param range the value of the {@code Range} header, for example {@code bytes=1024-2047}
+     */
+    @GET
+    @Path("/{name}/{version}/{release}/files/remote-sources/{remoteSourcesFileName}")
+    @Retry(
+            maxRetries = KOJI_DOWNLOAD_CLIENT_MAX_RETRIES,
+            delay = KOJI_DOWNLOAD_CLIENT_DELAY,
+            delayUnit = ChronoUnit.SECONDS)
+    @ExponentialBackoff
+    @BeforeRetry(RetryLogger.class)
+    Response downloadSourcesFileRange(
+            @PathParam("name") String name,
+            @PathParam("version") String version,
+            @PathParam("release") String release,
+            @PathParam("remoteSourcesFileName") String remoteSourcesFileName,
+            @HeaderParam("Range") String range);
 }
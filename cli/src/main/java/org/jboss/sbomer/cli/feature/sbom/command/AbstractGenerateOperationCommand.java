@@ -33,6 +33,7 @@ import org.jboss.sbomer.core.pnc.PncService;
 
 import jakarta.inject.Inject;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine;
 import picocli.CommandLine.Mixin;
@@ -44,6 +45,7 @@ public abstract class AbstractGenerateOperationCommand implements Callable<Integ
     GeneratorToolMixin generator;
 
     @Getter
+    @Setter
     @ParentCommand
     GenerateOperationCommand parent;
 
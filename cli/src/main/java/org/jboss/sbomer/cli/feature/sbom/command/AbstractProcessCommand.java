@@ -23,10 +23,12 @@ import java.util.concurrent.Callable;
 
 import org.cyclonedx.model.Bom;
 import org.jboss.sbomer.cli.feature.sbom.utils.otel.OtelCLIUtils;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
 import org.jboss.sbomer.core.pnc.PncService;
 
 import jakarta.inject.Inject;
@@ -60,6 +62,20 @@ public abstract class AbstractProcessCommand implements Callable<Integer> {
                     OtelHelper.getEffectiveClassName(this.getClass()) + ".process",
                     attributes);
 
+            if (streamingChunkSize() > 0) {
+                log.info(
+                        "Starting {} processor in streaming mode, processing {} components at a time",
+                        getImplementationType(),
+                        streamingChunkSize());
+
+                // Process the manifest in chunks and save it on the same path.
+                StreamingBom.transform(manifestPath(), manifestPath(), streamingChunkSize(), streamingHandler());
+
+                log.debug("{} processor finished", getImplementationType());
+
+                return CommandLine.ExitCode.OK;
+            }
+
             // Fetch manifest on the given path.
             Bom bom = SbomUtils.fromPath(manifestPath());
 
@@ -97,6 +113,28 @@ public abstract class AbstractProcessCommand implements Callable<Integer> {
      */
     protected abstract Bom doProcess(Bom bom);
 
+    /**
+     * The number of components processed at a time in the streaming mode, see {@link #streamingHandler()}. A value of
+     * {@code 0} (the default) disables the streaming mode, the whole manifest is loaded in memory and processed with
+     * {@link #doProcess(Bom)}.
+     *
+     * @return the number of components processed at a time
+     */
+    protected int streamingChunkSize() {
+        return 0;
+    }
+
+    /**
+     * Processor implementation for the streaming mode.
+     *
+     * @return the handler processing the manifest in chunks of components
+     */
+    protected StreamingBom.Handler streamingHandler() {
+        throw new ApplicationException(
+                "The {} processor does not support the streaming mode",
+                getImplementationType());
+    }
+
     /**
      * Path to the CycloneDX manifest that should be processed.
      *
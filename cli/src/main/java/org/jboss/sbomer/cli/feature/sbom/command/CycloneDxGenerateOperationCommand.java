@@ -23,7 +23,6 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.addPropertyIfM
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.createBom;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.createComponent;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.createDefaultSbomerMetadata;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.createDependency;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.getHashesFromAnalyzedDistribution;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setArtifactMetadata;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
@@ -37,18 +36,22 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Component.Scope;
 import org.cyclonedx.model.Component.Type;
-import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Hash;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
 import org.jboss.pnc.dto.ProductMilestone;
 import org.jboss.pnc.dto.ProductVersion;
@@ -58,7 +61,9 @@ import org.jboss.sbomer.cli.feature.sbom.processor.WorkaroundMissingNpmDependenc
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+import org.jboss.sbomer.core.features.sbom.utils.DependencyGraph;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -70,6 +75,8 @@ import com.github.packageurl.PackageURLBuilder;
 import com.redhat.red.build.koji.KojiClientException;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
 
+import jakarta.inject.Inject;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
 
@@ -82,6 +89,18 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
 
     public static final String SBOM_REPRESENTING_THE_DELIVERABLE = "SBOM representing the deliverable ";
 
+    @Inject
+    @Setter
+    ManagedExecutor executor;
+
+    /**
+     * Maximum number of lookups of NPM dependencies and of components created at the same time. A value of {@code 1}
+     * (the default) keeps the sequential processing.
+     */
+    @Setter
+    @ConfigProperty(name = "sbomer.operation.parallelism", defaultValue = "1")
+    int parallelism;
+
     @Override
     protected GeneratorType generatorType() {
         return GeneratorType.CYCLONEDX_OPERATION;
@@ -142,8 +161,22 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
             }
         }
 
-        // Get all the analyzed artifacts retrieved in the deliverable analyzer operation
-        List<AnalyzedArtifact> allAnalyzedArtifacts = pncService.getAllAnalyzedArtifacts(config.getOperationId());
+        WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(
+                pncService,
+                parallelism > 1 ? executor : null,
+                parallelism);
+
+        // Get all the analyzed artifacts retrieved in the deliverable analyzer operation. These are consumed page by
+        // page, the lookups of the NPM dependencies of their builds start while the next pages are retrieved.
+        List<AnalyzedArtifact> allAnalyzedArtifacts = new ArrayList<>();
+        pncService.forEachAnalyzedArtifact(config.getOperationId(), artifact -> {
+            allAnalyzedArtifacts.add(artifact);
+
+            if (artifact.getArtifact().getBuild() != null && (artifact.getDistribution() == null
+                    || deliverableUrl.equals(artifact.getDistribution().getDistributionUrl()))) {
+                workaround.prefetch(artifact.getArtifact().getBuild());
+            }
+        });
 
         // A single operation might include multiple archives, filter only the ones related to this particular
         // distribution. If no distribution is present, keep them all because it's an old analysis with older and fewer
@@ -211,74 +244,67 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
             mainComponent.setHashes(distributionHashes.get());
         }
 
-        Dependency mainDependency = createDependency(distributionPurl);
-
         setProductMetadata(mainComponent, config);
         setPncOperationMetadata(mainComponent, operation, pncService.getApiUrl());
         addPropertyIfMissing(mainComponent, SBOM_RED_HAT_DELIVERABLE_URL, deliverableUrl);
         addPropertyIfMissing(mainComponent, SBOM_RED_HAT_DELIVERABLE_CHECKSUM, distributionVersion);
 
         bom.setMetadata(createDefaultSbomerMetadata(mainComponent, sbomerClientFacade.getSbomerVersion()));
-        bom.addDependency(mainDependency);
+
+        // The dependency hierarchy is built on refs, and converted to the CycloneDX model once complete
+        DependencyGraph graph = new DependencyGraph();
+        graph.addNode(distributionPurl);
 
         Map<String, Component> purlToComponents = new HashMap<>();
-        Map<String, Dependency> purl256ToDependencies = new HashMap<>();
-        Map<String, Dependency> pathToDependencies = new TreeMap<>();
+        Map<String, String> pathToRefs = new TreeMap<>();
 
         purlToComponents.put(distributionPurl, mainComponent);
-        purl256ToDependencies.put(distributionPurl, mainDependency);
-        WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
 
-        for (AnalyzedArtifact artifact : artifactsToManifest) {
-            // Create the component if not already created (e.g., the same pom can be a plain .pom or embedded as
-            // pom.xml)
-            if (!purlToComponents.containsKey(artifact.getArtifact().getPurl())) {
-                // Create a component entry for the artifact
-                Component component = createComponent(artifact, Scope.REQUIRED, Type.LIBRARY);
-                setArtifactMetadata(component, artifact.getArtifact(), pncService.getApiUrl());
-                setPncBuildMetadata(component, artifact.getArtifact().getBuild(), pncService.getApiUrl());
-
-                if (artifact.getArtifact().getBuild() != null) {
-                    // Artifact was built in PNC, so it has all the data we need
-                    workaround.analyzeBuild(component, artifact.getArtifact().getBuild());
-                } else if (artifact.getBrewId() != null && artifact.getBrewId() > 0) {
-                    setBrewBuildMetadata(component, artifact);
-                } else {
-                    log.warn(
-                            "An artifact has been found with no associated build: '{}'. It will be added in the SBOM with generic type.",
-                            artifact.getArtifact().getFilename());
-                }
-
-                // Add the component to the SBOM and to the internal cache
-                bom.addComponent(component);
-                purlToComponents.put(artifact.getArtifact().getPurl(), component);
-
-                // Create a dependency entry
-                Dependency dependency = createDependency(artifact.getArtifact().getPurl());
-
-                // Add the dependency to the BOM and to the internal caches
-                bom.addDependency(dependency);
-                purl256ToDependencies.put(artifact.getArtifact().getPurl(), dependency);
+        // Create the components only once per purl (e.g., the same pom can be a plain .pom or embedded as pom.xml)
+        Set<String> purls = new HashSet<>(purlToComponents.keySet());
+        List<AnalyzedArtifact> distinctArtifacts = artifactsToManifest.stream()
+                .filter(a -> purls.add(a.getArtifact().getPurl()))
+                .toList();
+
+        // Create the component entries, possibly at the same time, as these may require a lookup in Brew
+        List<Component> components = ParallelUtils
+                .mapOrdered(distinctArtifacts, parallelism, executor, this::createArtifactComponent);
+
+        for (int i = 0; i < distinctArtifacts.size(); i++) {
+            AnalyzedArtifact artifact = distinctArtifacts.get(i);
+            Component component = components.get(i);
+
+            if (artifact.getArtifact().getBuild() != null) {
+                // Artifact was built in PNC, so it has all the data we need
+                workaround.analyzeBuild(component, artifact.getArtifact().getBuild());
             }
 
+            // Add the component to the SBOM and to the internal cache
+            bom.addComponent(component);
+            purlToComponents.put(artifact.getArtifact().getPurl(), component);
+
+            // Create a dependency entry
+            graph.addNode(artifact.getArtifact().getPurl());
+        }
+
+        for (AnalyzedArtifact artifact : artifactsToManifest) {
             // Add the filepath -> dependency data to the cache, which is used to compute the dependency hierarchy.
             // The same dependency (identified by purl) might be present in multiple locations inside the zip, with
             // different filepath
-            Dependency dep = purl256ToDependencies.get(artifact.getArtifact().getPurl());
+            String ref = artifact.getArtifact().getPurl();
             Optional.ofNullable(artifact.getArchiveFilenames())
                     .orElse(List.of())
-                    .forEach(filename -> pathToDependencies.put(filename, dep));
+                    .forEach(filename -> pathToRefs.put(filename, ref));
         }
 
         // Find the parent to set the correct hierarchy, default to the main root dependency
-        for (Map.Entry<String, Dependency> entry : pathToDependencies.entrySet()) {
-            String key = entry.getKey();
-            Dependency dependency = entry.getValue();
-            Optional<Dependency> maybeParent = findClosestParent(pathToDependencies, key);
-            Dependency parent = maybeParent.orElse(mainDependency);
-            parent.addDependency(dependency);
+        for (Map.Entry<String, String> entry : pathToRefs.entrySet()) {
+            String parentRef = findClosestParent(pathToRefs, entry.getKey()).orElse(distributionPurl);
+            graph.addDependsOn(parentRef, entry.getValue());
         }
 
+        bom.setDependencies(graph.toDependencies());
+
         workaround.addMissingDependencies(bom);
 
         // Adjust the bom if needed (e.g., add the serial number)
@@ -308,6 +334,27 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
         return sbomDirPath;
     }
 
+    /**
+     * Creates the component entry for the analyzed artifact. This method can be called from any thread.
+     */
+    private Component createArtifactComponent(AnalyzedArtifact artifact) {
+        Component component = createComponent(artifact, Scope.REQUIRED, Type.LIBRARY);
+        setArtifactMetadata(component, artifact.getArtifact(), pncService.getApiUrl());
+        setPncBuildMetadata(component, artifact.getArtifact().getBuild(), pncService.getApiUrl());
+
+        if (artifact.getArtifact().getBuild() == null) {
+            if (artifact.getBrewId() != null && artifact.getBrewId() > 0) {
+                setBrewBuildMetadata(component, artifact);
+            } else {
+                log.warn(
+                        "An artifact has been found with no associated build: '{}'. It will be added in the SBOM with generic type.",
+                        artifact.getArtifact().getFilename());
+            }
+        }
+
+        return component;
+    }
+
     private void setBrewBuildMetadata(Component component, AnalyzedArtifact artifact) {
         KojiBuildInfo brewBuild;
         try {
@@ -346,7 +393,7 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
         }
     }
 
-    private Optional<Dependency> findClosestParent(Map<String, Dependency> pathToDependencies, String path) {
+    private Optional<String> findClosestParent(Map<String, String> pathToRefs, String path) {
         while (!path.isEmpty()) {
             // Find the parent if it exists
             int lastIndex = path.lastIndexOf("!/");
@@ -355,8 +402,8 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
             } else {
                 break; // No more parent
             }
-            if (pathToDependencies.get(path) != null) {
-                return Optional.of(pathToDependencies.get(path));
+            if (pathToRefs.get(path) != null) {
+                return Optional.of(pathToRefs.get(path));
             }
         }
         return Optional.empty();
@@ -21,33 +21,34 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Hash;
 import org.cyclonedx.model.Metadata;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.sbomer.cli.feature.sbom.generate.ProcessRunner;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+import org.jboss.sbomer.core.features.sbom.utils.BomMerger;
+import org.jboss.sbomer.core.features.sbom.utils.DependencyGraph;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
 import com.github.packageurl.PackageURL.StandardTypes;
 
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
 
@@ -60,6 +61,16 @@ import picocli.CommandLine.Command;
         subcommands = { ProcessCommand.class })
 public class SbtCycloneDxGenerateCommand extends AbstractSbtGenerateCommand {
 
+    @Inject
+    ManagedExecutor executor;
+
+    /**
+     * Maximum number of manifests read and indexed at the same time when merging the manifests of all modules. A value
+     * of {@code 1} (the default) keeps the sequential processing.
+     */
+    @ConfigProperty(name = "sbomer.merge.parallelism", defaultValue = "1")
+    int parallelism;
+
     private final Pattern VERSION_PATTERN = Pattern.compile("set\s+version\s*:=\s*\"([^\"]+)\"");
     private final Pattern NAME_PATTERN = Pattern.compile("set\s+name\s*:=\s*\"([^\"]+)\"");
     private final String BOM_REF_REGEXP_TEMPLATE = "^(pkg:%s/%s/%s[^@]*)@(%s)$";
@@ -136,52 +147,33 @@ public class SbtCycloneDxGenerateCommand extends AbstractSbtGenerateCommand {
     private void mergeRootWithAllManifests(Path rootManifestPath, List<Path> manifestsPaths) {
         Bom rootBom = SbomUtils.fromPath(rootManifestPath);
 
-        Set<String> existingDependencyRefs = rootBom.getDependencies()
-                .stream()
-                .map(Dependency::getRef)
-                .collect(Collectors.toSet());
-
-        Set<String> existingComponentsPurls = Stream.ofNullable(rootBom.getComponents())
-                .flatMap(Collection::stream)
-                .map(Component::getPurl)
-                .collect(Collectors.toSet());
-
-        manifestsPaths.stream()
-                .filter(path -> !path.equals(rootManifestPath))
-                .map(SbomUtils::fromPath)
-                .forEach(componentBom -> {
-                    Stream.ofNullable(componentBom.getComponents())
-                            .flatMap(Collection::stream)
-                            .filter(comp -> existingComponentsPurls.add(comp.getPurl()))
-                            .forEach(rootBom::addComponent);
-
-                    Stream.ofNullable(componentBom.getDependencies())
-                            .flatMap(Collection::stream)
-                            .filter(dep -> existingDependencyRefs.add(dep.getRef()))
-                            .forEach(rootBom.getDependencies()::add);
-                });
+        // Components are identified by purl, the dependencies of the same ref are merged
+        BomMerger.mergePaths(
+                rootBom,
+                manifestsPaths.stream().filter(path -> !path.equals(rootManifestPath)).toList(),
+                Component::getPurl,
+                parallelism,
+                parallelism > 1 ? executor : null);
 
         // Write the manifest back to file
         SbomUtils.toPath(rootBom, rootManifestPath);
     }
 
     /**
-     * Updates the bom-ref in the dependency hierarchy, looking for nested dependencies and provides.
+     * Updates the bom-ref in the dependency hierarchy, looking for nested dependencies and provides. Dependencies which
+     * end up with the same ref are merged.
      *
      * @param bom the bom to update
      * @param regExp the regExp that matches the bom-ref to update
      * @param newRef the new reference
      */
     private void updateMatchingBomRefs(Bom bom, String regExp, String newRef) {
-        Pattern pattern = Pattern.compile(regExp);
-        // Recursively update the dependencies in the BOM
         if (bom.getDependencies() != null) {
-            List<Dependency> updatedDependencies = new ArrayList<>(bom.getDependencies().size());
-            for (Dependency dependency : bom.getDependencies()) {
-                Dependency updatedDependency = SbomUtils.updateDependencyRef(dependency, pattern, newRef);
-                updatedDependencies.add(updatedDependency);
+            DependencyGraph graph = DependencyGraph.of(bom.getDependencies());
+
+            if (graph.rename(Pattern.compile(regExp), newRef) > 0) {
+                bom.setDependencies(graph.toDependencies());
             }
-            bom.setDependencies(updatedDependencies);
         }
     }
 
@@ -30,12 +30,14 @@ import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 
 import com.fasterxml.jackson.core.exc.StreamReadException;
 import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Model.CommandSpec;
@@ -86,6 +88,14 @@ public class GenerateCommand implements Callable<Integer> {
      */
     @Override
     public Integer call() {
+        try {
+            return generate();
+        } finally {
+            writeMetricsSummary();
+        }
+    }
+
+    private Integer generate() {
 
         if (configPath == null) {
             log.info("Configuration path is null, cannot do any generation.");
@@ -192,4 +202,14 @@ public class GenerateCommand implements Callable<Integer> {
             throw new ApplicationException("Command '{}' failed, see logs above", cmd);
         }
     }
+
+    /**
+     * Writes the summary of the metrics recorded during the generation into the workdir, so that it is collected with
+     * the other generation files.
+     */
+    private void writeMetricsSummary() {
+        if (Files.isDirectory(workdir)) {
+            MetricsHelper.writeSummary(Metrics.globalRegistry, workdir.resolve(MetricsHelper.SUMMARY_FILE_NAME));
+        }
+    }
 }
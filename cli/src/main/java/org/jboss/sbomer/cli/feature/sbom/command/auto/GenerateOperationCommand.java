@@ -28,12 +28,14 @@ import org.jboss.sbomer.cli.feature.sbom.command.PathConverter;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.pnc.PncService;
 
 import com.fasterxml.jackson.core.exc.StreamReadException;
 import com.fasterxml.jackson.databind.DatabindException;
 
+import io.micrometer.core.instrument.Metrics;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
@@ -92,6 +94,14 @@ public class GenerateOperationCommand implements Callable<Integer> {
      */
     @Override
     public Integer call() {
+        try {
+            return generate();
+        } finally {
+            writeMetricsSummary();
+        }
+    }
+
+    private Integer generate() {
 
         if (configPath == null) {
             log.info("Configuration path is null, cannot do any generation.");
@@ -203,4 +213,14 @@ public class GenerateOperationCommand implements Callable<Integer> {
             throw new ApplicationException("Command '{}' failed, see logs above", cmd);
         }
     }
+
+    /**
+     * Writes the summary of the metrics recorded during the generation into the workdir, so that it is collected with
+     * the other generation files.
+     */
+    private void writeMetricsSummary() {
+        if (Files.isDirectory(workdir)) {
+            MetricsHelper.writeSummary(Metrics.globalRegistry, workdir.resolve(MetricsHelper.SUMMARY_FILE_NAME));
+        }
+    }
 }
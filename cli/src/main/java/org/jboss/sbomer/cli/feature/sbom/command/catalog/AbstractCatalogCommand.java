@@ -24,11 +24,14 @@ import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import org.cyclonedx.model.Bom;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.sbomer.cli.feature.sbom.client.facade.SBOMerClientFacade;
 import org.jboss.sbomer.cli.feature.sbom.utils.otel.OtelCLIUtils;
 import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
 import jakarta.inject.Inject;
@@ -45,6 +48,16 @@ public abstract class AbstractCatalogCommand implements Callable<Integer> {
     @Inject
     SBOMerClientFacade sbomerClientFacade;
 
+    @Inject
+    ManagedExecutor executor;
+
+    /**
+     * Maximum number of manifests read at the same time. A value of {@code 1} (the default) keeps the sequential
+     * processing.
+     */
+    @ConfigProperty(name = "sbomer.merge.parallelism", defaultValue = "1")
+    int parallelism;
+
     @Override
     public Integer call() throws Exception {
         try {
@@ -55,7 +68,8 @@ public abstract class AbstractCatalogCommand implements Callable<Integer> {
             addContext();
 
             List<Path> sbomPaths = FileUtils.findManifests(parent.getPath());
-            List<Bom> boms = sbomPaths.stream().map(SbomUtils::fromPath).toList();
+            List<Bom> boms = ParallelUtils
+                    .mapOrdered(sbomPaths, parallelism, parallelism > 1 ? executor : null, SbomUtils::fromPath);
 
             Map<String, String> attributes = Map.of(
                     "params.cataloguer.type",
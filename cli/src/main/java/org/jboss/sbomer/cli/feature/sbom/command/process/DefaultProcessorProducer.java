@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.cli.feature.sbom.command.process;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.pnc.PncService;
@@ -37,12 +39,22 @@ public class DefaultProcessorProducer {
     @Inject
     KojiService kojiService;
 
+    @Inject
+    ManagedExecutor executor;
+
+    /**
+     * Maximum number of components enriched at the same time. A value of {@code 1} (the default) keeps the sequential
+     * processing.
+     */
+    @ConfigProperty(name = "sbomer.processor.parallelism", defaultValue = "1")
+    int parallelism;
+
     @Produces
     @DefaultBean
     @ApplicationScoped
     public DefaultProcessor produceDefaultPRocessor() {
         log.debug("Creating new Default Processor bean...");
-        return new DefaultProcessor(pncService, kojiService);
+        return new DefaultProcessor(pncService, kojiService, executor, parallelism);
     }
 
 }
@@ -23,6 +23,7 @@ import org.cyclonedx.model.Bom;
 import org.jboss.sbomer.cli.feature.sbom.command.AbstractProcessCommand;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
 
 import jakarta.inject.Inject;
 import picocli.CommandLine.Command;
@@ -54,4 +55,14 @@ public class StandaloneDefaultProcessCommand extends AbstractProcessCommand {
     protected Path manifestPath() {
         return parent.getManifestPath();
     }
+
+    @Override
+    protected int streamingChunkSize() {
+        return parent.getEffectiveStreamingChunkSize();
+    }
+
+    @Override
+    protected StreamingBom.Handler streamingHandler() {
+        return defaultProcessor.streaming();
+    }
 }
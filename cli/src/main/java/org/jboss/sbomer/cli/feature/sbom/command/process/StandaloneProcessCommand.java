@@ -43,4 +43,25 @@ public class StandaloneProcessCommand {
             scope = ScopeType.INHERIT)
     Path manifestPath;
 
+    @Option(
+            names = { "--streaming" },
+            description = "Process the manifest in chunks of components streamed from and to the manifest file, "
+                    + "instead of loading the whole manifest in memory",
+            scope = ScopeType.INHERIT)
+    boolean streaming;
+
+    @Option(
+            names = { "--streaming-chunk-size" },
+            description = "Number of components processed at a time in the streaming mode. Default: ${DEFAULT-VALUE}",
+            defaultValue = "1000",
+            scope = ScopeType.INHERIT)
+    int streamingChunkSize;
+
+    /**
+     * Returns the number of components processed at a time, or {@code 0} if the streaming mode is disabled.
+     */
+    public int getEffectiveStreamingChunkSize() {
+        return streaming ? Math.max(1, streamingChunkSize) : 0;
+    }
+
 }
@@ -23,6 +23,7 @@ import org.cyclonedx.model.Bom;
 import org.jboss.sbomer.cli.feature.sbom.command.AbstractProcessCommand;
 import org.jboss.sbomer.cli.feature.sbom.processor.RedHatProductProcessor;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -60,4 +61,14 @@ public class StandaloneRedHatProductProcessCommand extends AbstractProcessComman
     protected Path manifestPath() {
         return parent.getManifestPath();
     }
+
+    @Override
+    protected int streamingChunkSize() {
+        return parent.getEffectiveStreamingChunkSize();
+    }
+
+    @Override
+    protected StreamingBom.Handler streamingHandler() {
+        return new RedHatProductProcessor(productName, productVersion, productVariant).streaming();
+    }
 }
@@ -32,12 +32,23 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setBrewBuildMe
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPublisher;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setSupplier;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -50,9 +61,14 @@ import org.jboss.sbomer.cli.feature.sbom.adjuster.PncBuildAdjuster;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
+import org.jboss.sbomer.core.features.sbom.utils.PurlRelocator;
 import org.jboss.sbomer.core.features.sbom.utils.RhVersionPattern;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.pnc.PncService.ArtifactLookup;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
@@ -68,12 +84,77 @@ public class DefaultProcessor implements Processor {
 
     protected final KojiService kojiService;
 
+    /**
+     * The executor on which the components are processed when {@link #parallelism} is greater than {@code 1}.
+     */
+    private final Executor executor;
+
+    /**
+     * Maximum number of components processed at the same time.
+     */
+    private final int parallelism;
+
+    private final BackendStats pncStats = new BackendStats();
+
+    private final BackendStats kojiStats = new BackendStats();
+
     public DefaultProcessor(PncService pncService, KojiService kojiService) {
+        this(pncService, kojiService, null, 1);
+    }
+
+    /**
+     * Creates a processor which processes up to {@code parallelism} components at the same time on the provided
+     * {@code executor}. The number of calls made to PNC and Koji (Brew) at the same time is limited by the
+     * {@link PncService} and the {@link KojiService} themselves.
+     *
+     * @param pncService the PNC service
+     * @param kojiService the Koji service
+     * @param executor the executor to process the components on, if {@code null}, components are processed sequentially
+     * @param parallelism the maximum number of components processed at the same time
+     */
+    public DefaultProcessor(PncService pncService, KojiService kojiService, Executor executor, int parallelism) {
         this.pncService = pncService;
         this.kojiService = kojiService;
+        this.executor = executor;
+        this.parallelism = executor == null ? 1 : Math.max(1, parallelism);
     }
 
-    private final Map<String, String> purlRelocations = new HashMap<>();
+    /**
+     * The new purls of the processed components, applied once all components are processed. Components can be processed
+     * concurrently, the relocations are applied in the order of the components, see
+     * {@link #applyPurlRelocations(Bom, List)}.
+     */
+    private final Map<Component, String> purlRelocations = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * The PNC artifacts looked up in batches for the processed components, see {@link #resolveArtifacts(List)}.
+     * Components not present here are looked up one at a time.
+     */
+    private final Map<Component, ArtifactMatch> resolvedArtifacts = new IdentityHashMap<>();
+
+    /**
+     * The result of the lookup of the PNC artifact for a component.
+     *
+     * @param artifact the artifact, or {@code null} if it was not found
+     * @param hashOnly whether the artifact was found using the hashes only
+     */
+    private record ArtifactMatch(Artifact artifact, boolean hashOnly) {
+    }
+
+    /**
+     * The Brew builds found by checksums for the PNC artifacts without a PNC build, by PNC artifact id, see
+     * {@link #resolveBrewBuilds()}. Artifacts not present here are looked up one at a time.
+     */
+    private final Map<String, KojiBuild> resolvedBrewBuilds = new HashMap<>();
+
+    /**
+     * The Brew builds of the RPM components, by NVRA, and of the container image components, by NVR, looked up in
+     * batches, see {@link #resolveRpmAndImageBuilds(List)}. A {@code null} value means the build was not found.
+     * Components not present here are looked up one at a time.
+     */
+    private final Map<String, KojiBuildInfo> resolvedRpmBuilds = new HashMap<>();
+
+    private final Map<String, KojiBuildInfo> resolvedImageBuilds = new HashMap<>();
 
     /**
      * Performs processing for a given {@link Component}.
@@ -94,18 +175,24 @@ public class DefaultProcessor implements Processor {
         }
 
         // If the component does not have "pnc-build-id" nor "pnc-environment-image" nor "brew-build-id", query it
-        if (!hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID)) {
+        if (requiresLookup(component)) {
 
             Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
             Optional<String> sha1 = getHash(component, Hash.Algorithm.SHA1);
             Optional<String> md5 = getHash(component, Hash.Algorithm.MD5);
 
-            // First, try to look up the artifact with the purl given and with optional SHA256 hash to filter out
-            // results
-            // Even though we may have different hashes, we specifically specify only SHA256 here.
-            Artifact artifact = pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
+            ArtifactMatch match = resolvedArtifacts.get(component);
+            Artifact artifact;
+
+            if (match != null) {
+                artifact = match.hashOnly() ? null : match.artifact();
+            } else {
+                // First, try to look up the artifact with the purl given and with optional SHA256 hash to filter out
+                // results
+                // Even though we may have different hashes, we specifically specify only SHA256 here.
+                artifact = callPnc(
+                        () -> pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty()));
+            }
 
             // Artifact wasn't found, so we will try lookup using different methods
             if (artifact == null) {
@@ -123,7 +210,11 @@ public class DefaultProcessor implements Processor {
                     log.debug("Looking up '{}' artifact in PNC using hashes only", component.getPurl());
 
                     // Let's try a lookup with hashes only, because the generated purl can be wrongly constructed
-                    artifact = pncService.getArtifact(null, sha256, sha1, md5);
+                    if (match != null && match.hashOnly()) {
+                        artifact = match.artifact();
+                    } else {
+                        artifact = callPnc(() -> pncService.getArtifact(null, sha256, sha1, md5));
+                    }
                 }
 
                 // No luck, let's try to see if we can find hashes in build-meta external references
@@ -147,7 +238,7 @@ public class DefaultProcessor implements Processor {
                     // This means that the purl most probably is incorrect in the manifest, so let's update it.
                     log.debug("Updating component's purl from '{}' to '{}'", oldPurl, newPurl);
 
-                    purlRelocations.put(oldPurl, newPurl);
+                    purlRelocations.put(component, newPurl);
                 }
             }
 
@@ -201,13 +292,129 @@ public class DefaultProcessor implements Processor {
         }
     }
 
+    private boolean requiresLookup(Component component) {
+        return !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
+                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
+                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID);
+    }
+
+    /**
+     * <p>
+     * Looks up the PNC artifacts for the provided components in batches, instead of one component at a time.
+     * </p>
+     *
+     * <p>
+     * First, artifacts are looked up by purl (and SHA-256 hash). For components which were not found this way, a second
+     * lookup using all available hashes is made. Components for which a batch lookup failed are left out and looked up
+     * one at a time by {@link #processComponent(Component)}.
+     * </p>
+     *
+     * @param components the components to look up the artifacts for
+     */
+    protected void resolveArtifacts(List<Component> components) {
+        resolvedArtifacts.clear();
+
+        List<Component> candidates = components.stream()
+                .filter(c -> c.getPurl() != null && c.getVersion() != null && requiresLookup(c))
+                .toList();
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Map<ArtifactLookup, Artifact> byPurl = pncService.getArtifacts(
+                candidates.stream().map(c -> toLookup(c, false)).toList(),
+                PncService.DEFAULT_ARTIFACT_BATCH_SIZE);
+
+        List<Component> notFound = new ArrayList<>();
+
+        candidates.forEach(c -> {
+            ArtifactLookup lookup = toLookup(c, false);
+
+            if (!byPurl.containsKey(lookup)) {
+                return;
+            }
+
+            Artifact artifact = byPurl.get(lookup);
+
+            if (artifact != null) {
+                resolvedArtifacts.put(c, new ArtifactMatch(artifact, false));
+            } else if (toLookup(c, true).isEmpty()) {
+                // There are no hashes to look up the artifact by
+                resolvedArtifacts.put(c, new ArtifactMatch(null, true));
+            } else {
+                notFound.add(c);
+            }
+        });
+
+        if (!notFound.isEmpty()) {
+            Map<ArtifactLookup, Artifact> byHash = pncService.getArtifacts(
+                    notFound.stream().map(c -> toLookup(c, true)).toList(),
+                    PncService.DEFAULT_ARTIFACT_BATCH_SIZE);
+
+            notFound.stream()
+                    .filter(c -> byHash.containsKey(toLookup(c, true)))
+                    .forEach(c -> resolvedArtifacts.put(c, new ArtifactMatch(byHash.get(toLookup(c, true)), true)));
+        }
+
+        log.debug(
+                "Looked up {} of {} components in PNC in batches, the rest will be looked up one by one",
+                resolvedArtifacts.size(),
+                candidates.size());
+    }
+
+    private ArtifactLookup toLookup(Component component, boolean hashOnly) {
+        String sha256 = getHash(component, Hash.Algorithm.SHA_256).orElse(null);
+
+        if (!hashOnly) {
+            return new ArtifactLookup(component.getPurl(), sha256, null, null);
+        }
+
+        return new ArtifactLookup(
+                null,
+                sha256,
+                getHash(component, Hash.Algorithm.SHA1).orElse(null),
+                getHash(component, Hash.Algorithm.MD5).orElse(null));
+    }
+
     // FIXME: 'Optional<String>' used as type for parameter 'sha256'
     private boolean hasAnyHash(Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
         return (sha256.orElse(null) != null || sha1.orElse(null) != null || md5.orElse(null) != null);
     }
 
+    /**
+     * Looks up the Brew builds of the PNC artifacts resolved by {@link #resolveArtifacts(List)} which were not built in
+     * PNC, using their checksums, in batches.
+     */
+    protected void resolveBrewBuilds() {
+        resolvedBrewBuilds.clear();
+
+        List<Artifact> artifacts = resolvedArtifacts.entrySet()
+                .stream()
+                .filter(e -> RhVersionPattern.isRhVersion(e.getKey().getVersion()))
+                .map(e -> e.getValue().artifact())
+                .filter(a -> a != null && a.getBuild() == null && a.getPublicUrl() != null)
+                .toList();
+
+        if (artifacts.isEmpty()) {
+            return;
+        }
+
+        resolvedBrewBuilds.putAll(callKoji(() -> kojiService.findBuildsByChecksums(artifacts)));
+
+        log.debug(
+                "Looked up {} of {} artifacts in Brew by checksums, the rest will be looked up one by one",
+                resolvedBrewBuilds.size(),
+                artifacts.size());
+    }
+
     protected void processBrewBuild(Component component, Artifact artifact) {
-        KojiBuild brewBuild = kojiService.findBuild(artifact);
+        KojiBuild brewBuild = resolvedBrewBuilds.get(artifact.getId());
+
+        if (brewBuild == null) {
+            brewBuild = callKoji(() -> kojiService.findBuild(artifact));
+        }
+
         if (brewBuild != null) {
 
             log.debug(
@@ -230,6 +437,17 @@ public class DefaultProcessor implements Processor {
         // TODO: this should be moved to its own workflow
         new PncBuildAdjuster().adjust(bom);
 
+        long start = System.nanoTime();
+
+        purlRelocations.clear();
+        pncStats.reset();
+        kojiStats.reset();
+
+        resolveArtifacts(getComponentsToProcess(bom));
+        resolveBrewBuilds();
+
+        List<Component> components = new ArrayList<>();
+
         if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
             Component component = bom.getMetadata().getComponent();
 
@@ -237,27 +455,20 @@ public class DefaultProcessor implements Processor {
             // All modifications are done in the main component.
             if (Objects.requireNonNull(component.getType()) != Component.Type.CONTAINER) {
                 processComponent(component);
+                components.add(component);
             }
         }
 
-        if (bom.getComponents() != null) {
-            for (Component c : bom.getComponents()) {
+        List<Long> latencies = List.of();
 
-                if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
-                    processContainerImageComponent(c);
-                } else {
-                    PackageURL purl = getPackageURL(c);
-                    if ("rpm".equals(purl.getType())) {
-                        processRpmComponent(c, purl);
-                    } else {
-                        processComponent(c);
-                    }
-                }
-            }
+        if (bom.getComponents() != null) {
+            components.addAll(bom.getComponents());
+            resolveRpmAndImageBuilds(bom.getComponents());
+            latencies = processComponents(bom.getComponents());
         }
 
         // If there are any purl relocations, process these.
-        purlRelocations.forEach((oldPurl, newPurl) -> updatePurl(bom, oldPurl, newPurl));
+        applyPurlRelocations(bom, components);
 
         if (SbomUtils.isNotEmpty(bom.getComponents())) {
             WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
@@ -265,22 +476,424 @@ public class DefaultProcessor implements Processor {
             workaround.addMissingDependencies(bom);
         }
 
+        logSummary(latencies, System.nanoTime() - start);
+
         return bom;
     }
 
+    /**
+     * <p>
+     * Processes the manifest in chunks of components, see {@link StreamingBom}. Only the metadata, the dependencies and
+     * the purls of the components are kept in memory.
+     * </p>
+     *
+     * <p>
+     * The result is the same as with {@link #process(Bom)}, except that a relocated purl is not updated in components
+     * with the same purl which were part of a previous chunk.
+     * </p>
+     */
+    @Override
+    public StreamingBom.Handler streaming() {
+        return new StreamingHandler();
+    }
+
+    private class StreamingHandler implements StreamingBom.Handler {
+
+        private final PncBuildAdjuster adjuster = new PncBuildAdjuster();
+
+        private final WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
+
+        /**
+         * The purl coordinates of the processed components, used to find missing NPM dependencies.
+         */
+        private final Set<String> listedCoordinates = new HashSet<>();
+
+        private final List<Long> latencies = new ArrayList<>();
+
+        /**
+         * The relocation of the metadata component, applied to every chunk.
+         */
+        private Map<String, String> mainRelocations = Map.of();
+
+        private PurlRelocator relocator;
+
+        /**
+         * The main component, moved from the metadata to the first chunk of components by the {@link PncBuildAdjuster}.
+         */
+        private Component mainComponent;
+
+        private boolean firstChunk = true;
+
+        private long start;
+
+        @Override
+        public void start(Bom header) {
+            start = System.nanoTime();
+
+            purlRelocations.clear();
+            pncStats.reset();
+            kojiStats.reset();
+
+            // TODO: this should be moved to its own workflow
+            header.setComponents(new ArrayList<>());
+            adjuster.adjust(header);
+
+            if (!header.getComponents().isEmpty()) {
+                mainComponent = header.getComponents().get(0);
+            }
+
+            header.setComponents(null);
+
+            relocator = new PurlRelocator(header.getDependencies());
+
+            if (header.getMetadata() != null && header.getMetadata().getComponent() != null) {
+                Component component = header.getMetadata().getComponent();
+
+                // For container images, there is nothing to do for the metadata component.
+                // All modifications are done in the main component.
+                if (Objects.requireNonNull(component.getType()) != Component.Type.CONTAINER) {
+                    resolveArtifacts(List.of(component));
+                    resolveBrewBuilds();
+                    processComponent(component);
+
+                    mainRelocations = takePurlRelocations(List.of(component));
+                    relocator.relocate(List.of(component), mainRelocations);
+                }
+            }
+        }
+
+        @Override
+        public List<Component> process(Bom header, List<Component> components) {
+            List<Component> chunk = new ArrayList<>(components.size() + 1);
+
+            if (firstChunk && mainComponent != null
+                    && (components.isEmpty() || !Objects.equals(mainComponent.getBomRef(), components.get(0).getBomRef()))) {
+                chunk.add(mainComponent);
+            }
+
+            chunk.addAll(components);
+
+            // Cleans up the components, the metadata was adjusted already
+            Bom view = new Bom();
+            view.setSerialNumber(header.getSerialNumber());
+            view.setMetadata(header.getMetadata());
+            view.setComponents(chunk);
+            adjuster.adjust(view);
+
+            resolveArtifacts(getComponentsToProcess(null, chunk));
+            resolveBrewBuilds();
+            resolveRpmAndImageBuilds(chunk);
+            latencies.addAll(processComponents(chunk));
+
+            Map<String, String> relocations = new LinkedHashMap<>(mainRelocations);
+            relocations.putAll(takePurlRelocations(chunk));
+            relocator.relocate(chunk, relocations);
+
+            if (firstChunk && !chunk.isEmpty()) {
+                workaround.analyzeComponentsBuild(chunk.get(0));
+            }
+
+            chunk.stream()
+                    .map(DefaultProcessor::getPackageURL)
+                    .map(PackageURL::getCoordinates)
+                    .forEach(listedCoordinates::add);
+
+            firstChunk = false;
+
+            return chunk;
+        }
+
+        @Override
+        public List<Component> finish(Bom header) {
+            List<Component> components = new ArrayList<>();
+
+            // The manifest has no components, the main component still needs to be added
+            if (firstChunk && mainComponent != null) {
+                components.addAll(process(header, new ArrayList<>()));
+            }
+
+            if (header.getDependencies() != null) {
+                relocator.updateDependencies(header.getDependencies());
+            }
+
+            if (!listedCoordinates.isEmpty()) {
+                Bom view = new Bom();
+                view.setComponents(new ArrayList<>());
+                view.setDependencies(header.getDependencies());
+                workaround.addMissingDependencies(view, listedCoordinates);
+
+                header.setDependencies(view.getDependencies());
+                components.addAll(view.getComponents());
+            }
+
+            logSummary(latencies, System.nanoTime() - start);
+
+            return components;
+        }
+    }
+
+    /**
+     * Processes the provided components, up to {@link #parallelism} at the same time.
+     *
+     * @param components the components to process
+     * @return the time (in nanoseconds) spent processing every component, in the order of the components
+     */
+    private List<Long> processComponents(List<Component> components) {
+        int total = components.size();
+        int step = Math.max(1, total / 10);
+        AtomicInteger processed = new AtomicInteger();
+
+        log.info("Processing {} components with parallelism {}...", total, parallelism);
+
+        return ParallelUtils.mapOrdered(components, parallelism, executor, c -> {
+            long componentStart = System.nanoTime();
+
+            if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
+                processContainerImageComponent(c);
+            } else {
+                PackageURL purl = getPackageURL(c);
+                if ("rpm".equals(purl.getType())) {
+                    processRpmComponent(c, purl);
+                } else {
+                    processComponent(c);
+                }
+            }
+
+            int done = processed.incrementAndGet();
+
+            if (done % step == 0 || done == total) {
+                log.info("Processed {}/{} components", done, total);
+            }
+
+            return System.nanoTime() - componentStart;
+        });
+    }
+
+    /**
+     * Updates the purls of the relocated components. Relocations are applied in the order of the components, so that
+     * the result does not depend on the order in which components were processed.
+     *
+     * @param bom the manifest to update
+     * @param components the processed components, in order
+     */
+    private void applyPurlRelocations(Bom bom, List<Component> components) {
+        SbomUtils.updatePurls(bom, takePurlRelocations(components));
+    }
+
+    /**
+     * Returns the new purls of the relocated components, by old purl, in the order of the components. The returned
+     * relocations are removed from {@link #purlRelocations}.
+     *
+     * @param components the processed components, in order
+     * @return the relocations
+     */
+    private Map<String, String> takePurlRelocations(List<Component> components) {
+        Map<String, String> relocations = new LinkedHashMap<>();
+
+        for (Component component : components) {
+            String newPurl = purlRelocations.remove(component);
+
+            if (newPurl != null) {
+                relocations.put(component.getPurl(), newPurl);
+            }
+        }
+
+        return relocations;
+    }
+
+    private void logSummary(List<Long> latencies, long elapsed) {
+        List<Long> sorted = latencies.stream().sorted().toList();
+
+        log.info(
+                "Processed {} components in {} ms (parallelism {}), component latency: avg {} ms, p95 {} ms, max {} ms",
+                sorted.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                parallelism,
+                sorted.isEmpty() ? 0
+                        : TimeUnit.NANOSECONDS
+                                .toMillis(sorted.stream().mapToLong(Long::longValue).sum() / sorted.size()),
+                sorted.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(sorted.get((int) (sorted.size() * 0.95))),
+                sorted.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() - 1)));
+
+        log.info("PNC lookups: {}, Brew lookups: {}", pncStats, kojiStats);
+        log.info("Purl cache: {}", PurlCache.stats());
+    }
+
+    private <T> T callPnc(Supplier<T> call) {
+        long callStart = System.nanoTime();
+
+        try {
+            return call.get();
+        } finally {
+            pncStats.record(System.nanoTime() - callStart);
+        }
+    }
+
+    private <T, E extends Exception> T callKoji(KojiCall<T, E> call) throws E {
+        long callStart = System.nanoTime();
+
+        try {
+            return call.call();
+        } finally {
+            kojiStats.record(System.nanoTime() - callStart);
+        }
+    }
+
+    @FunctionalInterface
+    private interface KojiCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Number of calls made to a backend and the time spent in them.
+     */
+    private static class BackendStats {
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long elapsed) {
+            calls.increment();
+            nanos.add(elapsed);
+        }
+
+        void reset() {
+            calls.reset();
+            nanos.reset();
+        }
+
+        @Override
+        public String toString() {
+            long count = calls.sum();
+            return count + " calls (avg " + (count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos.sum() / count))
+                    + " ms)";
+        }
+    }
+
+    /**
+     * Returns the components which will be processed by {@link #processComponent(Component)}.
+     */
+    private List<Component> getComponentsToProcess(Bom bom) {
+        return getComponentsToProcess(
+                bom.getMetadata() != null ? bom.getMetadata().getComponent() : null,
+                bom.getComponents());
+    }
+
+    /**
+     * Returns the components which will be processed by {@link #processComponent(Component)}.
+     *
+     * @param metadataComponent the main component of the manifest, may be {@code null}
+     * @param components the top-level components of the manifest, may be {@code null}
+     */
+    private List<Component> getComponentsToProcess(Component metadataComponent, List<Component> components) {
+        List<Component> toProcess = new ArrayList<>();
+
+        if (metadataComponent != null && metadataComponent.getType() != Component.Type.CONTAINER) {
+            toProcess.add(metadataComponent);
+        }
+
+        if (components != null) {
+            components.stream()
+                    .filter(c -> c.getType() != Component.Type.CONTAINER)
+                    .filter(c -> c.getPurl() != null && !c.getPurl().startsWith("pkg:rpm/"))
+                    .forEach(toProcess::add);
+        }
+
+        return toProcess;
+    }
+
+    /**
+     * Looks up the Brew builds of all RPM and container image components in batches, instead of one component at a
+     * time. In case a batch lookup fails, the components are looked up one at a time while being processed.
+     *
+     * @param components the components to look up the builds for
+     */
+    protected void resolveRpmAndImageBuilds(List<Component> components) {
+        resolvedRpmBuilds.clear();
+        resolvedImageBuilds.clear();
+
+        List<String> nvras = new ArrayList<>();
+        List<String> nvrs = new ArrayList<>();
+
+        for (Component component : components) {
+            if (component.getType() == Component.Type.CONTAINER) {
+                toNvr(component).ifPresent(nvrs::add);
+            } else if (component.getPurl() != null && component.getPurl().startsWith("pkg:rpm/")) {
+                PackageURL purl = getPackageURL(component);
+
+                if (hasArch(purl)) {
+                    nvras.add(toNvra(purl));
+                }
+            }
+        }
+
+        try {
+            if (!nvras.isEmpty()) {
+                resolvedRpmBuilds.putAll(callKoji(() -> kojiService.findBuildsByRPMs(nvras)));
+            }
+
+            if (!nvrs.isEmpty()) {
+                resolvedImageBuilds.putAll(callKoji(() -> kojiService.findBuilds(nvrs)));
+            }
+        } catch (KojiClientException | ApplicationException e) {
+            log.warn(
+                    "Lookup in Brew in batches failed due to {}, components will be looked up one by one",
+                    e.getMessage() == null ? e.toString() : e.getMessage(),
+                    e);
+        }
+
+        log.debug(
+                "Looked up {} RPMs and {} container images in Brew in batches",
+                resolvedRpmBuilds.size(),
+                resolvedImageBuilds.size());
+    }
+
+    private static boolean hasArch(PackageURL purl) {
+        return purl.getQualifiers() != null && purl.getQualifiers().containsKey("arch");
+    }
+
+    private static String toNvra(PackageURL purl) {
+        return purl.getName() + "-" + purl.getVersion() + "." + purl.getQualifiers().get("arch");
+    }
+
+    /**
+     * Returns the NVR of the container image component, built from its labels.
+     */
+    private static Optional<String> toNvr(Component component) {
+        Optional<Property> componentOpt = SbomUtils
+                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT, component);
+        Optional<Property> versionOpt = SbomUtils
+                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_VERSION, component);
+        Optional<Property> releaseOpt = SbomUtils
+                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE, component);
+
+        if (componentOpt.isEmpty() || versionOpt.isEmpty() || releaseOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(
+                String.join(
+                        "-",
+                        componentOpt.get().getValue(),
+                        versionOpt.get().getValue(),
+                        releaseOpt.get().getValue()));
+    }
+
     private void processRpmComponent(Component component, PackageURL purl) {
-        Map<String, String> qualifiers = purl.getQualifiers();
-        if (qualifiers == null || !qualifiers.containsKey("arch")) {
+        if (!hasArch(purl)) {
             log.debug("RPM purl is missing arch qualifier: {}", component.getPurl());
             return;
         }
-        String arch = qualifiers.get("arch");
+        String nvra = toNvra(purl);
 
         KojiBuildInfo buildInfo;
         try {
-            String nvra = purl.getName() + "-" + purl.getVersion() + "." + arch;
-            buildInfo = kojiService.findBuildByRPM(nvra);
-        } catch (KojiClientException e) {
+            if (resolvedRpmBuilds.containsKey(nvra)) {
+                buildInfo = resolvedRpmBuilds.get(nvra);
+            } else {
+                buildInfo = callKoji(() -> kojiService.findBuildByRPM(nvra));
+            }
+        } catch (KojiClientException | ApplicationException e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
             return;
         }
@@ -303,30 +916,27 @@ public class DefaultProcessor implements Processor {
     }
 
     private void processContainerImageComponent(Component component) {
-        // Try to find required properties
-        Optional<Property> componentOpt = SbomUtils
-                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT, component);
-        Optional<Property> versionOpt = SbomUtils
-                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_VERSION, component);
-        Optional<Property> releaseOpt = SbomUtils
-                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE, component);
+        Optional<String> nvrOpt = toNvr(component);
 
-        if (componentOpt.isEmpty() || versionOpt.isEmpty() || releaseOpt.isEmpty()) {
+        if (nvrOpt.isEmpty()) {
             log.warn(
                     "One or more required properties was not found in the component, skipping adding RH-specific metadata for this container image");
             return;
         }
 
-        String nvr = String
-                .join("-", componentOpt.get().getValue(), versionOpt.get().getValue(), releaseOpt.get().getValue());
+        String nvr = nvrOpt.get();
 
         log.debug("Looking up container information in Brew for NVR '{}'", nvr);
 
         KojiBuildInfo buildInfo;
 
         try {
-            buildInfo = kojiService.findBuild(nvr);
-        } catch (KojiClientException e) {
+            if (resolvedImageBuilds.containsKey(nvr)) {
+                buildInfo = resolvedImageBuilds.get(nvr);
+            } else {
+                buildInfo = callKoji(() -> kojiService.findBuild(nvr));
+            }
+        } catch (KojiClientException | ApplicationException e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
             return;
         }
@@ -355,7 +965,7 @@ public class DefaultProcessor implements Processor {
 
     public static PackageURL getPackageURL(Component component) {
         try {
-            return new PackageURL(component.getPurl());
+            return PurlCache.parse(component.getPurl());
         } catch (MalformedPackageURLException e) {
             throw new ApplicationException("Unable to parse provided purl: '{}'", component.getPurl(), e);
         }
@@ -18,10 +18,23 @@
 package org.jboss.sbomer.cli.feature.sbom.processor;
 
 import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
 
 public interface Processor {
     ProcessorType getType();
 
     Bom process(Bom bom);
+
+    /**
+     * Returns a handler which processes the manifest in chunks of components, without loading the whole manifest in
+     * memory, see {@link StreamingBom}.
+     *
+     * @return the streaming handler
+     * @throws ApplicationException if the processor does not support the streaming mode
+     */
+    default StreamingBom.Handler streaming() {
+        throw new ApplicationException("The {} processor does not support the streaming mode", getType());
+    }
 }
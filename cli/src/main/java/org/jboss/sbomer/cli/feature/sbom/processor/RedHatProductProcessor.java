@@ -22,9 +22,12 @@ import static org.jboss.sbomer.core.features.sbom.Constants.PROPERTY_ERRATA_PROD
 import static org.jboss.sbomer.core.features.sbom.Constants.PROPERTY_ERRATA_PRODUCT_VERSION;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.addPropertyIfMissing;
 
+import java.util.List;
+
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
 
 public class RedHatProductProcessor implements Processor {
 
@@ -47,13 +50,33 @@ public class RedHatProductProcessor implements Processor {
 
     @Override
     public Bom process(Bom bom) {
-        Component component = bom.getComponents().get(0);
+        addProductProperties(bom.getComponents().get(0));
+
+        return bom;
+    }
+
+    @Override
+    public StreamingBom.Handler streaming() {
+        return new StreamingBom.Handler() {
+            private boolean firstChunk = true;
 
+            @Override
+            public List<Component> process(Bom header, List<Component> components) {
+                if (firstChunk && !components.isEmpty()) {
+                    addProductProperties(components.get(0));
+                }
+
+                firstChunk = false;
+
+                return components;
+            }
+        };
+    }
+
+    private void addProductProperties(Component component) {
         addPropertyIfMissing(component, PROPERTY_ERRATA_PRODUCT_NAME, productName);
         addPropertyIfMissing(component, PROPERTY_ERRATA_PRODUCT_VERSION, productVersion);
         addPropertyIfMissing(component, PROPERTY_ERRATA_PRODUCT_VARIANT, productVariant);
-
-        return bom;
     }
 
 }
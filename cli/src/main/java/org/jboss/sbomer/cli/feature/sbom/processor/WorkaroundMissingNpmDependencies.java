@@ -25,22 +25,30 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setArtifactMet
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import org.cyclonedx.model.Bom;
-import org.cyclonedx.model.BomReference;
 import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.ExternalReference;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.enums.BuildType;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
 import org.jboss.sbomer.core.pnc.PncService;
 
 import com.github.packageurl.PackageURL;
@@ -57,6 +65,22 @@ public class WorkaroundMissingNpmDependencies {
 
     private final PncService pncService;
 
+    /**
+     * The executor on which the NPM dependencies are looked up ahead of time, see {@link #prefetch(Build)}.
+     */
+    private final Executor executor;
+
+    /**
+     * Limits the number of NPM dependencies lookups running at the same time.
+     */
+    private final Semaphore lookupPermits;
+
+    // Lookups waiting for a free permit, started as soon as a running lookup finishes
+    private final Queue<Runnable> pendingLookups = new ConcurrentLinkedQueue<>();
+
+    // Map Build ID -> lookup of the build's NPM dependencies, started ahead of time
+    private final Map<String, CompletableFuture<Collection<Artifact>>> npmDependencyLookups = new ConcurrentHashMap<>();
+
     // Map Build ID -> list of the build's NPM dependencies
     // We will add these dependencies as new components
     private final Map<String, List<Artifact>> buildsWithNpmDependencies = new LinkedHashMap<>();
@@ -67,7 +91,87 @@ public class WorkaroundMissingNpmDependencies {
     private final Map<Artifact, Component> newComponents = new LinkedHashMap<>();
 
     public WorkaroundMissingNpmDependencies(PncService pncService) {
+        this(pncService, null, 1);
+    }
+
+    /**
+     * @param pncService the PNC service
+     * @param executor the executor on which the NPM dependencies of the builds passed to {@link #prefetch(Build)} are
+     *        looked up, if {@code null}, these are looked up when analyzing the build
+     * @param parallelism the maximum number of lookups running on the {@code executor} at the same time
+     */
+    public WorkaroundMissingNpmDependencies(PncService pncService, Executor executor, int parallelism) {
         this.pncService = pncService;
+        this.executor = executor;
+        this.lookupPermits = new Semaphore(Math.max(1, parallelism));
+    }
+
+    /**
+     * Starts looking up the NPM dependencies of the build in the background, so that
+     * {@link #analyzeBuild(Component, Build)} does not have to wait for these. The dependencies of a build are looked up
+     * only once, and at most {@code parallelism} lookups run at the same time, the others are queued. This method can
+     * be called from any thread.
+     *
+     * @param build the build to look up the NPM dependencies for
+     */
+    public void prefetch(Build build) {
+        if (executor == null || build.getBuildConfigRevision().getBuildType() == BuildType.NPM) {
+            return;
+        }
+
+        npmDependencyLookups.computeIfAbsent(build.getId(), this::queueLookup);
+        startLookups();
+    }
+
+    private CompletableFuture<Collection<Artifact>> queueLookup(String buildId) {
+        CompletableFuture<Collection<Artifact>> lookup = new CompletableFuture<>();
+
+        pendingLookups.add(() -> {
+            try {
+                lookup.complete(pncService.getNPMDependencies(buildId));
+            } catch (Throwable e) { // NOSONAR The failure is rethrown when the lookup is joined
+                lookup.completeExceptionally(e);
+            } finally {
+                lookupPermits.release();
+                startLookups();
+            }
+        });
+
+        return lookup;
+    }
+
+    /**
+     * Starts as many of the pending lookups as there are free permits.
+     */
+    private void startLookups() {
+        while (!pendingLookups.isEmpty() && lookupPermits.tryAcquire()) {
+            Runnable lookup = pendingLookups.poll();
+
+            if (lookup == null) {
+                lookupPermits.release();
+                return;
+            }
+
+            executor.execute(lookup);
+        }
+    }
+
+    private Collection<Artifact> getNPMDependencies(String buildId) {
+        CompletableFuture<Collection<Artifact>> lookup = npmDependencyLookups.get(buildId);
+
+        if (lookup == null) {
+            return pncService.getNPMDependencies(buildId);
+        }
+
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new ApplicationException("Unable to look up NPM dependencies of build '{}'", buildId, e);
+        }
     }
 
     public void analyzeBuild(Component component, Build build) {
@@ -77,7 +181,7 @@ public class WorkaroundMissingNpmDependencies {
         }
         String buildId = build.getId();
         List<Artifact> npmDependencies = buildsWithNpmDependencies // also serves as cache for PNC requests
-                .computeIfAbsent(buildId, k -> new ArrayList<>(pncService.getNPMDependencies(k)));
+                .computeIfAbsent(buildId, k -> new ArrayList<>(getNPMDependencies(k)));
         List<Component> components = componentsToAddNpmDependencies.computeIfAbsent(buildId, k -> new ArrayList<>());
         if (npmDependencies.isEmpty()) {
             // No NPM dependencies to add
@@ -117,21 +221,33 @@ public class WorkaroundMissingNpmDependencies {
     }
 
     public void addMissingDependencies(Bom bom) {
-        filterOutAlreadyPresentDependencies(bom);
+        Set<String> listedPurls = new LinkedHashSet<>();
+
+        if (bom.getComponents() != null) {
+            bom.getComponents()
+                    .stream()
+                    .map(DefaultProcessor::getPackageURL)
+                    .map(PackageURL::getCoordinates)
+                    .forEach(listedPurls::add);
+        }
+
+        addMissingDependencies(bom, listedPurls);
+    }
+
+    /**
+     * Adds the missing NPM dependencies to the manifest, considering the given purls as already present in the
+     * manifest. This is useful when the manifest is processed in chunks, and not all components are available in the {@link Bom}.
+     *
+     * @param bom the manifest to add the missing dependencies to
+     * @param listedPurls the purl coordinates of the components already present in the manifest
+     */
+    public void addMissingDependencies(Bom bom, Set<String> listedPurls) {
+        filterOutAlreadyPresentDependencies(listedPurls);
         generateNewComponents(bom);
         addDependencies(bom);
     }
 
-    private void filterOutAlreadyPresentDependencies(Bom bom) {
-        if (bom.getComponents() == null) {
-            return;
-        }
-        Set<String> listedPurls = bom.getComponents()
-                .stream()
-                .map(DefaultProcessor::getPackageURL)
-                .map(PackageURL::getCoordinates)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-
+    private void filterOutAlreadyPresentDependencies(Set<String> listedPurls) {
         Iterator<Map.Entry<String, List<Artifact>>> it = buildsWithNpmDependencies.entrySet().iterator();
 
         while (it.hasNext()) {
@@ -160,39 +276,24 @@ public class WorkaroundMissingNpmDependencies {
     }
 
     private void addDependencies(Bom bom) {
-        Map<String, Dependency> bomDependencies;
-        if (bom.getDependencies() == null) {
-            bomDependencies = new LinkedHashMap<>();
-        } else {
-            bomDependencies = bom.getDependencies()
-                    .stream()
-                    .collect(Collectors.toMap(BomReference::getRef, c -> c, (d1, d2) -> d1, LinkedHashMap::new));
-        }
+        BomIndex index = BomIndex.of(bom);
 
         for (Map.Entry<String, List<Artifact>> e : buildsWithNpmDependencies.entrySet()) {
             String buildId = e.getKey();
             List<Artifact> npmDependencies = e.getValue();
 
             for (Component dependant : componentsToAddNpmDependencies.get(buildId)) {
-                Dependency bomDependant = bomDependencies
-                        .computeIfAbsent(dependant.getBomRef(), ref -> addNewDependency(bom, ref));
+                Dependency bomDependant = index.addDependency(createDependency(dependant.getBomRef()));
 
                 for (Artifact npmDependency : npmDependencies) {
                     String bomRef = newComponents.get(npmDependency).getBomRef();
-                    Dependency bomDependency = bomDependencies
-                            .computeIfAbsent(bomRef, ref -> addNewDependency(bom, ref));
-                    bomDependant.addDependency(bomDependency);
+                    Dependency bomDependency = index.addDependency(createDependency(bomRef));
+                    index.addDependsOn(bomDependant, bomDependency);
                 }
             }
         }
     }
 
-    public static Dependency addNewDependency(Bom bom, String bomRef) {
-        Dependency dependency = createDependency(bomRef);
-        bom.addDependency(dependency);
-        return dependency;
-    }
-
     private static String parseBuildIdFromURL(String buildURL) {
         int lastSlashIndex = buildURL.lastIndexOf('/');
         if (lastSlashIndex != -1) {
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * A {@link PncService} which caches the results of the artifact and build lookups in a {@link LookupCache}, so that
+ * these can be reused by later runs.
+ */
+public class CachingPncService extends PncService {
+
+    static final String ARTIFACTS = "pnc-artifact";
+    static final String BUILDS = "pnc-build";
+    static final String NPM_DEPENDENCIES = "pnc-npm-dependencies";
+
+    private final LookupCache cache;
+
+    public CachingPncService(String apiUrl, IntegrationGuardConfig guardConfig, LookupCache cache) {
+        super(apiUrl, guardConfig);
+        this.cache = cache;
+    }
+
+    @Override
+    public Artifact getArtifact(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
+        ArtifactLookup lookup = new ArtifactLookup(purl, sha256.orElse(null), sha1.orElse(null), md5.orElse(null));
+
+        if (lookup.isEmpty()) {
+            return super.getArtifact(purl, sha256, sha1, md5);
+        }
+
+        return cache.get(ARTIFACTS, toKey(lookup), Artifact.class, () -> super.getArtifact(purl, sha256, sha1, md5));
+    }
+
+    @Override
+    public Map<ArtifactLookup, Artifact> getArtifacts(Collection<ArtifactLookup> lookups, int batchSize) {
+        Map<ArtifactLookup, Artifact> artifacts = new LinkedHashMap<>();
+        List<ArtifactLookup> missing = new ArrayList<>();
+
+        for (ArtifactLookup lookup : lookups) {
+            LookupCache.Cached<Artifact> cached = lookup.isEmpty() ? null
+                    : cache.find(ARTIFACTS, toKey(lookup), Artifact.class);
+
+            if (cached != null) {
+                artifacts.put(lookup, cached.value());
+            } else {
+                missing.add(lookup);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            // Lookups which could not be resolved are not part of the result, these are not cached either
+            super.getArtifacts(missing, batchSize).forEach((lookup, artifact) -> {
+                cache.put(ARTIFACTS, toKey(lookup), artifact);
+                artifacts.put(lookup, artifact);
+            });
+        }
+
+        return artifacts;
+    }
+
+    @Override
+    public Build getBuild(String buildId) {
+        return cache.get(BUILDS, buildId, Build.class, () -> super.getBuild(buildId));
+    }
+
+    @Override
+    public Collection<Artifact> getNPMDependencies(String buildID) {
+        return cache.get(
+                NPM_DEPENDENCIES,
+                buildID,
+                TypeFactory.defaultInstance().constructCollectionType(List.class, Artifact.class),
+                () -> super.getNPMDependencies(buildID));
+    }
+
+    private static String toKey(ArtifactLookup lookup) {
+        return String.join(
+                "|",
+                Objects.toString(lookup.purl(), ""),
+                Objects.toString(lookup.sha256(), ""),
+                Objects.toString(lookup.sha1(), ""),
+                Objects.toString(lookup.md5(), ""));
+    }
+}
@@ -18,23 +18,32 @@
 package org.jboss.sbomer.cli.feature.sbom.service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.collections4.MultiValuedMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.pnc.build.finder.core.BuildConfig;
@@ -50,21 +59,27 @@ import org.jboss.pnc.build.finder.koji.ClientSession;
 import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.sbomer.cli.feature.sbom.client.KojiDownloadClient;
+import org.jboss.sbomer.cli.feature.sbom.service.SourcesDownloader.SourcesFile;
 import org.jboss.sbomer.cli.feature.sbom.utils.buildfinder.FinderStatus;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
 
 import com.redhat.red.build.koji.KojiClientException;
 import com.redhat.red.build.koji.model.json.BuildExtraInfo;
 import com.redhat.red.build.koji.model.json.RemoteSourcesExtraInfo;
 import com.redhat.red.build.koji.model.json.TypeInfoExtraInfo;
 import com.redhat.red.build.koji.model.json.util.KojiObjectMapper;
+import com.redhat.red.build.koji.model.xmlrpc.KojiArchiveInfo;
+import com.redhat.red.build.koji.model.xmlrpc.KojiArchiveQuery;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
 import com.redhat.red.build.koji.model.xmlrpc.KojiIdOrName;
 import com.redhat.red.build.koji.model.xmlrpc.KojiRpmInfo;
 
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.ws.rs.core.Response;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -83,10 +98,17 @@ public class KojiService {
     public static final String SOURCES_FILE_ARCHIVE_SUFFIX = ".tar.gz";
     public static final String SOURCES_FILE_METADATA_SUFFIX = ".json";
 
+    private static final String ARCHIVE_BUILDS = "koji-build-archive";
+
+    private static final String RPM_BUILDS = "koji-build-rpm";
+
+    private static final String NVR_BUILDS = "koji-build-nvr";
+
     @Inject
     ManagedExecutor executor;
 
     @Getter
+    @Setter
     @Inject
     BuildConfig config;
 
@@ -99,6 +121,52 @@ public class KojiService {
     @Setter
     KojiDownloadClient kojiDownloadClient;
 
+    @Inject
+    @Setter
+    LookupCache lookupCache = LookupCache.disabled();
+
+    /**
+     * Maximum number of sources files, and chunks of a sources file, downloaded at the same time.
+     */
+    @ConfigProperty(name = "sbomer.koji.download.parallelism", defaultValue = "4")
+    int downloadParallelism;
+
+    /**
+     * Size of the chunks of a large sources file downloaded at the same time.
+     */
+    @ConfigProperty(name = "sbomer.koji.download.chunk-size", defaultValue = "64M")
+    MemorySize downloadChunkSize;
+
+    /**
+     * Maximum number of calls made to Koji at the same time.
+     */
+    @ConfigProperty(name = "sbomer.koji.max-concurrent-calls", defaultValue = "5")
+    int maxConcurrentCalls;
+
+    /**
+     * Maximum number of calls per second made to Koji, {@code 0} means no limit.
+     */
+    @ConfigProperty(name = "sbomer.koji.rate-limit", defaultValue = "0")
+    double rateLimit;
+
+    /**
+     * Applies the bulkhead, rate limit and circuit breaker to the Koji calls (and multicalls) made by this service.
+     * Multicalls take longer the more calls they hold, so they are left out of the adaptive timeout.
+     */
+    @Setter
+    IntegrationGuard guard;
+
+    @PostConstruct
+    void init() {
+        guard = new IntegrationGuard(
+                "koji",
+                IntegrationGuardConfig.builder()
+                        .withMaxConcurrentCalls(maxConcurrentCalls)
+                        .withMaxWait(Duration.ofMillis(MAX_BREW_WAIT_5_MIN))
+                        .withRateLimit(rateLimit)
+                        .build());
+    }
+
     /**
      * Executes analysis of the provided archives identified by URLs, which must be downloadable using HTTP(S). The
      * operation is executed synchronously, but the analysis itself runs several executors in parallel.
@@ -181,29 +249,248 @@ public class KojiService {
     private List<KojiBuild> awaitResults(Future<List<KojiBuild>> finderTask)
             throws InterruptedException, ExecutionException {
 
-        int retry = 1;
-        while (!finderTask.isDone() && (retry * 500L) < MAX_BREW_WAIT_5_MIN) {
-            try {
-                retry++;
-                // FIXME: Call to 'Thread.sleep()' in a loop, probably busy-waiting
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                log.warn("Sleeping while awaiting results was interrupted", e);
-                Thread.currentThread().interrupt();
-            }
-        }
-        if (finderTask.isDone()) {
-            return finderTask.get();
+        try {
+            return finderTask.get(MAX_BREW_WAIT_5_MIN, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Analysis did not finish within {} ms, cancelling it", MAX_BREW_WAIT_5_MIN);
+            finderTask.cancel(true);
+            // Not finding anything in time does not mean that there is nothing to find
+            throw new ExecutionException(e);
         }
-        return Collections.emptyList();
     }
 
+    /**
+     * Finds the Brew build of the provided PNC artifact. The artifact is first looked up by its checksums, only if it
+     * is not found this way, the (much slower) Build Finder analysis, which downloads the artifact, is used. The result
+     * is cached in the {@link LookupCache}, only if Brew answered the lookup. Failed lookups are not cached.
+     *
+     * @param artifact the artifact to find the build of
+     * @return the build, or {@code null} if it was not found or the lookup failed
+     */
     public KojiBuild findBuild(Artifact artifact) {
 
         if (artifact.getPublicUrl() == null) {
             return null;
         }
 
+        // Only the build information is cached, which is all what is needed to enrich the component
+        LookupCache.Cached<KojiBuildInfo> cached = lookupCache
+                .find(ARCHIVE_BUILDS, toCacheKey(artifact), KojiBuildInfo.class);
+
+        if (cached != null) {
+            return cached.value() != null ? new KojiBuild(cached.value()) : null;
+        }
+
+        KojiBuild build;
+
+        try {
+            KojiBuildInfo buildInfo = findBuildInfosByChecksums(List.of(artifact)).get(artifact.getId());
+
+            if (buildInfo != null) {
+                build = new KojiBuild(buildInfo);
+            } else {
+                log.debug(
+                        "Artifact '{}' was not found in Brew by its checksums, falling back to Build Finder analysis",
+                        artifact.getPublicUrl());
+
+                build = doFindBuild(artifact);
+
+                if (build != null && build.getBuildInfo() != null && build.getBuildInfo().getSource() == null) {
+                    build.getBuildInfo().setSource(build.getSource().orElse(null));
+                }
+            }
+        } catch (KojiClientException | ApplicationException e) {
+            log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
+            return null;
+        }
+
+        lookupCache.put(ARCHIVE_BUILDS, toCacheKey(artifact), build != null ? build.getBuildInfo() : null);
+
+        return build;
+    }
+
+    /**
+     * Finds the Brew builds of the provided PNC artifacts by their checksums, using Koji multicalls to look up many
+     * archives at once. Artifacts which are not found this way are not part of the result, these can be looked up one
+     * at a time with {@link #findBuild(Artifact)}.
+     *
+     * @param artifacts the artifacts to find the builds of, artifacts without a public URL are ignored
+     * @return the builds found, by PNC artifact id
+     */
+    public Map<String, KojiBuild> findBuildsByChecksums(Collection<Artifact> artifacts) {
+        Map<String, KojiBuild> builds = new HashMap<>();
+        List<Artifact> missing = new ArrayList<>();
+
+        for (Artifact artifact : artifacts) {
+            if (artifact.getPublicUrl() == null) {
+                continue;
+            }
+
+            LookupCache.Cached<KojiBuildInfo> cached = lookupCache
+                    .find(ARCHIVE_BUILDS, toCacheKey(artifact), KojiBuildInfo.class);
+
+            if (cached == null) {
+                missing.add(artifact);
+            } else if (cached.value() != null) {
+                builds.put(artifact.getId(), new KojiBuild(cached.value()));
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return builds;
+        }
+
+        Map<String, KojiBuildInfo> found;
+
+        try {
+            found = findBuildInfosByChecksums(missing);
+        } catch (KojiClientException | ApplicationException e) {
+            log.warn("Lookup of archives by checksums in Brew failed due to {}", e.getMessage(), e);
+            return builds;
+        }
+
+        // Artifacts not found are not cached, as these will be looked up using Build Finder
+        missing.stream().filter(a -> found.containsKey(a.getId())).forEach(a -> {
+            KojiBuildInfo buildInfo = found.get(a.getId());
+            lookupCache.put(ARCHIVE_BUILDS, toCacheKey(a), buildInfo);
+            builds.put(a.getId(), new KojiBuild(buildInfo));
+        });
+
+        return builds;
+    }
+
+    private static String toCacheKey(Artifact artifact) {
+        return artifact.getSha256() != null ? artifact.getSha256() : artifact.getPublicUrl();
+    }
+
+    /**
+     * Looks up the Brew archives matching the checksums of the provided artifacts, and retrieves the builds these
+     * belong to. All lookups are made using Koji multicalls of at most {@link BuildConfig#getKojiMulticallSize()}
+     * calls.
+     *
+     * @param artifacts the artifacts to find the builds of
+     * @return the build information, by PNC artifact id, for the artifacts which were found
+     * @throws KojiClientException in case the lookup fails
+     */
+    private Map<String, KojiBuildInfo> findBuildInfosByChecksums(Collection<Artifact> artifacts)
+            throws KojiClientException {
+        List<String> checksums = new ArrayList<>();
+        Map<String, List<String>> checksumsByArtifact = new LinkedHashMap<>();
+
+        for (Artifact artifact : artifacts) {
+            // Koji stores a single checksum for an archive, which type depends on the time the archive was imported
+            List<String> artifactChecksums = Stream.of(artifact.getSha256(), artifact.getSha1(), artifact.getMd5())
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            checksumsByArtifact.put(artifact.getId(), artifactChecksums);
+            checksums.addAll(artifactChecksums);
+        }
+
+        if (checksums.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Integer> buildIdsByChecksum = findBuildIdsByChecksums(checksums);
+        Map<Integer, KojiBuildInfo> buildsById = getBuilds(new LinkedHashSet<>(buildIdsByChecksum.values()));
+        Map<String, KojiBuildInfo> builds = new HashMap<>();
+
+        checksumsByArtifact.forEach(
+                (artifactId, artifactChecksums) -> artifactChecksums.stream()
+                        .map(buildIdsByChecksum::get)
+                        .filter(Objects::nonNull)
+                        .map(buildsById::get)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .ifPresent(buildInfo -> builds.put(artifactId, buildInfo)));
+
+        log.debug("Found {} of {} artifacts in Brew by checksums", builds.size(), artifacts.size());
+
+        return builds;
+    }
+
+    private Map<String, Integer> findBuildIdsByChecksums(List<String> checksums) throws KojiClientException {
+        Map<String, Integer> buildIds = new HashMap<>();
+        List<String> distinct = checksums.stream().distinct().toList();
+
+        for (List<String> chunk : chunks(distinct)) {
+            List<List<KojiArchiveInfo>> archives = guard.callUntimed(
+                    () -> kojiSession
+                            .listArchives(chunk.stream().map(c -> new KojiArchiveQuery().withChecksum(c)).toList()));
+
+            checkMulticallResult(chunk, archives);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                List<Integer> ids = archives.get(i) == null ? List.of()
+                        : archives.get(i)
+                                .stream()
+                                .map(KojiArchiveInfo::getBuildId)
+                                .filter(Objects::nonNull)
+                                .distinct()
+                                .toList();
+
+                if (ids.isEmpty()) {
+                    continue;
+                }
+
+                if (ids.size() > 1) {
+                    log.warn(
+                            "Multiple builds (with ids: {}) where found in Brew for the checksum '{}', picking the first one!",
+                            ids,
+                            chunk.get(i));
+                }
+
+                buildIds.put(chunk.get(i), ids.get(0));
+            }
+        }
+
+        return buildIds;
+    }
+
+    private Map<Integer, KojiBuildInfo> getBuilds(Set<Integer> ids) throws KojiClientException {
+        Map<Integer, KojiBuildInfo> builds = new HashMap<>();
+
+        for (List<Integer> chunk : chunks(List.copyOf(ids))) {
+            List<KojiBuildInfo> buildInfos = guard
+                    .callUntimed(() -> kojiSession.getBuild(chunk.stream().map(id -> new KojiIdOrName(id)).toList()));
+
+            checkMulticallResult(chunk, buildInfos);
+
+            buildInfos.stream().filter(Objects::nonNull).forEach(b -> builds.put(b.getId(), b));
+        }
+
+        return builds;
+    }
+
+    /**
+     * Makes sure that there is a result for every call of the multicall, so that a missing result is never taken as a
+     * build which does not exist.
+     */
+    private static void checkMulticallResult(List<?> calls, List<?> results) throws KojiClientException {
+        if (results == null || results.size() != calls.size()) {
+            throw new KojiClientException(
+                    "Koji multicall returned " + (results == null ? "no" : results.size()) + " results for "
+                            + calls.size() + " calls");
+        }
+    }
+
+    private <T> List<List<T>> chunks(List<T> values) {
+        int size = Math.max(1, config.getKojiMulticallSize());
+        List<List<T>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < values.size(); i += size) {
+            chunks.add(values.subList(i, Math.min(values.size(), i + size)));
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Finds the build of the artifact with the Build Finder analysis.
+     *
+     * @throws ApplicationException in case the analysis fails or does not finish in time
+     */
+    private KojiBuild doFindBuild(Artifact artifact) {
         try {
             FinderStatus status = new FinderStatus();
             log.trace("Searching for artifact '{}' in Brew...", artifact.getPublicUrl());
@@ -222,8 +509,11 @@ public class KojiService {
                         artifact.getPublicUrl());
                 return brewBuilds.get(0);
             }
-        } catch (Throwable e) {
-            log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
+        } catch (Throwable e) { // NOSONAR Build Finder analysis can fail in many ways, these are all lookup failures
+            throw new ApplicationException(
+                    "Build Finder analysis of artifact '{}' failed",
+                    artifact.getPublicUrl(),
+                    e);
         }
         return null;
     }
@@ -233,9 +523,13 @@ public class KojiService {
             return null;
         }
 
+        return lookupCache.get(RPM_BUILDS, nvra, KojiBuildInfo.class, () -> doFindBuildByRPM(nvra));
+    }
+
+    private KojiBuildInfo doFindBuildByRPM(String nvra) throws KojiClientException {
         log.debug("Finding Brew build for RPM '{}'...", nvra);
 
-        List<KojiRpmInfo> rpm = kojiSession.getRPM(List.of(new KojiIdOrName(nvra)));
+        List<KojiRpmInfo> rpm = guard.call(() -> kojiSession.getRPM(List.of(new KojiIdOrName(nvra))));
 
         if (rpm.isEmpty()) {
             log.debug("RPM list for {} is empty", nvra);
@@ -262,16 +556,75 @@ public class KojiService {
             return null;
         }
 
-        KojiBuildInfo buildInfo = kojiSession.getBuild(rpmInfo.getBuildId());
+        KojiBuildInfo buildInfo = guard.call(() -> kojiSession.getBuild(rpmInfo.getBuildId()));
 
         log.debug("Found build: '{}'...", buildInfo.getId());
         return buildInfo;
     }
 
+    /**
+     * <p>
+     * Finds the Brew builds of the provided RPMs, identified by their NVRAs, using Koji multicalls of at most
+     * {@link BuildConfig#getKojiMulticallSize()} calls. Builds shared by many RPMs are retrieved only once.
+     * </p>
+     *
+     * <p>
+     * RPMs which were not found, or which do not have a build, are part of the result with a {@code null} value.
+     * </p>
+     *
+     * @param nvras the NVRAs of the RPMs
+     * @return the build information, by NVRA
+     * @throws KojiClientException in case the lookup fails
+     */
+    public Map<String, KojiBuildInfo> findBuildsByRPMs(Collection<String> nvras) throws KojiClientException {
+        Map<String, KojiBuildInfo> builds = new HashMap<>();
+        List<String> missing = findCached(RPM_BUILDS, nvras, builds);
+
+        if (missing.isEmpty()) {
+            return builds;
+        }
+
+        log.debug("Finding Brew builds for {} RPMs...", missing.size());
+
+        Map<String, Integer> buildIds = new HashMap<>();
+
+        for (List<String> chunk : chunks(missing)) {
+            List<KojiRpmInfo> rpms = guard
+                    .callUntimed(() -> kojiSession.getRPM(chunk.stream().map(KojiIdOrName::new).toList()));
+
+            checkMulticallResult(chunk, rpms);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                KojiRpmInfo rpmInfo = rpms.get(i);
+
+                if (rpmInfo == null || rpmInfo.getBuildId() == null) {
+                    log.debug("RPM {} was not found or does not have assigned build", chunk.get(i));
+                    continue;
+                }
+
+                buildIds.put(chunk.get(i), rpmInfo.getBuildId());
+            }
+        }
+
+        Map<Integer, KojiBuildInfo> buildsById = getBuilds(new LinkedHashSet<>(buildIds.values()));
+
+        for (String nvra : missing) {
+            Integer buildId = buildIds.get(nvra);
+            KojiBuildInfo buildInfo = buildId != null ? buildsById.get(buildId) : null;
+
+            lookupCache.put(RPM_BUILDS, nvra, buildInfo);
+            builds.put(nvra, buildInfo);
+        }
+
+        log.debug("Found {} distinct Brew builds for {} RPMs", buildsById.size(), missing.size());
+
+        return builds;
+    }
+
     public KojiBuildInfo findBuild(int id) throws KojiClientException {
         log.debug("Retrieving Brew build with id '{}'...", id);
 
-        KojiBuildInfo build = kojiSession.getBuild(id);
+        KojiBuildInfo build = guard.call(() -> kojiSession.getBuild(id));
 
         if (build == null) {
             log.warn("Build with id {} not found", id);
@@ -286,9 +639,13 @@ public class KojiService {
             return null;
         }
 
+        return lookupCache.get(NVR_BUILDS, nvr, KojiBuildInfo.class, () -> doFindBuild(nvr));
+    }
+
+    private KojiBuildInfo doFindBuild(String nvr) throws KojiClientException {
         log.debug("Finding Brew build for NVR '{}'...", nvr);
 
-        List<KojiBuildInfo> builds = kojiSession.getBuild(List.of(KojiIdOrName.getFor(nvr)));
+        List<KojiBuildInfo> builds = guard.call(() -> kojiSession.getBuild(List.of(KojiIdOrName.getFor(nvr))));
 
         if (builds.isEmpty()) {
             log.debug("Builds list for {} is empty", nvr);
@@ -314,6 +671,65 @@ public class KojiService {
         return null;
     }
 
+    /**
+     * Finds the Brew builds with the provided NVRs, using Koji multicalls of at most
+     * {@link BuildConfig#getKojiMulticallSize()} calls. Builds which were not found are part of the result with a
+     * {@code null} value.
+     *
+     * @param nvrs the NVRs of the builds
+     * @return the build information, by NVR
+     * @throws KojiClientException in case the lookup fails
+     */
+    public Map<String, KojiBuildInfo> findBuilds(Collection<String> nvrs) throws KojiClientException {
+        Map<String, KojiBuildInfo> builds = new HashMap<>();
+        List<String> missing = findCached(NVR_BUILDS, nvrs, builds);
+
+        log.debug("Finding {} Brew builds by NVR...", missing.size());
+
+        for (List<String> chunk : chunks(missing)) {
+            List<KojiBuildInfo> buildInfos = guard
+                    .callUntimed(() -> kojiSession.getBuild(chunk.stream().map(KojiIdOrName::getFor).toList()));
+
+            checkMulticallResult(chunk, buildInfos);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                lookupCache.put(NVR_BUILDS, chunk.get(i), buildInfos.get(i));
+                builds.put(chunk.get(i), buildInfos.get(i));
+            }
+        }
+
+        return builds;
+    }
+
+    /**
+     * Adds the cached values for the provided keys to {@code values}.
+     *
+     * @return the distinct keys which are not cached
+     */
+    private List<String> findCached(String namespace, Collection<String> keys, Map<String, KojiBuildInfo> values) {
+        List<String> missing = new ArrayList<>();
+
+        keys.stream().filter(Objects::nonNull).distinct().forEach(key -> {
+            LookupCache.Cached<KojiBuildInfo> cached = lookupCache.find(namespace, key, KojiBuildInfo.class);
+
+            if (cached != null) {
+                values.put(key, cached.value());
+            } else {
+                missing.add(key);
+            }
+        });
+
+        return missing;
+    }
+
+    /**
+     * Downloads the sources archive and metadata files of the build to the output directory, see
+     * {@link SourcesDownloader}. Files are verified against the checksums of the build archives in Brew, when
+     * available.
+     *
+     * @param buildInfo the Brew build
+     * @param outputDir the directory to download the files to
+     */
     public void downloadSourcesFiles(KojiBuildInfo buildInfo, Path outputDir) {
         try {
             Files.createDirectories(outputDir);
@@ -322,8 +738,19 @@ public class KojiService {
                 log.warn("Unable to download sources archive and metadata files due to no remote sources name");
                 return;
             }
-            downloadSourcesFile(remoteSourcesName + SOURCES_FILE_ARCHIVE_SUFFIX, buildInfo, outputDir);
-            downloadSourcesFile(remoteSourcesName + SOURCES_FILE_METADATA_SUFFIX, buildInfo, outputDir);
+
+            Map<String, KojiArchiveInfo> archives = getArchivesByFilename(buildInfo);
+
+            List<SourcesFile> files = Stream.of(SOURCES_FILE_ARCHIVE_SUFFIX, SOURCES_FILE_METADATA_SUFFIX)
+                    .map(suffix -> toSourcesFile(remoteSourcesName + suffix, archives.get(remoteSourcesName + suffix)))
+                    .toList();
+
+            new SourcesDownloader(
+                    kojiDownloadClient,
+                    executor,
+                    downloadParallelism,
+                    downloadChunkSize == null ? 0 : downloadChunkSize.asLongValue())
+                    .download(buildInfo, files, outputDir);
         } catch (ApplicationException e) {
             throw e;
         } catch (Exception e) {
@@ -331,29 +758,51 @@ public class KojiService {
         }
     }
 
-    private void downloadSourcesFile(String sourcesFileName, KojiBuildInfo buildInfo, Path outputDir)
-            throws IOException {
-        Path sourcesFile = outputDir.resolve(sourcesFileName);
-        log.info("Downloading sources file '{}'", sourcesFile.toAbsolutePath());
-        try (Response response = kojiDownloadClient.downloadSourcesFile(
-                buildInfo.getName(),
-                buildInfo.getVersion(),
-                buildInfo.getRelease(),
-                sourcesFileName)) {
-            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
-                throw new ApplicationException("Failed to download sources file: HTTP " + response.getStatus());
-            }
-            try (InputStream in = response.readEntity(InputStream.class);
-                    OutputStream out = Files.newOutputStream(
-                            sourcesFile,
-                            StandardOpenOption.CREATE,
-                            StandardOpenOption.TRUNCATE_EXISTING)) {
-                in.transferTo(out);
+    /**
+     * Returns the archives of the build, by file name. The archives are only used to verify the downloaded files, in
+     * case of failure, the files are downloaded without verification.
+     */
+    private Map<String, KojiArchiveInfo> getArchivesByFilename(KojiBuildInfo buildInfo) {
+        try {
+            List<KojiArchiveInfo> archives = guard
+                    .call(() -> kojiSession.listArchives(new KojiArchiveQuery().withBuildId(buildInfo.getId())));
+
+            if (archives == null) {
+                return Map.of();
             }
-            log.info("Successfully downloaded sources file");
+
+            return archives.stream()
+                    .filter(a -> a.getFilename() != null)
+                    .collect(Collectors.toMap(KojiArchiveInfo::getFilename, a -> a, (a1, a2) -> a1));
+        } catch (KojiClientException | RuntimeException e) {
+            log.debug(
+                    "Unable to list archives of build {}, downloaded files will not be verified",
+                    buildInfo.getId(),
+                    e);
+            return Map.of();
         }
     }
 
+    private static SourcesFile toSourcesFile(String name, KojiArchiveInfo archive) {
+        if (archive == null || archive.getChecksum() == null || archive.getChecksumType() == null) {
+            return SourcesFile.of(name);
+        }
+
+        String algorithm = switch (String.valueOf(archive.getChecksumType()).toLowerCase()) {
+            case "md5" -> "MD5";
+            case "sha1" -> "SHA-1";
+            case "sha256" -> "SHA-256";
+            default -> null;
+        };
+
+        if (algorithm == null) {
+            log.debug("Unsupported checksum type {} of sources file '{}'", archive.getChecksumType(), name);
+            return SourcesFile.of(name);
+        }
+
+        return new SourcesFile(name, algorithm, archive.getChecksum());
+    }
+
     private String retrieveRemoteSourcesName(KojiBuildInfo buildInfo) {
         BuildExtraInfo buildExtraInfo = MAPPER.convertValue(buildInfo.getExtra(), BuildExtraInfo.class);
         // Sometimes remote sources might not exist
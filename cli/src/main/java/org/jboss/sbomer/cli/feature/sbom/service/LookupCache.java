@@ -0,0 +1,396 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A persistent cache for the results of lookups made to remote systems (PNC, Koji), shared between CLI runs.
+ * </p>
+ *
+ * <p>
+ * Every entry is stored in its own file in the cache directory, named after the SHA-256 hash of the namespace and the
+ * key of the entry. Entries expire after the configured TTL ({@code negativeTtl} for lookups which did not find
+ * anything). When the total size of the entries exceeds {@code maxSize}, the least recently used entries are removed.
+ * In read-only mode, entries are only read, the content of the cache directory is never modified.
+ * </p>
+ *
+ * <p>
+ * A disabled cache (see {@link #disabled()}) always calls the loader.
+ * </p>
+ */
+@Slf4j
+public class LookupCache {
+
+    private static final String EXTENSION = ".json";
+
+    private static final ObjectMapper MAPPER = ObjectMapperProvider.json();
+
+    /**
+     * A lookup made in case the value is not cached.
+     *
+     * @param <T> the type of the value
+     * @param <E> the exception thrown by the lookup
+     */
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception> {
+        T load() throws E;
+    }
+
+    private final Path directory;
+
+    private final Duration ttl;
+
+    private final Duration negativeTtl;
+
+    private final long maxSize;
+
+    private final boolean readOnly;
+
+    private final AtomicLong size = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final Object evictionLock = new Object();
+
+    /**
+     * Creates a cache storing the entries in the provided {@code directory}.
+     *
+     * @param directory the directory to store the entries in, or {@code null} to disable the cache
+     * @param ttl the time after which entries expire
+     * @param negativeTtl the time after which entries without a value expire
+     * @param maxSize the maximum total size of the entries, in bytes
+     * @param readOnly whether the content of the directory must not be modified
+     */
+    public LookupCache(Path directory, Duration ttl, Duration negativeTtl, long maxSize, boolean readOnly) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.maxSize = maxSize;
+        this.readOnly = readOnly;
+
+        if (directory != null) {
+            init();
+        }
+    }
+
+    public static LookupCache disabled() {
+        return new LookupCache(null, Duration.ZERO, Duration.ZERO, 0, true);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void init() {
+        if (!readOnly) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create the lookup cache directory " + directory, e);
+            }
+        }
+
+        size.set(entries().stream().mapToLong(Entry::size).sum());
+
+        log.debug(
+                "Using lookup cache in '{}' with {} bytes of entries (read-only: {})",
+                directory,
+                size.get(),
+                readOnly);
+    }
+
+    /**
+     * A cached value, which may be {@code null}.
+     *
+     * @param value the cached value
+     */
+    public record Cached<T>(T value) {
+    }
+
+    /**
+     * Returns the cached value for the {@code key} in the {@code namespace}, or the value returned by the
+     * {@code loader}, which is then cached. A {@code null} value returned by the {@code loader} is cached as well.
+     *
+     * @param namespace the kind of the lookup
+     * @param key the key, unique within the {@code namespace}
+     * @param type the type of the value
+     * @param loader the lookup made in case the value is not cached
+     * @return the value
+     * @throws E in case the lookup fails
+     */
+    public <T, E extends Exception> T get(String namespace, String key, JavaType type, Loader<T, E> loader)
+            throws E {
+        Cached<T> cached = find(namespace, key, type);
+
+        if (cached != null) {
+            return cached.value();
+        }
+
+        T value = loader.load();
+        put(namespace, key, value);
+
+        return value;
+    }
+
+    public <T, E extends Exception> T get(String namespace, String key, Class<T> type, Loader<T, E> loader) throws E {
+        return get(namespace, key, MAPPER.constructType(type), loader);
+    }
+
+    /**
+     * Returns the cached value for the {@code key} in the {@code namespace}.
+     *
+     * @param namespace the kind of the lookup
+     * @param key the key, unique within the {@code namespace}
+     * @param type the type of the value
+     * @return the cached value, or {@code null} if there is no (valid) entry
+     */
+    public <T> Cached<T> find(String namespace, String key, JavaType type) {
+        if (directory == null) {
+            return null;
+        }
+
+        Cached<T> cached = read(pathFor(namespace, key), key, type);
+
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return cached;
+    }
+
+    public <T> Cached<T> find(String namespace, String key, Class<T> type) {
+        return find(namespace, key, MAPPER.constructType(type));
+    }
+
+    /**
+     * Stores the {@code value} for the {@code key} in the {@code namespace}, unless the cache is disabled or read-only.
+     *
+     * @param namespace the kind of the lookup
+     * @param key the key, unique within the {@code namespace}
+     * @param value the value, may be {@code null}
+     */
+    public void put(String namespace, String key, Object value) {
+        if (directory == null || readOnly) {
+            return;
+        }
+
+        write(pathFor(namespace, key), key, value);
+    }
+
+    /**
+     * Reads the entry, returns {@code null} when there is no valid entry.
+     */
+    private <T> Cached<T> read(Path path, String key, JavaType type) {
+        try {
+            JsonNode entry = MAPPER.readTree(path.toFile());
+            JsonNode value = entry.path("value");
+
+            if (!key.equals(entry.path("key").asText())) {
+                // Hash collision
+                return null;
+            }
+
+            Instant created = Instant.ofEpochMilli(entry.path("created").asLong());
+            Duration entryTtl = value.isNull() ? negativeTtl : ttl;
+
+            if (created.plus(entryTtl).isBefore(Instant.now())) {
+                log.trace("Lookup cache entry for '{}' expired", key);
+                delete(path);
+                return null;
+            }
+
+            if (!readOnly) {
+                // Mark the entry as recently used
+                Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            }
+
+            return new Cached<>(value.isNull() ? null : MAPPER.treeToValue(value, type));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            if (path.toFile().exists()) {
+                log.debug("Unable to read lookup cache entry for '{}', ignoring it", key, e);
+                delete(path);
+            }
+            return null;
+        }
+    }
+
+    private void write(Path path, String key, Object value) {
+        try {
+            ObjectNode entry = MAPPER.createObjectNode();
+            entry.put("key", key);
+            entry.put("created", Instant.now().toEpochMilli());
+            entry.set("value", MAPPER.valueToTree(value));
+
+            byte[] content = MAPPER.writeValueAsBytes(entry);
+
+            Files.createDirectories(path.getParent());
+
+            long previous = Files.exists(path) ? Files.size(path) : 0;
+
+            // Write to a temporary file first, so that concurrent readers never see partial entries
+            Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+            try {
+                Files.write(tmp, content);
+                move(tmp, path);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+
+            if (size.addAndGet(content.length - previous) > maxSize) {
+                evict();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to write lookup cache entry for '{}', ignoring it", key, e);
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries, until the total size of the entries is below 90% of the maximum size.
+     */
+    void evict() {
+        synchronized (evictionLock) {
+            List<Entry> entries = entries();
+            long total = entries.stream().mapToLong(Entry::size).sum();
+            long target = maxSize - maxSize / 10;
+            int removed = 0;
+
+            for (Entry entry : entries.stream().sorted(Comparator.comparing(Entry::lastUsed)).toList()) {
+                if (total <= target) {
+                    break;
+                }
+
+                delete(entry.path());
+                total -= entry.size();
+                removed++;
+            }
+
+            size.set(total);
+
+            log.debug("Removed {} least recently used lookup cache entries", removed);
+        }
+    }
+
+    private List<Entry> entries() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            return paths.filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                    .map(this::toEntry)
+                    .flatMap(Optional::stream)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list the lookup cache entries in " + directory, e);
+        }
+    }
+
+    private Optional<Entry> toEntry(Path path) {
+        try {
+            return Optional.of(new Entry(path, Files.size(path), Files.getLastModifiedTime(path)));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void delete(Path path) {
+        if (readOnly) {
+            return;
+        }
+
+        try {
+            long deleted = Files.size(path);
+
+            if (Files.deleteIfExists(path)) {
+                size.addAndGet(-deleted);
+            }
+        } catch (IOException e) {
+            log.trace("Unable to delete lookup cache entry '{}'", path, e);
+        }
+    }
+
+    private Path pathFor(String namespace, String key) {
+        String hash = sha256(namespace + ":" + key);
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + EXTENSION);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(Path path, long size, FileTime lastUsed) {
+    }
+}
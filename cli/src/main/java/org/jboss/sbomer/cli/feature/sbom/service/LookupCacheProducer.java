@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import lombok.extern.slf4j.Slf4j;
+
+@ApplicationScoped
+@Slf4j
+public class LookupCacheProducer {
+
+    /**
+     * The directory in which the results of lookups made to PNC and Koji are cached between runs. The cache is
+     * disabled if not set.
+     */
+    @ConfigProperty(name = "sbomer.cache.dir")
+    Optional<Path> dir;
+
+    @ConfigProperty(name = "sbomer.cache.ttl", defaultValue = "7d")
+    Duration ttl;
+
+    /**
+     * How long lookups which did not find anything are cached.
+     */
+    @ConfigProperty(name = "sbomer.cache.negative-ttl", defaultValue = "1h")
+    Duration negativeTtl;
+
+    @ConfigProperty(name = "sbomer.cache.max-size", defaultValue = "512M")
+    MemorySize maxSize;
+
+    /**
+     * Whether the cache is only read, but never updated.
+     */
+    @ConfigProperty(name = "sbomer.cache.read-only", defaultValue = "false")
+    boolean readOnly;
+
+    @Produces
+    @ApplicationScoped
+    public LookupCache produceLookupCache() {
+        if (dir.isEmpty()) {
+            log.debug("Lookup cache directory is not set, lookups will not be cached");
+            return LookupCache.disabled();
+        }
+
+        log.debug("Creating new lookup cache bean in '{}'...", dir.get());
+        return new LookupCache(dir.get(), ttl, negativeTtl, maxSize.asLongValue(), readOnly);
+    }
+
+    public void close(@Disposes LookupCache lookupCache) {
+        if (lookupCache.isEnabled()) {
+            log.info("Lookup cache hits: {}, misses: {}", lookupCache.getHits(), lookupCache.getMisses());
+        }
+    }
+}
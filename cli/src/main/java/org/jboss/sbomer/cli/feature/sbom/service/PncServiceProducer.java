@@ -19,10 +19,12 @@ package org.jboss.sbomer.cli.feature.sbom.service;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,11 +36,36 @@ public class PncServiceProducer {
     @ConfigProperty(name = "sbomer.pnc.host")
     String apiUrl;
 
+    /**
+     * Maximum number of calls made to PNC at the same time.
+     */
+    @ConfigProperty(name = "sbomer.pnc.max-concurrent-calls", defaultValue = "10")
+    int maxConcurrentCalls;
+
+    /**
+     * Maximum number of calls per second made to PNC, {@code 0} means no limit.
+     */
+    @ConfigProperty(name = "sbomer.pnc.rate-limit", defaultValue = "0")
+    double rateLimit;
+
+    @Inject
+    LookupCache lookupCache;
+
     @Produces
     @ApplicationScoped
     public PncService producePncService() {
         log.debug("Creating new PNC service bean...");
-        return new PncService(apiUrl);
+
+        IntegrationGuardConfig guardConfig = IntegrationGuardConfig.builder()
+                .withMaxConcurrentCalls(maxConcurrentCalls)
+                .withRateLimit(rateLimit)
+                .build();
+
+        if (lookupCache.isEnabled()) {
+            return new CachingPncService(apiUrl, guardConfig, lookupCache);
+        }
+
+        return new PncService(apiUrl, guardConfig);
     }
 
     public void close(@Disposes PncService pncService) {
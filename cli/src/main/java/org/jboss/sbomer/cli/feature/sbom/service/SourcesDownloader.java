@@ -0,0 +1,457 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.jboss.sbomer.cli.feature.sbom.client.KojiDownloadClient;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
+
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Downloads the sources files of a Brew build, see {@link KojiService#downloadSourcesFiles(KojiBuildInfo, Path)}.
+ * </p>
+ *
+ * <p>
+ * Files are downloaded at the same time, to a {@code .part} file which is moved in place once complete and verified.
+ * When the server supports range requests, an interrupted download is resumed where it stopped on the next run, and
+ * large files are fetched in several chunks at the same time. Files already present with the expected checksum are not
+ * downloaded again.
+ * </p>
+ */
+@Slf4j
+public class SourcesDownloader {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CONTENT_RANGE = "Content-Range";
+
+    private static final String BYTES_UNIT = "bytes ";
+
+    /**
+     * A sources file to download.
+     *
+     * @param name the name of the file
+     * @param algorithm the {@link MessageDigest} algorithm of the checksum, or {@code null} if the checksum is unknown
+     * @param checksum the expected checksum, in hexadecimal, or {@code null} if unknown
+     */
+    public record SourcesFile(String name, String algorithm, String checksum) {
+
+        public static SourcesFile of(String name) {
+            return new SourcesFile(name, null, null);
+        }
+
+        boolean hasChecksum() {
+            return algorithm != null && checksum != null;
+        }
+    }
+
+    /**
+     * What the server tells about a file.
+     *
+     * @param length the size of the file, or {@code -1} if unknown
+     * @param ranges whether range requests are supported
+     */
+    private record RemoteFile(long length, boolean ranges) {
+        static final RemoteFile UNKNOWN = new RemoteFile(-1, false);
+    }
+
+    private record Range(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+
+        String header() {
+            return "bytes=" + start + "-" + end;
+        }
+    }
+
+    private final KojiDownloadClient client;
+
+    private final Executor executor;
+
+    private final int parallelism;
+
+    private final long chunkSize;
+
+    /**
+     * @param client the client to download the files with
+     * @param executor the executor to download the files and chunks on, if {@code null}, everything is downloaded
+     *        sequentially
+     * @param parallelism the maximum number of files, and chunks of a file, downloaded at the same time
+     * @param chunkSize the size of the chunks of a file fetched at the same time, {@code 0} to fetch files at once
+     */
+    public SourcesDownloader(KojiDownloadClient client, Executor executor, int parallelism, long chunkSize) {
+        this.client = client;
+        this.executor = executor;
+        this.parallelism = executor == null ? 1 : Math.max(1, parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Downloads the sources files of the build to the output directory.
+     *
+     * @param buildInfo the Brew build
+     * @param files the files to download
+     * @param outputDir the directory to download the files to
+     */
+    public void download(KojiBuildInfo buildInfo, List<SourcesFile> files, Path outputDir) {
+        ParallelUtils.mapOrdered(files, parallelism, executor, file -> {
+            try {
+                download(buildInfo, file, outputDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return null;
+        });
+    }
+
+    private void download(KojiBuildInfo buildInfo, SourcesFile file, Path outputDir) throws IOException {
+        Path target = outputDir.resolve(file.name());
+        Path part = outputDir.resolve(file.name() + PART_SUFFIX);
+
+        if (Files.exists(target) && file.hasChecksum() && file.checksum().equalsIgnoreCase(digest(target, file))) {
+            log.info("Sources file '{}' is already downloaded and verified, skipping it", target.toAbsolutePath());
+            return;
+        }
+
+        log.info("Downloading sources file '{}'", target.toAbsolutePath());
+
+        RemoteFile remote = probe(buildInfo, file.name());
+        long downloaded = Files.exists(part) ? Files.size(part) : 0;
+        String checksum;
+
+        if (remote.ranges() && downloaded > 0 && downloaded < remote.length()) {
+            checksum = resume(buildInfo, file, part, downloaded, remote.length());
+        } else if (remote.ranges() && parallelism > 1 && chunkSize > 0 && remote.length() > chunkSize) {
+            fetchInChunks(buildInfo, file.name(), part, remote.length());
+            checksum = file.hasChecksum() ? digest(part, file) : null;
+        } else {
+            checksum = fetch(buildInfo, file, part);
+        }
+
+        long size = Files.size(part);
+
+        if (remote.length() >= 0 && size != remote.length()) {
+            Files.deleteIfExists(part);
+            throw new ApplicationException(
+                    "Size mismatch for sources file '{}': expected {} bytes, got {} bytes",
+                    file.name(),
+                    remote.length(),
+                    size);
+        }
+
+        if (file.hasChecksum() && !file.checksum().equalsIgnoreCase(checksum)) {
+            Files.deleteIfExists(part);
+            throw new ApplicationException(
+                    "Checksum mismatch for sources file '{}': expected {}, got {}",
+                    file.name(),
+                    file.checksum(),
+                    checksum);
+        }
+
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+
+        log.info("Successfully downloaded sources file");
+    }
+
+    private RemoteFile probe(KojiBuildInfo buildInfo, String name) {
+        try (Response response = client.getSourcesFileInfo(
+                buildInfo.getName(),
+                buildInfo.getVersion(),
+                buildInfo.getRelease(),
+                name)) {
+            if (response == null || response.getStatus() != Response.Status.OK.getStatusCode()) {
+                return RemoteFile.UNKNOWN;
+            }
+
+            return new RemoteFile(
+                    response.getLength(),
+                    "bytes".equalsIgnoreCase(response.getHeaderString("Accept-Ranges")));
+        } catch (RuntimeException e) {
+            log.debug("Unable to retrieve information about sources file '{}', downloading it at once", name, e);
+            return RemoteFile.UNKNOWN;
+        }
+    }
+
+    /**
+     * Downloads the whole file.
+     *
+     * @return the checksum of the file, or {@code null} if there is no checksum to verify
+     */
+    private String fetch(KojiBuildInfo buildInfo, SourcesFile file, Path part) throws IOException {
+        MessageDigest digest = newDigest(file);
+
+        try (Response response = client.downloadSourcesFile(
+                buildInfo.getName(),
+                buildInfo.getVersion(),
+                buildInfo.getRelease(),
+                file.name())) {
+            checkStatus(response, Response.Status.OK);
+
+            try (InputStream in = response.readEntity(InputStream.class);
+                    FileChannel channel = FileChannel.open(
+                            part,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(in, channel, 0, digest);
+            }
+        }
+
+        return digest == null ? null : HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Downloads the rest of a partially downloaded file. If the server does not return the requested range, or if the
+     * resumed file cannot be verified, the whole file is downloaded again, once.
+     *
+     * @return the checksum of the file, or {@code null} if there is no checksum to verify
+     */
+    private String resume(KojiBuildInfo buildInfo, SourcesFile file, Path part, long downloaded, long length)
+            throws IOException {
+        log.info("Resuming download of sources file '{}' after {} bytes", file.name(), downloaded);
+
+        String checksum;
+
+        try (Response response = client.downloadSourcesFileRange(
+                buildInfo.getName(),
+                buildInfo.getVersion(),
+                buildInfo.getRelease(),
+                file.name(),
+                "bytes=" + downloaded + "-")) {
+            if (response.getStatus() != Response.Status.PARTIAL_CONTENT.getStatusCode()) {
+                // The range was ignored or is not satisfiable, start over
+                log.debug("Unable to resume download, got HTTP {}", response.getStatus());
+                return fetch(buildInfo, file, part);
+            }
+
+            if (!startsAt(response, downloaded)) {
+                log.warn(
+                        "Unable to resume download of sources file '{}', got range '{}' instead of the requested one",
+                        file.name(),
+                        response.getHeaderString(CONTENT_RANGE));
+                return fetch(buildInfo, file, part);
+            }
+
+            // The downloaded part is hashed first, the rest while it is downloaded
+            MessageDigest digest = newDigest(file);
+
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (digest != null) {
+                    update(digest, channel, downloaded);
+                }
+
+                try (InputStream in = response.readEntity(InputStream.class)) {
+                    write(in, channel, downloaded, digest);
+                }
+            }
+
+            checksum = digest == null ? null : HexFormat.of().formatHex(digest.digest());
+        }
+
+        if (Files.size(part) != length || (file.hasChecksum() && !file.checksum().equalsIgnoreCase(checksum))) {
+            // The previously downloaded part may be corrupted, start over
+            log.warn("Resumed download of sources file '{}' cannot be verified, downloading it again", file.name());
+            return fetch(buildInfo, file, part);
+        }
+
+        return checksum;
+    }
+
+    /**
+     * Downloads the file in chunks, up to {@link #parallelism} chunks at the same time.
+     */
+    private void fetchInChunks(KojiBuildInfo buildInfo, String name, Path part, long length) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+
+        for (long start = 0; start < length; start += chunkSize) {
+            ranges.add(new Range(start, Math.min(start + chunkSize, length) - 1));
+        }
+
+        log.info("Downloading sources file '{}' in {} chunks", name, ranges.size());
+
+        try (FileChannel channel = FileChannel.open(
+                part,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ParallelUtils.mapOrdered(ranges, parallelism, executor, range -> {
+                try (Response response = client.downloadSourcesFileRange(
+                        buildInfo.getName(),
+                        buildInfo.getVersion(),
+                        buildInfo.getRelease(),
+                        name,
+                        range.header());
+                        InputStream in = readEntity(response, Response.Status.PARTIAL_CONTENT)) {
+                    if (!startsAt(response, range.start())) {
+                        throw new ApplicationException(
+                                "Unexpected range '{}' for chunk {} of sources file '{}'",
+                                response.getHeaderString(CONTENT_RANGE),
+                                range.header(),
+                                name);
+                    }
+
+                    long written = write(in, channel, range.start(), null);
+
+                    if (written != range.length()) {
+                        throw new ApplicationException(
+                                "Incomplete chunk {} of sources file '{}': got {} bytes",
+                                range.header(),
+                                name,
+                                written);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Chunks may be missing anywhere in the file, it cannot be resumed
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+
+    private static InputStream readEntity(Response response, Response.Status expected) {
+        checkStatus(response, expected);
+        return response.readEntity(InputStream.class);
+    }
+
+    /**
+     * Checks that the {@code Content-Range} header of a partial response, {@code bytes <start>-<end>/<length>}, starts
+     * at the requested offset.
+     */
+    private static boolean startsAt(Response response, long offset) {
+        String contentRange = response.getHeaderString(CONTENT_RANGE);
+
+        if (contentRange == null || !contentRange.startsWith(BYTES_UNIT)) {
+            return false;
+        }
+
+        int dash = contentRange.indexOf('-', BYTES_UNIT.length());
+
+        if (dash < 0) {
+            return false;
+        }
+
+        try {
+            return Long.parseLong(contentRange.substring(BYTES_UNIT.length(), dash).trim()) == offset;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void checkStatus(Response response, Response.Status expected) {
+        if (response.getStatus() != expected.getStatusCode()) {
+            throw new ApplicationException("Failed to download sources file: HTTP " + response.getStatus());
+        }
+    }
+
+    /**
+     * Writes the stream to the channel at the given position, updating the digest, if any, on the way.
+     *
+     * @return the number of bytes written
+     */
+    private static long write(InputStream in, FileChannel channel, long position, MessageDigest digest)
+            throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            if (digest != null) {
+                digest.update(buffer, 0, read);
+            }
+
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+
+            while (bytes.hasRemaining()) {
+                written += channel.write(bytes, position + written);
+            }
+        }
+
+        return written;
+    }
+
+    private static void update(MessageDigest digest, FileChannel channel, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+
+        while (position < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE, length - position));
+
+            int read = channel.read(buffer, position);
+
+            if (read == -1) {
+                break;
+            }
+
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+    }
+
+    private static String digest(Path path, SourcesFile file) throws IOException {
+        MessageDigest digest = newDigest(file);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            update(digest, channel, channel.size());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest(SourcesFile file) {
+        if (!file.hasChecksum()) {
+            return null;
+        }
+
+        try {
+            return MessageDigest.getInstance(file.algorithm());
+        } catch (NoSuchAlgorithmException e) {
+            throw new ApplicationException("Unsupported checksum algorithm '{}'", file.algorithm(), e);
+        }
+    }
+}
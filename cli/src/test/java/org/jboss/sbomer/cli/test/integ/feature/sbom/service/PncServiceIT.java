@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -46,6 +47,7 @@ import org.jboss.pnc.dto.response.AnalyzedArtifact;
 import org.jboss.sbomer.cli.test.utils.PncWireMock;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.pnc.PncService.ArtifactLookup;
 import org.junit.jupiter.api.Test;
 
 import io.quarkus.test.common.WithTestResource;
@@ -73,6 +75,23 @@ class PncServiceIT {
         assertEquals("312123", fromPNC.getId());
     }
 
+    @Test
+    void testFetchArtifactsInBatch() {
+        ArtifactLookup existing = new ArtifactLookup(
+                "pkg:maven/org.jboss.logging/commons-logging-jboss-logging@1.0.0.Final-redhat-1?type=jar",
+                null,
+                null,
+                null);
+        ArtifactLookup missing = new ArtifactLookup("pkg:maven/org.acme/nonexisting@1.0.0?type=jar", null, null, null);
+
+        Map<ArtifactLookup, Artifact> artifacts = service.getArtifacts(List.of(existing, missing, existing), 10);
+
+        assertEquals(2, artifacts.size());
+        assertEquals("312123", artifacts.get(existing).getId());
+        assertTrue(artifacts.containsKey(missing));
+        assertNull(artifacts.get(missing));
+    }
+
     @Test
     void testFetchNonExistingArtifact() {
         assertNull(service.getArtifact("purlnonexisting", Optional.empty(), Optional.empty(), Optional.empty()));
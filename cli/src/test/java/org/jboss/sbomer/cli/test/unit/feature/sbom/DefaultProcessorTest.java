@@ -4,12 +4,25 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Commit;
@@ -19,16 +32,19 @@ import org.cyclonedx.model.ExternalReference;
 import org.cyclonedx.model.ExternalReference.Type;
 import org.cyclonedx.model.Hash;
 import org.jboss.pnc.build.finder.core.BuildConfig;
+import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
 import org.jboss.pnc.enums.BuildType;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
+import org.jboss.sbomer.core.errors.ServiceUnavailableException;
 import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.pnc.PncService.ArtifactLookup;
 import org.jboss.sbomer.core.test.TestResources;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -142,6 +158,42 @@ class DefaultProcessorTest {
         assertEquals("https://git.com/repo#hash", commit.getUrl());
     }
 
+    @Test
+    void testLookupRpmBuildsInBatches() throws IOException, KojiClientException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        KojiBuildInfo kojiBuildInfo = new KojiBuildInfo();
+        kojiBuildInfo.setId(12345);
+        kojiBuildInfo.setSource("https://git.com/repo#hash");
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuildsByRPMs(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> nvras = invocation.getArgument(0);
+            Map<String, KojiBuildInfo> builds = new HashMap<>();
+            nvras.forEach(nvra -> builds.put(nvra, kojiBuildInfo));
+            return builds;
+        });
+
+        DefaultProcessor defaultProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock);
+
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        Bom processed = defaultProcessor.process(bom);
+
+        Component rpmComponent = getComponent(processed, "pkg:rpm/redhat/audit-libs@3.0.7-103.el9?arch=x86_64")
+                .orElseThrow();
+
+        assertEquals(
+                "https://koji.web/buildinfo?buildID=12345",
+                SbomUtils.getExternalReferences(rpmComponent, Type.BUILD_SYSTEM).get(0).getUrl());
+
+        verify(kojiServiceMock, times(1)).findBuildsByRPMs(anyCollection());
+        verify(kojiServiceMock, never()).findBuildByRPM(any());
+    }
+
     @Test
     void testUpdateComponentAndDependency() throws IOException {
         PncService pncServiceMock = Mockito.mock(PncService.class);
@@ -184,6 +236,176 @@ class DefaultProcessorTest {
         assertEquals(artifact.getPurl(), updatedDependency.getRef());
     }
 
+    @Test
+    void testLookupArtifactsInBatches() throws IOException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        Artifact artifact = Artifact.builder()
+                .purl(
+                        "pkg:generic/gradle-wrapper.jar?checksum=sha256%3Ae996d452d2645e70c01c11143ca2d3742734a28da2bf61f25c82bdc288c9e637")
+                .sha1("23a1590b048918cb655153298462fe64d284cb78")
+                .build();
+
+        // Every lookup is resolved, only the hash lookup finds the artifact
+        when(pncServiceMock.getArtifacts(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            Collection<ArtifactLookup> lookups = invocation.getArgument(0);
+            Map<ArtifactLookup, Artifact> artifacts = new HashMap<>();
+            lookups.forEach(l -> artifacts.put(l, artifact.getSha1().equals(l.sha1()) ? artifact : null));
+            return artifacts;
+        });
+
+        DefaultProcessor defaultProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock);
+
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        Component component = SbomUtils.createComponent(
+                null,
+                "gradle-wrapper",
+                "UNKNOWN",
+                null,
+                "pkg:maven/gradle-wrapper/gradle-wrapper?type=jar",
+                Component.Type.LIBRARY);
+        component.addHash(new Hash(Hash.Algorithm.SHA1, artifact.getSha1()));
+        bom.addComponent(component);
+
+        Bom processed = defaultProcessor.process(bom);
+
+        Component updatedComponent = getComponent(processed, artifact.getPurl()).orElseThrow();
+        assertEquals(component.getName(), updatedComponent.getName());
+
+        // Lookup by purl, then by hash for the ones which were not found
+        verify(pncServiceMock, times(2)).getArtifacts(anyCollection(), anyInt());
+        verify(pncServiceMock, never()).getArtifact(any(), any(), any(), any());
+    }
+
+    @Test
+    void testLookupBrewBuildsByChecksumsInBatches() throws IOException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        String purl = "pkg:maven/org.example/example-lib@1.0.0.redhat-00001?type=jar";
+
+        Artifact artifact = Artifact.builder()
+                .id("100")
+                .purl(purl)
+                .publicUrl("https://maven.repository.redhat.com/example-lib-1.0.0.redhat-00001.jar")
+                .sha256("e996d452d2645e70c01c11143ca2d3742734a28da2bf61f25c82bdc288c9e637")
+                .build();
+
+        when(pncServiceMock.getArtifacts(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            Collection<ArtifactLookup> lookups = invocation.getArgument(0);
+            Map<ArtifactLookup, Artifact> artifacts = new HashMap<>();
+            lookups.forEach(l -> artifacts.put(l, purl.equals(l.purl()) ? artifact : null));
+            return artifacts;
+        });
+
+        KojiBuildInfo kojiBuildInfo = new KojiBuildInfo();
+        kojiBuildInfo.setId(12345);
+        kojiBuildInfo.setSource("https://git.com/repo#hash");
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuildsByChecksums(List.of(artifact)))
+                .thenReturn(Map.of("100", new KojiBuild(kojiBuildInfo)));
+
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        Component component = SbomUtils
+                .createComponent(null, "example-lib", "1.0.0.redhat-00001", null, purl, Component.Type.LIBRARY);
+        bom.addComponent(component);
+
+        Bom processed = new DefaultProcessor(pncServiceMock, kojiServiceMock).process(bom);
+
+        Component enriched = getComponent(processed, purl).orElseThrow();
+        ExternalReference buildSystem = SbomUtils.getExternalReferences(enriched, Type.BUILD_SYSTEM).get(0);
+
+        assertEquals("https://koji.web/buildinfo?buildID=12345", buildSystem.getUrl());
+        verify(kojiServiceMock, never()).findBuild(any(Artifact.class));
+    }
+
+    @Test
+    void testProcessingWhenBrewIsUnavailable() throws IOException, KojiClientException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        ServiceUnavailableException unavailable = new ServiceUnavailableException(
+                "The 'koji' integration is currently unavailable, too many recent calls failed");
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuildsByRPMs(anyCollection())).thenThrow(unavailable);
+        when(kojiServiceMock.findBuilds(anyCollection())).thenThrow(unavailable);
+        when(kojiServiceMock.findBuildByRPM(any())).thenThrow(unavailable);
+        when(kojiServiceMock.findBuild(anyString())).thenThrow(unavailable);
+
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        int components = bom.getComponents().size();
+
+        // Components are not enriched with Brew data, but the processing does not fail
+        Bom processed = new DefaultProcessor(pncServiceMock, kojiServiceMock).process(bom);
+
+        assertEquals(components, processed.getComponents().size());
+        verify(kojiServiceMock, atLeastOnce()).findBuildByRPM(any());
+    }
+
+    @Test
+    void testProcessConcurrently() throws IOException, KojiClientException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        Artifact artifact = Artifact.builder()
+                .purl(
+                        "pkg:generic/gradle-wrapper.jar?checksum=sha256%3Ae996d452d2645e70c01c11143ca2d3742734a28da2bf61f25c82bdc288c9e637")
+                .sha1("23a1590b048918cb655153298462fe64d284cb78")
+                .build();
+
+        when(pncServiceMock.getArtifact(null, Optional.empty(), Optional.of(artifact.getSha1()), Optional.empty()))
+                .thenReturn(artifact);
+
+        KojiBuildInfo kojiBuildInfo = new KojiBuildInfo();
+        kojiBuildInfo.setId(12345);
+        kojiBuildInfo.setSource("https://git.com/repo#hash");
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuildByRPM(any())).thenReturn(kojiBuildInfo);
+
+        Bom sequential = new DefaultProcessor(pncServiceMock, kojiServiceMock).process(bomWithRelocatedComponent());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Bom concurrent = new DefaultProcessor(pncServiceMock, kojiServiceMock, executor, 4)
+                    .process(bomWithRelocatedComponent());
+
+            // Same components, in the same order, with the same enrichment
+            assertEquals(SbomUtils.toJsonNode(sequential), SbomUtils.toJsonNode(concurrent));
+            assertTrue(getComponent(concurrent, artifact.getPurl()).isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Bom bomWithRelocatedComponent() throws IOException {
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        Component component = SbomUtils.createComponent(
+                null,
+                "gradle-wrapper",
+                "UNKNOWN",
+                null,
+                "pkg:maven/gradle-wrapper/gradle-wrapper?type=jar",
+                Component.Type.LIBRARY);
+        component.addHash(new Hash(Hash.Algorithm.SHA1, "23a1590b048918cb655153298462fe64d284cb78"));
+        bom.addComponent(component);
+        bom.addDependency(SbomUtils.createDependency(component.getBomRef()));
+        return bom;
+    }
+
     @Test
     void testAddMissingNpmDependencies() throws IOException {
         DefaultProcessor defaultProcessor = mockForAddMissingNpmDependencies();
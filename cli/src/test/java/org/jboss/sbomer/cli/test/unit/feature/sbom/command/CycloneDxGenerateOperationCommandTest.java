@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
+import org.jboss.pnc.dto.response.AnalyzedArtifact;
+import org.jboss.sbomer.cli.feature.sbom.client.facade.SBOMerClientFacade;
+import org.jboss.sbomer.cli.feature.sbom.command.CycloneDxGenerateOperationCommand;
+import org.jboss.sbomer.cli.feature.sbom.command.GenerateOperationCommand;
+import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.test.TestResources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+class CycloneDxGenerateOperationCommandTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperProvider.json();
+
+    private static final String OPERATION_ID = "OPERATION1";
+
+    private static final String DELIVERABLE_URL = "https://download.example.com/product-1.0.0-maven-repository.zip";
+
+    static class CycloneDxGenerateOperationCommandAlt extends CycloneDxGenerateOperationCommand {
+
+        CycloneDxGenerateOperationCommandAlt(PncService pncService, SBOMerClientFacade sbomerClientFacade) {
+            this.pncService = pncService;
+            this.sbomerClientFacade = sbomerClientFacade;
+        }
+
+        @Override
+        public Path doGenerate() {
+            return super.doGenerate();
+        }
+    }
+
+    @TempDir
+    Path tmpDir;
+
+    ExecutorService pool;
+
+    ManagedExecutor executor;
+
+    PncService pncService;
+
+    SBOMerClientFacade sbomerClientFacade;
+
+    // Lookups of NPM dependencies running at the same time, and the maximum observed
+    final AtomicInteger lookupsInFlight = new AtomicInteger();
+    final AtomicInteger maxLookupsInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void init() throws IOException {
+        pool = Executors.newFixedThreadPool(8);
+        executor = mock(ManagedExecutor.class);
+        doAnswer(invocation -> {
+            pool.execute(invocation.getArgument(0));
+            return null;
+        }).when(executor).execute(any());
+
+        pncService = mock(PncService.class);
+        sbomerClientFacade = mock(SBOMerClientFacade.class);
+
+        List<Artifact> npmDependencies = OBJECT_MAPPER
+                .readValue(TestResources.asString("pnc/npmDependencies.json"), new TypeReference<>() {
+                });
+        List<Artifact> npmDependencies2 = OBJECT_MAPPER
+                .readValue(TestResources.asString("pnc/npmDependencies2.json"), new TypeReference<>() {
+                });
+
+        List<AnalyzedArtifact> artifacts = List.of(
+                analyzedArtifact("foo.bar", "baz", "1.0.0.redhat-00001", build("FOOBAR012345")),
+                analyzedArtifact("foo.bar", "qux", "1.0.0.redhat-00001", build("FOOBAZ012345")),
+                analyzedArtifact("foo.bar", "quux", "1.0.0.redhat-00001", build("FOOQUUX12345")),
+                analyzedArtifact("org.jboss", "jboss-parent", "19.0.0.redhat-1", null));
+
+        when(pncService.getApiUrl()).thenReturn("pnc.example.com");
+        when(pncService.getDeliverableAnalyzerOperation(OPERATION_ID))
+                .thenReturn(DeliverableAnalyzerOperation.builder().id(OPERATION_ID).build());
+        doAnswer(invocation -> {
+            Consumer<AnalyzedArtifact> consumer = invocation.getArgument(1);
+            artifacts.forEach(consumer);
+            return null;
+        }).when(pncService).forEachAnalyzedArtifact(eq(OPERATION_ID), any());
+        when(pncService.getNPMDependencies(anyString())).thenAnswer(invocation -> {
+            maxLookupsInFlight.accumulateAndGet(lookupsInFlight.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(50);
+            } finally {
+                lookupsInFlight.decrementAndGet();
+            }
+
+            return switch ((String) invocation.getArgument(0)) {
+                case "FOOBAR012345" -> npmDependencies;
+                case "FOOBAZ012345" -> npmDependencies2;
+                default -> List.of();
+            };
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        pool.shutdownNow();
+    }
+
+    private static Build build(String id) throws IOException {
+        ObjectNode build = (ObjectNode) OBJECT_MAPPER.readTree(TestResources.asString("pnc/mavenBuild.json"));
+        build.put("id", id);
+        return OBJECT_MAPPER.treeToValue(build, Build.class);
+    }
+
+    private static AnalyzedArtifact analyzedArtifact(String groupId, String artifactId, String version, Build build) {
+        ObjectNode artifact = OBJECT_MAPPER.createObjectNode()
+                .put("id", artifactId)
+                .put("identifier", groupId + ":" + artifactId + ":jar:" + version)
+                .put("purl", "pkg:maven/" + groupId + "/" + artifactId + "@" + version + "?type=jar")
+                .put("filename", artifactId + "-" + version + ".jar")
+                .put("md5", "md5-" + artifactId)
+                .put("sha1", "sha1-" + artifactId)
+                .put("sha256", "sha256-" + artifactId);
+        artifact.putObject("targetRepository").put("repositoryType", "MAVEN");
+        artifact.set("build", OBJECT_MAPPER.valueToTree(build));
+
+        ObjectNode analyzedArtifact = OBJECT_MAPPER.createObjectNode();
+        analyzedArtifact.set("artifact", artifact);
+        analyzedArtifact.putArray("archiveFilenames")
+                .add("product-1.0.0-maven-repository.zip!/" + artifactId + "-" + version + ".jar");
+        analyzedArtifact.putArray("licenses");
+        analyzedArtifact.putObject("distribution").put("distributionUrl", DELIVERABLE_URL);
+
+        return OBJECT_MAPPER.convertValue(analyzedArtifact, AnalyzedArtifact.class);
+    }
+
+    private Bom generate(int parallelism, String workdir) throws IOException {
+        Path configPath = tmpDir.resolve("config.json");
+        OBJECT_MAPPER.writeValue(
+                configPath.toFile(),
+                OperationConfig.builder()
+                        .withOperationId(OPERATION_ID)
+                        .withDeliverableUrls(List.of(DELIVERABLE_URL))
+                        .build());
+
+        GenerateOperationCommand parent = mock(GenerateOperationCommand.class);
+        when(parent.getConfigPath()).thenReturn(configPath);
+        when(parent.getIndex()).thenReturn(0);
+        when(parent.getOperationId()).thenReturn(OPERATION_ID);
+        when(parent.getWorkdir()).thenReturn(tmpDir.resolve(workdir));
+
+        CycloneDxGenerateOperationCommandAlt command = new CycloneDxGenerateOperationCommandAlt(
+                pncService,
+                sbomerClientFacade);
+        command.setParent(parent);
+        command.setExecutor(executor);
+        command.setParallelism(parallelism);
+
+        return SbomUtils.fromPath(command.doGenerate());
+    }
+
+    @Test
+    void testParallelGenerationMatchesSequential() throws IOException {
+        Bom sequential = generate(1, "sequential");
+        Bom parallel = generate(2, "parallel");
+
+        // The NPM dependencies of the builds were added by the workaround
+        List<String> purls = parallel.getComponents().stream().map(Component::getPurl).toList();
+        assertTrue(purls.contains("pkg:npm/once@1.4.0"));
+        assertTrue(purls.contains("pkg:npm/twice@1.4.0"));
+        assertTrue(purls.contains("pkg:npm/%40redhat/kogito-tooling-keyboard-shortcuts@0.9.0-2"));
+
+        assertEquals(
+                SbomUtils.toJsonNode(sequential).get("components"),
+                SbomUtils.toJsonNode(parallel).get("components"));
+        assertEquals(
+                SbomUtils.toJsonNode(sequential).get("dependencies"),
+                SbomUtils.toJsonNode(parallel).get("dependencies"));
+        assertEquals(
+                sequential.getMetadata().getComponent().getPurl(),
+                parallel.getMetadata().getComponent().getPurl());
+
+        // The lookups of the NPM dependencies were bounded by the parallelism
+        assertTrue(maxLookupsInFlight.get() <= 2, "Too many lookups at the same time: " + maxLookupsInFlight.get());
+    }
+}
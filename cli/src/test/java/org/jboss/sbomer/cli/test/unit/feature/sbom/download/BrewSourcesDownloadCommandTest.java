@@ -32,6 +32,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -50,6 +52,8 @@ import org.jboss.sbomer.cli.feature.sbom.client.KojiDownloadClient;
 import org.jboss.sbomer.cli.feature.sbom.command.download.BrewSourcesDownloadCommand;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
 import org.jboss.sbomer.core.test.TestResources;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -60,7 +64,10 @@ import com.redhat.red.build.koji.model.json.BuildExtraInfo;
 import com.redhat.red.build.koji.model.json.RemoteSourcesExtraInfo;
 import com.redhat.red.build.koji.model.json.TypeInfoExtraInfo;
 import com.redhat.red.build.koji.model.json.util.KojiObjectMapper;
+import com.redhat.red.build.koji.model.xmlrpc.KojiArchiveInfo;
+import com.redhat.red.build.koji.model.xmlrpc.KojiArchiveQuery;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+import com.redhat.red.build.koji.model.xmlrpc.KojiChecksumType;
 
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -105,6 +112,7 @@ class BrewSourcesDownloadCommandTest {
         Files.writeString(image, TestResources.asString(BOMS + IMAGE));
         kojiService = new KojiService();
         kojiService.setKojiSession(kojiSession);
+        kojiService.setGuard(new IntegrationGuard("koji", IntegrationGuardConfig.builder().build()));
         kojiService.setKojiDownloadClient(kojiDownloadClient);
         brewSourcesDownloadCommand = new BrewSourcesDownloadCommandAlt();
         brewSourcesDownloadCommand.setPath(image);
@@ -224,6 +232,151 @@ class BrewSourcesDownloadCommandTest {
         assertEquals("Failed to download sources archive or metadata file", ex.getMessage());
     }
 
+    @Test
+    void testSkipVerifiedDownload() throws KojiClientException, IOException {
+        KojiBuildInfo buildInfo = createBuildInfo(SOURCES_NAME);
+        String remoteSourcesName = REMOTE_SOURCE_PREFIX + REMOTE_SOURCE_DELIMITER + SOURCES_NAME;
+        String archiveName = remoteSourcesName + SOURCES_FILE_ARCHIVE_SUFFIX;
+        String metadataName = remoteSourcesName + SOURCES_FILE_METADATA_SUFFIX;
+
+        Files.writeString(tmpDir.resolve(archiveName), "foo");
+        Files.writeString(tmpDir.resolve(metadataName), "bar");
+
+        when(kojiSession.getBuild(any())).thenReturn(List.of(buildInfo));
+        when(kojiSession.listArchives(any(KojiArchiveQuery.class))).thenReturn(
+                List.of(
+                        createArchiveInfo(archiveName, "acbd18db4cc2f85cedef654fccc4a4d8"),
+                        createArchiveInfo(metadataName, "37b51d194a7513e45b56f6524f2d51f2")));
+
+        brewSourcesDownloadCommand.doDownload(tmpDir);
+
+        verify(kojiDownloadClient, never()).downloadSourcesFile(any(), any(), any(), any());
+        assertEquals("foo", Files.readString(tmpDir.resolve(archiveName)));
+        assertEquals("bar", Files.readString(tmpDir.resolve(metadataName)));
+    }
+
+    @Test
+    void testResumeDownload() throws KojiClientException, IOException {
+        KojiBuildInfo buildInfo = createBuildInfo(SOURCES_NAME);
+        String remoteSourcesName = REMOTE_SOURCE_PREFIX + REMOTE_SOURCE_DELIMITER + SOURCES_NAME;
+        String archiveName = remoteSourcesName + SOURCES_FILE_ARCHIVE_SUFFIX;
+        String metadataName = remoteSourcesName + SOURCES_FILE_METADATA_SUFFIX;
+
+        // A previous download of the archive was interrupted
+        Files.writeString(tmpDir.resolve(archiveName + ".part"), "fo");
+
+        when(kojiSession.getBuild(any())).thenReturn(List.of(buildInfo));
+        when(kojiSession.listArchives(any(KojiArchiveQuery.class)))
+                .thenReturn(List.of(createArchiveInfo(archiveName, "acbd18db4cc2f85cedef654fccc4a4d8")));
+        when(kojiDownloadClient.getSourcesFileInfo(NAME, VERSION, RELEASE, archiveName))
+                .thenReturn(Response.ok().header("Content-Length", 3).header("Accept-Ranges", "bytes").build());
+        when(kojiDownloadClient.downloadSourcesFileRange(NAME, VERSION, RELEASE, archiveName, "bytes=2-"))
+                .thenReturn(
+                        Response.status(Response.Status.PARTIAL_CONTENT)
+                                .header("Content-Range", "bytes 2-2/3")
+                                .entity(new ByteArrayInputStream("o".getBytes()))
+                                .build());
+        when(kojiDownloadClient.downloadSourcesFile(NAME, VERSION, RELEASE, metadataName))
+                .thenReturn(Response.ok(new ByteArrayInputStream("bar".getBytes())).build());
+
+        brewSourcesDownloadCommand.doDownload(tmpDir);
+
+        verify(kojiDownloadClient, never()).downloadSourcesFile(NAME, VERSION, RELEASE, archiveName);
+        assertEquals("foo", Files.readString(tmpDir.resolve(archiveName)));
+        assertEquals("bar", Files.readString(tmpDir.resolve(metadataName)));
+        assertFalse(Files.exists(tmpDir.resolve(archiveName + ".part")));
+    }
+
+    @Test
+    void testResumeDownloadUnexpectedRange() throws KojiClientException, IOException {
+        KojiBuildInfo buildInfo = createBuildInfo(SOURCES_NAME);
+        String remoteSourcesName = REMOTE_SOURCE_PREFIX + REMOTE_SOURCE_DELIMITER + SOURCES_NAME;
+        String archiveName = remoteSourcesName + SOURCES_FILE_ARCHIVE_SUFFIX;
+        String metadataName = remoteSourcesName + SOURCES_FILE_METADATA_SUFFIX;
+
+        Files.writeString(tmpDir.resolve(archiveName + ".part"), "fo");
+
+        when(kojiSession.getBuild(any())).thenReturn(List.of(buildInfo));
+        when(kojiSession.listArchives(any(KojiArchiveQuery.class)))
+                .thenReturn(List.of(createArchiveInfo(archiveName, "acbd18db4cc2f85cedef654fccc4a4d8")));
+        when(kojiDownloadClient.getSourcesFileInfo(NAME, VERSION, RELEASE, archiveName))
+                .thenReturn(Response.ok().header("Content-Length", 3).header("Accept-Ranges", "bytes").build());
+        // The server returns another range than the requested one
+        when(kojiDownloadClient.downloadSourcesFileRange(NAME, VERSION, RELEASE, archiveName, "bytes=2-"))
+                .thenReturn(
+                        Response.status(Response.Status.PARTIAL_CONTENT)
+                                .header("Content-Range", "bytes 0-2/3")
+                                .entity(new ByteArrayInputStream("foo".getBytes()))
+                                .build());
+        when(kojiDownloadClient.downloadSourcesFile(NAME, VERSION, RELEASE, archiveName))
+                .thenReturn(Response.ok(new ByteArrayInputStream("foo".getBytes())).build());
+        when(kojiDownloadClient.downloadSourcesFile(NAME, VERSION, RELEASE, metadataName))
+                .thenReturn(Response.ok(new ByteArrayInputStream("bar".getBytes())).build());
+
+        brewSourcesDownloadCommand.doDownload(tmpDir);
+
+        verify(kojiDownloadClient).downloadSourcesFile(NAME, VERSION, RELEASE, archiveName);
+        assertEquals("foo", Files.readString(tmpDir.resolve(archiveName)));
+        assertFalse(Files.exists(tmpDir.resolve(archiveName + ".part")));
+    }
+
+    @Test
+    void testResumeCorruptedDownload() throws KojiClientException, IOException {
+        KojiBuildInfo buildInfo = createBuildInfo(SOURCES_NAME);
+        String remoteSourcesName = REMOTE_SOURCE_PREFIX + REMOTE_SOURCE_DELIMITER + SOURCES_NAME;
+        String archiveName = remoteSourcesName + SOURCES_FILE_ARCHIVE_SUFFIX;
+        String metadataName = remoteSourcesName + SOURCES_FILE_METADATA_SUFFIX;
+
+        // The previously downloaded part does not match the remote file
+        Files.writeString(tmpDir.resolve(archiveName + ".part"), "ba");
+
+        when(kojiSession.getBuild(any())).thenReturn(List.of(buildInfo));
+        when(kojiSession.listArchives(any(KojiArchiveQuery.class)))
+                .thenReturn(List.of(createArchiveInfo(archiveName, "acbd18db4cc2f85cedef654fccc4a4d8")));
+        when(kojiDownloadClient.getSourcesFileInfo(NAME, VERSION, RELEASE, archiveName))
+                .thenReturn(Response.ok().header("Content-Length", 3).header("Accept-Ranges", "bytes").build());
+        when(kojiDownloadClient.downloadSourcesFileRange(NAME, VERSION, RELEASE, archiveName, "bytes=2-"))
+                .thenReturn(
+                        Response.status(Response.Status.PARTIAL_CONTENT)
+                                .header("Content-Range", "bytes 2-2/3")
+                                .entity(new ByteArrayInputStream("o".getBytes()))
+                                .build());
+        when(kojiDownloadClient.downloadSourcesFile(NAME, VERSION, RELEASE, archiveName))
+                .thenReturn(Response.ok(new ByteArrayInputStream("foo".getBytes())).build());
+        when(kojiDownloadClient.downloadSourcesFile(NAME, VERSION, RELEASE, metadataName))
+                .thenReturn(Response.ok(new ByteArrayInputStream("bar".getBytes())).build());
+
+        brewSourcesDownloadCommand.doDownload(tmpDir);
+
+        verify(kojiDownloadClient).downloadSourcesFile(NAME, VERSION, RELEASE, archiveName);
+        assertEquals("foo", Files.readString(tmpDir.resolve(archiveName)));
+        assertFalse(Files.exists(tmpDir.resolve(archiveName + ".part")));
+    }
+
+    @Test
+    void testDownloadChecksumMismatch() throws KojiClientException {
+        KojiBuildInfo buildInfo = createBuildInfo(SOURCES_NAME);
+        String remoteSourcesName = REMOTE_SOURCE_PREFIX + REMOTE_SOURCE_DELIMITER + SOURCES_NAME;
+        String archiveName = remoteSourcesName + SOURCES_FILE_ARCHIVE_SUFFIX;
+
+        when(kojiSession.getBuild(any())).thenReturn(List.of(buildInfo));
+        when(kojiSession.listArchives(any(KojiArchiveQuery.class)))
+                .thenReturn(List.of(createArchiveInfo(archiveName, "acbd18db4cc2f85cedef654fccc4a4d8")));
+        when(kojiDownloadClient.downloadSourcesFile(NAME, VERSION, RELEASE, archiveName))
+                .thenReturn(Response.ok(new ByteArrayInputStream("baz".getBytes())).build());
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> brewSourcesDownloadCommand.doDownload(tmpDir));
+
+        assertEquals(
+                "Checksum mismatch for sources file '" + archiveName
+                        + "': expected acbd18db4cc2f85cedef654fccc4a4d8, got 73feffa4b7f6bb68e44cf984c85f6e88",
+                ex.getMessage());
+        assertFalse(Files.exists(tmpDir.resolve(archiveName)));
+        assertFalse(Files.exists(tmpDir.resolve(archiveName + ".part")));
+    }
+
     @Test
     void testFindNvrEmptyBom() {
         Bom bom = new Bom();
@@ -286,6 +439,14 @@ class BrewSourcesDownloadCommandTest {
         return buildInfo;
     }
 
+    KojiArchiveInfo createArchiveInfo(String filename, String md5) {
+        KojiArchiveInfo archiveInfo = mock(KojiArchiveInfo.class);
+        when(archiveInfo.getFilename()).thenReturn(filename);
+        when(archiveInfo.getChecksum()).thenReturn(md5);
+        when(archiveInfo.getChecksumType()).thenReturn(KojiChecksumType.md5);
+        return archiveInfo;
+    }
+
     KojiBuildInfo createBuildInfoNoRemoteSources() {
         KojiBuildInfo buildInfo = new KojiBuildInfo(BUILD_ID, PACKAGE_ID, NAME, VERSION, RELEASE);
         TypeInfoExtraInfo typeInfoExtraInfo = new TypeInfoExtraInfo();
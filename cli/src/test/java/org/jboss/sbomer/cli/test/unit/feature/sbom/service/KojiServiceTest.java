@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.pnc.build.finder.core.BuildConfig;
+import org.jboss.pnc.build.finder.koji.ClientSession;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCache;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.redhat.red.build.koji.KojiClientException;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+import com.redhat.red.build.koji.model.xmlrpc.KojiRpmInfo;
+
+class KojiServiceTest {
+
+    @TempDir
+    Path dir;
+
+    final ClientSession kojiSession = mock(ClientSession.class);
+
+    LookupCache lookupCache;
+
+    KojiService kojiService;
+
+    @BeforeEach
+    void init() {
+        lookupCache = new LookupCache(dir, Duration.ofDays(1), Duration.ofHours(1), 1024 * 1024, false);
+        kojiService = new KojiService();
+        kojiService.setKojiSession(kojiSession);
+        kojiService.setGuard(new IntegrationGuard("koji", IntegrationGuardConfig.builder().build()));
+        kojiService.setConfig(new BuildConfig());
+        kojiService.setLookupCache(lookupCache);
+    }
+
+    @Test
+    void testFailedArtifactLookupIsNotCached() throws KojiClientException {
+        Artifact artifact = Artifact.builder()
+                .id("1")
+                .publicUrl("https://repo.example.com/foo-1.0.0.redhat-00001.jar")
+                .sha256("abc")
+                .build();
+
+        when(kojiSession.listArchives(anyList())).thenThrow(new KojiClientException("Koji is down"));
+
+        assertThat(kojiService.findBuild(artifact), nullValue());
+        assertThat(lookupCache.find("koji-build-archive", "abc", KojiBuildInfo.class), nullValue());
+        assertThat(kojiService.findBuildsByChecksums(List.of(artifact)).isEmpty(), is(true));
+        assertThat(lookupCache.find("koji-build-archive", "abc", KojiBuildInfo.class), nullValue());
+    }
+
+    @Test
+    void testFailedRpmLookupIsNotCached() throws KojiClientException {
+        when(kojiSession.getRPM(anyList())).thenThrow(new KojiClientException("Koji is down"));
+
+        assertThrows(KojiClientException.class, () -> kojiService.findBuildsByRPMs(List.of("foo-1.0-1.el9.x86_64")));
+        assertThat(lookupCache.find("koji-build-rpm", "foo-1.0-1.el9.x86_64", KojiBuildInfo.class), nullValue());
+    }
+
+    @Test
+    void testIncompleteMulticallResultIsNotCached() throws KojiClientException {
+        when(kojiSession.getBuild(anyList())).thenReturn(List.of());
+
+        assertThrows(KojiClientException.class, () -> kojiService.findBuilds(List.of("foo-1.0-1")));
+        assertThat(lookupCache.find("koji-build-nvr", "foo-1.0-1", KojiBuildInfo.class), nullValue());
+    }
+
+    @Test
+    void testMissingRpmIsCached() throws KojiClientException {
+        when(kojiSession.getRPM(anyList())).thenReturn(Collections.singletonList((KojiRpmInfo) null));
+
+        Map<String, KojiBuildInfo> builds = kojiService.findBuildsByRPMs(List.of("foo-1.0-1.el9.x86_64"));
+
+        assertThat(builds.get("foo-1.0-1.el9.x86_64"), nullValue());
+
+        LookupCache.Cached<KojiBuildInfo> cached = lookupCache
+                .find("koji-build-rpm", "foo-1.0-1.el9.x86_64", KojiBuildInfo.class);
+
+        assertThat(cached, notNullValue());
+        assertThat(cached.value(), nullValue());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LookupCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private LookupCache cache(Duration ttl, long maxSize, boolean readOnly) {
+        return new LookupCache(dir, ttl, ttl, maxSize, readOnly);
+    }
+
+    @Test
+    void testDisabled() {
+        LookupCache cache = LookupCache.disabled();
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("ns", "key", String.class, () -> "value-" + calls.incrementAndGet());
+        cache.get("ns", "key", String.class, () -> "value-" + calls.incrementAndGet());
+
+        assertThat(calls.get(), is(2));
+        assertThat(cache.find("ns", "key", String.class), nullValue());
+    }
+
+    @Test
+    void testReusedBetweenInstances() {
+        cache(Duration.ofDays(1), 1024 * 1024, false).get("ns", "key", String.class, () -> "value");
+
+        LookupCache cache = cache(Duration.ofDays(1), 1024 * 1024, false);
+        String value = cache.get("ns", "key", String.class, () -> "other");
+
+        assertThat(value, is("value"));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(0L));
+    }
+
+    @Test
+    void testNullValueIsCached() {
+        LookupCache cache = cache(Duration.ofDays(1), 1024 * 1024, false);
+        cache.put("ns", "key", null);
+
+        LookupCache.Cached<String> cached = cache.find("ns", "key", String.class);
+
+        assertThat(cached, notNullValue());
+        assertThat(cached.value(), nullValue());
+    }
+
+    @Test
+    void testNamespaces() {
+        LookupCache cache = cache(Duration.ofDays(1), 1024 * 1024, false);
+        cache.put("ns1", "key", "value");
+
+        assertThat(cache.find("ns2", "key", String.class), nullValue());
+    }
+
+    @Test
+    void testExpired() {
+        LookupCache cache = cache(Duration.ZERO.minusSeconds(1), 1024 * 1024, false);
+        cache.put("ns", "key", "value");
+
+        assertThat(cache.find("ns", "key", String.class), nullValue());
+    }
+
+    @Test
+    void testReadOnly() {
+        cache(Duration.ofDays(1), 1024 * 1024, false).put("ns", "existing", "value");
+
+        LookupCache cache = cache(Duration.ofDays(1), 1024 * 1024, true);
+        cache.put("ns", "key", "value");
+
+        assertThat(cache.find("ns", "key", String.class), nullValue());
+        assertThat(cache.find("ns", "existing", String.class).value(), is("value"));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() throws Exception {
+        LookupCache cache = cache(Duration.ofDays(1), 300, false);
+
+        cache.put("ns", "first", "a".repeat(100));
+        Thread.sleep(20);
+        cache.put("ns", "second", "b".repeat(100));
+        Thread.sleep(20);
+        // Exceeds the maximum size, the least recently used entry is removed
+        cache.put("ns", "third", "c".repeat(100));
+
+        assertThat(cache.find("ns", "first", String.class), nullValue());
+        assertThat(cache.find("ns", "third", String.class), notNullValue());
+    }
+}
@@ -1,5 +1,8 @@
 package org.jboss.sbomer.cli.test.utils;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
@@ -17,4 +20,10 @@ public class KojiServiceAlternative extends KojiService {
         log.debug("Would look for Build for artifact: {}, returning mocked nothing", artifact.getId());
         return null;
     }
+
+    @Override
+    public Map<String, KojiBuild> findBuildsByChecksums(Collection<Artifact> artifacts) {
+        log.debug("Would look for Builds for {} artifacts, returning mocked nothing", artifacts.size());
+        return Map.of();
+    }
 }
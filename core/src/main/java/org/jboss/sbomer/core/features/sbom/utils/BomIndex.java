@@ -0,0 +1,339 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+
+/**
+ * <p>
+ * An index over the top-level components and dependencies of a {@link Bom}, built in a single traversal, so that
+ * lookups by purl and bom-ref do not need to scan the manifest.
+ * </p>
+ *
+ * <p>
+ * The index provides:
+ * </p>
+ * <ul>
+ * <li>the components by purl and by bom-ref,</li>
+ * <li>the top-level dependency nodes by ref,</li>
+ * <li>the reverse dependency edges, i.e. the dependency nodes, at any depth of the tree, which depend on (or provide) a
+ * given ref.</li>
+ * </ul>
+ *
+ * <p>
+ * The index stays consistent with the mutations done through it. If the manifest is modified directly, the index must
+ * be rebuilt with {@link #reindex()}.
+ * </p>
+ */
+public class BomIndex {
+
+    private final Bom bom;
+
+    private final Map<String, List<Component>> componentsByPurl = new HashMap<>();
+
+    private final Map<String, Component> componentsByBomRef = new HashMap<>();
+
+    private final Map<String, Dependency> dependenciesByRef = new HashMap<>();
+
+    /**
+     * The positions of the top-level dependency nodes in the manifest, by ref. There can be several nodes with the same
+     * ref.
+     */
+    private final Map<String, List<Integer>> dependencyPositions = new HashMap<>();
+
+    /**
+     * The nodes, at any depth, having the given ref in their {@code dependsOn} or {@code provides}, by ref.
+     */
+    private final Map<String, Set<Dependency>> dependants = new HashMap<>();
+
+    /**
+     * The nodes already indexed, a node can be shared by several parents.
+     */
+    private final Set<Dependency> indexed = identitySet();
+
+    private BomIndex(Bom bom) {
+        this.bom = bom;
+        reindex();
+    }
+
+    public static BomIndex of(Bom bom) {
+        return new BomIndex(bom);
+    }
+
+    public Bom getBom() {
+        return bom;
+    }
+
+    /**
+     * Rebuilds the index from the current content of the manifest.
+     */
+    public void reindex() {
+        componentsByPurl.clear();
+        componentsByBomRef.clear();
+        dependenciesByRef.clear();
+        dependencyPositions.clear();
+        dependants.clear();
+        indexed.clear();
+
+        if (bom.getComponents() != null) {
+            bom.getComponents().forEach(this::index);
+        }
+
+        if (bom.getDependencies() != null) {
+            List<Dependency> dependencies = bom.getDependencies();
+
+            for (int i = 0; i < dependencies.size(); i++) {
+                index(dependencies.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Returns the first component with the given purl, in the order of the manifest.
+     */
+    public Optional<Component> findComponentWithPurl(String purl) {
+        return findComponentsWithPurl(purl).stream().findFirst();
+    }
+
+    /**
+     * Returns all components with the given purl, in the order of the manifest.
+     */
+    public List<Component> findComponentsWithPurl(String purl) {
+        return Collections.unmodifiableList(componentsByPurl.getOrDefault(purl, List.of()));
+    }
+
+    /**
+     * Returns the first component with the given bom-ref, in the order of the manifest.
+     */
+    public Optional<Component> findComponentWithBomRef(String bomRef) {
+        return Optional.ofNullable(componentsByBomRef.get(bomRef));
+    }
+
+    /**
+     * Returns the top-level dependency node with the given ref.
+     */
+    public Optional<Dependency> findDependency(String ref) {
+        return Optional.ofNullable(dependenciesByRef.get(ref));
+    }
+
+    public boolean hasDependency(String ref) {
+        return dependenciesByRef.containsKey(ref);
+    }
+
+    /**
+     * Returns the refs of the dependency nodes which depend on, or provide, the given ref.
+     */
+    public Set<String> getDependants(String ref) {
+        Set<String> refs = new LinkedHashSet<>();
+        dependants.getOrDefault(ref, Set.of()).forEach(d -> refs.add(d.getRef()));
+
+        return Collections.unmodifiableSet(refs);
+    }
+
+    /**
+     * Adds the component to the manifest.
+     */
+    public void addComponent(Component component) {
+        bom.addComponent(component);
+        index(component);
+    }
+
+    /**
+     * Adds the dependency node to the manifest, unless there is already a top-level node with the same ref.
+     *
+     * @return the top-level node with the ref of the given dependency
+     */
+    public Dependency addDependency(Dependency dependency) {
+        Dependency existing = dependenciesByRef.get(dependency.getRef());
+
+        if (existing != null) {
+            return existing;
+        }
+
+        bom.addDependency(dependency);
+        index(dependency, bom.getDependencies().size() - 1);
+
+        return dependency;
+    }
+
+    /**
+     * Adds the {@code dependency} to the {@code dependsOn} of the {@code dependant} top-level node.
+     */
+    public void addDependsOn(Dependency dependant, Dependency dependency) {
+        dependant.addDependency(dependency);
+        dependants.computeIfAbsent(dependency.getRef(), k -> identitySet()).add(dependant);
+        indexTree(dependency);
+    }
+
+    /**
+     * Updates the bom-ref of the component, and the refs of all the dependency nodes with the old ref: the top-level
+     * ones, including duplicates, and the ones nested at any depth in the {@code dependsOn} and {@code provides} of
+     * other nodes. Thanks to the reverse dependency edges, only the nodes referencing the old ref are visited.
+     *
+     * @param component the component to update the bom-ref for
+     * @param oldRef the old reference
+     * @param newRef the new reference
+     * @return {@code true} if the bom-ref was updated
+     */
+    public boolean updateBomRef(Component component, String oldRef, String newRef) {
+        // There might be cases (mainly for components detected by Syft) where the same purl is duplicated across
+        // components (which have different bom-refs). A ref which is already a dependency node is not reused, as it
+        // would result in an invalid manifest.
+        if (!oldRef.equals(component.getBomRef()) || dependenciesByRef.containsKey(newRef)) {
+            return false;
+        }
+
+        component.setBomRef(newRef);
+
+        if (componentsByBomRef.get(oldRef) == component) {
+            componentsByBomRef.remove(oldRef);
+        }
+
+        componentsByBomRef.putIfAbsent(newRef, component);
+
+        // The renamed nodes, by original node, so that a node shared by several parents is renamed only once
+        Map<Dependency, Dependency> renamed = new IdentityHashMap<>();
+
+        dependenciesByRef.remove(oldRef);
+        List<Integer> positions = dependencyPositions.remove(oldRef);
+
+        if (positions != null) {
+            for (int position : positions) {
+                Dependency node = bom.getDependencies().get(position);
+                bom.getDependencies().set(position, renamed.computeIfAbsent(node, n -> rename(n, newRef)));
+            }
+
+            dependenciesByRef.put(newRef, bom.getDependencies().get(positions.get(0)));
+            dependencyPositions.put(newRef, positions);
+        }
+
+        Set<Dependency> parents = dependants.remove(oldRef);
+
+        if (parents != null) {
+            for (Dependency parent : parents) {
+                renameChildren(parent.getDependencies(), oldRef, newRef, renamed);
+                renameChildren(parent.getProvides(), oldRef, newRef, renamed);
+            }
+        }
+
+        // The renamed nodes replace the original ones, as dependants of their children and in the index
+        renamed.forEach((node, renamedNode) -> {
+            indexed.add(renamedNode);
+
+            for (Dependency child : children(renamedNode)) {
+                Set<Dependency> childDependants = dependants.get(child.getRef());
+
+                if (childDependants != null && childDependants.remove(node)) {
+                    childDependants.add(renamedNode);
+                }
+            }
+        });
+
+        if (parents != null) {
+            Set<Dependency> newDependants = dependants.computeIfAbsent(newRef, k -> identitySet());
+            // A node can depend on itself, in which case it was renamed too
+            parents.forEach(parent -> newDependants.add(renamed.getOrDefault(parent, parent)));
+        }
+
+        return true;
+    }
+
+    private void index(Component component) {
+        if (component.getPurl() != null) {
+            componentsByPurl.computeIfAbsent(component.getPurl(), k -> new ArrayList<>(1)).add(component);
+        }
+
+        if (component.getBomRef() != null) {
+            componentsByBomRef.putIfAbsent(component.getBomRef(), component);
+        }
+    }
+
+    private void index(Dependency dependency, int position) {
+        dependenciesByRef.putIfAbsent(dependency.getRef(), dependency);
+        dependencyPositions.computeIfAbsent(dependency.getRef(), k -> new ArrayList<>(1)).add(position);
+        indexTree(dependency);
+    }
+
+    /**
+     * Indexes the reverse dependency edges of the node and of all the nodes below it.
+     */
+    private void indexTree(Dependency dependency) {
+        if (!indexed.add(dependency)) {
+            return;
+        }
+
+        for (Dependency child : children(dependency)) {
+            dependants.computeIfAbsent(child.getRef(), k -> identitySet()).add(dependency);
+            indexTree(child);
+        }
+    }
+
+    private static Set<Dependency> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static List<Dependency> children(Dependency dependency) {
+        List<Dependency> children = new ArrayList<>();
+
+        if (dependency.getDependencies() != null) {
+            children.addAll(dependency.getDependencies());
+        }
+
+        if (dependency.getProvides() != null) {
+            children.addAll(dependency.getProvides());
+        }
+
+        return children;
+    }
+
+    private static void renameChildren(
+            List<Dependency> children,
+            String oldRef,
+            String newRef,
+            Map<Dependency, Dependency> renamed) {
+        if (children == null) {
+            return;
+        }
+
+        for (int i = 0; i < children.size(); i++) {
+            if (oldRef.equals(children.get(i).getRef())) {
+                children.set(i, renamed.computeIfAbsent(children.get(i), n -> rename(n, newRef)));
+            }
+        }
+    }
+
+    private static Dependency rename(Dependency dependency, String newRef) {
+        Dependency renamed = new Dependency(newRef);
+        renamed.setDependencies(dependency.getDependencies());
+        renamed.setProvides(dependency.getProvides());
+
+        return renamed;
+    }
+}
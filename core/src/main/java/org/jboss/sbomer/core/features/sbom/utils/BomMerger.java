@@ -0,0 +1,221 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.jboss.sbomer.core.errors.ApplicationException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Merges the components and dependencies of several manifests into a target manifest.
+ * </p>
+ *
+ * <p>
+ * Components are identified by a key, the bom-ref by default. A component is added if there is no component with the
+ * same key yet, otherwise its missing sub-components are added to the existing one. Components without a key are
+ * skipped. Missing dependency nodes, and missing {@code dependsOn} and {@code provides} edges of the existing nodes,
+ * are added, see {@link DependencyGraph}.
+ * </p>
+ *
+ * <p>
+ * Every source manifest is indexed on its own, possibly at the same time as the other ones, and the indexes are then
+ * combined in a single pass. The result is the same as merging the manifests one after another: components and
+ * dependencies keep the order of the target manifest, followed by the ones of each source manifest, in order.
+ * </p>
+ */
+@Slf4j
+public class BomMerger {
+
+    /**
+     * The components of a manifest by key, and its dependency graph. Either is {@code null} if the manifest has no
+     * components, resp. no dependencies.
+     */
+    private record Index(Map<String, Component> components, DependencyGraph dependencies) {
+    }
+
+    private BomMerger() {
+        // This is a utility class
+    }
+
+    /**
+     * Merges the source manifests into the target one, one after another, identifying the components by bom-ref.
+     *
+     * @param target the manifest to add the missing components and dependencies to
+     * @param sources the manifests to merge
+     */
+    public static void merge(Bom target, List<Bom> sources) {
+        merge(target, sources, Component::getBomRef, 1, null);
+    }
+
+    /**
+     * Merges the source manifests into the target one, indexing up to {@code parallelism} source manifests at the same
+     * time on the {@code executor}.
+     *
+     * @param target the manifest to add the missing components and dependencies to
+     * @param sources the manifests to merge
+     * @param key the key identifying the components
+     * @param parallelism the maximum number of manifests indexed at the same time
+     * @param executor the executor to index the manifests on, {@code null} to index them on the calling thread
+     */
+    public static void merge(
+            Bom target,
+            List<Bom> sources,
+            Function<Component, String> key,
+            int parallelism,
+            Executor executor) {
+        combine(
+                target,
+                index(target, key),
+                ParallelUtils.mapOrdered(sources, parallelism, executor, source -> index(source, key)),
+                key);
+    }
+
+    /**
+     * Same as {@link #merge(Bom, List, Function, int, Executor)}, reading the source manifests as well as indexing them
+     * at the same time. The source manifests are not kept in memory once indexed.
+     *
+     * @param target the manifest to add the missing components and dependencies to
+     * @param sources the paths of the manifests to merge
+     * @param key the key identifying the components
+     * @param parallelism the maximum number of manifests read and indexed at the same time
+     * @param executor the executor to read and index the manifests on, {@code null} to use the calling thread
+     */
+    public static void mergePaths(
+            Bom target,
+            List<Path> sources,
+            Function<Component, String> key,
+            int parallelism,
+            Executor executor) {
+        combine(target, index(target, key), ParallelUtils.mapOrdered(sources, parallelism, executor, path -> {
+            Bom source = SbomUtils.fromPath(path);
+
+            if (source == null) {
+                throw new ApplicationException("Unable to read manifest '{}'", path.toAbsolutePath());
+            }
+
+            return index(source, key);
+        }), key);
+    }
+
+    private static Index index(Bom bom, Function<Component, String> key) {
+        Map<String, Component> components = null;
+        DependencyGraph dependencies = null;
+
+        if (SbomUtils.isNotEmpty(bom.getComponents())) {
+            components = new LinkedHashMap<>();
+            addMissingComponents(components, bom.getComponents(), key);
+        }
+
+        if (SbomUtils.isNotEmpty(bom.getDependencies())) {
+            dependencies = DependencyGraph.of(bom.getDependencies());
+        }
+
+        return new Index(components, dependencies);
+    }
+
+    private static void combine(
+            Bom target,
+            Index merged,
+            List<Index> sources,
+            Function<Component, String> key) {
+        Map<String, Component> components = merged.components() != null ? merged.components()
+                : new LinkedHashMap<>();
+        DependencyGraph dependencies = merged.dependencies() != null ? merged.dependencies() : new DependencyGraph();
+        boolean hasComponents = false;
+        boolean hasDependencies = false;
+
+        for (Index source : sources) {
+            if (source.components() != null) {
+                hasComponents = true;
+                source.components().forEach((ref, component) -> addMissingComponent(components, ref, component, key));
+            }
+
+            if (source.dependencies() != null) {
+                hasDependencies = true;
+                dependencies.merge(source.dependencies());
+            }
+        }
+
+        // The target manifest is left as it is, unless there is something to merge
+        if (hasComponents) {
+            target.setComponents(new ArrayList<>(components.values()));
+        }
+
+        if (hasDependencies) {
+            target.setDependencies(dependencies.toDependencies());
+        }
+    }
+
+    private static void addMissingComponents(
+            Map<String, Component> components,
+            List<Component> sourceComponents,
+            Function<Component, String> key) {
+        for (Component component : sourceComponents) {
+            String ref = key.apply(component);
+
+            // Skip if can't uniquely identify component
+            if (ref == null) {
+                log.debug(
+                        "Component (of type '{}', cpe: '{}') cannot be identified, skipping",
+                        component.getType(),
+                        component.getCpe());
+                continue;
+            }
+
+            addMissingComponent(components, ref, component, key);
+        }
+    }
+
+    private static void addMissingComponent(
+            Map<String, Component> components,
+            String ref,
+            Component component,
+            Function<Component, String> key) {
+        Component existingComponent = components.putIfAbsent(ref, component);
+
+        if (existingComponent == null) {
+            log.debug("Adding missing component (with key: '{}')", ref);
+            return;
+        }
+
+        // Duplicate found, see if we have any missing subcomponents
+        if (existingComponent != component && SbomUtils.isNotEmpty(component.getComponents())) {
+            log.debug("Component (with key: '{}') already exists, adding missing subcomponents", ref);
+
+            Map<String, Component> subComponents = new LinkedHashMap<>();
+
+            if (existingComponent.getComponents() != null) {
+                addMissingComponents(subComponents, existingComponent.getComponents(), key);
+            }
+
+            addMissingComponents(subComponents, component.getComponents(), key);
+            existingComponent.setComponents(new ArrayList<>(subComponents.values()));
+        }
+    }
+}
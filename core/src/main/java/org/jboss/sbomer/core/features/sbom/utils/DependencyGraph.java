@@ -0,0 +1,581 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.cyclonedx.model.Dependency;
+
+/**
+ * <p>
+ * A compact representation of the dependency graph of a manifest, meant for the operations on large manifests.
+ * </p>
+ *
+ * <p>
+ * Every ref is interned once and mapped to an {@code int} id; the {@code dependsOn} and {@code provides} edges, as well
+ * as the reverse edges, are kept in primitive arrays. Renaming a ref does not touch the edges, and merging graphs or
+ * adding edges does not allocate any {@link Dependency} object. Duplicate edges are removed in a single pass, when
+ * the graph is converted back with {@link #toDependencies()}, or with {@link #dedup()}.
+ * </p>
+ *
+ * <p>
+ * Nested dependencies of the CycloneDX model are flattened: the edges of a nested node are the edges of the node with
+ * the same ref. The top-level nodes are converted back in the order they were added.
+ * </p>
+ */
+public class DependencyGraph {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private String[] refs = new String[16];
+
+    private Edges[] dependsOn = new Edges[16];
+
+    private Edges[] provides = new Edges[16];
+
+    /**
+     * The nodes having the given node in their {@code dependsOn} or {@code provides}.
+     */
+    private Edges[] parents = new Edges[16];
+
+    /**
+     * The nodes which are in the top-level list of dependencies, and their order.
+     */
+    private final BitSet topLevel = new BitSet();
+
+    private final Edges order = new Edges();
+
+    /**
+     * The nodes with an explicit (possibly empty) {@code dependsOn}, resp. {@code provides}, list.
+     */
+    private final BitSet hasDependsOn = new BitSet();
+
+    private final BitSet hasProvides = new BitSet();
+
+    /**
+     * The nodes merged into other nodes.
+     */
+    private final BitSet removed = new BitSet();
+
+    private int size;
+
+    private boolean dirty;
+
+    public static DependencyGraph of(List<Dependency> dependencies) {
+        DependencyGraph graph = new DependencyGraph();
+        graph.merge(dependencies);
+        return graph;
+    }
+
+    /**
+     * Returns the number of nodes, including the ones which are referenced only as dependencies.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    public boolean contains(String ref) {
+        return ids.containsKey(ref);
+    }
+
+    /**
+     * Adds a top-level node, if there is none with the same ref yet.
+     *
+     * @param ref the ref of the node
+     * @return the id of the node
+     */
+    public int addNode(String ref) {
+        int id = node(ref);
+
+        if (!topLevel.get(id)) {
+            topLevel.set(id);
+            order.add(id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Adds {@code to} to the {@code dependsOn} of {@code from}. Both nodes are added if missing, {@code from} as a
+     * top-level one.
+     */
+    public void addDependsOn(String from, String to) {
+        int parent = addNode(from);
+        hasDependsOn.set(parent);
+        addEdge(dependsOn, parent, node(to));
+    }
+
+    /**
+     * Adds {@code to} to the {@code provides} of {@code from}. Both nodes are added if missing, {@code from} as a
+     * top-level one.
+     */
+    public void addProvides(String from, String to) {
+        int parent = addNode(from);
+        hasProvides.set(parent);
+        addEdge(provides, parent, node(to));
+    }
+
+    /**
+     * Returns the refs of the nodes having the given ref in their {@code dependsOn} or {@code provides}.
+     */
+    public List<String> getParents(String ref) {
+        Integer id = ids.get(ref);
+
+        if (id == null) {
+            return List.of();
+        }
+
+        dedup();
+
+        return toRefs(parents[id]);
+    }
+
+    /**
+     * Returns the refs in the {@code dependsOn} of the given ref.
+     */
+    public List<String> getDependsOn(String ref) {
+        Integer id = ids.get(ref);
+
+        if (id == null) {
+            return List.of();
+        }
+
+        dedup();
+
+        return toRefs(dependsOn[id]);
+    }
+
+    /**
+     * Merges the given dependencies into the graph: missing nodes are added after the existing ones, and missing
+     * {@code dependsOn} and {@code provides} edges are added to the existing nodes.
+     *
+     * @param dependencies the top-level dependencies to merge
+     */
+    public void merge(List<Dependency> dependencies) {
+        if (dependencies == null) {
+            return;
+        }
+
+        // Nodes can be shared in the tree, these are merged only once
+        Set<Dependency> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Dependency dependency : dependencies) {
+            merge(addNode(dependency.getRef()), dependency, visited);
+        }
+    }
+
+    /**
+     * Merges another graph into this one, like {@link #merge(List)}.
+     *
+     * @param other the graph to merge, only its duplicate edges are removed
+     */
+    public void merge(DependencyGraph other) {
+        other.dedup();
+
+        for (int i = 0; i < other.order.size; i++) {
+            addNode(other.refs[other.order.items[i]]);
+        }
+
+        for (int id = 0; id < other.size; id++) {
+            if (other.removed.get(id)) {
+                continue;
+            }
+
+            int target = node(other.refs[id]);
+
+            if (other.hasDependsOn.get(id)) {
+                hasDependsOn.set(target);
+            }
+
+            if (other.hasProvides.get(id)) {
+                hasProvides.set(target);
+            }
+
+            mergeEdges(other, other.dependsOn[id], dependsOn, target);
+            mergeEdges(other, other.provides[id], provides, target);
+        }
+    }
+
+    /**
+     * Renames the node. If there is already a node with the new ref, both nodes are merged into one.
+     *
+     * @param oldRef the current ref
+     * @param newRef the new ref
+     * @return {@code true} if there was a node with the old ref
+     */
+    public boolean rename(String oldRef, String newRef) {
+        Integer id = ids.get(oldRef);
+
+        if (id == null) {
+            return false;
+        }
+
+        if (oldRef.equals(newRef)) {
+            return true;
+        }
+
+        Integer existing = ids.get(newRef);
+
+        if (existing == null) {
+            ids.remove(oldRef);
+            ids.put(newRef, id);
+            refs[id] = newRef;
+        } else {
+            mergeNode(id, existing);
+        }
+
+        return true;
+    }
+
+    /**
+     * Renames all nodes with a ref matching the pattern, see {@link #rename(String, String)}. All of them end up merged
+     * into a single node.
+     *
+     * @return the number of renamed nodes
+     */
+    public int rename(Pattern pattern, String newRef) {
+        List<String> matching = new ArrayList<>();
+
+        for (int id = 0; id < size; id++) {
+            if (!removed.get(id) && pattern.matcher(refs[id]).matches()) {
+                matching.add(refs[id]);
+            }
+        }
+
+        matching.forEach(ref -> rename(ref, newRef));
+
+        return matching.size();
+    }
+
+    /**
+     * Removes the edges from a node to itself.
+     */
+    public void removeSelfDependencies() {
+        for (int id = 0; id < size; id++) {
+            if (!removed.get(id)) {
+                removeEdge(dependsOn, id, id);
+                removeEdge(provides, id, id);
+            }
+        }
+    }
+
+    /**
+     * Removes the duplicate edges, keeping the first occurrence of each, in a single pass over the graph.
+     */
+    public void dedup() {
+        if (!dirty) {
+            return;
+        }
+
+        int[] seen = new int[size];
+        int stamp = 0;
+
+        for (Edges[] edges : List.of(dependsOn, provides, parents)) {
+            for (int id = 0; id < size; id++) {
+                if (edges[id] != null) {
+                    edges[id].dedup(seen, ++stamp);
+                }
+            }
+        }
+
+        dirty = false;
+    }
+
+    /**
+     * Converts the graph back into the top-level dependencies of the CycloneDX model, in the order they were added.
+     */
+    public List<Dependency> toDependencies() {
+        dedup();
+
+        List<Dependency> dependencies = new ArrayList<>(order.size);
+
+        for (int i = 0; i < order.size; i++) {
+            int id = order.items[i];
+            Dependency dependency = new Dependency(refs[id]);
+
+            if (hasDependsOn.get(id)) {
+                dependency.setDependencies(toDependencies(dependsOn[id]));
+            }
+
+            if (hasProvides.get(id)) {
+                dependency.setProvides(toDependencies(provides[id]));
+            }
+
+            dependencies.add(dependency);
+        }
+
+        return dependencies;
+    }
+
+    private int node(String ref) {
+        Integer id = ids.get(ref);
+
+        if (id != null) {
+            return id;
+        }
+
+        if (size == refs.length) {
+            int capacity = size * 2;
+            refs = Arrays.copyOf(refs, capacity);
+            dependsOn = Arrays.copyOf(dependsOn, capacity);
+            provides = Arrays.copyOf(provides, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+        }
+
+        refs[size] = ref;
+        ids.put(ref, size);
+
+        return size++;
+    }
+
+    private void merge(int id, Dependency dependency, Set<Dependency> visited) {
+        if (!visited.add(dependency)) {
+            return;
+        }
+
+        if (dependency.getDependencies() != null) {
+            hasDependsOn.set(id);
+
+            for (Dependency child : dependency.getDependencies()) {
+                int childId = node(child.getRef());
+                addEdge(dependsOn, id, childId);
+                merge(childId, child, visited);
+            }
+        }
+
+        if (dependency.getProvides() != null) {
+            hasProvides.set(id);
+
+            for (Dependency child : dependency.getProvides()) {
+                int childId = node(child.getRef());
+                addEdge(provides, id, childId);
+                merge(childId, child, visited);
+            }
+        }
+    }
+
+    private void mergeEdges(DependencyGraph other, Edges source, Edges[] edges, int target) {
+        if (source == null) {
+            return;
+        }
+
+        for (int i = 0; i < source.size; i++) {
+            addEdge(edges, target, node(other.refs[source.items[i]]));
+        }
+    }
+
+    private void addEdge(Edges[] edges, int from, int to) {
+        if (edges[from] == null) {
+            edges[from] = new Edges();
+        }
+
+        if (parents[to] == null) {
+            parents[to] = new Edges();
+        }
+
+        edges[from].add(to);
+        parents[to].add(from);
+        dirty = true;
+    }
+
+    private void removeEdge(Edges[] edges, int from, int to) {
+        if (edges[from] != null && edges[from].remove(to)) {
+            // The reverse edge remains if the other kind of edge exists
+            Edges other = edges == dependsOn ? provides[from] : dependsOn[from];
+
+            if (other == null || !other.contains(to)) {
+                parents[to].remove(from);
+            }
+        }
+    }
+
+    /**
+     * Merges the node {@code from} into the node {@code to}, and removes {@code from}.
+     */
+    private void mergeNode(int from, int to) {
+        // The parents now refer to the merged node
+        if (parents[from] != null) {
+            for (int i = 0; i < parents[from].size; i++) {
+                int parent = parents[from].items[i];
+
+                replace(dependsOn[parent], from, to);
+                replace(provides[parent], from, to);
+
+                if (parents[to] == null) {
+                    parents[to] = new Edges();
+                }
+
+                parents[to].add(parent == from ? to : parent);
+            }
+        }
+
+        // The children now have the merged node as parent
+        for (Edges[] edges : List.of(dependsOn, provides)) {
+            if (edges[from] == null) {
+                continue;
+            }
+
+            for (int i = 0; i < edges[from].size; i++) {
+                int child = edges[from].items[i] == from ? to : edges[from].items[i];
+
+                if (edges[to] == null) {
+                    edges[to] = new Edges();
+                }
+
+                edges[to].add(child);
+                replace(parents[child], from, to);
+            }
+
+            edges[from] = null;
+        }
+
+        // The merged node takes the place of the first of both in the top-level list
+        if (topLevel.get(from) && topLevel.get(to)) {
+            order.remove(from);
+        } else if (topLevel.get(from)) {
+            order.replace(from, to);
+            topLevel.set(to);
+        }
+
+        if (hasDependsOn.get(from)) {
+            hasDependsOn.set(to);
+        }
+
+        if (hasProvides.get(from)) {
+            hasProvides.set(to);
+        }
+
+        parents[from] = null;
+        removed.set(from);
+        topLevel.clear(from);
+        ids.remove(refs[from]);
+        dirty = true;
+    }
+
+    private static void replace(Edges edges, int from, int to) {
+        if (edges != null) {
+            edges.replace(from, to);
+        }
+    }
+
+    private List<String> toRefs(Edges edges) {
+        if (edges == null) {
+            return List.of();
+        }
+
+        List<String> result = new ArrayList<>(edges.size);
+
+        for (int i = 0; i < edges.size; i++) {
+            result.add(refs[edges.items[i]]);
+        }
+
+        return result;
+    }
+
+    private List<Dependency> toDependencies(Edges edges) {
+        if (edges == null) {
+            return new ArrayList<>();
+        }
+
+        List<Dependency> result = new ArrayList<>(edges.size);
+
+        for (int i = 0; i < edges.size; i++) {
+            result.add(new Dependency(refs[edges.items[i]]));
+        }
+
+        return result;
+    }
+
+    /**
+     * A growable list of node ids.
+     */
+    private static final class Edges {
+
+        private int[] items = NONE;
+
+        private int size;
+
+        void add(int id) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, Math.max(4, size * 2));
+            }
+
+            items[size++] = id;
+        }
+
+        boolean contains(int id) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == id) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        boolean remove(int id) {
+            int kept = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (items[i] != id) {
+                    items[kept++] = items[i];
+                }
+            }
+
+            boolean changed = kept != size;
+            size = kept;
+
+            return changed;
+        }
+
+        void replace(int from, int to) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == from) {
+                    items[i] = to;
+                }
+            }
+        }
+
+        /**
+         * Removes the duplicates, {@code seen} holds the last stamp each id was seen with.
+         */
+        void dedup(int[] seen, int stamp) {
+            int kept = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (seen[items[i]] != stamp) {
+                    seen[items[i]] = stamp;
+                    items[kept++] = items[i];
+                }
+            }
+
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Helper class to record the metrics of the main workflows in the Micrometer global registry.
+ * </p>
+ *
+ * <p>
+ * The service exposes the global registry through its Prometheus endpoint. The CLI keeps the metrics of the run in
+ * memory, the automated generation commands write a summary of them (see {@link #writeSummary(MeterRegistry, Path)})
+ * into their workdir as {@link #SUMMARY_FILE_NAME}, so that it is collected with the other generation files. Without
+ * any registry added to the global registry nothing is recorded.
+ * </p>
+ *
+ * <p>
+ * Tags are given as key and value pairs.
+ * </p>
+ */
+@Slf4j
+@UtilityClass
+public class MetricsHelper {
+
+    public static final String BOM_PARSE = "sbomer.bom.parse";
+    public static final String BOM_VALIDATE = "sbomer.bom.validate";
+    public static final String BOM_SERIALIZE = "sbomer.bom.serialize";
+    public static final String INTEGRATION_CALL = "sbomer.integration.call";
+    public static final String SCHEDULER_TICK = "sbomer.scheduler.tick";
+    public static final String SCHEDULER_QUEUE_DEPTH = "sbomer.scheduler.queue.depth";
+    public static final String SCHEDULER_IN_PROGRESS = "sbomer.scheduler.in.progress";
+    public static final String GENERATION_PHASE = "sbomer.generation.phase";
+    public static final String RECONCILE = "sbomer.reconcile";
+    public static final String MANIFEST_UPLOAD = "sbomer.manifest.upload";
+    public static final String MANIFEST_UPLOAD_SIZE = "sbomer.manifest.upload.size";
+    public static final String UMB_CONSUMER_LAG = "sbomer.umb.consumer.lag";
+
+    /**
+     * Name of the metrics summary file written by the CLI into the generation workdir.
+     */
+    public static final String SUMMARY_FILE_NAME = "metrics.json";
+
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Starts timing an operation, to be stopped with {@link #stop(Timer.Sample, String, String...)}.
+     *
+     * @return the started sample
+     */
+    public Timer.Sample start() {
+        return Timer.start(Metrics.globalRegistry);
+    }
+
+    /**
+     * Stops timing an operation and records its duration.
+     *
+     * @param sample the sample returned by {@link #start()}
+     * @param name the name of the timer
+     * @param tags the tags, as key and value pairs
+     */
+    public void stop(Timer.Sample sample, String name, String... tags) {
+        sample.stop(timer(name, tags));
+    }
+
+    /**
+     * Records the duration of an operation which was measured by other means.
+     *
+     * @param name the name of the timer
+     * @param duration the duration
+     * @param tags the tags, as key and value pairs
+     */
+    public void record(String name, Duration duration, String... tags) {
+        timer(name, tags).record(duration);
+    }
+
+    /**
+     * Records the duration of an operation, in nanoseconds.
+     *
+     * @param name the name of the timer
+     * @param nanos the duration in nanoseconds
+     * @param tags the tags, as key and value pairs
+     */
+    public void recordNanos(String name, long nanos, String... tags) {
+        timer(name, tags).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records an amount, for example a size, in a distribution summary.
+     *
+     * @param name the name of the distribution summary
+     * @param baseUnit the unit of the amount, for example {@code bytes}
+     * @param amount the amount
+     * @param tags the tags, as key and value pairs
+     */
+    public void recordAmount(String name, String baseUnit, double amount, String... tags) {
+        DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(amount);
+    }
+
+    /**
+     * Sets the current value of a gauge.
+     *
+     * @param name the name of the gauge
+     * @param value the current value
+     * @param tags the tags, as key and value pairs
+     */
+    public void gauge(String name, long value, String... tags) {
+        gauges.computeIfAbsent(
+                name + Arrays.toString(tags),
+                key -> Metrics.globalRegistry.gauge(name, Tags.of(tags), new AtomicLong())).set(value);
+    }
+
+    /**
+     * Returns the outcome tag value for an operation.
+     *
+     * @param success whether the operation succeeded
+     * @return the tag value
+     */
+    public String outcome(boolean success) {
+        return success ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+    }
+
+    /**
+     * <p>
+     * Writes a JSON summary of all meters of the given registry to the given file: for each meter its name, type,
+     * base unit, tags and measurements (for example {@code count}, {@code total} and {@code max} for timers, in
+     * seconds).
+     * </p>
+     *
+     * <p>
+     * Failures are logged, but not propagated, missing metrics should not fail the run.
+     * </p>
+     *
+     * @param registry the registry to summarize
+     * @param path the file to write the summary to
+     */
+    public void writeSummary(MeterRegistry registry, Path path) {
+        ObjectNode summary = ObjectMapperProvider.json().createObjectNode();
+        ArrayNode meters = summary.putArray("meters");
+
+        registry.getMeters()
+                .stream()
+                .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName())
+                        .thenComparing(meter -> meter.getId().getTags().toString()))
+                .forEach(meter -> {
+                    Meter.Id id = meter.getId();
+                    ObjectNode node = meters.addObject()
+                            .put("name", id.getName())
+                            .put("type", id.getType().name().toLowerCase());
+
+                    if (id.getBaseUnit() != null) {
+                        node.put("baseUnit", id.getBaseUnit());
+                    }
+
+                    ObjectNode tags = node.putObject("tags");
+                    id.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+
+                    ObjectNode measurements = node.putObject("measurements");
+                    meter.measure()
+                            .forEach(
+                                    measurement -> measurements.put(
+                                            measurement.getStatistic().getTagValueRepresentation(),
+                                            measurement.getValue()));
+                });
+
+        try {
+            ObjectMapperProvider.json().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), summary);
+            log.info("Metrics summary written to '{}'", path.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Unable to write the metrics summary to '{}'", path.toAbsolutePath(), e);
+        }
+    }
+
+    private Timer timer(String name, String... tags) {
+        return Timer.builder(name).tags(tags).publishPercentileHistogram().register(Metrics.globalRegistry);
+    }
+}
@@ -48,6 +48,12 @@ public class ObjectMapperProvider {
             .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
             .disable(SerializationFeature.FAIL_ON_UNWRAPPED_TYPE_IDENTIFIERS);
 
+    /**
+     * Plain mapper, configured like the one in the CycloneDX {@code JsonParser}; the CycloneDX model carries its own
+     * (de)serialization annotations.
+     */
+    static final ObjectMapper cyclonedxObjectMapper = new ObjectMapper();
+
     public static ObjectMapper yaml() {
         return yamlObjectMapper;
     }
@@ -55,4 +61,8 @@ public class ObjectMapperProvider {
     public static ObjectMapper json() {
         return jsonObjectMapper;
     }
+
+    public static ObjectMapper cyclonedx() {
+        return cyclonedxObjectMapper;
+    }
 }
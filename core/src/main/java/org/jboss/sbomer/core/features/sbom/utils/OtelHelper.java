@@ -46,6 +46,7 @@ import io.opentelemetry.context.propagation.ContextPropagators;
 import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.IdGenerator;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
@@ -64,6 +65,20 @@ public class OtelHelper {
 
     private Span root = null;
 
+    private SpanSampler sampler = SpanSampler.alwaysOn();
+
+    // Resolving the name involves a regular expression match per class in the hierarchy, it is done once per class
+    private static final ClassValue<String> EFFECTIVE_CLASS_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            Class<?> clazz = type;
+            while (clazz.getSimpleName().matches(".*_\\w+")) {
+                clazz = clazz.getSuperclass();
+            }
+            return clazz.getSimpleName();
+        }
+    };
+
     /**
      * Setup a {@link OtlpGrpcSpanExporter} exporter with the given endpoint.
      *
@@ -164,6 +179,25 @@ public class OtelHelper {
         }
     }
 
+    /**
+     * Returns the {@link SpanSampler} used by {@link #withSpan(Class, String, Supplier, Supplier)}.
+     *
+     * @return the {@link SpanSampler}
+     */
+    public SpanSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Sets the {@link SpanSampler} used by {@link #withSpan(Class, String, Supplier, Supplier)}, by default all spans
+     * are recorded.
+     *
+     * @param spanSampler the {@link SpanSampler}
+     */
+    public void setSampler(SpanSampler spanSampler) {
+        sampler = spanSampler;
+    }
+
     /**
      * Executes an action within an OpenTelemetry span context.
      *
@@ -178,6 +212,11 @@ public class OtelHelper {
      * duplication related to span creation and lifecycle management.
      * </p>
      *
+     * <p>
+     * Prefer {@link #withSpan(Class, String, Supplier, Supplier)}, which builds the attributes only when the span is
+     * recorded.
+     * </p>
+     *
      * @param <T> the type of the resource being reconciled, must extend
      *        {@link io.fabric8.kubernetes.api.model.HasMetadata}
      * @param spanSuffix a suffix used to name the span and log context
@@ -193,10 +232,64 @@ public class OtelHelper {
             Map<String, String> mdcContext,
             Supplier<R> action) {
 
-        String traceId = mdcContext.get(MDC_TRACE_ID_KEY);
-        String spanId = mdcContext.get(MDC_SPAN_ID_KEY);
-        String traceFlags = mdcContext.getOrDefault(MDC_TRACE_FLAGS_KEY, "01");
-        String traceState = mdcContext.get(MDC_TRACE_STATE_KEY);
+        return withSpan(
+                callerClass,
+                spanSuffix,
+                mdcContext.get(MDC_TRACE_ID_KEY),
+                mdcContext.get(MDC_SPAN_ID_KEY),
+                mdcContext.getOrDefault(MDC_TRACE_FLAGS_KEY, "01"),
+                mdcContext.get(MDC_TRACE_STATE_KEY),
+                () -> spanAttributes,
+                action);
+    }
+
+    /**
+     * <p>
+     * Executes an action within an OpenTelemetry span context, the parent span is the current span or, if there is
+     * none, the span identified by the trace keys in the {@link MDC}.
+     * </p>
+     *
+     * <p>
+     * Whether the span is recorded is decided upfront by the {@link SpanSampler}, see {@link #setSampler(SpanSampler)}.
+     * If it is not, no span is created and the action runs with the parent span as the current span or, if there is no
+     * parent, with a non-recording span carrying a new trace id. The {@code spanAttributes} supplier is called only for
+     * recorded spans.
+     * </p>
+     *
+     * @param callerClass the class used to name the span
+     * @param spanSuffix a suffix used to name the span
+     * @param spanAttributes supplies the attributes to be associated with the span
+     * @param action the logic to execute within the span context
+     * @return the result of the action
+     */
+    public <R> R withSpan(
+            Class<?> callerClass,
+            String spanSuffix,
+            Supplier<Map<String, String>> spanAttributes,
+            Supplier<R> action) {
+
+        String traceFlags = MDC.get(MDC_TRACE_FLAGS_KEY);
+
+        return withSpan(
+                callerClass,
+                spanSuffix,
+                MDC.get(MDC_TRACE_ID_KEY),
+                MDC.get(MDC_SPAN_ID_KEY),
+                traceFlags != null ? traceFlags : "01",
+                MDC.get(MDC_TRACE_STATE_KEY),
+                spanAttributes,
+                action);
+    }
+
+    private <R> R withSpan(
+            Class<?> callerClass,
+            String spanSuffix,
+            String traceId,
+            String spanId,
+            String traceFlags,
+            String traceState,
+            Supplier<Map<String, String>> spanAttributes,
+            Supplier<R> action) {
 
         SpanContext parentSpanContext = Span.current().getSpanContext();
         if (!parentSpanContext.isValid() && traceId != null && spanId != null) {
@@ -207,23 +300,35 @@ public class OtelHelper {
                     TraceState.getDefault());
         }
 
+        String spanName = getEffectiveClassName(callerClass) + spanSuffix;
+
+        if (!sampler.shouldSample(spanName, parentSpanContext)) {
+            try (Scope scope = Span.wrap(unsampledSpanContext(parentSpanContext)).makeCurrent()) {
+                return action.get();
+            }
+        }
+
         Context parentContext = Context.root().with(Span.wrap(parentSpanContext));
 
         SpanBuilder spanBuilder = OtelUtils
                 .buildChildSpan(
                         GlobalOpenTelemetry.get().getTracer(""),
-                        getEffectiveClassName(callerClass) + spanSuffix,
+                        spanName,
                         SpanKind.CLIENT,
                         traceId,
                         spanId,
                         traceFlags,
                         traceState,
                         parentSpanContext,
-                        spanAttributes)
+                        Map.of())
                 .setParent(parentContext);
 
         Span span = spanBuilder.startSpan();
 
+        if (span.isRecording()) {
+            spanAttributes.get().forEach(span::setAttribute);
+        }
+
         log.debug(
                 "Started a new span context with traceId: {}, spanId: {}, traceFlags: {}",
                 span.getSpanContext().getTraceId(),
@@ -241,15 +346,29 @@ public class OtelHelper {
         }
     }
 
+    /**
+     * The context to run an action whose span is not recorded with: the parent, unchanged, so that the sampling decision
+     * of the trace is kept for the children, or a new trace which is not sampled if there is no parent, so that logs can
+     * still be correlated.
+     */
+    private SpanContext unsampledSpanContext(SpanContext parent) {
+        if (parent.isValid()) {
+            return parent;
+        }
+
+        return SpanContext.create(
+                IdGenerator.random().generateTraceId(),
+                IdGenerator.random().generateSpanId(),
+                TraceFlags.getDefault(),
+                TraceState.getDefault());
+    }
+
     public static String getEffectiveClassName(Object obj) {
         return getEffectiveClassName(obj.getClass());
     }
 
     public static String getEffectiveClassName(Class<?> clazz) {
-        while (clazz.getSimpleName().matches(".*_\\w+")) {
-            clazz = clazz.getSuperclass();
-        }
-        return clazz.getSimpleName();
+        return EFFECTIVE_CLASS_NAMES.get(clazz);
     }
 
 }
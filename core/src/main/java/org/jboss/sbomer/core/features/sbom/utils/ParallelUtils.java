@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.slf4j.MDC;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ParallelUtils {
+
+    private ParallelUtils() {
+        // This is a utility class
+    }
+
+    /**
+     * <p>
+     * Applies the {@code task} to every item and returns the results in the same order as the items.
+     * </p>
+     *
+     * <p>
+     * When {@code parallelism} is greater than {@code 1} and an {@code executor} is provided, up to {@code parallelism}
+     * items are processed at the same time on the {@code executor}, otherwise items are processed sequentially on the
+     * calling thread. The MDC context of the calling thread is propagated to the workers.
+     * </p>
+     *
+     * <p>
+     * As soon as processing of one item fails, no further items are started and the failure is rethrown once the items
+     * already in progress have completed.
+     * </p>
+     *
+     * @param items the items to process
+     * @param parallelism the maximum number of items processed at the same time
+     * @param executor the executor to run the workers on
+     * @param task the processing of a single item
+     * @return the results (which may be {@code null}), in the order of the items
+     */
+    public static <T, R> List<R> mapOrdered(List<T> items, int parallelism, Executor executor, Function<T, R> task) {
+
+        if (parallelism <= 1 || executor == null || items.size() <= 1) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(task.apply(item));
+            }
+            return results;
+        }
+
+        int workers = Math.min(parallelism, items.size());
+        log.debug("Processing {} items with up to {} items in parallel...", items.size(), workers);
+
+        Object[] results = new Object[items.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            futures[w] = CompletableFuture.runAsync(() -> {
+                Map<String, String> workerMdcContext = MDC.getCopyOfContextMap();
+                if (mdcContext != null) {
+                    MDC.setContextMap(mdcContext);
+                }
+
+                try {
+                    int i;
+                    while (!failed.get() && (i = next.getAndIncrement()) < items.size()) {
+                        try {
+                            // Every index is written by exactly one worker, the join below makes it visible
+                            results[i] = task.apply(items.get(i));
+                        } catch (RuntimeException e) {
+                            // Do not start processing of any other item
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                } finally {
+                    if (workerMdcContext != null) {
+                        MDC.setContextMap(workerMdcContext);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new ApplicationException("Parallel processing failed: {}", e.getMessage(), e);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> ordered = (List<R>) Arrays.asList(results);
+        return new ArrayList<>(ordered);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+/**
+ * <p>
+ * A bounded, thread-safe cache of parsed and sanitized purls. The same purls are parsed many times while a manifest
+ * is processed (validation, sanitization, qualifiers updates, processing), this cache makes sure each one is parsed
+ * only once.
+ * </p>
+ *
+ * <p>
+ * {@link PackageURL} instances are immutable and can be shared. The cache keeps the first instance of every purl
+ * string, which is returned by {@link #intern(String)}, so that components with the same purl share the same string.
+ * </p>
+ *
+ * <p>
+ * Each cache holds at most {@link #MAX_SIZE} entries. Entries are spread over {@link #SEGMENTS} segments, each one
+ * evicting its least recently used entry when a new one is added to it while full, so that concurrent lookups (for
+ * example while components are processed in parallel) do not all wait for the same lock. Hits and misses are
+ * counted, see {@link #stats()}.
+ * </p>
+ */
+public class PurlCache {
+
+    public static final int MAX_SIZE = 100_000;
+
+    /**
+     * Number of independently locked segments of each cache, a power of two.
+     */
+    public static final int SEGMENTS = 16;
+
+    /**
+     * A parsed purl: either the {@code url}, or the {@code error} message if the purl is not valid.
+     */
+    private record Parsed(String purl, PackageURL url, String error) {
+    }
+
+    /**
+     * A map holding at most {@link #MAX_SIZE} entries, split into {@link #SEGMENTS} access-ordered
+     * {@link LinkedHashMap}s of {@code MAX_SIZE / SEGMENTS} entries each. These are modified by reads as well, so every
+     * access to a segment is synchronized on it, the eviction is least recently used per segment.
+     */
+    private static class Lru<V> {
+
+        private final Segment<V>[] segments;
+
+        @SuppressWarnings("unchecked")
+        Lru() {
+            segments = new Segment[SEGMENTS];
+
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment<>(MAX_SIZE / SEGMENTS);
+            }
+        }
+
+        private Segment<V> segment(String key) {
+            int hash = key.hashCode();
+            return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        }
+
+        V get(String key) {
+            Segment<V> segment = segment(key);
+
+            synchronized (segment) {
+                return segment.get(key);
+            }
+        }
+
+        /**
+         * @return the existing value, if another thread added one in the meantime, otherwise the given value
+         */
+        V putIfAbsent(String key, V value) {
+            Segment<V> segment = segment(key);
+
+            synchronized (segment) {
+                V existing = segment.putIfAbsent(key, value);
+                return existing != null ? existing : value;
+            }
+        }
+
+        int size() {
+            int size = 0;
+
+            for (Segment<V> segment : segments) {
+                synchronized (segment) {
+                    size += segment.size();
+                }
+            }
+
+            return size;
+        }
+
+        void clear() {
+            for (Segment<V> segment : segments) {
+                synchronized (segment) {
+                    segment.clear();
+                }
+            }
+        }
+    }
+
+    private static class Segment<V> extends LinkedHashMap<String, V> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * Hit and miss counters of the cache.
+     */
+    public record Stats(long hits, long misses, int size) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d hits, %d misses (hit rate %.1f%%), %d entries",
+                    hits,
+                    misses,
+                    hitRate() * 100,
+                    size);
+        }
+    }
+
+    private static final Lru<Parsed> PARSED = new Lru<>();
+
+    private static final Lru<Optional<String>> SANITIZED = new Lru<>();
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
+
+    private PurlCache() {
+        // This is a utility class
+    }
+
+    /**
+     * Parses the purl, like {@link PackageURL#PackageURL(String)}.
+     *
+     * @param purl the purl to parse
+     * @return the parsed purl
+     * @throws MalformedPackageURLException if the purl is not valid
+     */
+    public static PackageURL parse(String purl) throws MalformedPackageURLException {
+        if (purl == null) {
+            return new PackageURL(purl);
+        }
+
+        Parsed parsed = lookup(purl);
+
+        if (parsed.url() == null) {
+            throw new MalformedPackageURLException(parsed.error());
+        }
+
+        return parsed.url();
+    }
+
+    /**
+     * Returns {@code true} if the purl can be parsed.
+     */
+    public static boolean isValid(String purl) {
+        return purl != null && lookup(purl).url() != null;
+    }
+
+    /**
+     * Returns the cached instance of the purl string, if it is known to the cache, or the purl itself otherwise.
+     */
+    public static String intern(String purl) {
+        if (purl == null) {
+            return null;
+        }
+
+        Parsed parsed = PARSED.get(purl);
+
+        return parsed != null ? parsed.purl() : purl;
+    }
+
+    /**
+     * Sanitizes the purl with {@link PurlSanitizer#sanitizePurl(String)}.
+     *
+     * @param purl the purl to sanitize
+     * @return the sanitized purl, or {@code null} if it cannot be sanitized
+     */
+    public static String sanitize(String purl) {
+        if (purl == null || purl.isEmpty()) {
+            return null;
+        }
+
+        Optional<String> sanitized = SANITIZED.get(purl);
+
+        if (sanitized != null) {
+            HITS.increment();
+            return sanitized.orElse(null);
+        }
+
+        MISSES.increment();
+
+        try {
+            sanitized = Optional.of(PurlSanitizer.sanitizePurl(purl));
+        } catch (RuntimeException e) {
+            sanitized = Optional.empty();
+        }
+
+        return SANITIZED.putIfAbsent(purl, sanitized).orElse(null);
+    }
+
+    public static Stats stats() {
+        return new Stats(HITS.sum(), MISSES.sum(), PARSED.size() + SANITIZED.size());
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public static void clear() {
+        PARSED.clear();
+        SANITIZED.clear();
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    private static Parsed lookup(String purl) {
+        Parsed parsed = PARSED.get(purl);
+
+        if (parsed != null) {
+            HITS.increment();
+            return parsed;
+        }
+
+        MISSES.increment();
+
+        try {
+            parsed = new Parsed(purl, new PackageURL(purl), null);
+        } catch (MalformedPackageURLException e) {
+            parsed = new Parsed(purl, null, e.getMessage());
+        }
+
+        // Another thread may have parsed it in the meantime, keep the first instance
+        return PARSED.putIfAbsent(purl, parsed);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+
+/**
+ * Relocates component purls and keeps track of the resulting bom-ref renames, so that these can be applied to the
+ * dependency tree in a single traversal once all components are relocated.
+ *
+ * <p>
+ * Components can be relocated in several batches, which makes it possible to relocate the components of a BOM which
+ * is processed in chunks, see {@link StreamingBom}.
+ * </p>
+ */
+public class PurlRelocator {
+
+    /**
+     * The top-level dependency refs, updated as the bom-refs are renamed.
+     */
+    private final Set<String> dependencyRefs = new HashSet<>();
+
+    /**
+     * The current ref, by original ref.
+     */
+    private final Map<String, String> renamed = new HashMap<>();
+
+    /**
+     * The original refs, by current ref.
+     */
+    private final Map<String, Set<String>> originals = new HashMap<>();
+
+    public PurlRelocator(List<Dependency> dependencies) {
+        if (dependencies != null) {
+            dependencies.forEach(d -> dependencyRefs.add(d.getRef()));
+        }
+    }
+
+    /**
+     * Updates the purls of the given components, applying the relocations in the iteration order of the map. The
+     * bom-ref of a component is updated too if it is the same as the old purl, unless there is already a dependency
+     * with the new purl, see {@link SbomUtils#updateBomRef(org.cyclonedx.model.Bom, Component, String, String)}.
+     *
+     * @param components the components to relocate
+     * @param relocations the new purls, by old purl
+     */
+    public void relocate(List<Component> components, Map<String, String> relocations) {
+        if (relocations.isEmpty()) {
+            return;
+        }
+
+        // Components by their current purl
+        Map<String, List<Component>> componentsByPurl = new HashMap<>();
+
+        components.stream()
+                .filter(c -> c.getPurl() != null)
+                .forEach(c -> componentsByPurl.computeIfAbsent(c.getPurl(), k -> new ArrayList<>()).add(c));
+
+        relocations.forEach((oldPurl, newPurl) -> {
+            List<Component> relocated = componentsByPurl.remove(oldPurl);
+
+            if (relocated == null) {
+                return;
+            }
+
+            for (Component component : relocated) {
+                // The same component can be both the main component and in the list of components
+                if (!oldPurl.equals(component.getPurl())) {
+                    continue;
+                }
+
+                component.setPurl(newPurl);
+                componentsByPurl.computeIfAbsent(newPurl, k -> new ArrayList<>()).add(component);
+
+                if (oldPurl.equals(component.getBomRef()) && !dependencyRefs.contains(newPurl)) {
+                    component.setBomRef(newPurl);
+                    rename(oldPurl, newPurl);
+
+                    if (dependencyRefs.remove(oldPurl)) {
+                        dependencyRefs.add(newPurl);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns {@code true} if no bom-ref was renamed so far.
+     */
+    public boolean isEmpty() {
+        return renamed.isEmpty();
+    }
+
+    /**
+     * Updates the refs of the dependencies, their nested dependencies and provides, in place.
+     *
+     * @param dependencies the top-level dependencies of the BOM
+     */
+    public void updateDependencies(List<Dependency> dependencies) {
+        if (!isEmpty()) {
+            apply(dependencies, new IdentityHashMap<>());
+        }
+    }
+
+    private void rename(String oldRef, String newRef) {
+        Set<String> refs = originals.remove(oldRef);
+
+        if (refs == null) {
+            refs = new HashSet<>();
+        }
+
+        if (!renamed.containsKey(oldRef)) {
+            refs.add(oldRef);
+        }
+
+        refs.forEach(ref -> renamed.put(ref, newRef));
+        originals.computeIfAbsent(newRef, k -> new HashSet<>()).addAll(refs);
+    }
+
+    /**
+     * @param updated the nodes already visited, mapped to their updated node (which can be the same node)
+     */
+    private void apply(List<Dependency> dependencies, Map<Dependency, Dependency> updated) {
+        for (int i = 0; i < dependencies.size(); i++) {
+            Dependency dependency = dependencies.get(i);
+            Dependency updatedDependency = updated.get(dependency);
+
+            // Nodes can be shared in the tree, these are renamed only once, but every slot must point to the new node
+            if (updatedDependency != null) {
+                if (updatedDependency != dependency) {
+                    dependencies.set(i, updatedDependency);
+                }
+
+                continue;
+            }
+
+            String newRef = renamed.get(dependency.getRef());
+            updatedDependency = dependency;
+
+            if (newRef != null && !newRef.equals(dependency.getRef())) {
+                updatedDependency = new Dependency(newRef);
+                updatedDependency.setDependencies(dependency.getDependencies());
+                updatedDependency.setProvides(dependency.getProvides());
+
+                dependencies.set(i, updatedDependency);
+            }
+
+            updated.put(dependency, updatedDependency);
+            updated.put(updatedDependency, updatedDependency);
+
+            if (updatedDependency.getDependencies() != null) {
+                apply(updatedDependency.getDependencies(), updated);
+            }
+
+            if (updatedDependency.getProvides() != null) {
+                apply(updatedDependency.getProvides(), updated);
+            }
+        }
+    }
+}
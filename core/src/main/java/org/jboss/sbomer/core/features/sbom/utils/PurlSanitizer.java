@@ -50,7 +50,7 @@ public class PurlSanitizer {
 
         // Attempt to parse the PURL using PackageURL
         try {
-            PackageURL parsedPurl = new PackageURL(purl);
+            PackageURL parsedPurl = PurlCache.parse(purl);
             return parsedPurl.canonicalize();
         } catch (MalformedPackageURLException e) {
             // If parsing fails, proceed to manual sanitization
@@ -60,6 +60,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -118,6 +119,8 @@ import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.github.packageurl.PackageURLBuilder;
 
+import io.micrometer.core.instrument.Timer;
+
 public class SbomUtils {
     public static final String PROTOCOL = "https://";
 
@@ -553,9 +556,7 @@ public class SbomUtils {
     }
 
     public static List<ParseException> validate(JsonNode jsonNode) throws IOException {
-        return new JsonParser().validate(
-                jsonNode.isTextual() ? jsonNode.textValue().getBytes() : jsonNode.toString().getBytes(),
-                schemaVersion());
+        return CycloneDxSchemaValidator.validate(jsonNode, schemaVersion());
     }
 
     public static Tool createTool(String version) { // NOSONAR: Tool is deprecated, but this is for legacy support
@@ -589,19 +590,44 @@ public class SbomUtils {
      * @param newPurl the new purl
      */
     public static void updatePurl(Bom bom, String oldPurl, String newPurl) {
-        // Update main component's purl
-        if (updatePurl(bom.getMetadata().getComponent(), oldPurl, newPurl)) {
-            updateBomRef(bom, bom.getMetadata().getComponent(), oldPurl, newPurl);
+        updatePurls(bom, Map.of(oldPurl, newPurl));
+    }
+
+    /**
+     * <p>
+     * For a given {@link Bom} update all references for the purls within the manifest, according to the provided
+     * {@code relocations}, see {@link #updatePurl(Bom, String, String)}.
+     * </p>
+     *
+     * <p>
+     * The result is the same as calling {@link #updatePurl(Bom, String, String)} for every relocation, in the iteration
+     * order of the map, but components and dependencies are traversed only once, and dependencies are updated in
+     * place.
+     * </p>
+     *
+     * @param bom the BOM
+     * @param relocations the new purls, by old purl
+     */
+    public static void updatePurls(Bom bom, Map<String, String> relocations) {
+        if (relocations.isEmpty()) {
+            return;
+        }
+
+        List<Component> components = new ArrayList<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            components.add(bom.getMetadata().getComponent());
         }
 
-        // If we have any components (we really should!) then update these purls as well
         if (bom.getComponents() != null) {
-            // Update all components' purls (if needed)
-            bom.getComponents().forEach(c -> {
-                if (updatePurl(c, oldPurl, newPurl)) {
-                    updateBomRef(bom, c, oldPurl, newPurl);
-                }
-            });
+            components.addAll(bom.getComponents());
+        }
+
+        PurlRelocator relocator = new PurlRelocator(bom.getDependencies());
+        relocator.relocate(components, relocations);
+
+        if (bom.getDependencies() != null) {
+            relocator.updateDependencies(bom.getDependencies());
         }
     }
 
@@ -627,34 +653,29 @@ public class SbomUtils {
      * Updates the bom-ref for the given component, and update the refs in the dependency hierarchy, looking for nested
      * dependencies and provides.
      *
+     * <p>
+     * The manifest is indexed on every call. When updating several bom-refs of the same manifest, build a single
+     * {@link BomIndex} once and use {@link BomIndex#updateBomRef(Component, String, String)} instead.
+     * </p>
+     *
      * @param component the component to update the bom-ref for
      * @param newRef the new reference
      */
     public static void updateBomRef(Bom bom, Component component, String oldRef, String newRef) {
-        // Update the BOM reference of the component.
-        // There might be cases (mainly for components detected by Syft) where the same purl is duplicated across
-        // components (which have different bom-refs). So, we need to check if there are not already dependencies having
-        // the bom-ref equals to the new purl before updating it. Otherwise, we would have bom validation errors.
-        if (oldRef.equals(component.getBomRef())
-                && !bom.getDependencies().stream().map(Dependency::getRef).toList().contains(newRef)) {
-
-            component.setBomRef(newRef);
-
-            // Recursively update the dependencies in the BOM
-            if (bom.getDependencies() != null) {
-                List<Dependency> updatedDependencies = new ArrayList<>(bom.getDependencies().size());
-                for (Dependency dependency : bom.getDependencies()) {
-                    Dependency updatedDependency = updateDependencyRef(dependency, oldRef, newRef);
-                    updatedDependencies.add(updatedDependency);
-                }
-                bom.setDependencies(updatedDependencies);
-            }
-        }
+        BomIndex.of(bom).updateBomRef(component, oldRef, newRef);
     }
 
     public static Dependency updateDependencyRef(Dependency dependency, String oldRef, String newRef) {
-        // If the current dependency has the oldRef, replace it with newRef
-        if (dependency.getRef().equals(oldRef)) {
+        return updateDependencyRef(dependency, oldRef::equals, newRef);
+    }
+
+    public static Dependency updateDependencyRef(Dependency dependency, Pattern pattern, String newRef) {
+        return updateDependencyRef(dependency, ref -> pattern.matcher(ref).matches(), newRef);
+    }
+
+    private static Dependency updateDependencyRef(Dependency dependency, Predicate<String> matches, String newRef) {
+        // If the current dependency ref matches, replace it with newRef
+        if (matches.test(dependency.getRef())) {
             Dependency updatedDependency = new Dependency(newRef);
             updatedDependency.setDependencies(dependency.getDependencies());
             updatedDependency.setProvides(dependency.getProvides());
@@ -663,60 +684,50 @@ public class SbomUtils {
             dependency = updatedDependency;
         }
 
-        // Recursively update sub-dependencies
-        if (dependency.getDependencies() != null) {
-            List<Dependency> subDependencies = new ArrayList<>(dependency.getDependencies().size());
-            for (Dependency subDependency : dependency.getDependencies()) {
-                Dependency updatedSubDependency = updateDependencyRef(subDependency, oldRef, newRef);
-                subDependencies.add(updatedSubDependency);
-            }
+        // Recursively update sub-dependencies and provided dependencies
+        List<Dependency> subDependencies = updateDependencyRefs(dependency.getDependencies(), matches, newRef);
+
+        if (subDependencies != dependency.getDependencies()) {
             dependency.setDependencies(subDependencies);
         }
 
-        // Recursively update provided dependencies
-        if (dependency.getProvides() != null) {
-            List<Dependency> subProvides = new ArrayList<>(dependency.getProvides().size());
-            for (Dependency subProvide : dependency.getProvides()) {
-                Dependency updatedSubProvide = updateDependencyRef(subProvide, oldRef, newRef);
-                subProvides.add(updatedSubProvide);
-            }
+        List<Dependency> subProvides = updateDependencyRefs(dependency.getProvides(), matches, newRef);
+
+        if (subProvides != dependency.getProvides()) {
             dependency.setProvides(subProvides);
         }
 
         return dependency;
     }
 
-    public static Dependency updateDependencyRef(Dependency dependency, Pattern pattern, String newRef) {
-        // If the current dependency ref matches pattern, replace it with newRef
-        if (pattern.matcher(dependency.getRef()).matches()) {
-            Dependency updatedDependency = new Dependency(newRef);
-            updatedDependency.setDependencies(dependency.getDependencies());
-            updatedDependency.setProvides(dependency.getProvides());
-
-            // Replace the old dependency with the updated one
-            dependency = updatedDependency;
+    /**
+     * Updates the refs in the list of dependencies. The list is copied only if one of the dependencies was replaced,
+     * otherwise the same list is returned.
+     */
+    private static List<Dependency> updateDependencyRefs(
+            List<Dependency> dependencies,
+            Predicate<String> matches,
+            String newRef) {
+        if (dependencies == null) {
+            return null; // NOSONAR: The dependencies are not set
         }
 
-        // Recursively update sub-dependencies
-        if (dependency.getDependencies() != null) {
-            List<Dependency> subDependencies = new ArrayList<>(dependency.getDependencies().size());
-            for (Dependency subDependency : dependency.getDependencies()) {
-                Dependency updatedSubDependency = updateDependencyRef(subDependency, pattern, newRef);
-                subDependencies.add(updatedSubDependency);
+        List<Dependency> updated = null;
+
+        for (int i = 0; i < dependencies.size(); i++) {
+            Dependency dependency = dependencies.get(i);
+            Dependency updatedDependency = updateDependencyRef(dependency, matches, newRef);
+
+            if (updatedDependency != dependency && updated == null) {
+                updated = new ArrayList<>(dependencies);
             }
-            dependency.setDependencies(subDependencies);
-        }
 
-        // Recursively update provided dependencies
-        if (dependency.getProvides() != null) {
-            List<Dependency> subProvides = new ArrayList<>(dependency.getProvides().size());
-            for (Dependency subProvide : dependency.getProvides()) {
-                Dependency updatedSubProvide = updateDependencyRef(subProvide, pattern, newRef);
-                subProvides.add(updatedSubProvide);
+            if (updated != null) {
+                updated.set(i, updatedDependency);
             }
-            dependency.setProvides(subProvides);
         }
-        return dependency;
+
+        return updated != null ? updated : dependencies;
     }
 
     public static ToolInformation createToolInformation(String version) {
@@ -865,6 +876,10 @@ public class SbomUtils {
         }
     }
 
+    /**
+     * Finds the first component with the given purl. For repeated lookups in the same manifest, use a
+     * {@link BomIndex}.
+     */
     public static Optional<Component> findComponentWithPurl(String purl, Bom bom) {
         return bom.getComponents().stream().filter(c -> c.getPurl().equals(purl)).findFirst();
     }
@@ -1020,8 +1035,18 @@ public class SbomUtils {
      * @return {@link JsonNode} representation of the {@link Bom}.
      */
     public static JsonNode toJsonNode(Bom bom) {
+        Timer.Sample sample = MetricsHelper.start();
         BomJsonGenerator generator = BomGeneratorFactory.createJson(SbomUtils.schemaVersion(), bom);
-        return generator.toJsonNode();
+
+        try {
+            // Builds the tree directly with the (schema version aware) generator mapper, without going through a String
+            return generator.getMapper().valueToTree(bom);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unable to convert the Bom directly into a JsonNode, falling back to the JSON generator", e);
+            return generator.toJsonNode();
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.BOM_SERIALIZE, "format", "tree");
+        }
     }
 
     /**
@@ -1032,8 +1057,14 @@ public class SbomUtils {
      * @throws GeneratorException if an error occurs during the conversion
      */
     public static String toJson(Bom bom) throws GeneratorException {
-        BomJsonGenerator generator = BomGeneratorFactory.createJson(SbomUtils.schemaVersion(), bom);
-        return generator.toJsonString();
+        Timer.Sample sample = MetricsHelper.start();
+
+        try {
+            BomJsonGenerator generator = BomGeneratorFactory.createJson(SbomUtils.schemaVersion(), bom);
+            return generator.toJsonString();
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.BOM_SERIALIZE, "format", "string");
+        }
     }
 
     /**
@@ -1047,12 +1078,20 @@ public class SbomUtils {
             return null;
         }
 
+        if (jsonNode.isTextual()) {
+            return fromString(jsonNode.textValue());
+        }
+
+        Timer.Sample sample = MetricsHelper.start();
+
         try {
-            final String content = jsonNode.isTextual() ? jsonNode.textValue() : jsonNode.toString();
-            return new JsonParser().parse(content.getBytes(UTF_8));
-        } catch (ParseException e) {
+            // Binds the tree directly, without serializing it into a String first
+            return ObjectMapperProvider.cyclonedx().treeToValue(jsonNode, Bom.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
             log.error(e.getMessage(), e);
             return null;
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.BOM_PARSE, "format", "tree");
         }
     }
 
@@ -1090,11 +1129,15 @@ public class SbomUtils {
     }
 
     public static Bom fromPath(Path path) {
+        Timer.Sample sample = MetricsHelper.start();
+
         try {
             return new JsonParser().parse(path.toFile());
         } catch (ParseException e) {
             log.error(e.getMessage(), e);
             return null;
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.BOM_PARSE, "format", "file");
         }
     }
 
@@ -1107,11 +1150,15 @@ public class SbomUtils {
     }
 
     public static Bom fromString(String bomStr) {
+        Timer.Sample sample = MetricsHelper.start();
+
         try {
             return new JsonParser().parse(bomStr.getBytes(UTF_8));
         } catch (ParseException e) {
             log.error(e.getMessage(), e);
             return null;
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.BOM_PARSE, "format", "string");
         }
     }
 
@@ -1395,7 +1442,7 @@ public class SbomUtils {
         // Try to sanitize the PURL if invalid
         String sanitizedPurl = sanitizePurl(purl);
         if (sanitizedPurl != null) {
-            component.setPurl(sanitizedPurl);
+            component.setPurl(PurlCache.intern(sanitizedPurl));
             log.debug("Sanitized purl {} to {}", purl, sanitizedPurl);
             return true;
         }
@@ -1412,21 +1459,17 @@ public class SbomUtils {
     }
 
     public static boolean isValidPurl(String purl) {
-        try {
-            new PackageURL(purl);
-            return true;
-        } catch (MalformedPackageURLException e) {
-            return false;
-        }
+        return PurlCache.isValid(purl);
     }
 
     public static String sanitizePurl(String purl) {
-        try {
-            return PurlSanitizer.sanitizePurl(purl);
-        } catch (Exception e) {
-            log.debug("Failed to sanitize purl {}", purl, e);
-            return null;
+        String sanitized = PurlCache.sanitize(purl);
+
+        if (sanitized == null) {
+            log.debug("Failed to sanitize purl {}", purl);
         }
+
+        return sanitized;
     }
 
     private static String rebuildPurl(Component component) {
@@ -1462,7 +1505,7 @@ public class SbomUtils {
         }
 
         try {
-            PackageURL purl = new PackageURL(component.getPurl());
+            PackageURL purl = PurlCache.parse(component.getPurl());
             PackageURLBuilder builder = PackageURLBuilder.aPackageURL()
                     .withName(purl.getName())
                     .withNamespace(purl.getNamespace())
@@ -1527,144 +1570,13 @@ public class SbomUtils {
     }
 
     /**
-     * Add missing components from one manifest to another
-     *
-     * @param targetComponents the target manifest components
-     * @param sourceComponents the source manifest components
-     */
-    private static void addMissingComponents(List<Component> targetComponents, List<Component> sourceComponents) {
-        Map<String, Component> mergedComponents = new HashMap<>();
-        for (Component component : targetComponents) {
-            // Skip if can't uniquely identify component
-            if (bomRefExists(component)) {
-                mergedComponents.put(component.getBomRef(), component);
-            }
-        }
-        targetComponents.clear();
-        for (Component component : sourceComponents) {
-            // Skip if can't uniquely identify component
-            if (bomRefExists(component)) {
-                String bomRef = component.getBomRef();
-                Component existingComponent = mergedComponents.get(bomRef);
-                // Duplicate found, see if we have any missing subcomponents
-                if (existingComponent != null) {
-                    log.debug("Component (with bom-ref: '{}') already exists, adding missing subcomponents", bomRef);
-                    List<Component> subComponents = component.getComponents();
-                    // Pointless proceeding unless there are subcomponents from the source manifest
-                    if (isNotEmpty(subComponents)) {
-                        adjustEmptySubComponents(existingComponent);
-                        addMissingComponents(existingComponent.getComponents(), subComponents);
-                    }
-                } else {
-                    log.debug("Adding missing component (with bom-ref: '{}')", bomRef);
-                    mergedComponents.put(bomRef, component);
-                }
-            }
-        }
-        targetComponents.addAll(mergedComponents.values());
-    }
-
-    /**
-     * Add missing dependencies from one manifest to another
+     * Add missing components and dependencies from one manifest to another, see {@link BomMerger}.
      *
-     * @param targetDependencies the target manifest dependencies
-     * @param sourceDependencies the source manifest dependencies
+     * @param targetBom the manifest to add the missing components and dependencies to
+     * @param sourceBom the manifest to take the components and dependencies from
      */
-    private static void addMissingDependencies(
-            List<Dependency> targetDependencies,
-            List<Dependency> sourceDependencies) {
-        Map<String, Dependency> mergedDependencies = new HashMap<>();
-        for (Dependency dependency : targetDependencies) {
-            mergedDependencies.put(dependency.getRef(), dependency);
-        }
-        targetDependencies.clear();
-        for (Dependency dependency : sourceDependencies) {
-            String ref = dependency.getRef();
-            Dependency existingDependency = mergedDependencies.get(ref);
-            // Duplicate found, see if we have any missing sub-dependencies
-            if (existingDependency != null) {
-                log.debug("Dependency (with ref: '{}') already exists, adding missing sub-dependencies", ref);
-                List<Dependency> subDependencies = dependency.getDependencies();
-                // Pointless proceeding unless there are sub-dependencies from source manifest
-                if (isNotEmpty(subDependencies)) {
-                    adjustEmptySubDependencies(existingDependency);
-                    addMissingDependencies(existingDependency.getDependencies(), subDependencies);
-                }
-                List<Dependency> subProvides = dependency.getProvides();
-                // Pointless proceeding unless there are sub-provides from source manifest
-                if (isNotEmpty(subProvides)) {
-                    adjustEmptySubProvides(existingDependency);
-                    addMissingDependencies(existingDependency.getProvides(), subProvides);
-                }
-            } else {
-                log.debug("Adding missing dependency (with ref: '{}')", ref);
-                mergedDependencies.put(ref, dependency);
-            }
-        }
-        targetDependencies.addAll(mergedDependencies.values());
-    }
-
     public static void addMissingComponentsAndDependencies(Bom targetBom, Bom sourceBom) {
-        List<Component> sourcesComponents = sourceBom.getComponents();
-        // Pointless proceeding unless there are components in source manifest
-        if (isNotEmpty(sourcesComponents)) {
-            addMissingComponents(targetBom.getComponents(), sourcesComponents);
-        }
-        List<Dependency> sourcesDependencies = sourceBom.getDependencies();
-        // Pointless proceeding unless there are dependencies in source manifest
-        if (isNotEmpty(sourcesDependencies)) {
-            addMissingDependencies(targetBom.getDependencies(), sourcesDependencies);
-        }
-    }
-
-    /**
-     * Verify if component bom-ref exists
-     *
-     * @param component the component
-     * @return {@code true} if bom-ref exists, {@code false} otherwise
-     */
-    private static boolean bomRefExists(Component component) {
-        if (component.getBomRef() == null) {
-            log.debug(
-                    "Component (of type '{}', cpe: '{}') does not have bom-ref assigned, skipping",
-                    component.getType(),
-                    component.getCpe());
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * If the subcomponents are null, initialize an empty list
-     *
-     * @param component the component to adjust
-     */
-    private static void adjustEmptySubComponents(Component component) {
-        if (component.getComponents() == null) {
-            component.setComponents(new ArrayList<>());
-        }
-    }
-
-    /**
-     * If the sub-dependencies are null, initialize an empty list
-     *
-     * @param dependency the dependency to adjust
-     */
-    private static void adjustEmptySubDependencies(Dependency dependency) {
-        if (dependency.getDependencies() == null) {
-            dependency.setDependencies(new ArrayList<>());
-        }
-    }
-
-    /**
-     * If the sub-provides are null, initialize an empty list
-     *
-     * @param dependency the dependency to adjust
-     */
-    private static void adjustEmptySubProvides(Dependency dependency) {
-        if (dependency.getProvides() == null) {
-            dependency.setProvides(new ArrayList<>());
-        }
+        BomMerger.merge(targetBom, List.of(sourceBom));
     }
 
     /**
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.opentelemetry.api.trace.SpanContext;
+import lombok.Getter;
+
+/**
+ * <p>
+ * Decides whether a span is recorded before anything is done to create it, see
+ * {@link OtelHelper#withSpan(Class, String, java.util.function.Supplier, java.util.function.Supplier)}.
+ * </p>
+ *
+ * <p>
+ * Spans with a valid parent follow the sampling decision of the parent (the {@code sampled} trace flag), so that a
+ * trace is either recorded entirely or not at all. Spans without a parent are recorded with the probability of
+ * {@code sampleRatio}.
+ * </p>
+ *
+ * <p>
+ * Additionally, the number of traces started per second can be limited for every operation (span name), so that a
+ * single hot path cannot flood the exporter. Root spans above the limit are not recorded. The limit does not apply to
+ * spans with a parent, which would leave holes in traces that are otherwise recorded.
+ * </p>
+ */
+public class SpanSampler {
+
+    /**
+     * Sampling counters.
+     */
+    public record Stats(long sampled, long notSampled, long rateLimited) {
+    }
+
+    /**
+     * A token bucket, refilled with {@code rate} tokens per second, holding at most {@code rate} tokens (but at least
+     * one).
+     */
+    private static class Bucket {
+        private final double rate;
+
+        private final double capacity;
+
+        private double tokens;
+
+        private long lastRefillNanos = System.nanoTime();
+
+        Bucket(double rate) {
+            this.rate = rate;
+            this.capacity = Math.max(1, rate);
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1_000_000_000d * rate);
+            lastRefillNanos = now;
+
+            if (tokens < 1) {
+                return false;
+            }
+
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private static final SpanSampler ALWAYS_ON = new SpanSampler(1, 0);
+
+    /**
+     * Ratio of traces recorded, between {@code 0} and {@code 1}.
+     */
+    @Getter
+    private final double sampleRatio;
+
+    /**
+     * Maximum number of root spans recorded per second for every operation, {@code 0} means no limit.
+     */
+    @Getter
+    private final double maxSpansPerSecond;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder sampled = new LongAdder();
+
+    private final LongAdder notSampled = new LongAdder();
+
+    private final LongAdder rateLimited = new LongAdder();
+
+    public SpanSampler(double sampleRatio, double maxSpansPerSecond) {
+        if (sampleRatio < 0 || sampleRatio > 1) {
+            throw new IllegalArgumentException("The sample ratio must be between 0 and 1, got " + sampleRatio);
+        }
+
+        if (maxSpansPerSecond < 0) {
+            throw new IllegalArgumentException(
+                    "The maximum number of spans per second must not be negative, got " + maxSpansPerSecond);
+        }
+
+        this.sampleRatio = sampleRatio;
+        this.maxSpansPerSecond = maxSpansPerSecond;
+    }
+
+    /**
+     * Returns a sampler which records all spans, with no rate limit.
+     *
+     * @return the {@link SpanSampler}
+     */
+    public static SpanSampler alwaysOn() {
+        return ALWAYS_ON;
+    }
+
+    /**
+     * Decides whether the span of the given operation is recorded.
+     *
+     * @param operation the name of the span
+     * @param parent the context of the parent span, may be invalid if there is no parent
+     * @return {@code true} if the span should be recorded
+     */
+    public boolean shouldSample(String operation, SpanContext parent) {
+        boolean sample;
+
+        if (parent.isValid()) {
+            sample = parent.isSampled();
+        } else {
+            sample = sampleRatio >= 1 || (sampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < sampleRatio);
+        }
+
+        if (!sample) {
+            notSampled.increment();
+            return false;
+        }
+
+        if (!parent.isValid() && maxSpansPerSecond > 0 && !buckets.computeIfAbsent(operation, o -> new Bucket(maxSpansPerSecond))
+                .tryAcquire()) {
+            rateLimited.increment();
+            return false;
+        }
+
+        sampled.increment();
+        return true;
+    }
+
+    public Stats stats() {
+        return new Stats(sampled.sum(), notSampled.sum(), rateLimited.sum());
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.errors.ApplicationException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Transforms CycloneDX manifests in JSON format without loading all components in memory.
+ * </p>
+ *
+ * <p>
+ * The manifest is read twice. First, everything but the top-level {@code components} is read into a header
+ * {@link Bom}, this includes the metadata and the dependency graph. Then the top-level components are streamed in
+ * chunks, every chunk is handed over to the {@link Handler} and written to the output right away. The dependencies are
+ * written last, so that the handler can update these once all components were seen.
+ * </p>
+ */
+@Slf4j
+public class StreamingBom {
+
+    private static final String COMPONENTS = "components";
+
+    private static final String DEPENDENCIES = "dependencies";
+
+    private static final ObjectMapper MAPPER = ObjectMapperProvider.json();
+
+    private StreamingBom() {
+        // This is a utility class
+    }
+
+    /**
+     * Handles the components of a manifest transformed by {@link StreamingBom#transform(Path, Path, int, Handler)}.
+     */
+    public interface Handler {
+
+        /**
+         * Called before any component is handled. Changes made to the header, with the exception of its components,
+         * are written to the output.
+         *
+         * @param header the manifest, without its top-level components
+         */
+        default void start(Bom header) {
+        }
+
+        /**
+         * Handles a chunk of top-level components. Only changes made to the dependencies of the header are written to
+         * the output from this point.
+         *
+         * @param header the manifest, without its top-level components
+         * @param components the components of the chunk, in order
+         * @return the components to write in place of the chunk
+         */
+        List<Component> process(Bom header, List<Component> components);
+
+        /**
+         * Called once all components were handled.
+         *
+         * @param header the manifest, without its top-level components
+         * @return the additional components to append to the top-level components
+         */
+        default List<Component> finish(Bom header) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Reads the manifest at the {@code input} path, handles its top-level components in chunks of {@code chunkSize}
+     * components and writes the result to the {@code output} path. The input and output can be the same file, the
+     * output is replaced only once the whole manifest was written.
+     *
+     * @param input the path to the manifest to read
+     * @param output the path to write the transformed manifest to
+     * @param chunkSize the maximum number of components handled at once
+     * @param handler the handler of the components
+     * @return the number of top-level components read from the input
+     */
+    public static long transform(Path input, Path output, int chunkSize, Handler handler) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than zero, got " + chunkSize);
+        }
+
+        Path target = output.toAbsolutePath();
+        Path tmp = null;
+
+        try {
+            Bom header = readHeader(input);
+
+            handler.start(header);
+
+            // Write to a temporary file first, the input may be the output
+            tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+            long total;
+
+            try (JsonParser parser = MAPPER.getFactory().createParser(input.toFile());
+                    JsonGenerator generator = MAPPER.getFactory().createGenerator(tmp.toFile(), JsonEncoding.UTF8)) {
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartObject();
+
+                writeHeader(generator, header);
+
+                generator.writeArrayFieldStart(COMPONENTS);
+                total = transformComponents(parser, generator, header, chunkSize, handler);
+                writeComponents(generator, handler.finish(header));
+                generator.writeEndArray();
+
+                writeDependencies(generator, header);
+
+                generator.writeEndObject();
+            }
+
+            move(tmp, target);
+
+            log.debug("Transformed {} components of manifest '{}' in chunks of {}", total, input, chunkSize);
+
+            return total;
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to transform manifest '{}'", input, e);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Reads all top-level fields of the manifest, except the components.
+     */
+    private static Bom readHeader(Path input) throws IOException {
+        ObjectNode node = MAPPER.createObjectNode();
+
+        try (JsonParser parser = MAPPER.getFactory().createParser(input.toFile())) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+
+                if (COMPONENTS.equals(name)) {
+                    parser.skipChildren();
+                } else {
+                    node.set(name, MAPPER.readTree(parser));
+                }
+            }
+        }
+
+        Bom header = SbomUtils.fromJsonNode(node);
+
+        if (header == null) {
+            throw new ApplicationException("Unable to parse manifest '{}'", input);
+        }
+
+        return header;
+    }
+
+    private static long transformComponents(
+            JsonParser parser,
+            JsonGenerator generator,
+            Bom header,
+            int chunkSize,
+            Handler handler) throws IOException {
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+        long total = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            if (!COMPONENTS.equals(name) || token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+
+            List<JsonNode> chunk = new ArrayList<>(chunkSize);
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(MAPPER.readTree(parser));
+
+                if (chunk.size() == chunkSize) {
+                    total += transformChunk(generator, header, chunk, handler);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                total += transformChunk(generator, header, chunk, handler);
+            }
+        }
+
+        return total;
+    }
+
+    private static int transformChunk(JsonGenerator generator, Bom header, List<JsonNode> chunk, Handler handler)
+            throws IOException {
+        // Parse the chunk as a minimal manifest, so that components are read exactly as in a full manifest
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("bomFormat", header.getBomFormat());
+        node.put("specVersion", header.getSpecVersion());
+        node.putArray(COMPONENTS).addAll(chunk);
+
+        Bom bom = SbomUtils.fromJsonNode(node);
+
+        if (bom == null || bom.getComponents() == null) {
+            throw new ApplicationException("Unable to parse a chunk of {} components", chunk.size());
+        }
+
+        writeComponents(generator, handler.process(header, bom.getComponents()));
+
+        return chunk.size();
+    }
+
+    private static void writeHeader(JsonGenerator generator, Bom header) throws IOException {
+        List<Dependency> dependencies = header.getDependencies();
+        JsonNode node;
+
+        // The dependencies are written last, once all components were handled
+        header.setDependencies(null);
+
+        try {
+            node = SbomUtils.toJsonNode(header);
+        } finally {
+            header.setDependencies(dependencies);
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+
+            if (!COMPONENTS.equals(field.getKey())) {
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+        }
+    }
+
+    private static void writeComponents(JsonGenerator generator, List<Component> components) throws IOException {
+        if (components == null || components.isEmpty()) {
+            return;
+        }
+
+        Bom bom = new Bom();
+        bom.setComponents(components);
+
+        for (JsonNode component : SbomUtils.toJsonNode(bom).path(COMPONENTS)) {
+            generator.writeTree(component);
+        }
+    }
+
+    private static void writeDependencies(JsonGenerator generator, Bom header) throws IOException {
+        if (!SbomUtils.isNotEmpty(header.getDependencies())) {
+            return;
+        }
+
+        Bom bom = new Bom();
+        bom.setDependencies(header.getDependencies());
+
+        JsonNode dependencies = SbomUtils.toJsonNode(bom).get(DEPENDENCIES);
+
+        if (dependencies != null) {
+            generator.writeFieldName(DEPENDENCIES);
+            generator.writeTree(dependencies);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new ApplicationException(
+                    "Unexpected token {} at {}, expected {}",
+                    actual,
+                    parser.currentLocation(),
+                    expected);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Unable to delete temporary file '{}'", path, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.validation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.parsers.JsonParser;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.ValidationMessage;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * <p>
+ * Validates CycloneDX manifests against the JSON schema of a given specification version.
+ * </p>
+ *
+ * <p>
+ * Contrary to the CycloneDX {@link JsonParser#validate(byte[], Version)}, the manifest is validated as a tree, without
+ * serializing it first, and every schema is loaded and compiled only once. Compiled schemas are thread-safe and shared
+ * by all callers.
+ * </p>
+ *
+ * <p>
+ * Before the schema validation, a cheap structural check rejects content which cannot be a CycloneDX manifest at all.
+ * The number of reported errors is capped to {@link #DEFAULT_MAX_ERRORS}, unless specified otherwise.
+ * </p>
+ */
+public class CycloneDxSchemaValidator {
+
+    public static final int DEFAULT_MAX_ERRORS = 100;
+
+    private static final Map<Version, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private CycloneDxSchemaValidator() {
+        // This is a utility class
+    }
+
+    /**
+     * Validates the manifest, reporting at most {@link #DEFAULT_MAX_ERRORS} errors.
+     *
+     * @see #validate(JsonNode, Version, int)
+     */
+    public static List<ParseException> validate(JsonNode bom, Version version) throws IOException {
+        return validate(bom, version, DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Validates the manifest against the schema of the given version.
+     *
+     * @param bom The manifest, either as a tree or as a JSON string.
+     * @param version The CycloneDX specification version to validate against.
+     * @param maxErrors The maximum number of reported errors; the remaining ones are summarized in a last error.
+     * @return The list of validation errors, empty if the manifest is valid.
+     * @throws IOException if the manifest is a string which cannot be parsed, or the schema cannot be loaded
+     */
+    public static List<ParseException> validate(JsonNode bom, Version version, int maxErrors) throws IOException {
+        Timer.Sample sample = MetricsHelper.start();
+
+        try {
+            return doValidate(bom, version, maxErrors);
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.BOM_VALIDATE, "version", version.getVersionString());
+        }
+    }
+
+    private static List<ParseException> doValidate(JsonNode bom, Version version, int maxErrors) throws IOException {
+        JsonNode tree = bom.isTextual() ? ObjectMapperProvider.cyclonedx().readTree(bom.textValue()) : bom;
+
+        Optional<String> precheck = precheck(tree);
+
+        if (precheck.isPresent()) {
+            return List.of(new ParseException(precheck.get()));
+        }
+
+        Set<ValidationMessage> messages = schema(version).validate(tree);
+        List<ParseException> exceptions = new ArrayList<>(Math.min(messages.size(), maxErrors + 1));
+        Iterator<ValidationMessage> iterator = messages.iterator();
+
+        while (iterator.hasNext() && exceptions.size() < maxErrors) {
+            exceptions.add(new ParseException(iterator.next().getMessage()));
+        }
+
+        if (messages.size() > maxErrors) {
+            exceptions.add(new ParseException("$: " + (messages.size() - maxErrors) + " more errors not reported"));
+        }
+
+        return exceptions;
+    }
+
+    /**
+     * Checks the overall structure of the manifest, without the schema. Messages use the same format as the schema
+     * validation ones.
+     *
+     * @param bom The manifest tree.
+     * @return The reason why the content cannot be a CycloneDX manifest, or empty if it passes the check.
+     */
+    public static Optional<String> precheck(JsonNode bom) {
+        if (bom == null || !bom.isObject()) {
+            return Optional.of("$: object expected");
+        }
+
+        if (!"CycloneDX".equals(bom.path("bomFormat").asText(null))) {
+            return Optional.of("$.bomFormat: must be 'CycloneDX'");
+        }
+
+        if (!bom.path("specVersion").isTextual()) {
+            return Optional.of("$.specVersion: string expected");
+        }
+
+        for (String field : List.of("components", "dependencies", "services")) {
+            if (bom.has(field) && !bom.get(field).isArray()) {
+                return Optional.of("$." + field + ": array expected");
+            }
+        }
+
+        if (bom.has("metadata") && !bom.get("metadata").isObject()) {
+            return Optional.of("$.metadata: object expected");
+        }
+
+        return Optional.empty();
+    }
+
+    private static JsonSchema schema(Version version) throws IOException {
+        try {
+            return SCHEMAS.computeIfAbsent(version, v -> {
+                try {
+                    return new JsonParser().getJsonSchema(v, ObjectMapperProvider.cyclonedx());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -20,9 +20,14 @@ package org.jboss.sbomer.core.pnc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.jboss.pnc.client.ArtifactClient;
 import org.jboss.pnc.client.BuildClient;
@@ -51,6 +56,8 @@ import org.jboss.pnc.dto.requests.DeliverablesAnalysisRequest;
 import org.jboss.pnc.dto.response.AnalyzedArtifact;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -61,6 +68,33 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PncService {
 
+    /**
+     * Default maximum number of lookups combined into a single artifact query.
+     */
+    public static final int DEFAULT_ARTIFACT_BATCH_SIZE = 20;
+
+    /**
+     * Identifies an artifact to look up by its purl and/or hashes. Any of the values can be {@code null}.
+     *
+     * @param purl the purl of the artifact
+     * @param sha256 the SHA-256 hash of the artifact
+     * @param sha1 the SHA-1 hash of the artifact
+     * @param md5 the MD5 hash of the artifact
+     */
+    public record ArtifactLookup(String purl, String sha256, String sha1, String md5) {
+
+        public boolean isEmpty() {
+            return purl == null && sha256 == null && sha1 == null && md5 == null;
+        }
+
+        boolean matches(Artifact artifact) {
+            return (purl != null && purl.equals(artifact.getPurl()))
+                    || (sha256 != null && sha256.equals(artifact.getSha256()))
+                    || (sha1 != null && sha1.equals(artifact.getSha1()))
+                    || (md5 != null && md5.equals(artifact.getMd5()));
+        }
+    }
+
     @Getter
     final String apiUrl;
 
@@ -80,8 +114,29 @@ public class PncService {
 
     final DeliverableAnalyzerReportClient deliverableAnalyzerReportClient;
 
+    @Getter
+    final IntegrationGuard guard;
+
     public PncService(String apiUrl) {
+        this(apiUrl, IntegrationGuardConfig.builder().withEnabled(false).build());
+    }
+
+    /**
+     * Creates the service with the calls to PNC limited according to the provided {@code guardConfig}. Not found
+     * responses are not considered failures.
+     *
+     * @param apiUrl the PNC host
+     * @param guardConfig the limits applied to the calls made to PNC
+     */
+    public PncService(String apiUrl, IntegrationGuardConfig guardConfig) {
         this.apiUrl = apiUrl;
+        this.guard = new IntegrationGuard(
+                "pnc",
+                guardConfig.toBuilder()
+                        .withFailurePredicate(
+                                e -> !(e instanceof RemoteResourceNotFoundException)
+                                        && guardConfig.getFailurePredicate().test(e))
+                        .build());
 
         artifactClient = new ArtifactClient(getConfiguration());
         buildClient = new BuildClient(getConfiguration());
@@ -131,7 +186,7 @@ public class PncService {
     public Build getBuild(String buildId) {
         log.debug("Fetching Build from PNC with id '{}'", buildId);
         try {
-            return buildClient.getSpecific(buildId);
+            return guard.call(() -> buildClient.getSpecific(buildId));
         } catch (RemoteResourceNotFoundException ex) {
             log.warn("Build with id '{}' was not found in PNC", buildId);
             return null;
@@ -156,7 +211,7 @@ public class PncService {
     public BuildConfiguration getBuildConfig(String buildConfigId) {
         log.debug("Fetching BuildConfiguration from PNC with id '{}'", buildConfigId);
         try {
-            return buildConfigurationClient.getSpecific(buildConfigId);
+            return guard.call(() -> buildConfigurationClient.getSpecific(buildConfigId));
         } catch (RemoteResourceNotFoundException ex) {
             log.warn("BuildConfig with id '{}' was not found in PNC", buildConfigId);
             return null;
@@ -181,7 +236,7 @@ public class PncService {
     public GroupConfiguration getGroupConfig(String groupConfigId) {
         log.debug("Fetching GroupConfiguration from PNC with id '{}'", groupConfigId);
         try {
-            return groupConfigurationClient.getSpecific(groupConfigId);
+            return guard.call(() -> groupConfigurationClient.getSpecific(groupConfigId));
         } catch (RemoteResourceNotFoundException ex) {
             log.warn("GroupConfiguration with id '{}' was not found in PNC", groupConfigId);
             return null;
@@ -210,7 +265,7 @@ public class PncService {
     public DeliverableAnalyzerOperation getDeliverableAnalyzerOperation(String operationId) {
         log.debug("Fetching DeliverableAnalyzerOperation from PNC with id '{}'", operationId);
         try {
-            return operationClient.getSpecificDeliverableAnalyzer(operationId);
+            return guard.call(() -> operationClient.getSpecificDeliverableAnalyzer(operationId));
         } catch (RemoteResourceNotFoundException ex) {
             log.warn("DeliverableAnalyzerOperation with id '{}' was not found in PNC", operationId);
             return null;
@@ -236,7 +291,7 @@ public class PncService {
     public ProductVersion getProductVersion(String productVersionId) {
         log.debug("Fetching ProductVersion from PNC with id '{}'", productVersionId);
         try {
-            return productVersionClient.getSpecific(productVersionId);
+            return guard.call(() -> productVersionClient.getSpecific(productVersionId));
         } catch (RemoteResourceNotFoundException ex) {
             log.warn("ProductVersion with id '{}' was not found in PNC", productVersionId);
             return null;
@@ -261,7 +316,7 @@ public class PncService {
     public ProductMilestone getMilestone(String milestoneId) {
         log.debug("Fetching ProductMilestone from PNC with id '{}'", milestoneId);
         try {
-            return productMilestoneClient.getSpecific(milestoneId);
+            return guard.call(() -> productMilestoneClient.getSpecific(milestoneId));
         } catch (RemoteResourceNotFoundException ex) {
             log.warn("ProductMilestone with id '{}' was not found in PNC", milestoneId);
             return null;
@@ -355,64 +410,151 @@ public class PncService {
 
     // FIXME: 'Optional<String>' used as a type parameter
     public Artifact getArtifact(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
-        if (purl == null && sha256.orElse(null) == null && sha1.orElse(null) == null && md5.orElse(null) == null) {
+        ArtifactLookup lookup = new ArtifactLookup(purl, sha256.orElse(null), sha1.orElse(null), md5.orElse(null));
+
+        if (lookup.isEmpty()) {
             log.debug("No meaningful values provided for searching an artifact, returning nothing");
 
             return null;
         }
 
-        List<String> query = new ArrayList<>();
-
         // Purl was provided, so let's use it, hashes will be used to filter out results, if there are multiple
         // artifacts returned
-        if (purl != null) {
-            // We need to make a small tweak to find the NPM purls because PNC does not like the % in the purl
-            if (purl.startsWith("pkg:npm/%40redhat/")) {
-                query.add("purl=like=\"" + purl.replace("pkg:npm/%40redhat/", "pkg:npm/?40redhat/") + "\"");
-            } else {
-                query.add("purl==\"" + purl + "\"");
+        String rsql = String.join(",", toQuery(lookup));
+
+        log.debug("Using following rsql query to search for an artifact: '{}'", rsql);
+
+        return selectArtifact(queryArtifacts(rsql));
+    }
+
+    /**
+     * <p>
+     * Looks up artifacts for many {@link ArtifactLookup}s at once. Lookups are combined into OR-ed RSQL queries of at
+     * most {@code batchSize} lookups each, and the results are matched back to the lookups by purl or hash. For every
+     * lookup the same artifact is selected as {@link #getArtifact(String, Optional, Optional, Optional)} would return.
+     * </p>
+     *
+     * <p>
+     * Lookups without any value are ignored. If a query fails, or returns artifacts which cannot be matched back, the
+     * lookups which could not be resolved are not part of the result, so that these can be retried one at a time.
+     * </p>
+     *
+     * @param lookups the lookups to resolve
+     * @param batchSize the maximum number of lookups combined into a single query
+     * @return the found artifact, or {@code null} if there is none, for every resolved lookup
+     */
+    public Map<ArtifactLookup, Artifact> getArtifacts(Collection<ArtifactLookup> lookups, int batchSize) {
+        Map<ArtifactLookup, Artifact> artifacts = new LinkedHashMap<>();
+
+        if (lookups == null || lookups.isEmpty()) {
+            return artifacts;
+        }
+
+        List<ArtifactLookup> unique = lookups.stream()
+                .filter(Objects::nonNull)
+                .filter(lookup -> !lookup.isEmpty())
+                .distinct()
+                .toList();
+        int size = Math.max(1, batchSize);
+
+        log.debug("Looking up {} artifacts in batches of {}", unique.size(), size);
+
+        for (int i = 0; i < unique.size(); i += size) {
+            List<ArtifactLookup> batch = unique.subList(i, Math.min(i + size, unique.size()));
+            Set<String> query = new LinkedHashSet<>();
+
+            batch.forEach(lookup -> query.addAll(toQuery(lookup)));
+
+            String rsql = String.join(",", query);
+            Collection<Artifact> found;
+
+            try {
+                found = queryArtifacts(rsql);
+            } catch (ClientException e) {
+                log.warn(
+                        "Batch lookup of {} artifacts failed, these will need to be looked up one by one: {}",
+                        batch.size(),
+                        e.getMessage());
+                continue;
+            }
+
+            if (batch.size() == 1) {
+                artifacts.put(batch.get(0), selectArtifact(found));
+                continue;
             }
+
+            // Artifacts which cannot be matched to any lookup make it impossible to tell whether the lookups without a
+            // match were not found, leave these to be looked up one by one
+            boolean allMatched = found.stream().allMatch(artifact -> batch.stream().anyMatch(l -> l.matches(artifact)));
+
+            batch.forEach(lookup -> {
+                List<Artifact> matching = found.stream().filter(lookup::matches).toList();
+
+                if (!matching.isEmpty() || allMatched) {
+                    artifacts.put(lookup, selectArtifact(matching));
+                }
+            });
         }
 
-        sha256.ifPresent(s -> query.add("sha256==" + s));
+        return artifacts;
+    }
 
-        sha1.ifPresent(s -> query.add("sha1==" + s));
+    private List<String> toQuery(ArtifactLookup lookup) {
+        List<String> query = new ArrayList<>();
 
-        md5.ifPresent(s -> query.add("md5==" + s));
+        if (lookup.purl() != null) {
+            // We need to make a small tweak to find the NPM purls because PNC does not like the % in the purl
+            if (lookup.purl().startsWith("pkg:npm/%40redhat/")) {
+                query.add("purl=like=\"" + lookup.purl().replace("pkg:npm/%40redhat/", "pkg:npm/?40redhat/") + "\"");
+            } else {
+                query.add("purl==\"" + lookup.purl() + "\"");
+            }
+        }
 
-        String rsql = String.join(",", query);
+        if (lookup.sha256() != null) {
+            query.add("sha256==" + lookup.sha256());
+        }
 
-        log.debug("Using following rsql query to search for an artifact: '{}'", rsql);
+        if (lookup.sha1() != null) {
+            query.add("sha1==" + lookup.sha1());
+        }
 
-        RemoteCollection<Artifact> remoteArtifacts;
+        if (lookup.md5() != null) {
+            query.add("md5==" + lookup.md5());
+        }
 
-        try {
-            remoteArtifacts = artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql));
+        return query;
+    }
 
+    private Collection<Artifact> queryArtifacts(String rsql) {
+        try {
+            return guard
+                    .call(() -> artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql)).getAll());
         } catch (RemoteResourceException ex) {
             throw new ClientException("Querying artifact failed, PNC responded with an error, query: '{}'", rsql, ex);
         }
+    }
 
-        if (remoteArtifacts.size() == 0) {
+    private Artifact selectArtifact(Collection<Artifact> artifacts) {
+        if (artifacts.isEmpty()) {
             log.debug("No artifact found, returning nothing");
             return null;
         }
 
-        if (remoteArtifacts.size() == 1) {
+        if (artifacts.size() == 1) {
             log.debug("Single artifact found, returning it!");
-            return remoteArtifacts.iterator().next();
+            return artifacts.iterator().next();
         }
 
         // First try to select artifacts with an associated build
-        Collection<Artifact> allArtifacts = remoteArtifacts.getAll();
-        Optional<Artifact> artifact = allArtifacts.stream().filter(a -> a.getBuild() != null).findFirst();
+        Optional<Artifact> artifact = artifacts.stream().filter(a -> a.getBuild() != null).findFirst();
         if (artifact.isPresent()) {
-            log.debug("Found {} results, returning the artifact associated with a build", remoteArtifacts.size());
+            log.debug("Found {} results, returning the artifact associated with a build", artifacts.size());
             return artifact.get();
         }
         // If no artifact has a build, return the newest one
-        log.debug("Found {} results, returning newest one", remoteArtifacts.size());
-        return allArtifacts.stream().skip(allArtifacts.size() - 1L).findFirst().orElse(null);
+        log.debug("Found {} results, returning newest one", artifacts.size());
+        return artifacts.stream().skip(artifacts.size() - 1L).findFirst().orElse(null);
     }
 
     /**
@@ -425,9 +567,37 @@ public class PncService {
         log.debug("Fetching analyzed artifacts from PNC for DeliverableAnalyzerReport '{}'", reportId);
 
         try {
-            RemoteCollection<AnalyzedArtifact> analyzedArtifact = deliverableAnalyzerReportClient
-                    .getAnalyzedArtifacts(reportId);
-            return new ArrayList<>(analyzedArtifact.getAll());
+            return guard.call(
+                    () -> new ArrayList<>(deliverableAnalyzerReportClient.getAnalyzedArtifacts(reportId).getAll()));
+        } catch (RemoteResourceNotFoundException ex) {
+            throw new ApplicationException(
+                    "Analyzed Artifacts for the DeliverableAnalyzerReport '{}' were not found in PNC",
+                    reportId,
+                    ex);
+        } catch (RemoteResourceException ex) {
+            throw new ClientException(
+                    "Analyzed Artifacts for the DeliverableAnalyzerReport '{}' could not be retrieved because PNC responded with an error",
+                    reportId,
+                    ex);
+        }
+    }
+
+    /**
+     * Passes the analyzed artifacts of the specified DeliverableAnalyzerReport to the {@code consumer}, page by page as
+     * these are retrieved from PNC, instead of retrieving all of them first like
+     * {@link #getAllAnalyzedArtifacts(String)}.
+     *
+     * @param reportId The deliverable analyzer report identifier
+     * @param consumer The consumer of the analyzed artifacts
+     */
+    public void forEachAnalyzedArtifact(String reportId, Consumer<AnalyzedArtifact> consumer) {
+        log.debug("Streaming analyzed artifacts from PNC for DeliverableAnalyzerReport '{}'", reportId);
+
+        try {
+            // Following pages are retrieved while iterating
+            RemoteCollection<AnalyzedArtifact> artifacts = guard
+                    .call(() -> deliverableAnalyzerReportClient.getAnalyzedArtifacts(reportId));
+            artifacts.forEach(consumer);
         } catch (RemoteResourceNotFoundException ex) {
             throw new ApplicationException(
                     "Analyzed Artifacts for the DeliverableAnalyzerReport '{}' were not found in PNC",
@@ -458,7 +628,7 @@ public class PncService {
                     "Triggering new deliverable analysis operation for the milestone {} and urls '{}'",
                     milestoneId,
                     deliverableUrls);
-            return productMilestoneClient.analyzeDeliverables(milestoneId, request);
+            return guard.call(() -> productMilestoneClient.analyzeDeliverables(milestoneId, request));
         } catch (RemoteResourceException ex) {
             throw new ClientException(
                     "A Deliverable Analysis Operation could not be started because PNC responded with an error",
@@ -477,8 +647,10 @@ public class PncService {
     public Collection<Artifact> getNPMDependencies(String buildID) {
         log.debug("Fetching NPM Dependencies from PNC build with id '{}'", buildID);
         try {
-            return buildClient.getDependencyArtifacts(buildID, Optional.empty(), Optional.of("purl=LIKE=pkg:npm*"))
-                    .getAll();
+            return guard.call(
+                    () -> buildClient
+                            .getDependencyArtifacts(buildID, Optional.empty(), Optional.of("purl=LIKE=pkg:npm*"))
+                            .getAll());
         } catch (RemoteResourceException ex) {
             throw new ClientException("Dependencies could not be retrieved because PNC responded with an error", ex);
         }
@@ -0,0 +1,456 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.rest.faulttolerance;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ServiceUnavailableException;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Protects a single external system (and the rest of the application) from overload by applying to every call made to
+ * it:
+ * </p>
+ *
+ * <ul>
+ * <li>a circuit breaker, which rejects calls immediately after too many recent calls failed,</li>
+ * <li>a token-bucket rate limiter,</li>
+ * <li>a bulkhead, which limits the number of concurrent calls,</li>
+ * <li>an adaptive timeout, computed from the observed latency; slower calls are counted as failures by the circuit
+ * breaker.</li>
+ * </ul>
+ *
+ * <p>
+ * Calls which cannot be made are rejected with a {@link ServiceUnavailableException}.
+ * </p>
+ */
+@Slf4j
+public class IntegrationGuard {
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * A call guarded by the {@link IntegrationGuard}.
+     */
+    @FunctionalInterface
+    public interface GuardedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Snapshot of the state of the guard.
+     */
+    public record Status(String name, boolean enabled, CircuitState circuitState, int inFlight, int maxConcurrentCalls,
+            long calls, long successes, long failures, long slowCalls, long rejected, long rateLimited,
+            long shortCircuited, long averageLatencyMillis, long timeoutMillis) {
+    }
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final IntegrationGuardConfig config;
+
+    private final Semaphore bulkhead;
+
+    // Token bucket
+    private final Object bucketLock = new Object();
+    private double tokens;
+    private long lastRefillNanos;
+
+    // Circuit breaker, the outcome of the most recent calls is kept in a ring buffer
+    private final Object circuitLock = new Object();
+    private final boolean[] outcomes;
+    private int outcomesIndex;
+    private int outcomesSize;
+    private int outcomesFailures;
+    private CircuitState circuitState = CircuitState.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInProgress;
+
+    // Adaptive timeout, computed the same way as the TCP retransmission timeout (RFC 6298)
+    private final Object latencyLock = new Object();
+    private double smoothedLatencyMillis = -1;
+    private double latencyVariationMillis;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    public IntegrationGuard(String name, IntegrationGuardConfig config) {
+        this.name = name;
+        this.config = config;
+        this.bulkhead = new Semaphore(Math.max(1, config.getMaxConcurrentCalls()), true);
+        this.outcomes = new boolean[Math.max(1, config.getRequestVolumeThreshold())];
+        this.tokens = Math.max(1, config.getRateLimitBurst());
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Makes the {@code call} if the limits of the external system allow it.
+     *
+     * @param call the call to the external system
+     * @return the result of the call
+     * @throws ServiceUnavailableException if the call was rejected
+     * @throws E the exception thrown by the call
+     */
+    public <T, E extends Exception> T call(GuardedCall<T, E> call) throws E {
+        return call(call, true);
+    }
+
+    /**
+     * Makes the {@code call} like {@link #call(GuardedCall)}, but leaves it out of the adaptive timeout: its latency is
+     * not used to compute the timeout and it is never counted as a slow call. Meant for calls whose duration depends on
+     * their size, such as batches, which would otherwise open the circuit only for being large.
+     *
+     * @param call the call to the external system
+     * @return the result of the call
+     * @throws ServiceUnavailableException if the call was rejected
+     * @throws E the exception thrown by the call
+     */
+    public <T, E extends Exception> T callUntimed(GuardedCall<T, E> call) throws E {
+        return call(call, false);
+    }
+
+    private <T, E extends Exception> T call(GuardedCall<T, E> call, boolean timed) throws E {
+        if (!config.isEnabled()) {
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try {
+                T result = call.call();
+                failed = false;
+                return result;
+            } finally {
+                recordMetrics(failed, System.nanoTime() - start);
+            }
+        }
+
+        boolean trial = acquireCircuit();
+        boolean acquired = false;
+        boolean recorded = false;
+
+        try {
+            acquireToken();
+            acquireBulkhead();
+            acquired = true;
+
+            calls.increment();
+            long start = System.nanoTime();
+
+            try {
+                T result = call.call();
+                record(trial, false, start, timed);
+                recorded = true;
+                return result;
+            } catch (Exception e) {
+                record(trial, config.getFailurePredicate().test(e), start, timed);
+                recorded = true;
+                throw e;
+            }
+        } finally {
+            if (acquired) {
+                bulkhead.release();
+            }
+
+            if (trial && !recorded) {
+                // The trial call was not made (or did not complete), let another one through
+                synchronized (circuitLock) {
+                    trialInProgress = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the current adaptive timeout.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getTimeoutMillis() {
+        long min = config.getMinTimeout().toMillis();
+        long max = Math.max(min, config.getMaxTimeout().toMillis());
+
+        synchronized (latencyLock) {
+            if (smoothedLatencyMillis < 0) {
+                return max;
+            }
+
+            long timeout = (long) (smoothedLatencyMillis + 4 * latencyVariationMillis);
+            return Math.min(max, Math.max(min, timeout));
+        }
+    }
+
+    public CircuitState getCircuitState() {
+        synchronized (circuitLock) {
+            if (circuitState == CircuitState.OPEN && isDelayElapsed()) {
+                return CircuitState.HALF_OPEN;
+            }
+
+            return circuitState;
+        }
+    }
+
+    public Status getStatus() {
+        long averageLatency;
+
+        synchronized (latencyLock) {
+            averageLatency = smoothedLatencyMillis < 0 ? 0 : (long) smoothedLatencyMillis;
+        }
+
+        return new Status(
+                name,
+                config.isEnabled(),
+                getCircuitState(),
+                Math.max(1, config.getMaxConcurrentCalls()) - bulkhead.availablePermits(),
+                config.getMaxConcurrentCalls(),
+                calls.sum(),
+                successes.sum(),
+                failures.sum(),
+                slowCalls.sum(),
+                rejected.sum(),
+                rateLimited.sum(),
+                shortCircuited.sum(),
+                averageLatency,
+                getTimeoutMillis());
+    }
+
+    /**
+     * Closes the circuit and forgets the outcome of previous calls.
+     */
+    public void reset() {
+        synchronized (circuitLock) {
+            close();
+        }
+
+        log.info("Circuit breaker of the '{}' integration was reset", name);
+    }
+
+    private boolean isDelayElapsed() {
+        return System.nanoTime() - openedAtNanos >= config.getCircuitBreakerDelay().toNanos();
+    }
+
+    /**
+     * Checks whether the circuit allows the call.
+     *
+     * @return {@code true} if the call is the trial call made in the half-open state
+     */
+    private boolean acquireCircuit() {
+        synchronized (circuitLock) {
+            if (circuitState == CircuitState.OPEN && isDelayElapsed()) {
+                log.info("Circuit breaker of the '{}' integration is half-open, letting a trial call through", name);
+                circuitState = CircuitState.HALF_OPEN;
+            }
+
+            if (circuitState == CircuitState.CLOSED) {
+                return false;
+            }
+
+            if (circuitState == CircuitState.HALF_OPEN && !trialInProgress) {
+                trialInProgress = true;
+                return true;
+            }
+        }
+
+        shortCircuited.increment();
+
+        throw new ServiceUnavailableException(
+                "The '{}' integration is currently unavailable, too many recent calls failed",
+                name);
+    }
+
+    private void acquireToken() {
+        if (config.getRateLimit() <= 0) {
+            return;
+        }
+
+        long waitNanos;
+
+        synchronized (bucketLock) {
+            long now = System.nanoTime();
+            double capacity = Math.max(1, config.getRateLimitBurst());
+
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1_000_000_000d * config.getRateLimit());
+            lastRefillNanos = now;
+
+            waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) / config.getRateLimit() * 1_000_000_000d);
+
+            if (waitNanos > config.getMaxWait().toNanos()) {
+                rateLimited.increment();
+
+                throw new ServiceUnavailableException(
+                        "The rate limit of the '{}' integration ({} calls per second) was exceeded",
+                        name,
+                        config.getRateLimit());
+            }
+
+            // Reserve the token, if not available yet it will be once we wait
+            tokens -= 1;
+        }
+
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApplicationException("Interrupted while waiting for the '{}' integration", name, e);
+            }
+        }
+    }
+
+    private void acquireBulkhead() {
+        try {
+            if (!bulkhead.tryAcquire(config.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+
+                throw new ServiceUnavailableException(
+                        "The '{}' integration is busy, {} calls are already in progress",
+                        name,
+                        config.getMaxConcurrentCalls());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while waiting for the '{}' integration", name, e);
+        }
+    }
+
+    private void record(boolean trial, boolean failed, long start, boolean timed) {
+        long elapsedNanos = System.nanoTime() - start;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        boolean slow = timed && elapsedMillis > getTimeoutMillis();
+
+        if (timed) {
+            updateLatency(elapsedMillis);
+        }
+
+        recordMetrics(failed, elapsedNanos);
+
+        if (slow) {
+            slowCalls.increment();
+            log.warn(
+                    "Call to the '{}' integration took {} ms, which is above the current timeout of {} ms",
+                    name,
+                    elapsedMillis,
+                    getTimeoutMillis());
+        }
+
+        if (failed) {
+            failures.increment();
+        } else {
+            successes.increment();
+        }
+
+        synchronized (circuitLock) {
+            recordOutcome(trial, failed || slow);
+        }
+    }
+
+    private void recordMetrics(boolean failed, long elapsedNanos) {
+        MetricsHelper.recordNanos(
+                MetricsHelper.INTEGRATION_CALL,
+                elapsedNanos,
+                "integration",
+                name,
+                MetricsHelper.TAG_OUTCOME,
+                MetricsHelper.outcome(!failed));
+    }
+
+    private void updateLatency(long elapsedMillis) {
+        synchronized (latencyLock) {
+            if (smoothedLatencyMillis < 0) {
+                smoothedLatencyMillis = elapsedMillis;
+                latencyVariationMillis = elapsedMillis / 2d;
+            } else {
+                latencyVariationMillis = 0.75 * latencyVariationMillis
+                        + 0.25 * Math.abs(smoothedLatencyMillis - elapsedMillis);
+                smoothedLatencyMillis = 0.875 * smoothedLatencyMillis + 0.125 * elapsedMillis;
+            }
+        }
+    }
+
+    private void recordOutcome(boolean trial, boolean failed) {
+        if (trial) {
+            trialInProgress = false;
+
+            if (failed) {
+                open();
+            } else {
+                log.info("Trial call to the '{}' integration succeeded, closing the circuit", name);
+                close();
+            }
+
+            return;
+        }
+
+        if (circuitState != CircuitState.CLOSED) {
+            // The call was started before the circuit was opened
+            return;
+        }
+
+        if (outcomesSize == outcomes.length) {
+            if (outcomes[outcomesIndex]) {
+                outcomesFailures--;
+            }
+        } else {
+            outcomesSize++;
+        }
+
+        outcomes[outcomesIndex] = failed;
+        outcomesIndex = (outcomesIndex + 1) % outcomes.length;
+
+        if (failed) {
+            outcomesFailures++;
+        }
+
+        if (outcomesSize == outcomes.length && outcomesFailures > 0
+                && outcomesFailures >= config.getFailureRatio() * outcomes.length) {
+            open();
+        }
+    }
+
+    private void open() {
+        log.warn(
+                "Opening the circuit breaker of the '{}' integration, calls will be rejected for {}",
+                name,
+                config.getCircuitBreakerDelay());
+
+        circuitState = CircuitState.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        circuitState = CircuitState.CLOSED;
+        trialInProgress = false;
+        outcomesIndex = 0;
+        outcomesSize = 0;
+        outcomesFailures = 0;
+    }
+}
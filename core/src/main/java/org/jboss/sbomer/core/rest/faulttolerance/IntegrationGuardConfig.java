@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.rest.faulttolerance;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import org.jboss.sbomer.core.errors.ClientException;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Limits applied by an {@link IntegrationGuard} to the calls made to a single external system.
+ */
+@Getter
+@Builder(setterPrefix = "with", toBuilder = true)
+public class IntegrationGuardConfig {
+
+    /**
+     * Whether the guard is active. If disabled, calls are passed through without any limits applied.
+     */
+    @Builder.Default
+    boolean enabled = true;
+
+    /**
+     * Maximum number of calls running against the external system at the same time (bulkhead).
+     */
+    @Builder.Default
+    int maxConcurrentCalls = 10;
+
+    /**
+     * Maximum time a call waits for a free slot in the bulkhead or for a rate limit token before it is rejected.
+     */
+    @Builder.Default
+    Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * Number of calls per second allowed by the token-bucket rate limiter. A value of {@code 0} or less disables rate
+     * limiting.
+     */
+    @Builder.Default
+    double rateLimit = 0;
+
+    /**
+     * Number of calls which can be made in a burst, above the {@link #rateLimit}.
+     */
+    @Builder.Default
+    int rateLimitBurst = 10;
+
+    /**
+     * Number of most recent calls considered by the circuit breaker.
+     */
+    @Builder.Default
+    int requestVolumeThreshold = 20;
+
+    /**
+     * Ratio of failed calls within the {@link #requestVolumeThreshold} most recent calls which opens the circuit.
+     */
+    @Builder.Default
+    double failureRatio = 0.5;
+
+    /**
+     * How long the circuit stays open before a trial call is let through.
+     */
+    @Builder.Default
+    Duration circuitBreakerDelay = Duration.ofMinutes(1);
+
+    /**
+     * Lower bound of the adaptive timeout. Calls taking longer than the adaptive timeout are counted as failures by the
+     * circuit breaker.
+     */
+    @Builder.Default
+    Duration minTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound of the adaptive timeout, used until enough calls were made to compute it.
+     */
+    @Builder.Default
+    Duration maxTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Decides whether an exception thrown by a call is a failure of the external system. By default client errors
+     * (except {@code 5xx} ones) are not considered failures, because these are caused by the request itself.
+     */
+    @Builder.Default
+    Predicate<Throwable> failurePredicate = e -> !(e instanceof ClientException ce) || ce.getCode() >= 500;
+}
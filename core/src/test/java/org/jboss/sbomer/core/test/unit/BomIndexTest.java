@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+
+class BomIndexTest {
+
+    private static final String PARENT = "pkg:maven/org.eclipse.microprofile.graphql/"
+            + "microprofile-graphql-parent@1.1.0.redhat-00008?type=pom";
+    private static final String API = "pkg:maven/org.eclipse.microprofile.graphql/"
+            + "microprofile-graphql-api@1.1.0.redhat-00008?type=jar";
+
+    private static Bom bom() {
+        return SbomUtils.fromPath(Paths.get("src", "test", "resources", "sboms", "base.json"));
+    }
+
+    @Test
+    void testLookups() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+
+        Component api = index.findComponentWithPurl(API).orElseThrow();
+
+        assertSame(bom.getComponents().get(1), api);
+        assertSame(api, index.findComponentWithBomRef(API).orElseThrow());
+        assertEquals(API, index.findDependency(API).orElseThrow().getRef());
+        assertTrue(index.getDependants(API).contains(PARENT));
+        assertFalse(index.findComponentWithPurl("pkg:maven/missing/missing@1.0.0").isPresent());
+        assertEquals(Set.of(), index.getDependants("pkg:maven/missing/missing@1.0.0"));
+    }
+
+    @Test
+    void testUpdateBomRef() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+        Component api = index.findComponentWithPurl(API).orElseThrow();
+        Set<String> dependants = Set.copyOf(index.getDependants(API));
+        String newRef = API + "&repository_url=https%3A%2F%2Fmaven.repository.redhat.com%2Fga%2F";
+
+        assertTrue(index.updateBomRef(api, API, newRef));
+
+        assertEquals(newRef, api.getBomRef());
+        assertSame(api, index.findComponentWithBomRef(newRef).orElseThrow());
+        assertFalse(index.hasDependency(API));
+        assertEquals(newRef, index.findDependency(newRef).orElseThrow().getRef());
+        assertEquals(dependants, index.getDependants(newRef));
+
+        // The manifest is updated as well
+        assertTrue(bom.getDependencies().stream().noneMatch(d -> d.getRef().equals(API)));
+
+        for (Dependency dependency : bom.getDependencies()) {
+            if (dependency.getDependencies() != null) {
+                assertTrue(dependency.getDependencies().stream().noneMatch(d -> d.getRef().equals(API)));
+            }
+        }
+
+        // The index is the same as a fresh one
+        BomIndex reindexed = BomIndex.of(bom);
+        assertEquals(dependants, reindexed.getDependants(newRef));
+        assertSame(api, reindexed.findComponentWithBomRef(newRef).orElseThrow());
+
+        // An existing dependency ref is not reused
+        assertFalse(index.updateBomRef(api, newRef, PARENT));
+        assertEquals(newRef, api.getBomRef());
+    }
+
+    @Test
+    void testAddDependencies() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+        int size = bom.getDependencies().size();
+
+        Dependency parent = index.addDependency(SbomUtils.createDependency(PARENT));
+        Dependency added = index.addDependency(SbomUtils.createDependency("pkg:npm/added@1.0.0"));
+
+        assertSame(parent, index.findDependency(PARENT).orElseThrow());
+        assertEquals(size + 1, bom.getDependencies().size());
+
+        index.addDependsOn(parent, added);
+
+        assertEquals(Set.of(PARENT), index.getDependants("pkg:npm/added@1.0.0"));
+        assertEquals(Set.of(PARENT), BomIndex.of(bom).getDependants("pkg:npm/added@1.0.0"));
+    }
+
+    private static Dependency dependency(String ref, Dependency... dependencies) {
+        Dependency dependency = new Dependency(ref);
+        dependency.setDependencies(new ArrayList<>(List.of(dependencies)));
+        return dependency;
+    }
+
+    /**
+     * Collects the refs of all the nodes in the dependency tree.
+     */
+    private static void collectRefs(List<Dependency> dependencies, List<String> refs) {
+        if (dependencies == null) {
+            return;
+        }
+
+        for (Dependency dependency : dependencies) {
+            refs.add(dependency.getRef());
+            collectRefs(dependency.getDependencies(), refs);
+            collectRefs(dependency.getProvides(), refs);
+        }
+    }
+
+    @Test
+    void testUpdateRepeatedAndNestedBomRefs() {
+        Component a = SbomUtils
+                .createComponent(null, "a", "1.0.0", null, "pkg:generic/a@1.0.0", Component.Type.LIBRARY);
+        Component b = SbomUtils
+                .createComponent(null, "b", "1.0.0", null, "pkg:generic/b@1.0.0", Component.Type.LIBRARY);
+
+        // a and b are nested at several depths, a is a duplicated top-level node and is provided by b
+        Dependency root = dependency("root", dependency(a.getBomRef(), dependency(b.getBomRef())));
+        Dependency topB = dependency(b.getBomRef());
+        topB.setProvides(new ArrayList<>(List.of(dependency(a.getBomRef()))));
+
+        Bom bom = new Bom();
+        bom.setComponents(new ArrayList<>(List.of(a, b)));
+        bom.setDependencies(
+                new ArrayList<>(
+                        List.of(
+                                root,
+                                dependency(a.getBomRef(), dependency(b.getBomRef())),
+                                dependency(a.getBomRef()),
+                                topB)));
+
+        BomIndex index = BomIndex.of(bom);
+
+        assertTrue(index.updateBomRef(a, "pkg:generic/a@1.0.0", "pkg:generic/a@1.0.0?relocated=true"));
+        assertTrue(index.updateBomRef(b, "pkg:generic/b@1.0.0", "pkg:generic/b@1.0.0?relocated=true"));
+
+        List<String> refs = new ArrayList<>();
+        collectRefs(bom.getDependencies(), refs);
+
+        assertEquals(
+                List.of(
+                        "root",
+                        "pkg:generic/a@1.0.0?relocated=true",
+                        "pkg:generic/b@1.0.0?relocated=true",
+                        "pkg:generic/a@1.0.0?relocated=true",
+                        "pkg:generic/b@1.0.0?relocated=true",
+                        "pkg:generic/a@1.0.0?relocated=true",
+                        "pkg:generic/b@1.0.0?relocated=true",
+                        "pkg:generic/a@1.0.0?relocated=true"),
+                refs);
+
+        // The index is the same as a fresh one
+        BomIndex reindexed = BomIndex.of(bom);
+        assertEquals(
+                reindexed.getDependants("pkg:generic/a@1.0.0?relocated=true"),
+                index.getDependants("pkg:generic/a@1.0.0?relocated=true"));
+        assertEquals(
+                reindexed.getDependants("pkg:generic/b@1.0.0?relocated=true"),
+                index.getDependants("pkg:generic/b@1.0.0?relocated=true"));
+        assertEquals(Set.of(), index.getDependants("pkg:generic/b@1.0.0"));
+    }
+}
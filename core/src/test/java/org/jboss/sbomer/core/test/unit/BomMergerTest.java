@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.BomMerger;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+
+class BomMergerTest {
+
+    private static Component component(String ref, Component... components) {
+        Component component = new Component();
+        component.setBomRef(ref);
+        component.setPurl("pkg:generic/" + ref + "@1.0");
+        component.setName(ref);
+
+        if (components.length > 0) {
+            component.setComponents(new ArrayList<>(List.of(components)));
+        }
+
+        return component;
+    }
+
+    private static Dependency dependency(String ref, String... dependsOn) {
+        Dependency dependency = new Dependency(ref);
+        List<Dependency> children = new ArrayList<>();
+
+        for (String child : dependsOn) {
+            children.add(new Dependency(child));
+        }
+
+        dependency.setDependencies(children);
+
+        return dependency;
+    }
+
+    private static Bom bom(List<Component> components, List<Dependency> dependencies) {
+        Bom bom = new Bom();
+        bom.setComponents(new ArrayList<>(components));
+        bom.setDependencies(new ArrayList<>(dependencies));
+        return bom;
+    }
+
+    private static List<String> refs(List<Component> components) {
+        return components.stream().map(Component::getBomRef).toList();
+    }
+
+    private static List<Bom> architectures() {
+        return List.of(
+                bom(
+                        List.of(component("image", component("a")), component("a"), component("b")),
+                        List.of(dependency("image", "a", "b"), dependency("a"), dependency("b"))),
+                bom(
+                        List.of(component("image", component("a"), component("c")), component("c")),
+                        List.of(dependency("image", "a", "c"), dependency("c", "a"))),
+                bom(
+                        List.of(component("image", component("d")), component("d"), component("b")),
+                        List.of(dependency("image", "d", "b"), dependency("d"))));
+    }
+
+    @Test
+    void testMerge() {
+        Bom target = bom(List.of(component("index")), List.of(dependency("index", "image")));
+
+        BomMerger.merge(target, architectures());
+
+        assertEquals(List.of("index", "image", "a", "b", "c", "d"), refs(target.getComponents()));
+        assertEquals(List.of("a", "c", "d"), refs(target.getComponents().get(1).getComponents()));
+
+        List<Dependency> dependencies = target.getDependencies();
+
+        assertEquals(
+                List.of("index", "image", "a", "b", "c", "d"),
+                dependencies.stream().map(Dependency::getRef).toList());
+        assertEquals(
+                List.of("a", "b", "c", "d"),
+                dependencies.get(1).getDependencies().stream().map(Dependency::getRef).toList());
+        assertEquals(
+                List.of("a"),
+                dependencies.get(4).getDependencies().stream().map(Dependency::getRef).toList());
+    }
+
+    @Test
+    void testParallelMergeIsDeterministic() throws Exception {
+        Bom sequential = bom(List.of(), List.of());
+        BomMerger.merge(sequential, architectures());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                Bom parallel = bom(List.of(), List.of());
+                BomMerger.merge(parallel, architectures(), Component::getBomRef, 4, executor);
+
+                assertEquals(SbomUtils.toJson(sequential), SbomUtils.toJson(parallel));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testMergeByPurlSkipsComponentsWithoutKey() {
+        Component unidentified = component("x");
+        unidentified.setPurl(null);
+
+        Bom target = bom(List.of(component("a")), List.of());
+        Bom source = bom(List.of(component("a"), unidentified, component("b")), List.of());
+
+        BomMerger.merge(target, List.of(source), Component::getPurl, 1, null);
+
+        assertEquals(List.of("a", "b"), refs(target.getComponents()));
+        assertEquals(List.of(), target.getDependencies());
+    }
+
+    @Test
+    void testAddMissingComponentsAndDependencies() {
+        Component image = component("image");
+        Bom target = bom(List.of(image), List.of(dependency("image")));
+        Bom source = bom(List.of(component("image", component("a"))), List.of(dependency("image", "a")));
+
+        SbomUtils.addMissingComponentsAndDependencies(target, source);
+
+        assertSame(image, target.getComponents().get(0));
+        assertEquals(List.of("a"), refs(image.getComponents()));
+        assertEquals(
+                List.of("a"),
+                target.getDependencies().get(0).getDependencies().stream().map(Dependency::getRef).toList());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.DependencyGraph;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+
+class DependencyGraphTest {
+
+    private static Dependency dependency(String ref, String... dependsOn) {
+        Dependency dependency = new Dependency(ref);
+        List<Dependency> children = new ArrayList<>();
+
+        for (String child : dependsOn) {
+            children.add(new Dependency(child));
+        }
+
+        dependency.setDependencies(children);
+
+        return dependency;
+    }
+
+    private static List<String> refs(List<Dependency> dependencies) {
+        return dependencies.stream().map(Dependency::getRef).toList();
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        Bom bom = SbomUtils.fromPath(Paths.get("src", "test", "resources", "sboms", "base.json"));
+        String expected = SbomUtils.toJson(bom);
+
+        bom.setDependencies(DependencyGraph.of(bom.getDependencies()).toDependencies());
+
+        assertEquals(expected, SbomUtils.toJson(bom));
+    }
+
+    @Test
+    void testRename() {
+        DependencyGraph graph = DependencyGraph
+                .of(List.of(dependency("a", "b", "c"), dependency("b", "c"), dependency("c")));
+
+        assertTrue(graph.rename("b", "b2"));
+        assertFalse(graph.rename("b", "b3"));
+
+        List<Dependency> dependencies = graph.toDependencies();
+
+        assertEquals(List.of("a", "b2", "c"), refs(dependencies));
+        assertEquals(List.of("b2", "c"), refs(dependencies.get(0).getDependencies()));
+        assertEquals(List.of("c"), refs(dependencies.get(1).getDependencies()));
+        assertEquals(List.of("a"), graph.getParents("b2"));
+    }
+
+    @Test
+    void testRenameMerges() {
+        DependencyGraph graph = DependencyGraph
+                .of(List.of(dependency("main", "x-1", "x-2", "d"), dependency("x-1", "d"), dependency("x-2", "e")));
+
+        assertEquals(2, graph.rename(Pattern.compile("x-\\d"), "x"));
+
+        List<Dependency> dependencies = graph.toDependencies();
+
+        assertEquals(List.of("main", "x"), refs(dependencies));
+        assertEquals(List.of("x", "d"), refs(dependencies.get(0).getDependencies()));
+        assertEquals(List.of("d", "e"), refs(dependencies.get(1).getDependencies()));
+        assertEquals(List.of("main", "x"), graph.getParents("d"));
+        assertEquals(List.of("main"), graph.getParents("x"));
+    }
+
+    @Test
+    void testMerge() {
+        DependencyGraph graph = DependencyGraph.of(List.of(dependency("a", "b"), new Dependency("b")));
+
+        graph.merge(List.of(dependency("b", "c"), dependency("a", "b", "c"), dependency("c")));
+        graph.addDependsOn("a", "b");
+
+        List<Dependency> dependencies = graph.toDependencies();
+
+        assertEquals(List.of("a", "b", "c"), refs(dependencies));
+        assertEquals(List.of("b", "c"), refs(dependencies.get(0).getDependencies()));
+        assertEquals(List.of("c"), refs(dependencies.get(1).getDependencies()));
+        assertEquals(List.of(), refs(dependencies.get(2).getDependencies()));
+        assertNull(dependencies.get(0).getProvides());
+    }
+
+    @Test
+    void testRemoveSelfDependencies() {
+        DependencyGraph graph = DependencyGraph.of(List.of(dependency("a", "a", "b")));
+
+        graph.removeSelfDependencies();
+
+        assertEquals(List.of("b"), graph.getDependsOn("a"));
+        assertEquals(List.of(), graph.getParents("a"));
+    }
+}
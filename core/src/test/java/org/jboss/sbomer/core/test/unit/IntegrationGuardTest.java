@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.core.errors.ServiceUnavailableException;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard.CircuitState;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
+import org.junit.jupiter.api.Test;
+
+class IntegrationGuardTest {
+
+    private static void fail(IntegrationGuard guard) {
+        assertThrows(ApplicationException.class, () -> guard.call(() -> {
+            throw new ApplicationException("Boom");
+        }));
+    }
+
+    @Test
+    void shouldPassThroughResults() {
+        IntegrationGuard guard = new IntegrationGuard("test", IntegrationGuardConfig.builder().build());
+
+        assertEquals("result", guard.call(() -> "result"));
+
+        IntegrationGuard.Status status = guard.getStatus();
+        assertEquals(1, status.calls());
+        assertEquals(1, status.successes());
+        assertEquals(0, status.inFlight());
+    }
+
+    @Test
+    void shouldOpenCircuitAfterFailures() {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder()
+                        .withRequestVolumeThreshold(4)
+                        .withFailureRatio(0.5)
+                        .withCircuitBreakerDelay(Duration.ofMinutes(5))
+                        .build());
+
+        guard.call(() -> "ok");
+        guard.call(() -> "ok");
+        fail(guard);
+
+        assertEquals(CircuitState.CLOSED, guard.getCircuitState());
+
+        fail(guard);
+
+        assertEquals(CircuitState.OPEN, guard.getCircuitState());
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(() -> "ok"));
+        assertEquals(1, guard.getStatus().shortCircuited());
+
+        guard.reset();
+
+        assertEquals("ok", guard.call(() -> "ok"));
+    }
+
+    @Test
+    void shouldNotCountClientErrorsAsFailures() {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder().withRequestVolumeThreshold(2).build());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(NotFoundException.class, () -> guard.call(() -> {
+                throw new NotFoundException("Not here");
+            }));
+        }
+
+        assertEquals(CircuitState.CLOSED, guard.getCircuitState());
+        assertEquals(0, guard.getStatus().failures());
+    }
+
+    @Test
+    void shouldCloseCircuitAfterSuccessfulTrialCall() throws Exception {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder()
+                        .withRequestVolumeThreshold(1)
+                        .withCircuitBreakerDelay(Duration.ofMillis(50))
+                        .build());
+
+        fail(guard);
+
+        assertEquals(CircuitState.OPEN, guard.getCircuitState());
+
+        Thread.sleep(100);
+
+        assertEquals(CircuitState.HALF_OPEN, guard.getCircuitState());
+        assertEquals("ok", guard.call(() -> "ok"));
+        assertEquals(CircuitState.CLOSED, guard.getCircuitState());
+    }
+
+    @Test
+    void shouldNotCountUntimedCallsAsSlow() throws Exception {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder()
+                        .withRequestVolumeThreshold(1)
+                        .withMinTimeout(Duration.ofMillis(1))
+                        .withMaxTimeout(Duration.ofMillis(1))
+                        .build());
+
+        assertEquals("batch", guard.callUntimed(() -> {
+            Thread.sleep(20);
+            return "batch";
+        }));
+
+        assertEquals(CircuitState.CLOSED, guard.getCircuitState());
+        assertEquals(0, guard.getStatus().slowCalls());
+        assertEquals(0, guard.getStatus().averageLatencyMillis());
+
+        guard.call(() -> {
+            Thread.sleep(20);
+            return "single";
+        });
+
+        assertEquals(CircuitState.OPEN, guard.getCircuitState());
+        assertEquals(1, guard.getStatus().slowCalls());
+    }
+
+    @Test
+    void shouldRejectCallsAboveConcurrencyLimit() throws Exception {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder().withMaxConcurrentCalls(1).withMaxWait(Duration.ofMillis(50)).build());
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> running = executor.submit(() -> guard.call(() -> {
+                started.countDown();
+                release.await();
+                return "first";
+            }));
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(1, guard.getStatus().inFlight());
+            assertThrows(ServiceUnavailableException.class, () -> guard.call(() -> "second"));
+            assertEquals(1, guard.getStatus().rejected());
+
+            release.countDown();
+
+            assertEquals("first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("third", guard.call(() -> "third"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRateLimitCalls() {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder()
+                        .withRateLimit(1)
+                        .withRateLimitBurst(2)
+                        .withMaxWait(Duration.ofMillis(100))
+                        .build());
+
+        guard.call(() -> "ok");
+        guard.call(() -> "ok");
+
+        assertThrows(ServiceUnavailableException.class, () -> guard.call(() -> "ok"));
+        assertEquals(1, guard.getStatus().rateLimited());
+    }
+
+    @Test
+    void shouldPassThroughWhenDisabled() {
+        IntegrationGuard guard = new IntegrationGuard(
+                "test",
+                IntegrationGuardConfig.builder().withEnabled(false).withRequestVolumeThreshold(1).build());
+
+        fail(guard);
+        fail(guard);
+
+        assertEquals(CircuitState.CLOSED, guard.getCircuitState());
+        assertEquals(0, guard.getStatus().calls());
+    }
+}
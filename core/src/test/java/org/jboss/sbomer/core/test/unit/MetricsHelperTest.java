@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsHelperTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void beforeEach() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void afterEach() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void testRecord() {
+        MetricsHelper.record("test.timer", Duration.ofMillis(20), "kind", "a");
+        MetricsHelper.record("test.timer", Duration.ofMillis(10), "kind", "a");
+        MetricsHelper.stop(MetricsHelper.start(), "test.timer", "kind", "b");
+        MetricsHelper.recordAmount("test.size", "bytes", 512, "kind", "a");
+        MetricsHelper.gauge("test.gauge", 5, "kind", "a");
+        MetricsHelper.gauge("test.gauge", 3, "kind", "a");
+
+        assertEquals(2, registry.get("test.timer").tag("kind", "a").timer().count());
+        assertEquals(20, registry.get("test.timer").tag("kind", "a").timer().max(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get("test.timer").tag("kind", "b").timer().count());
+        assertEquals(512, registry.get("test.size").summary().totalAmount());
+        assertEquals(3, registry.get("test.gauge").gauge().value());
+    }
+
+    @Test
+    void testWriteSummary(@TempDir Path dir) throws Exception {
+        MetricsHelper.record("test.summary", Duration.ofMillis(1500), MetricsHelper.TAG_OUTCOME, "success");
+
+        Path summary = dir.resolve("metrics.json");
+        MetricsHelper.writeSummary(registry, summary);
+
+        JsonNode meters = ObjectMapperProvider.json().readTree(summary.toFile()).get("meters");
+        JsonNode timer = StreamSupport.stream(meters.spliterator(), false)
+                .filter(meter -> meter.get("name").asText().equals("test.summary"))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals("timer", timer.get("type").asText());
+        assertEquals("success", timer.get("tags").get(MetricsHelper.TAG_OUTCOME).asText());
+        assertEquals(1, timer.get("measurements").get("count").asInt());
+        assertEquals(1.5, timer.get("measurements").get("total").asDouble());
+        assertTrue(timer.get("measurements").has("max"));
+    }
+
+    @Test
+    void testWriteSummaryOfGlobalRegistry(@TempDir Path dir) throws Exception {
+        MetricsHelper.record("test.global", Duration.ofMillis(250), MetricsHelper.TAG_OUTCOME, "failure");
+
+        // As written by the automated generation commands of the CLI
+        Path summary = dir.resolve(MetricsHelper.SUMMARY_FILE_NAME);
+        MetricsHelper.writeSummary(Metrics.globalRegistry, summary);
+
+        JsonNode meters = ObjectMapperProvider.json().readTree(summary.toFile()).get("meters");
+        JsonNode timer = StreamSupport.stream(meters.spliterator(), false)
+                .filter(meter -> meter.get("name").asText().equals("test.global"))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(1, timer.get("measurements").get("count").asInt());
+        assertEquals(0.25, timer.get("measurements").get("total").asDouble());
+    }
+}
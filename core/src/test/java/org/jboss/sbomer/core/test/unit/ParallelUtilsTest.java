@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelUtilsTest {
+
+    ExecutorService executor;
+
+    @BeforeEach
+    void init() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldKeepOrderWhenSequential() {
+        List<Integer> items = IntStream.range(0, 10).boxed().toList();
+
+        assertEquals(
+                IntStream.range(0, 10).map(i -> i * 2).boxed().toList(),
+                ParallelUtils.mapOrdered(items, 1, executor, i -> i * 2));
+    }
+
+    @Test
+    void shouldKeepOrderWhenParallel() {
+        List<Integer> items = IntStream.range(0, 50).boxed().toList();
+
+        List<String> results = ParallelUtils.mapOrdered(items, 4, executor, i -> {
+            if (i % 3 == 0) {
+                Thread.yield();
+            }
+            return i % 5 == 0 ? null : "item-" + i;
+        });
+
+        assertEquals(50, results.size());
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 5 == 0 ? null : "item-" + i, results.get(i));
+        }
+    }
+
+    @Test
+    void shouldStopOnFailure() {
+        List<Integer> items = IntStream.range(0, 100).boxed().toList();
+        AtomicInteger processed = new AtomicInteger();
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> ParallelUtils.mapOrdered(items, 2, executor, i -> {
+                    processed.incrementAndGet();
+                    if (i == 3) {
+                        throw new ApplicationException("Failed item {}", i);
+                    }
+                    sleep();
+                    return i;
+                }));
+
+        assertEquals("Failed item 3", ex.getMessage());
+        assertTrue(processed.get() < items.size());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+class PurlCacheTest {
+
+    private static final String PURL = "pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar";
+
+    @BeforeEach
+    void clear() {
+        PurlCache.clear();
+    }
+
+    @Test
+    void testParse() throws Exception {
+        PackageURL parsed = PurlCache.parse(PURL);
+
+        assertEquals(new PackageURL(PURL), parsed);
+        assertSame(parsed, PurlCache.parse(new String(PURL)));
+        assertTrue(PurlCache.isValid(PURL));
+
+        assertEquals(1, PurlCache.stats().misses());
+        assertEquals(2, PurlCache.stats().hits());
+    }
+
+    @Test
+    void testInvalid() {
+        String invalid = "not a purl";
+
+        assertFalse(PurlCache.isValid(invalid));
+        assertFalse(PurlCache.isValid(null));
+        assertThrows(MalformedPackageURLException.class, () -> PurlCache.parse(invalid));
+        assertThrows(MalformedPackageURLException.class, () -> PurlCache.parse(null));
+
+        assertEquals(1, PurlCache.stats().misses());
+    }
+
+    @Test
+    void testIntern() throws Exception {
+        String copy = new String(PURL);
+
+        assertNotSame(PURL, copy);
+        assertSame(copy, PurlCache.intern(copy));
+
+        PurlCache.parse(PURL);
+
+        assertSame(PURL, PurlCache.intern(copy));
+        assertNull(PurlCache.intern(null));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() throws Exception {
+        PackageURL parsed = PurlCache.parse(PURL);
+
+        for (int i = 1; i <= 2 * PurlCache.MAX_SIZE; i++) {
+            PurlCache.parse("pkg:generic/component-" + i + "@1.0.0");
+
+            // Used recently, so it is not evicted when the cache overflows
+            if (i % 1000 == 0) {
+                PurlCache.parse(PURL);
+            }
+        }
+
+        assertEquals(PurlCache.MAX_SIZE, PurlCache.stats().size());
+        assertSame(parsed, PurlCache.parse(PURL));
+
+        long misses = PurlCache.stats().misses();
+        PurlCache.parse("pkg:generic/component-1@1.0.0");
+        assertEquals(misses + 1, PurlCache.stats().misses());
+    }
+
+    @Test
+    void testSanitize() {
+        String malformed = "pkg:golang/github.com/org/repo@v1.0.0?os=linux&odd key=odd value";
+        String sanitized = PurlCache.sanitize(malformed);
+
+        assertTrue(PurlCache.isValid(sanitized));
+        assertSame(sanitized, PurlCache.sanitize(malformed));
+        assertEquals(PURL, PurlCache.sanitize(PURL));
+        assertNull(PurlCache.sanitize(""));
+
+        assertEquals(1, PurlCache.stats().hits());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.PurlRelocator;
+import org.junit.jupiter.api.Test;
+
+class PurlRelocatorTest {
+
+    private static final String OLD = "pkg:maven/org.example/shared@1.0.0?type=jar";
+    private static final String NEW = "pkg:maven/org.example/shared@1.0.0.redhat-00001?type=jar";
+
+    private static Component component(String purl) {
+        Component component = new Component();
+        component.setPurl(purl);
+        component.setBomRef(purl);
+        return component;
+    }
+
+    private static Dependency dependency(String ref, List<Dependency> dependencies) {
+        Dependency dependency = new Dependency(ref);
+        dependency.setDependencies(new ArrayList<>(dependencies));
+        return dependency;
+    }
+
+    @Test
+    void testSharedNodeIsUpdatedInEveryParent() {
+        Dependency shared = new Dependency(OLD);
+        Dependency first = dependency("pkg:maven/org.example/first@1.0.0?type=jar", List.of(shared));
+        Dependency second = dependency("pkg:maven/org.example/second@1.0.0?type=jar", List.of(shared));
+        second.setProvides(new ArrayList<>(List.of(shared)));
+
+        List<Dependency> dependencies = new ArrayList<>(List.of(first, second, shared));
+        Component component = component(OLD);
+
+        PurlRelocator relocator = new PurlRelocator(dependencies);
+        relocator.relocate(List.of(component), Map.of(OLD, NEW));
+        relocator.updateDependencies(dependencies);
+
+        assertEquals(NEW, component.getPurl());
+        assertEquals(NEW, component.getBomRef());
+
+        Dependency updated = dependencies.get(2);
+
+        assertEquals(NEW, updated.getRef());
+        assertSame(updated, first.getDependencies().get(0));
+        assertSame(updated, second.getDependencies().get(0));
+        assertSame(updated, second.getProvides().get(0));
+    }
+}
@@ -33,7 +33,9 @@ import static org.mockito.Mockito.when;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.cyclonedx.model.Bom;
@@ -62,6 +64,7 @@ import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 class SbomUtilsTest {
 
@@ -92,6 +95,25 @@ class SbomUtilsTest {
             assertEquals("Apache-2.0", bom.getMetadata().getComponent().getLicenses().getLicenses().get(0).getId());
         }
 
+        @Test
+        void shouldConvertBetweenBomAndJsonNodeDirectly() throws Exception {
+            Bom bom = SbomUtils.fromPath(sbomPath("base.json"));
+            JsonNode jsonNode = SbomUtils.toJsonNode(bom);
+
+            // Same tree as the one produced by the JSON generator
+            assertEquals(SbomUtils.toJsonNode(SbomUtils.toJson(bom)), jsonNode);
+
+            Bom converted = SbomUtils.fromJsonNode(jsonNode);
+            assertNotNull(converted);
+            assertEquals(39, converted.getComponents().size());
+            assertEquals(SbomUtils.toJson(bom), SbomUtils.toJson(converted));
+
+            // Manifests stored as JSON strings are still supported
+            Bom fromText = SbomUtils.fromJsonNode(TextNode.valueOf(SbomUtils.toJson(bom)));
+            assertNotNull(fromText);
+            assertEquals(39, fromText.getComponents().size());
+        }
+
         @Test
         @Disabled("Doesn't work in Temurin JDK, needs investigation")
         // SbomUtilsTest$SbomUtilsTestNested.shouldReadFromFileAndConvertToJsonNode:92 expected:
@@ -444,6 +466,88 @@ class SbomUtilsTest {
         assertEquals("pkg:maven/custom@1.1.0.redhat-00002?type=jar", productDeps.get(2).getRef());
     }
 
+    @Test
+    void testUpdatePurlsInBatch() {
+        Map<String, String> relocations = new LinkedHashMap<>();
+        relocations.put("pkg:maven/org.objectweb.asm/asm@9.1?type=jar", "pkg:maven/org.ow2.asm/asm@9.1?type=jar");
+        relocations.put("pkg:maven/main/main@1.0?type=jar", "pkg:maven/main-updated/main@1.0?type=jar");
+        // Chained relocation
+        relocations.put("pkg:maven/org.ow2.asm/asm@9.1?type=jar", "pkg:maven/org.ow2/asm@9.1?type=jar");
+        // Relocation to a purl which is already a dependency
+        relocations.put("pkg:maven/old/custom@1.1?type=jar", "pkg:maven/custom/custom@1.1?type=jar");
+
+        Bom sequential = bomForRelocations();
+        relocations.forEach((oldPurl, newPurl) -> SbomUtils.updatePurl(sequential, oldPurl, newPurl));
+
+        Bom batch = bomForRelocations();
+        SbomUtils.updatePurls(batch, relocations);
+
+        assertEquals(SbomUtils.toJsonNode(sequential), SbomUtils.toJsonNode(batch));
+
+        assertEquals("pkg:maven/main-updated/main@1.0?type=jar", batch.getMetadata().getComponent().getPurl());
+        assertEquals("pkg:maven/org.ow2/asm@9.1?type=jar", batch.getComponents().get(0).getBomRef());
+        assertEquals("pkg:maven/old/custom@1.1?type=jar", batch.getComponents().get(1).getBomRef());
+        assertEquals("pkg:maven/custom/custom@1.1?type=jar", batch.getComponents().get(1).getPurl());
+        assertEquals(
+                "pkg:maven/org.ow2/asm@9.1?type=jar",
+                batch.getDependencies().get(0).getDependencies().get(0).getRef());
+    }
+
+    private Bom bomForRelocations() {
+        Component main = SbomUtils.createComponent(
+                null,
+                "main",
+                "1.0",
+                null,
+                "pkg:maven/main/main@1.0?type=jar",
+                Component.Type.LIBRARY);
+        Component asm = SbomUtils.createComponent(
+                null,
+                "asm",
+                "9.1",
+                null,
+                "pkg:maven/org.objectweb.asm/asm@9.1?type=jar",
+                Component.Type.LIBRARY);
+        Component custom = SbomUtils.createComponent(
+                null,
+                "custom",
+                "1.1",
+                null,
+                "pkg:maven/old/custom@1.1?type=jar",
+                Component.Type.LIBRARY);
+        Component existing = SbomUtils.createComponent(
+                null,
+                "custom",
+                "1.1",
+                null,
+                "pkg:maven/custom/custom@1.1?type=jar",
+                Component.Type.LIBRARY);
+
+        Bom bom = new Bom();
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+        bom.setComponents(new ArrayList<>(List.of(main, asm, custom, existing)));
+
+        Dependency mainDependency = SbomUtils.createDependency(main.getBomRef());
+        mainDependency.addDependency(SbomUtils.createDependency(asm.getBomRef()));
+        mainDependency.addDependency(SbomUtils.createDependency(custom.getBomRef()));
+        mainDependency.addDependency(SbomUtils.createDependency(existing.getBomRef()));
+
+        Dependency customDependency = SbomUtils.createDependency(custom.getBomRef());
+        customDependency.addDependency(SbomUtils.createDependency(asm.getBomRef()));
+
+        bom.setDependencies(
+                new ArrayList<>(
+                        List.of(
+                                mainDependency,
+                                SbomUtils.createDependency(asm.getBomRef()),
+                                customDependency,
+                                SbomUtils.createDependency(existing.getBomRef()))));
+
+        return bom;
+    }
+
     @Test
     void shouldMapHashesWithGetDistroHashes() {
         // Hashes are all generated on "" (empty)
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+import org.jboss.sbomer.core.features.sbom.utils.SpanSampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+
+class SpanSamplerTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    private static final String SPAN_ID = "b7ad6b7169203331";
+
+    private static final SpanContext SAMPLED_PARENT = SpanContext
+            .create(TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault());
+
+    private static final SpanContext UNSAMPLED_PARENT = SpanContext
+            .create(TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TraceState.getDefault());
+
+    @AfterEach
+    void reset() {
+        OtelHelper.setSampler(SpanSampler.alwaysOn());
+    }
+
+    @Test
+    void testFollowsParent() {
+        SpanSampler sampler = new SpanSampler(0, 0);
+
+        assertTrue(sampler.shouldSample("op", SAMPLED_PARENT));
+        assertFalse(sampler.shouldSample("op", UNSAMPLED_PARENT));
+        assertFalse(sampler.shouldSample("op", SpanContext.getInvalid()));
+
+        assertTrue(new SpanSampler(1, 0).shouldSample("op", SpanContext.getInvalid()));
+        assertFalse(new SpanSampler(1, 0).shouldSample("op", UNSAMPLED_PARENT));
+
+        assertEquals(new SpanSampler.Stats(1, 2, 0), sampler.stats());
+    }
+
+    @Test
+    void testRateLimit() {
+        SpanSampler sampler = new SpanSampler(1, 2);
+
+        assertTrue(sampler.shouldSample("op", SpanContext.getInvalid()));
+        assertTrue(sampler.shouldSample("op", SpanContext.getInvalid()));
+        assertFalse(sampler.shouldSample("op", SpanContext.getInvalid()));
+
+        // Every operation has its own limit
+        assertTrue(sampler.shouldSample("other", SpanContext.getInvalid()));
+
+        // The limit applies to root spans only
+        assertTrue(sampler.shouldSample("op", SAMPLED_PARENT));
+
+        assertEquals(new SpanSampler.Stats(4, 0, 1), sampler.stats());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new SpanSampler(1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SpanSampler(-0.1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SpanSampler(1, -1));
+    }
+
+    @Test
+    void testWithSpanNotSampled() {
+        OtelHelper.setSampler(new SpanSampler(0, 0));
+
+        AtomicBoolean attributesBuilt = new AtomicBoolean();
+
+        SpanContext spanContext = OtelHelper.withSpan(SpanSamplerTest.class, ".test", () -> {
+            attributesBuilt.set(true);
+            return Map.of("key", "value");
+        }, () -> Span.current().getSpanContext());
+
+        assertFalse(attributesBuilt.get());
+        assertTrue(spanContext.isValid());
+        assertFalse(spanContext.isSampled());
+        assertFalse(Span.current().getSpanContext().isValid());
+    }
+
+    @Test
+    void testWithSpanRateLimitedKeepsSampledParent() {
+        SpanSampler sampler = new SpanSampler(1, 1);
+        String operation = OtelHelper.getEffectiveClassName(SpanSamplerTest.class) + ".test";
+
+        // Uses up the limit of the operation
+        assertTrue(sampler.shouldSample(operation, SpanContext.getInvalid()));
+        assertFalse(sampler.shouldSample(operation, SpanContext.getInvalid()));
+
+        OtelHelper.setSampler(sampler);
+
+        SpanContext spanContext;
+
+        try (Scope scope = Span.wrap(SAMPLED_PARENT).makeCurrent()) {
+            spanContext = OtelHelper.withSpan(
+                    SpanSamplerTest.class,
+                    ".test",
+                    Map::of,
+                    () -> Span.current().getSpanContext());
+        }
+
+        assertEquals(TRACE_ID, spanContext.getTraceId());
+        assertTrue(spanContext.isSampled());
+        assertEquals(new SpanSampler.Stats(2, 0, 1), sampler.stats());
+    }
+
+    @Test
+    void testWithSpanKeepsUnsampledParent() {
+        SpanContext spanContext;
+
+        try (Scope scope = Span.wrap(UNSAMPLED_PARENT).makeCurrent()) {
+            spanContext = OtelHelper.withSpan(
+                    SpanSamplerTest.class,
+                    ".test",
+                    Map::of,
+                    () -> Span.current().getSpanContext());
+        }
+
+        assertEquals(UNSAMPLED_PARENT, spanContext);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.utils.StreamingBom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StreamingBomTest {
+
+    @TempDir
+    Path tempDir;
+
+    static Path sbomPath(String fileName) {
+        return Paths.get("src", "test", "resources", "sboms", fileName);
+    }
+
+    Path copy(String fileName) throws Exception {
+        Path path = tempDir.resolve(fileName);
+        Files.copy(sbomPath(fileName), path);
+        return path;
+    }
+
+    @Test
+    void shouldKeepManifestUnchanged() throws Exception {
+        Path path = copy("base.json");
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        long total = StreamingBom.transform(path, path, 10, (header, components) -> {
+            chunkSizes.add(components.size());
+            return components;
+        });
+
+        assertEquals(39, total);
+        assertEquals(List.of(10, 10, 10, 9), chunkSizes);
+        assertEquals(
+                SbomUtils.toJsonNode(SbomUtils.fromPath(sbomPath("base.json"))),
+                SbomUtils.toJsonNode(SbomUtils.fromPath(path)));
+    }
+
+    @Test
+    void shouldApplyChangesOfTheHandler() throws Exception {
+        Path input = copy("base.json");
+        Path output = tempDir.resolve("output.json");
+
+        StreamingBom.transform(input, output, 7, new StreamingBom.Handler() {
+            @Override
+            public void start(Bom header) {
+                header.getMetadata().getComponent().setDescription("Streamed");
+            }
+
+            @Override
+            public List<Component> process(Bom header, List<Component> components) {
+                components.forEach(c -> c.setGroup("streamed"));
+                return components;
+            }
+
+            @Override
+            public List<Component> finish(Bom header) {
+                Component component = new Component();
+                component.setType(Component.Type.LIBRARY);
+                component.setName("added");
+                component.setBomRef("added");
+
+                header.addDependency(new Dependency("added"));
+
+                return List.of(component);
+            }
+        });
+
+        Bom bom = SbomUtils.fromPath(output);
+
+        assertEquals("Streamed", bom.getMetadata().getComponent().getDescription());
+        assertEquals(40, bom.getComponents().size());
+        assertTrue(bom.getComponents().subList(0, 39).stream().allMatch(c -> "streamed".equals(c.getGroup())));
+        assertEquals("added", bom.getComponents().get(39).getName());
+        assertEquals(41, bom.getDependencies().size());
+        assertEquals("added", bom.getDependencies().get(40).getRef());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.ParseException;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxSchemaValidator;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+class CycloneDxSchemaValidatorTest {
+
+    private static ObjectNode base() {
+        return (ObjectNode) SbomUtils
+                .toJsonNode(SbomUtils.fromPath(Paths.get("src", "test", "resources", "sboms", "base.json")));
+    }
+
+    @Test
+    void testValidBom() throws Exception {
+        ObjectNode bom = base();
+
+        assertEquals(0, CycloneDxSchemaValidator.validate(bom, Version.VERSION_16).size());
+        // Second run uses the cached schema
+        assertEquals(0, CycloneDxSchemaValidator.validate(bom, Version.VERSION_16).size());
+        assertEquals(0, CycloneDxSchemaValidator.validate(TextNode.valueOf(bom.toString()), Version.VERSION_16).size());
+    }
+
+    @Test
+    void testPrecheck() throws Exception {
+        assertEquals(Optional.empty(), CycloneDxSchemaValidator.precheck(base()));
+        assertEquals(Optional.of("$: object expected"), CycloneDxSchemaValidator.precheck(TextNode.valueOf("bom")));
+
+        ObjectNode bom = base();
+        bom.put("bomFormat", "SPDX");
+
+        List<ParseException> exceptions = CycloneDxSchemaValidator.validate(bom, Version.VERSION_16);
+
+        assertEquals(1, exceptions.size());
+        assertEquals("$.bomFormat: must be 'CycloneDX'", exceptions.get(0).getMessage());
+
+        bom = base();
+        bom.put("components", "none");
+
+        assertEquals(Optional.of("$.components: array expected"), CycloneDxSchemaValidator.precheck(bom));
+    }
+
+    @Test
+    void testMaxErrors() throws Exception {
+        ObjectNode bom = base();
+
+        for (JsonNode component : bom.get("components")) {
+            ((ObjectNode) component).put("type", "invalid");
+        }
+
+        assertTrue(CycloneDxSchemaValidator.validate(bom, Version.VERSION_16).size() > 6);
+
+        List<ParseException> exceptions = CycloneDxSchemaValidator.validate(bom, Version.VERSION_16, 5);
+
+        assertEquals(6, exceptions.size());
+        assertTrue(exceptions.get(5).getMessage().matches("\\$: \\d+ more errors not reported"));
+    }
+}
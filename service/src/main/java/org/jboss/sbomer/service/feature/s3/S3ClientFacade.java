@@ -28,11 +28,12 @@ import java.util.Set;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.GenerationRequest;
-import org.slf4j.MDC;
 
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.runtime.StartupEvent;
 import io.quarkus.vertx.ConsumeEvent;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -181,12 +182,30 @@ public class S3ClientFacade {
 
         log.debug("Uploading '{}' file as '{}'...", path, key);
 
-        Map<String, String> attributes = Map.of("params.path", path.toFile().getAbsolutePath(), "params.key", key);
-        OtelHelper.withSpan(this.getClass(), ".upload", attributes, MDC.getCopyOfContextMap(), () -> {
-            PutObjectRequest request = PutObjectRequest.builder().key(key).bucket(bucketName()).build();
-            client.putObject(request, path);
-            return null;
-        });
+        OtelHelper.withSpan(
+                this.getClass(),
+                ".upload",
+                () -> Map.of("params.path", path.toFile().getAbsolutePath(), "params.key", key),
+                () -> {
+                    PutObjectRequest request = PutObjectRequest.builder().key(key).bucket(bucketName()).build();
+                    Timer.Sample sample = MetricsHelper.start();
+                    boolean uploaded = false;
+
+                    try {
+                        client.putObject(request, path);
+                        uploaded = true;
+                    } finally {
+                        MetricsHelper.stop(
+                                sample,
+                                MetricsHelper.INTEGRATION_CALL,
+                                "integration",
+                                "s3",
+                                MetricsHelper.TAG_OUTCOME,
+                                MetricsHelper.outcome(uploaded));
+                    }
+
+                    return null;
+                });
     }
 
     /**
@@ -227,20 +246,22 @@ public class S3ClientFacade {
         String bucketName = bucketName();
         String key = generationRequestId + "/" + path;
 
-        Map<String, String> attributes = Map.of(
-                "params.bucketName",
-                bucketName,
-                "params.generationRequestId",
-                generationRequestId,
-                "params.path",
-                path,
-                "params.key",
-                key);
-
-        return OtelHelper.withSpan(this.getClass(), ".log", attributes, MDC.getCopyOfContextMap(), () -> {
-            GetObjectRequest req = GetObjectRequest.builder().bucket(bucketName).key(key).build();
-
-            return client.getObjectAsBytes(req).asUtf8String();
-        });
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".log",
+                () -> Map.of(
+                        "params.bucketName",
+                        bucketName,
+                        "params.generationRequestId",
+                        generationRequestId,
+                        "params.path",
+                        path,
+                        "params.key",
+                        key),
+                () -> {
+                    GetObjectRequest req = GetObjectRequest.builder().bucket(bucketName).key(key).build();
+
+                    return client.getObjectAsBytes(req).asUtf8String();
+                });
     }
 }
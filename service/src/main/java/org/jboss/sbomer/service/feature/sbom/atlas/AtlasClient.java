@@ -24,6 +24,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Map;
 
 import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
 import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -35,6 +36,7 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 
 /**
@@ -52,4 +54,17 @@ public interface AtlasClient {
     @BeforeRetry(RetryLogger.class)
     void upload(@QueryParam("labels") Map<String, String> labels, JsonNode bom);
 
+    /**
+     * Uploads the manifest compressed with gzip.
+     *
+     * @param labels the labels to attach to the manifest
+     * @param bom the gzip compressed manifest content
+     */
+    @POST
+    @ClientHeaderParam(name = HttpHeaders.CONTENT_ENCODING, value = "gzip")
+    @Retry(maxRetries = ATLAS_CLIENT_MAX_RETRIES, delay = ATLAS_CLIENT_DELAY, delayUnit = ChronoUnit.SECONDS)
+    @ExponentialBackoff
+    @BeforeRetry(RetryLogger.class)
+    void uploadCompressed(@QueryParam("labels") Map<String, String> labels, byte[] bom);
+
 }
@@ -17,20 +17,40 @@
  */
 package org.jboss.sbomer.service.feature.sbom.atlas;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
+import org.jboss.sbomer.service.feature.sbom.model.AtlasPublication;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
-import org.slf4j.MDC;
+import org.jboss.sbomer.service.feature.sbom.service.AtlasPublicationRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
+import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
 
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.Setter;
@@ -43,6 +63,15 @@ public class AtlasHandler {
 
     public static final Map<String, String> LABELS = Map.of("type", "cyclonedx");
 
+    public static final String INSTANCE_BUILD = "build";
+    public static final String INSTANCE_RELEASE = "release";
+
+    // Maximum delay between retries of a failed upload
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    // Time after which an upload which was started, but never finished (for example because of a restart) is retried
+    private static final Duration PENDING_TIMEOUT = Duration.ofMinutes(30);
+
     @Inject
     @RestClient
     AtlasBuildClient atlasBuildClient;
@@ -54,6 +83,48 @@ public class AtlasHandler {
     @Inject
     FeatureFlags featureFlags;
 
+    @Inject
+    AtlasPublicationRepository publicationRepository;
+
+    @Inject
+    SbomRepository sbomRepository;
+
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    @Inject
+    LeaderManager leaderManager;
+
+    /**
+     * Maximum number of manifests uploaded at the same time.
+     */
+    @ConfigProperty(name = "sbomer.atlas.upload.parallelism", defaultValue = "4")
+    int uploadParallelism;
+
+    /**
+     * Whether manifests are compressed with gzip before the upload.
+     */
+    @ConfigProperty(name = "sbomer.atlas.upload.compress", defaultValue = "true")
+    boolean compressUploads;
+
+    /**
+     * Maximum number of attempts to upload a manifest, after which it is not retried anymore.
+     */
+    @ConfigProperty(name = "sbomer.atlas.upload.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    /**
+     * The delay before the first retry of a failed upload, doubled with every subsequent attempt.
+     */
+    @ConfigProperty(name = "sbomer.atlas.upload.retry-delay", defaultValue = "1m")
+    Duration retryDelay;
+
+    /**
+     * Maximum number of failed uploads retried at once.
+     */
+    @ConfigProperty(name = "sbomer.atlas.upload.retry-batch", defaultValue = "20")
+    int retryBatch;
+
     public void publishBuildManifests(List<Sbom> sboms) {
         publishManifests(sboms, false);
     }
@@ -80,42 +151,184 @@ public class AtlasHandler {
                     sboms.stream().map(Sbom::getId).collect(Collectors.joining(", ")));
         }
 
-        AtlasClient atlasClient = isRelease ? atlasReleaseClient : atlasBuildClient;
-        String atlasInstanceName = isRelease ? "release" : "build";
+        String atlasInstanceName = isRelease ? INSTANCE_RELEASE : INSTANCE_BUILD;
         log.info("Uploading {} {} manifests...", sboms.size(), atlasInstanceName);
 
-        for (Sbom sbom : sboms) {
-            uploadManifest(sbom, atlasClient);
+        // Upload all manifests, even if some of these fail, failed uploads will be retried later
+        List<ApplicationException> failures = ParallelUtils
+                .mapOrdered(sboms, uploadParallelism, managedExecutor, sbom -> publishManifest(sbom, atlasInstanceName))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (failures.size() == 1) {
+            throw failures.get(0);
+        }
+
+        if (!failures.isEmpty()) {
+            failures.forEach(failure -> log.error(failure.getMessage(), failure));
+
+            throw new ApplicationException(
+                    "Unable to store {} of {} manifests in Atlas, these will be retried later",
+                    failures.size(),
+                    sboms.size());
         }
 
         log.info("Upload complete!");
     }
 
+    /**
+     * <p>
+     * Retries uploads which failed (or were interrupted) and are due to be retried.
+     * </p>
+     *
+     * <p>
+     * This method is run periodically. By default every minute. It is controlled by the
+     * {@code sbomer.atlas.upload.retry-interval} property.
+     * </p>
+     */
+    @Scheduled(
+            every = "${sbomer.atlas.upload.retry-interval:1m}",
+            delay = 1,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    public void retryFailedUploads() {
+        if (!featureFlags.atlasPublish() || !leaderManager.isLeader()) {
+            return;
+        }
+
+        List<AtlasPublication> publications = publicationRepository.findRetryable(Instant.now(), retryBatch);
+
+        if (publications.isEmpty()) {
+            return;
+        }
+
+        log.info("Retrying upload of {} manifests to Atlas...", publications.size());
+
+        ParallelUtils.mapOrdered(publications, uploadParallelism, managedExecutor, publication -> {
+            Sbom sbom = QuarkusTransaction.requiringNew().call(() -> sbomRepository.findById(publication.getSbomId()));
+
+            if (sbom == null) {
+                log.warn("Manifest '{}' does not exist anymore, it will not be uploaded", publication.getSbomId());
+                publicationRepository.markFailed(
+                        publication.getInstance(),
+                        publication.getSbomId(),
+                        "Manifest does not exist",
+                        attempts -> null);
+                return null;
+            }
+
+            return publishManifest(sbom, publication.getInstance());
+        });
+    }
+
+    /**
+     * Uploads the manifest, unless the same content was already uploaded, and stores the state of the upload.
+     *
+     * @param sbom the manifest to upload
+     * @param instance the Atlas instance
+     * @return the failure, or {@code null} if the upload succeeded (or was skipped)
+     */
+    protected ApplicationException publishManifest(Sbom sbom, String instance) {
+        String digest = JacksonUtils.hash(sbom.getSbom());
+
+        if (!publicationRepository.markPending(instance, sbom.getId(), digest, Instant.now().plus(PENDING_TIMEOUT))) {
+            log.info("Manifest '{}' was already uploaded to the {} Atlas instance, skipping", sbom.getId(), instance);
+            return null;
+        }
+
+        try {
+            uploadManifest(sbom, INSTANCE_RELEASE.equals(instance) ? atlasReleaseClient : atlasBuildClient);
+        } catch (RuntimeException e) {
+            publicationRepository.markFailed(instance, sbom.getId(), e.getMessage(), this::nextAttempt);
+
+            if (e instanceof ApplicationException ae) {
+                return ae;
+            }
+
+            return new ApplicationException(
+                    "Unable to store '{}' manifest in Atlas, purl: '{}': {}",
+                    sbom.getId(),
+                    sbom.getRootPurl(),
+                    e.getMessage(),
+                    e);
+        }
+
+        publicationRepository.markPublished(instance, sbom.getId());
+        return null;
+    }
+
     protected void uploadManifest(Sbom sbom, AtlasClient atlasClient) {
         log.info("Uploading manifest '{}' (purl: '{}')...", sbom.getId(), sbom.getRootPurl());
 
+        OtelHelper.withSpan(
+                this.getClass(),
+                ".upload-manifest",
+                () -> uploadSpanAttributes(sbom, atlasClient),
+                () -> {
+                    Timer.Sample sample = MetricsHelper.start();
+                    boolean uploaded = false;
+
+                    try {
+                        // Store it!
+                        if (compressUploads) {
+                            byte[] compressed = compress(sbom);
+                            MetricsHelper.recordAmount(MetricsHelper.MANIFEST_UPLOAD_SIZE, "bytes", compressed.length);
+                            atlasClient.uploadCompressed(LABELS, compressed);
+                        } else {
+                            atlasClient.upload(LABELS, sbom.getSbom());
+                        }
+
+                        uploaded = true;
+                    } catch (ClientException e) {
+                        throw new ApplicationException(
+                                "Unable to store '{}' manifest in Atlas, purl: '{}': {}",
+                                sbom.getId(),
+                                sbom.getRootPurl(),
+                                e.getMessage(),
+                                e);
+                    } finally {
+                        MetricsHelper.stop(
+                                sample,
+                                MetricsHelper.MANIFEST_UPLOAD,
+                                "compressed",
+                                String.valueOf(compressUploads),
+                                MetricsHelper.TAG_OUTCOME,
+                                MetricsHelper.outcome(uploaded));
+                    }
+
+                    log.info("Manifest {} uploaded!", sbom.getId());
+                    return null;
+                });
+    }
+
+    private Map<String, String> uploadSpanAttributes(Sbom sbom, AtlasClient atlasClient) {
         Map<String, String> attributes = new HashMap<>();
         attributes.put("params.atlas.client.name", OtelHelper.getEffectiveClassName(atlasClient.getClass()));
         attributes.put("params.sbom.id", sbom.getId());
         attributes.put("params.sbom.rootpurl", sbom.getRootPurl());
         LABELS.forEach((k, v) -> attributes.put("params.atlas.label." + k, v));
+        return attributes;
+    }
 
-        OtelHelper.withSpan(this.getClass(), ".upload-manifest", attributes, MDC.getCopyOfContextMap(), () -> {
-
-            try {
-                // Store it!
-                atlasClient.upload(LABELS, sbom.getSbom());
-            } catch (ClientException e) {
-                throw new ApplicationException(
-                        "Unable to store '{}' manifest in Atlas, purl: '{}': {}",
-                        sbom.getId(),
-                        sbom.getRootPurl(),
-                        e.getMessage(),
-                        e);
-            }
+    private byte[] compress(Sbom sbom) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
 
-            log.info("Manifest {} uploaded!", sbom.getId());
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            ObjectMapperProvider.json().writeValue(gzip, sbom.getSbom());
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to compress '{}' manifest", sbom.getId(), e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private Instant nextAttempt(int attempts) {
+        if (attempts >= maxAttempts) {
             return null;
-        });
+        }
+
+        long delayMillis = retryDelay.toMillis() << Math.min(attempts - 1, 20);
+        return Instant.now().plusMillis(Math.min(delayMillis, MAX_RETRY_DELAY.toMillis()));
     }
 }
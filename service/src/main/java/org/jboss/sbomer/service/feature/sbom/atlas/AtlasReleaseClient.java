@@ -19,6 +19,8 @@ package org.jboss.sbomer.service.feature.sbom.atlas;
 
 import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.sbomer.service.rest.faulttolerance.Guarded;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 
 import io.quarkus.oidc.client.filter.OidcClientFilter;
 import io.quarkus.rest.client.reactive.ClientExceptionMapper;
@@ -29,6 +31,7 @@ import jakarta.ws.rs.core.Response;
 /**
  * Client for the Atlas instance storing release manifests.
  */
+@Guarded(IntegrationGuards.ATLAS)
 @RegisterRestClient(configKey = "atlas-release")
 @OidcClientFilter
 @ApplicationScoped
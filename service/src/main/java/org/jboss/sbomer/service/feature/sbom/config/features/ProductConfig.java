@@ -21,12 +21,10 @@ import static org.jboss.sbomer.core.features.sbom.Constants.PROPERTY_ERRATA_PROD
 import static org.jboss.sbomer.core.features.sbom.Constants.PROPERTY_ERRATA_PRODUCT_VARIANT;
 import static org.jboss.sbomer.core.features.sbom.Constants.PROPERTY_ERRATA_PRODUCT_VERSION;
 
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 
-import org.cyclonedx.model.Bom;
-import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Property;
-import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import lombok.Builder;
 import lombok.Data;
@@ -54,35 +52,40 @@ public class ProductConfig {
 
         /**
          * <p>
-         * Generates the {@link ErrataProductConfig} object based on the data available in the CycloneDX {@link Bom} for
-         * the main component.
+         * Generates the {@link ErrataProductConfig} object based on the properties of the main component of a CycloneDX
+         * BOM, read directly from its JSON representation.
          * </p>
          *
          * <p>
          * In case required properties cannot be found, {@code null} is returned.
          * </p>
          *
-         * @param bom The {@link Bom} BOM to be used for retrieving the Product config
+         * @param component The main component of the BOM to be used for retrieving the Product config
          * @return The {@link ErrataProductConfig} object or {@code null} if data cannot be found.
          */
-        public static ErrataProductConfig fromBom(Bom bom) {
-            Component component = bom.getComponents().get(0);
+        public static ErrataProductConfig fromJsonNode(JsonNode component) {
+            Map<String, String> properties = new HashMap<>();
 
-            Optional<Property> productName = SbomUtils
-                    .findPropertyWithNameInComponent(PROPERTY_ERRATA_PRODUCT_NAME, component);
-            Optional<Property> productVersion = SbomUtils
-                    .findPropertyWithNameInComponent(PROPERTY_ERRATA_PRODUCT_VERSION, component);
-            Optional<Property> productVariant = SbomUtils
-                    .findPropertyWithNameInComponent(PROPERTY_ERRATA_PRODUCT_VARIANT, component);
+            if (component != null) {
+                component.path("properties")
+                        .forEach(
+                                property -> properties.putIfAbsent(
+                                        property.path("name").asText(),
+                                        property.path("value").asText(null)));
+            }
+
+            String productName = properties.get(PROPERTY_ERRATA_PRODUCT_NAME);
+            String productVersion = properties.get(PROPERTY_ERRATA_PRODUCT_VERSION);
+            String productVariant = properties.get(PROPERTY_ERRATA_PRODUCT_VARIANT);
 
-            if (productName.isEmpty() || productVersion.isEmpty() || productVariant.isEmpty()) {
+            if (productName == null || productVersion == null || productVariant == null) {
                 return null;
             }
 
             return ErrataProductConfig.builder()
-                    .productName(productName.get().getValue())
-                    .productVersion(productVersion.get().getValue())
-                    .productVariant(productVariant.get().getValue())
+                    .productName(productName)
+                    .productVersion(productVersion)
+                    .productVariant(productVariant)
                     .build();
         }
     }
@@ -47,6 +47,8 @@ import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataProduct;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataRelease;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
 import org.jboss.sbomer.service.feature.sbom.kerberos.ErrataKrb5ClientRequestFilter;
+import org.jboss.sbomer.service.rest.faulttolerance.Guarded;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 import org.jboss.sbomer.service.rest.otel.SpanName;
 import org.jboss.sbomer.service.rest.otel.Traced;
 
@@ -71,6 +73,7 @@ import jakarta.ws.rs.core.Response;
  */
 @ApplicationScoped
 @ClientHeaderParam(name = "User-Agent", value = "SBOMer")
+@Guarded(IntegrationGuards.ERRATA)
 @RegisterRestClient(configKey = "errata")
 @Path("/api/v1")
 @RegisterProvider(ErrataKrb5ClientRequestFilter.class)
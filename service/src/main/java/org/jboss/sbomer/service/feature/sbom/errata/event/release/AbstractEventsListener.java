@@ -20,13 +20,18 @@ package org.jboss.sbomer.service.feature.sbom.errata.event.release;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Metadata;
 import org.cyclonedx.model.component.evidence.Identity;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasHandler;
@@ -41,6 +46,10 @@ import org.jboss.sbomer.service.feature.sbom.service.SbomService;
 import org.jboss.sbomer.service.rest.otel.TracingRestClient;
 import org.jboss.sbomer.service.stats.StatsService;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import lombok.Setter;
@@ -81,6 +90,28 @@ public class AbstractEventsListener {
     @Inject
     AtlasHandler atlasHandler;
 
+    @Inject
+    protected ManagedExecutor managedExecutor;
+
+    /**
+     * Maximum number of builds processed at the same time while creating release manifests. A value of {@code 1} (the
+     * default) keeps the sequential processing.
+     */
+    @ConfigProperty(name = "sbomer.service.release.build-parallelism", defaultValue = "1")
+    protected int buildParallelism;
+
+    /**
+     * The content computed for a build manifest which is part of a release, to be applied to the {@link Sbom} entity
+     * within the transaction that saves the release manifest.
+     *
+     * @param sbomId the identifier of the build manifest
+     * @param sbom the updated manifest content
+     * @param releaseMetadata the release metadata of the build manifest
+     * @param rootPurl the updated root purl, or {@code null} if it should not be changed
+     */
+    protected record ReleasedBuildManifest(String sbomId, JsonNode sbom, ObjectNode releaseMetadata, String rootPurl) {
+    }
+
     @Transactional(value = Transactional.TxType.REQUIRES_NEW)
     protected void markRequestFailed(
             RequestEvent requestEvent,
@@ -132,6 +163,59 @@ public class AbstractEventsListener {
         return metadata;
     }
 
+    /**
+     * <p>
+     * Applies the {@code task} to every item (build) and returns the results in the same order as the items, dropping
+     * {@code null} results.
+     * </p>
+     *
+     * <p>
+     * When {@link #buildParallelism} is greater than {@code 1}, up to that many items are processed at the same time,
+     * each one in its own transaction. As soon as processing of one item fails, no further items are started and the
+     * failure is rethrown once the items already in progress have completed.
+     * </p>
+     *
+     * @param items the items to process
+     * @param task the processing of a single item
+     * @return the non-null results, in the order of the items
+     */
+    protected <T, R> List<R> processBuilds(List<T> items, Function<T, R> task) {
+        List<R> results;
+
+        if (buildParallelism <= 1 || managedExecutor == null) {
+            results = ParallelUtils.mapOrdered(items, 1, null, task);
+        } else {
+            results = ParallelUtils.mapOrdered(
+                    items,
+                    buildParallelism,
+                    managedExecutor,
+                    item -> QuarkusTransaction.requiringNew()
+                            .timeout(INCREASED_TIMEOUT_SEC)
+                            .call(() -> task.apply(item)));
+        }
+
+        return results.stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Updates the build manifest entity with the content computed for the release. Needs to be called within the
+     * transaction saving the release manifest.
+     *
+     * @param releasedBuildManifest the computed content
+     * @return the updated {@link Sbom} entity
+     */
+    protected Sbom applyReleasedBuildManifest(ReleasedBuildManifest releasedBuildManifest) {
+        Sbom buildManifest = sbomService.get(releasedBuildManifest.sbomId());
+
+        if (releasedBuildManifest.rootPurl() != null) {
+            buildManifest.setRootPurl(releasedBuildManifest.rootPurl());
+        }
+
+        buildManifest.setSbom(releasedBuildManifest.sbom());
+        buildManifest.setReleaseMetadata(releasedBuildManifest.releaseMetadata());
+        return buildManifest;
+    }
+
     protected void performPost(List<Sbom> sboms) {
         try {
             atlasHandler.publishReleaseManifests(sboms);
@@ -32,6 +32,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.cyclonedx.model.Bom;
@@ -202,25 +203,31 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                     erratum,
                     toolVersion);
 
-            Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs = new HashMap<>();
+            // Populated concurrently in case builds are processed in parallel
+            Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs = new ConcurrentHashMap<>();
 
-            for (BuildItem buildItem : buildItems) {
+            List<Component> nvrRootComponents = processBuilds(buildItems, buildItem -> {
                 V1Beta1GenerationRecord buildGeneration = nvrToBuildGeneration.get(buildItem.getNvr());
-                if (buildGeneration != null) {
+                if (buildGeneration == null) {
                     // It could happen that not all the builds attached to the advisory have a generation done in SBOMer
                     // (the builds which SBOMer is not able to manifest)
-                    // FIXME: 'Optional.get()' without 'isPresent()' check
-                    Component nvrRootComponent = createRootComponentForRPMBuildItem(
-                            buildItem,
-                            buildGeneration,
-                            advisoryManifestsRecord,
-                            erratum.getDetails().get().getProduct().getShortName(),
-                            generationToCDNs);
-
-                    // Add the component to the release manifest components and add the purl to the "provides" list
-                    productVersionBom.addComponent(nvrRootComponent);
-                    productVersionBom.getDependencies().get(0).addProvides(new Dependency(nvrRootComponent.getPurl()));
+                    return null;
                 }
+
+                // FIXME: 'Optional.get()' without 'isPresent()' check
+                return createRootComponentForRPMBuildItem(
+                        buildItem,
+                        buildGeneration,
+                        advisoryManifestsRecord,
+                        erratum.getDetails().get().getProduct().getShortName(),
+                        generationToCDNs);
+            });
+
+            // Add the components to the release manifest components and add the purls to the "provides" list, in the
+            // order of the builds
+            for (Component nvrRootComponent : nvrRootComponents) {
+                productVersionBom.addComponent(nvrRootComponent);
+                productVersionBom.getDependencies().get(0).addProvides(new Dependency(nvrRootComponent.getPurl()));
             }
 
             // Add the AdvisoryId property
@@ -276,23 +283,29 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                     toolVersion);
 
             // Associate each build (NVR == generation) in an advisory to the repositories where it is published to
-            Map<String, List<RepositoryCoordinates>> generationToRepositories = new HashMap<>();
+            // (populated concurrently in case builds are processed in parallel)
+            Map<String, List<RepositoryCoordinates>> generationToRepositories = new ConcurrentHashMap<>();
 
-            for (BuildItem buildItem : buildItems) {
+            List<Component> nvrRootComponents = processBuilds(buildItems, buildItem -> {
                 V1Beta1GenerationRecord buildGeneration = nvrToBuildGeneration.get(buildItem.getNvr());
-                if (buildGeneration != null) {
+                if (buildGeneration == null) {
                     // It could happen that not all the builds attached to the advisory have a generation done in SBOMer
                     // (the builds which SBOMer is not able to manifest like build#3572808)
-                    Component nvrRootComponent = createRootComponentForDockerBuildItem(
-                            buildItem.getNvr(),
-                            buildGeneration,
-                            advisoryManifestsRecord,
-                            generationToRepositories);
-
-                    // Add the component to the release manifest components and add the purl to the "provides" list
-                    productVersionBom.addComponent(nvrRootComponent);
-                    productVersionBom.getDependencies().get(0).addProvides(new Dependency(nvrRootComponent.getPurl()));
+                    return null;
                 }
+
+                return createRootComponentForDockerBuildItem(
+                        buildItem.getNvr(),
+                        buildGeneration,
+                        advisoryManifestsRecord,
+                        generationToRepositories);
+            });
+
+            // Add the components to the release manifest components and add the purls to the "provides" list, in the
+            // order of the builds
+            for (Component nvrRootComponent : nvrRootComponents) {
+                productVersionBom.addComponent(nvrRootComponent);
+                productVersionBom.getDependencies().get(0).addProvides(new Dependency(nvrRootComponent.getPurl()));
             }
 
             // Add the AdvisoryId property
@@ -488,61 +501,23 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             // 2 - For every generation, find all the existing manifests and update them with release repo
             // data
             log.debug("Processing {} generations for RPMs...", generationToCDNs.size());
-            for (Map.Entry<String, List<ErrataCDNRepoNormalized>> entry : generationToCDNs.entrySet()) {
-                String generationId = entry.getKey();
-                // 2.1 Get all the CDNs associated with this request
-                List<ErrataCDNRepoNormalized> generationCDNs = entry.getValue();
-
-                // 2.2 - For every manifest previously generated from this generation
-                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
-                        .stream()
-                        .filter(manifest -> manifest.generation().id().equals(generationId))
-                        .toList();
-
-                for (V1Beta1RequestManifestRecord buildManifestRecord : buildManifests) {
-                    log.debug(
-                            "Updating build manifest '{}' for release event {}...",
-                            buildManifestRecord.id(),
-                            requestEvent.getId());
-
-                    Sbom buildManifest = sbomService.get(buildManifestRecord.id());
-                    Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
-                    SbomUtils.addMissingMetadataSupplier(manifestBom);
-
-                    // Add the AdvisoryId property
-                    SbomUtils.addPropertyIfMissing(
-                            manifestBom.getMetadata(),
-                            Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                            String.valueOf(erratum.getDetails().get().getId()));
-
-                    // For each component, I need to find the matching CDNs repo, selecting the longest one to update
-                    // the purl.
-                    // And getting them all to create the evidence
-                    Set<String> manifestArches = getAllArchitectures(manifestBom);
-                    log.debug("Archs detected in the manifest: {}", manifestArches);
-
-                    Component metadataComponent = manifestBom.getMetadata() != null
-                            ? manifestBom.getMetadata().getComponent()
-                            : null;
-                    if (metadataComponent != null) {
-                        adjustComponent(metadataComponent, generationCDNs, manifestArches);
-                    }
-                    for (Component component : manifestBom.getComponents()) {
-                        adjustComponent(component, generationCDNs, manifestArches);
-                    }
-
-                    // 2.7 - Update the original Sbom
-                    buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
-
-                    // 2.8 - Add more information for this release so to find manifests more easily
-                    ObjectNode buildManifestMetadataNode = collectReleaseInfo(
-                            requestEvent.getId(),
+            String requestEventId = requestEvent.getId();
+            List<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
+                    .stream()
+                    .filter(manifest -> generationToCDNs.containsKey(manifest.generation().id()))
+                    .toList();
+
+            List<ReleasedBuildManifest> releasedBuildManifests = processBuilds(
+                    buildManifests,
+                    buildManifestRecord -> releaseRPMBuildManifest(
+                            requestEventId,
                             erratum,
                             productVersion,
-                            manifestBom);
-                    buildManifest.setReleaseMetadata(buildManifestMetadataNode);
-                    sboms.add(buildManifest);
-                }
+                            buildManifestRecord,
+                            generationToCDNs.get(buildManifestRecord.generation().id())));
+
+            for (ReleasedBuildManifest releasedBuildManifest : releasedBuildManifests) {
+                sboms.add(applyReleasedBuildManifest(releasedBuildManifest));
             }
 
             requestEvent = requestEventRepository.findById(requestEvent.getId());
@@ -607,98 +582,49 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             // 2 - For every generation, find all the existing manifests and update them with release repo
             // data
             log.debug("Processing {} generations for Docker...", generationToRepositories.size());
+            Map<String, Map<String, String>> generationToRebuiltPurls = new HashMap<>();
             for (Map.Entry<String, List<RepositoryCoordinates>> entry : generationToRepositories.entrySet()) {
                 String generationId = entry.getKey();
                 // 2.1 - Select the repository with longest repoFragment + tag
-                List<RepositoryCoordinates> repositories = entry.getValue();
-                Optional<RepositoryCoordinates> preferredRepo = AdvisoryEventUtils.findPreferredRepo(repositories);
+                Optional<RepositoryCoordinates> preferredRepo = AdvisoryEventUtils.findPreferredRepo(entry.getValue());
                 if (preferredRepo.isEmpty()) {
                     throw new ApplicationException("No published repositories found in Pyxis");
                 }
 
                 // 2.2 - Regenerate the manifest purls using the preferredRepo and keep track of the updates.
                 // We need them to update the index manifest variants
-                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
+                Map<String, String> originalToRebuiltPurl = new HashMap<>();
+                advisoryManifestsRecord.manifests()
                         .stream()
                         .filter(manifest -> manifest.generation().id().equals(generationId))
-                        .toList();
-                Map<String, String> originalToRebuiltPurl = new HashMap<>();
-                buildManifests.forEach(manifestRecord -> {
-                    String rebuiltPurl = AdvisoryEventUtils.rebuildPurl(manifestRecord.rootPurl(), preferredRepo.get());
-                    originalToRebuiltPurl.put(manifestRecord.rootPurl(), rebuiltPurl);
-                    log.debug("Regenerated rootPurl '{}' to '{}'", manifestRecord.rootPurl(), rebuiltPurl);
-                });
-
-                // 2.3 - For every manifest previously generated from this generation
-                for (V1Beta1RequestManifestRecord buildManifestRecord : buildManifests) {
-
-                    Sbom buildManifest = sbomService.get(buildManifestRecord.id());
-                    Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
-                    SbomUtils.addMissingMetadataSupplier(manifestBom);
-
-                    // 2.4 Update rootPurl, metadata.component.purl, bom.component[0].purl with the rebuiltPurl
-                    String rebuiltPurl = originalToRebuiltPurl.get(buildManifestRecord.rootPurl());
-                    buildManifest.setRootPurl(rebuiltPurl);
-                    log.debug("Updated manifest '{}' to rootPurl '{}'", buildManifestRecord.id(), rebuiltPurl);
-
-                    SbomUtils.addPropertyIfMissing(
-                            manifestBom.getMetadata(),
-                            Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                            String.valueOf(erratum.getDetails().get().getId()));
-
-                    if (manifestBom.getMetadata() != null && manifestBom.getMetadata().getComponent() != null) {
-
-                        manifestBom.getMetadata().getComponent().setPurl(rebuiltPurl);
-                        String desc = manifestBom.getMetadata().getComponent().getDescription();
-                        if (desc != null && desc.contains(buildManifest.getRootPurl())) {
-                            manifestBom.getMetadata()
-                                    .getComponent()
-                                    .setDescription(desc.replace(buildManifest.getRootPurl(), rebuiltPurl));
-                        }
-                    }
-                    if (SbomUtils.isNotEmpty(manifestBom.getComponents())) {
-                        manifestBom.getComponents().get(0).setPurl(rebuiltPurl);
-
-                        // 2.5 - If there are variants (this is an index image) update also the purls with the rebuilt
-                        // ones
-                        if (manifestBom.getComponents().get(0).getPedigree() != null
-                                && manifestBom.getComponents().get(0).getPedigree().getVariants() != null
-                                && manifestBom.getComponents()
-                                        .get(0)
-                                        .getPedigree()
-                                        .getVariants()
-                                        .getComponents() != null) {
-
-                            for (Component variant : manifestBom.getComponents()
-                                    .get(0)
-                                    .getPedigree()
-                                    .getVariants()
-                                    .getComponents()) {
-                                if (originalToRebuiltPurl.containsKey(variant.getPurl())) {
-                                    variant.setPurl(originalToRebuiltPurl.get(variant.getPurl()));
-                                }
-                            }
-                        }
-
-                        // 2.6 - Add an evidence.identity list with all the rebuilt purls
-                        Set<String> evidencePurls = AdvisoryEventUtils
-                                .rebuildPurls(buildManifest.getRootPurl(), repositories);
-                        log.debug("Rebuilt evidence purl '{}'", String.join(", ", evidencePurls));
-                        SbomUtils.setEvidenceIdentities(manifestBom.getComponents().get(0), evidencePurls, Field.PURL);
-                    }
-
-                    // 2.7 - Update the original Sbom
-                    buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
+                        .forEach(manifestRecord -> {
+                            String rebuiltPurl = AdvisoryEventUtils
+                                    .rebuildPurl(manifestRecord.rootPurl(), preferredRepo.get());
+                            originalToRebuiltPurl.put(manifestRecord.rootPurl(), rebuiltPurl);
+                            log.debug("Regenerated rootPurl '{}' to '{}'", manifestRecord.rootPurl(), rebuiltPurl);
+                        });
+                generationToRebuiltPurls.put(generationId, originalToRebuiltPurl);
+            }
 
-                    // 2.8 - Add more information for this release so to find manifests more easily
-                    ObjectNode buildManifestMetadataNode = collectReleaseInfo(
-                            requestEvent.getId(),
+            // 2.3 - For every manifest previously generated from these generations
+            String requestEventId = requestEvent.getId();
+            List<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
+                    .stream()
+                    .filter(manifest -> generationToRepositories.containsKey(manifest.generation().id()))
+                    .toList();
+
+            List<ReleasedBuildManifest> releasedBuildManifests = processBuilds(
+                    buildManifests,
+                    buildManifestRecord -> releaseDockerBuildManifest(
+                            requestEventId,
                             erratum,
                             productVersion,
-                            manifestBom);
-                    buildManifest.setReleaseMetadata(buildManifestMetadataNode);
-                    sboms.add(buildManifest);
-                }
+                            buildManifestRecord,
+                            generationToRepositories.get(buildManifestRecord.generation().id()),
+                            generationToRebuiltPurls.get(buildManifestRecord.generation().id())));
+
+            for (ReleasedBuildManifest releasedBuildManifest : releasedBuildManifests) {
+                sboms.add(applyReleasedBuildManifest(releasedBuildManifest));
             }
 
             requestEvent = requestEventRepository.findById(requestEvent.getId());
@@ -720,6 +646,115 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         }
     }
 
+    private ReleasedBuildManifest releaseRPMBuildManifest(
+            String requestEventId,
+            Errata erratum,
+            ProductVersionEntry productVersion,
+            V1Beta1RequestManifestRecord buildManifestRecord,
+            List<ErrataCDNRepoNormalized> generationCDNs) {
+
+        log.debug("Updating build manifest '{}' for release event {}...", buildManifestRecord.id(), requestEventId);
+
+        Sbom buildManifest = sbomService.get(buildManifestRecord.id());
+        Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
+        SbomUtils.addMissingMetadataSupplier(manifestBom);
+
+        // Add the AdvisoryId property
+        SbomUtils.addPropertyIfMissing(
+                manifestBom.getMetadata(),
+                Constants.CONTAINER_PROPERTY_ADVISORY_ID,
+                String.valueOf(erratum.getDetails().get().getId()));
+
+        // For each component, I need to find the matching CDNs repo, selecting the longest one to update
+        // the purl.
+        // And getting them all to create the evidence
+        Set<String> manifestArches = getAllArchitectures(manifestBom);
+        log.debug("Archs detected in the manifest: {}", manifestArches);
+
+        Component metadataComponent = manifestBom.getMetadata() != null ? manifestBom.getMetadata().getComponent()
+                : null;
+        if (metadataComponent != null) {
+            adjustComponent(metadataComponent, generationCDNs, manifestArches);
+        }
+        for (Component component : manifestBom.getComponents()) {
+            adjustComponent(component, generationCDNs, manifestArches);
+        }
+
+        // 2.7 - Update the original Sbom
+        // 2.8 - Add more information for this release so to find manifests more easily
+        return new ReleasedBuildManifest(
+                buildManifestRecord.id(),
+                SbomUtils.toJsonNode(manifestBom),
+                collectReleaseInfo(requestEventId, erratum, productVersion, manifestBom),
+                null);
+    }
+
+    private ReleasedBuildManifest releaseDockerBuildManifest(
+            String requestEventId,
+            Errata erratum,
+            ProductVersionEntry productVersion,
+            V1Beta1RequestManifestRecord buildManifestRecord,
+            List<RepositoryCoordinates> repositories,
+            Map<String, String> originalToRebuiltPurl) {
+
+        Sbom buildManifest = sbomService.get(buildManifestRecord.id());
+        Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
+        SbomUtils.addMissingMetadataSupplier(manifestBom);
+
+        // 2.4 Update rootPurl, metadata.component.purl, bom.component[0].purl with the rebuiltPurl
+        String rebuiltPurl = originalToRebuiltPurl.get(buildManifestRecord.rootPurl());
+        log.debug("Updated manifest '{}' to rootPurl '{}'", buildManifestRecord.id(), rebuiltPurl);
+
+        SbomUtils.addPropertyIfMissing(
+                manifestBom.getMetadata(),
+                Constants.CONTAINER_PROPERTY_ADVISORY_ID,
+                String.valueOf(erratum.getDetails().get().getId()));
+
+        if (manifestBom.getMetadata() != null && manifestBom.getMetadata().getComponent() != null) {
+
+            manifestBom.getMetadata().getComponent().setPurl(rebuiltPurl);
+            String desc = manifestBom.getMetadata().getComponent().getDescription();
+            if (desc != null && desc.contains(buildManifestRecord.rootPurl())) {
+                manifestBom.getMetadata()
+                        .getComponent()
+                        .setDescription(desc.replace(buildManifestRecord.rootPurl(), rebuiltPurl));
+            }
+        }
+        if (SbomUtils.isNotEmpty(manifestBom.getComponents())) {
+            manifestBom.getComponents().get(0).setPurl(rebuiltPurl);
+
+            // 2.5 - If there are variants (this is an index image) update also the purls with the rebuilt
+            // ones
+            if (manifestBom.getComponents().get(0).getPedigree() != null
+                    && manifestBom.getComponents().get(0).getPedigree().getVariants() != null
+                    && manifestBom.getComponents().get(0).getPedigree().getVariants().getComponents() != null) {
+
+                for (Component variant : manifestBom.getComponents()
+                        .get(0)
+                        .getPedigree()
+                        .getVariants()
+                        .getComponents()) {
+                    if (originalToRebuiltPurl.containsKey(variant.getPurl())) {
+                        variant.setPurl(originalToRebuiltPurl.get(variant.getPurl()));
+                    }
+                }
+            }
+
+            // 2.6 - Add an evidence.identity list with all the rebuilt purls
+            Set<String> evidencePurls = AdvisoryEventUtils.rebuildPurls(rebuiltPurl, repositories);
+            log.debug("Rebuilt evidence purl '{}'", String.join(", ", evidencePurls));
+            SbomUtils.setEvidenceIdentities(manifestBom.getComponents().get(0), evidencePurls, Field.PURL);
+        }
+
+        // 2.7 - Update the original Sbom
+        // 2.8 - Add more information for this release so to find manifests more easily
+        return new ReleasedBuildManifest(
+                buildManifestRecord.id(),
+                SbomUtils.toJsonNode(manifestBom),
+                collectReleaseInfo(requestEventId, erratum, productVersion, manifestBom),
+                rebuiltPurl);
+    }
+
     protected Map<ProductVersionEntry, List<BuildItem>> getAdvisoryBuildDetails(String advisoryId) {
         ErrataBuildList erratumBuildList = errataClient.getBuildsList(advisoryId);
         return erratumBuildList.getProductVersions()
@@ -177,8 +177,8 @@ public class ReleaseTextOnlyAdvisoryEventsListener extends AbstractEventsListene
 
         // Create the release manifest for this ProductVersion
         Bom productVersionBom = createProductVersionBom(productType, erratum, toolVersion);
-        for (Sbom sbom : sboms) {
-            Component sbomRootComponent = createRootComponentForSbom(sbom);
+        List<Component> sbomRootComponents = processBuilds(sboms, this::createRootComponentForSbom);
+        for (Component sbomRootComponent : sbomRootComponents) {
             // Add the component to the release manifest components and add the purl to the "provides" list
             productVersionBom.addComponent(sbomRootComponent);
             productVersionBom.getDependencies().get(0).addProvides(new Dependency(sbomRootComponent.getPurl()));
@@ -309,41 +309,13 @@ public class ReleaseTextOnlyAdvisoryEventsListener extends AbstractEventsListene
 
             // 2 - For every sbom update it with the release repo
             log.debug("Processing {} sboms...", sboms.size());
-            for (Sbom sbom : sboms) {
-                log.debug("Updating sbom {} for release event {}...", sbom.getId(), requestEvent.getId());
-
-                Sbom buildManifest = sbomService.get(sbom.getId());
-                Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
-                SbomUtils.addMissingMetadataSupplier(manifestBom);
-
-                // Add the AdvisoryId property
-                SbomUtils.addPropertyIfMissing(
-                        manifestBom.getMetadata(),
-                        Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                        String.valueOf(erratum.getDetails().get().getId()));
-
-                Component metadataComponent = manifestBom.getMetadata() != null
-                        ? manifestBom.getMetadata().getComponent()
-                        : null;
-                if (metadataComponent != null) {
-                    adjustComponent(metadataComponent);
-                }
-                for (Component component : manifestBom.getComponents()) {
-                    adjustComponent(component);
-                }
-
-                // 2.7 - Update the original Sbom
-                buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
+            String requestEventId = requestEvent.getId();
+            List<ReleasedBuildManifest> releasedBuildManifests = processBuilds(
+                    sboms,
+                    sbom -> releaseBuildManifest(requestEventId, erratum, productName, productVersion, sbom));
 
-                // 2.8 - Add more information for this release so to find manifests more easily
-                ObjectNode buildManifestMetadataNode = collectReleaseInfo(
-                        requestEvent.getId(),
-                        erratum,
-                        productName,
-                        productVersion,
-                        manifestBom);
-                buildManifest.setReleaseMetadata(buildManifestMetadataNode);
-                sbomsToUpload.add(buildManifest);
+            for (ReleasedBuildManifest releasedBuildManifest : releasedBuildManifests) {
+                sbomsToUpload.add(applyReleasedBuildManifest(releasedBuildManifest));
             }
 
             requestEvent = requestEventRepository.findById(requestEvent.getId());
@@ -365,6 +337,42 @@ public class ReleaseTextOnlyAdvisoryEventsListener extends AbstractEventsListene
         }
     }
 
+    private ReleasedBuildManifest releaseBuildManifest(
+            String requestEventId,
+            Errata erratum,
+            String productName,
+            String productVersion,
+            Sbom sbom) {
+        log.debug("Updating sbom {} for release event {}...", sbom.getId(), requestEventId);
+
+        Sbom buildManifest = sbomService.get(sbom.getId());
+        Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
+        SbomUtils.addMissingMetadataSupplier(manifestBom);
+
+        // Add the AdvisoryId property
+        SbomUtils.addPropertyIfMissing(
+                manifestBom.getMetadata(),
+                Constants.CONTAINER_PROPERTY_ADVISORY_ID,
+                String.valueOf(erratum.getDetails().get().getId()));
+
+        Component metadataComponent = manifestBom.getMetadata() != null ? manifestBom.getMetadata().getComponent()
+                : null;
+        if (metadataComponent != null) {
+            adjustComponent(metadataComponent);
+        }
+        for (Component component : manifestBom.getComponents()) {
+            adjustComponent(component);
+        }
+
+        // 2.7 - Update the original Sbom
+        // 2.8 - Add more information for this release so to find manifests more easily
+        return new ReleasedBuildManifest(
+                sbom.getId(),
+                SbomUtils.toJsonNode(manifestBom),
+                collectReleaseInfo(requestEventId, erratum, productName, productVersion, manifestBom),
+                null);
+    }
+
     // FIXME: 'Optional.get()' without 'isPresent()' check
     protected ObjectNode collectReleaseInfo(
             String requestEventId,
@@ -23,6 +23,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -44,6 +47,7 @@ import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
@@ -61,7 +65,6 @@ import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
-import org.slf4j.MDC;
 import org.slf4j.helpers.MessageFormatter;
 
 import io.fabric8.knative.pkg.apis.Condition;
@@ -77,6 +80,7 @@ import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import io.javaoperatorsdk.operator.processing.event.source.EventSource;
 import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+import io.micrometer.core.instrument.Timer;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import jakarta.enterprise.context.control.ActivateRequestContext;
@@ -165,6 +169,35 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
         return UpdateControl.patchResource(generationRequest);
     }
 
+    /**
+     * Records the duration of the finished {@link TaskRun} of a generation phase. Should be called once, when the
+     * generation leaves the phase.
+     *
+     * @param taskRun the finished {@link TaskRun}
+     * @param phase the phase the {@link TaskRun} belongs to
+     */
+    protected void recordPhase(TaskRun taskRun, SbomGenerationPhase phase) {
+        TaskRunStatus status = taskRun.getStatus();
+
+        if (status == null || status.getStartTime() == null || status.getCompletionTime() == null) {
+            return;
+        }
+
+        try {
+            MetricsHelper.record(
+                    MetricsHelper.GENERATION_PHASE,
+                    Duration.between(Instant.parse(status.getStartTime()), Instant.parse(status.getCompletionTime())),
+                    "type",
+                    generationRequestType().toName(),
+                    "phase",
+                    phase.name().toLowerCase(),
+                    MetricsHelper.TAG_OUTCOME,
+                    MetricsHelper.outcome(Boolean.TRUE.equals(isSuccessful(taskRun))));
+        } catch (DateTimeParseException e) {
+            log.debug("Unable to read the duration of TaskRun '{}'", taskRun.getMetadata().getName(), e);
+        }
+    }
+
     /**
      * Returns the {@link TaskRun} having the specified {@link SbomGenerationPhase} from the given {@link TaskRun}
      * {@link Set}.
@@ -378,6 +411,26 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             GenerationRequest generationRequest,
             Context<GenerationRequest> context) throws Exception {
 
+        String status = String.valueOf(generationRequest.getStatus());
+        Timer.Sample sample = MetricsHelper.start();
+
+        try {
+            return doReconcile(generationRequest, context);
+        } finally {
+            MetricsHelper.stop(
+                    sample,
+                    MetricsHelper.RECONCILE,
+                    "controller",
+                    OtelHelper.getEffectiveClassName(this.getClass()),
+                    "status",
+                    status);
+        }
+    }
+
+    private UpdateControl<GenerationRequest> doReconcile(
+            GenerationRequest generationRequest,
+            Context<GenerationRequest> context) throws Exception {
+
         MDCUtils.removeContext();
         MDCUtils.addIdentifierContext(generationRequest.getIdentifier());
         MDCUtils.addOtelContext(generationRequest.getMDCOtel());
@@ -445,13 +498,10 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile NEW for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
         return OtelHelper.withSpan(
                 this.getClass(),
                 ".reconcile-new",
-                attributes,
-                MDC.getCopyOfContextMap(),
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
                 () -> updateRequest(generationRequest, SbomGenerationStatus.SCHEDULED, null, null));
 
     }
@@ -468,10 +518,11 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile SCHEDULED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-scheduled", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-scheduled",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     TaskRun generateTaskRun = findTaskRun(secondaryResources, SbomGenerationPhase.GENERATE);
                     if (generateTaskRun == null) {
                         return UpdateControl.noUpdate();
@@ -519,17 +570,19 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     protected UpdateControl<GenerationRequest> reconcileFailed(GenerationRequest generationRequest) {
 
         log.debug("Reconcile FAILED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper.withSpan(this.getClass(), ".reconcile-failed", attributes, MDC.getCopyOfContextMap(), () -> {
-            s3LogHandler.storeFiles(generationRequest);
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-failed",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
+                    s3LogHandler.storeFiles(generationRequest);
 
-            // In case the generation request failed, we need to clean up resources so that these are not left forever.
-            // We have all the data elsewhere (logs, cause) so it's safe to do so.
-            cleanupFinishedGenerationRequest(generationRequest);
+                    // In case the generation request failed, we need to clean up resources so that these are not left
+                    // forever. We have all the data elsewhere (logs, cause) so it's safe to do so.
+                    cleanupFinishedGenerationRequest(generationRequest);
 
-            return UpdateControl.noUpdate();
-        });
+                    return UpdateControl.noUpdate();
+                });
     }
 
     /**
@@ -544,10 +597,11 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     protected UpdateControl<GenerationRequest> reconcileFinished(GenerationRequest generationRequest) {
 
         log.debug("Reconcile FINISHED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-finished", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-finished",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     // Store files in S3
                     try {
                         s3LogHandler.storeFiles(generationRequest);
@@ -630,10 +684,11 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
                 workdirPath.toAbsolutePath(),
                 generationRequest.getName());
 
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-        attributes.put("workdir.to.remove", workdirPath.toFile().getAbsolutePath());
-
-        OtelHelper.withSpan(this.getClass(), ".reconcile-cleanup", attributes, MDC.getCopyOfContextMap(), () -> {
+        OtelHelper.withSpan(this.getClass(), ".reconcile-cleanup", () -> {
+            Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
+            attributes.put("workdir.to.remove", workdirPath.toFile().getAbsolutePath());
+            return attributes;
+        }, () -> {
             // It should, but...
             if (Files.exists(workdirPath)) {
                 try (Stream<Path> stream = Files.walk(workdirPath)) {
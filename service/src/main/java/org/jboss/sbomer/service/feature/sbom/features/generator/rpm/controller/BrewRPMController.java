@@ -20,7 +20,6 @@ package org.jboss.sbomer.service.feature.sbom.features.generator.rpm.controller;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,7 +35,6 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationPhase;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
-import org.slf4j.MDC;
 
 import io.fabric8.kubernetes.api.model.ContainerStateTerminated;
 import io.fabric8.tekton.v1beta1.StepState;
@@ -110,10 +108,11 @@ public class BrewRPMController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile GENERATING for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-generating", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-generating",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     TaskRun generateTaskRun = findTaskRun(secondaryResources, SbomGenerationPhase.GENERATE);
 
                     if (generateTaskRun == null) {
@@ -133,6 +132,8 @@ public class BrewRPMController extends AbstractController {
                         return UpdateControl.noUpdate();
                     }
 
+                    recordPhase(generateTaskRun, SbomGenerationPhase.GENERATE);
+
                     // In case the Task Run is not successful, fail the generation
                     if (!Boolean.TRUE.equals(isSuccessful(generateTaskRun))) {
                         String detailedFailureMessage = getDetailedFailureMessage(generateTaskRun);
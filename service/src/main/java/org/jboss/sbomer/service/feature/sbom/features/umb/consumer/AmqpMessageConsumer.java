@@ -28,6 +28,7 @@ import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_TOPIC;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
@@ -42,6 +43,7 @@ import org.jboss.sbomer.core.config.request.PncOperationRequestConfig;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataMessageHelper;
@@ -104,6 +106,7 @@ public class AmqpMessageConsumer {
         Optional<IncomingAmqpMetadata> metadata = message.getMetadata(IncomingAmqpMetadata.class);
 
         if (metadata.isPresent()) {
+            recordLag(metadata.get(), UMBConsumer.ERRATA);
             addMetadataToEvent(metadata.get(), event);
             identifyErrataEvent(metadata.get(), event);
         }
@@ -151,6 +154,7 @@ public class AmqpMessageConsumer {
         Optional<IncomingAmqpMetadata> metadata = message.getMetadata(IncomingAmqpMetadata.class);
 
         if (metadata.isPresent()) {
+            recordLag(metadata.get(), UMBConsumer.PNC);
             addMetadataToEvent(metadata.get(), event);
             identifyPncEvent(metadata.get(), event);
         }
@@ -229,6 +233,23 @@ public class AmqpMessageConsumer {
                 .put(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.NONE.toString());
     }
 
+    /**
+     * Records the time between the creation of the message and its processing.
+     */
+    private void recordLag(IncomingAmqpMetadata metadata, UMBConsumer consumer) {
+        if (metadata.getCreationTime() <= 0) {
+            return;
+        }
+
+        MetricsHelper.record(
+                MetricsHelper.UMB_CONSUMER_LAG,
+                Duration.ofMillis(Math.max(0, System.currentTimeMillis() - metadata.getCreationTime())),
+                "consumer",
+                consumer.toString(),
+                "topic",
+                String.valueOf(metadata.getAddress()));
+    }
+
     private ObjectNode addMetadataToEvent(IncomingAmqpMetadata metadata, ObjectNode event) {
         return event.put(EVENT_KEY_UMB_MSG_CREATION_TIME, Instant.ofEpochMilli(metadata.getCreationTime()).toString())
                 .put(EVENT_KEY_UMB_MSG_ID, metadata.getId())
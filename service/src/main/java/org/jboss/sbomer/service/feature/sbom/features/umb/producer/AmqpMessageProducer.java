@@ -17,30 +17,65 @@
  */
 package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.GenerationFinishedMessageBody;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.ContainerImageGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.OperationGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.PncBuildGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.model.UmbNotification;
+import org.jboss.sbomer.service.feature.sbom.service.UmbNotificationRepository;
+import org.jboss.sbomer.service.leader.LeaderManager;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import io.quarkus.arc.Unremovable;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import io.smallrye.reactive.messaging.amqp.OutgoingAmqpMetadata;
 import io.smallrye.reactive.messaging.amqp.OutgoingAmqpMetadata.OutgoingAmqpMetadataBuilder;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * <p>
  * A message producer sending messages to the AMQP channels.
+ * </p>
+ *
+ * <p>
+ * Messages are not sent on the calling thread. These are added to an outbound queue, which is drained in batches by a
+ * worker thread. The amount of data (in bytes) sent, but not yet acknowledged by the broker is limited, see
+ * {@code sbomer.umb.producer.max-in-flight}; the messages of a batch are admitted by this limit together and then sent
+ * one after the other. Messages which are NACKed by the broker (or cannot be sent at all) are stored in the database
+ * and sent again later with an exponential backoff, as are the messages still queued when the service shuts down.
+ * </p>
  *
  * @author Marek Goldmann
  */
@@ -49,10 +84,100 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AmqpMessageProducer {
 
+    // Maximum delay between attempts to send a failed notification
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    // Time after which a notification which was sent again, but never confirmed (for example because of a restart) is
+    // sent once more
+    private static final Duration PENDING_TIMEOUT = Duration.ofMinutes(30);
+
+    /**
+     * A message waiting in the outbound queue.
+     *
+     * @param sbomId the identifier of the manifest the message is about
+     * @param payload the message body
+     * @param properties the message application properties
+     * @param stored whether the message was loaded from the database
+     */
+    record OutgoingNotification(String sbomId, String payload, Map<String, String> properties, boolean stored) {
+    }
+
     @Inject
     @Channel("finished")
     Instance<Emitter<String>> emitter;
 
+    @Inject
+    UmbConfig umbConfig;
+
+    @Inject
+    UmbNotificationRepository notificationRepository;
+
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    @Inject
+    LeaderManager leaderManager;
+
+    /**
+     * Maximum number of messages taken from the outbound queue at once.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.batch-size", defaultValue = "50")
+    int batchSize;
+
+    /**
+     * Maximum number of messages waiting in the outbound queue. Messages which do not fit are stored in the database
+     * and sent later.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.queue-size", defaultValue = "10000")
+    int queueSize;
+
+    /**
+     * Maximum size of the messages sent, but not yet acknowledged by the broker.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.max-in-flight", defaultValue = "1M")
+    MemorySize maxInFlight;
+
+    /**
+     * How long to wait for previously sent messages to be acknowledged before a batch of messages is stored to be sent
+     * later.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.max-in-flight-wait", defaultValue = "1m")
+    Duration maxInFlightWait;
+
+    /**
+     * Maximum number of attempts to send a message, after which it is not sent anymore.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    /**
+     * The delay before a failed message is sent again, doubled with every subsequent attempt.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.retry-delay", defaultValue = "1m")
+    Duration retryDelay;
+
+    /**
+     * Maximum number of failed messages sent again at once.
+     */
+    @ConfigProperty(name = "sbomer.umb.producer.retry-batch", defaultValue = "100")
+    int retryBatch;
+
+    private BlockingQueue<OutgoingNotification> queue;
+
+    /**
+     * Permits represent the bytes of messages which can be in flight.
+     */
+    private Semaphore inFlight;
+
+    private int maxInFlightBytes;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    /**
+     * Set when the service shuts down, from then on messages are stored to be sent after the restart.
+     */
+    private volatile boolean closed;
+
     /**
      * Total number of produced messages that were NACKed by the broker.
      */
@@ -64,8 +189,20 @@ public class AmqpMessageProducer {
     private final AtomicInteger ackedMessages = new AtomicInteger(0);
 
     /**
-     * Publish the provided {@link GenerationFinishedMessageBody} {@code msg} to the channel by using an {@link Emitter}
-     * and wait for the acknowledgement.
+     * Total number of failed messages which were sent again.
+     */
+    private final AtomicInteger retriedMessages = new AtomicInteger(0);
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(Math.max(1, queueSize));
+        maxInFlightBytes = (int) Math.min(Math.max(1, maxInFlight.asLongValue()), Integer.MAX_VALUE);
+        inFlight = new Semaphore(maxInFlightBytes);
+    }
+
+    /**
+     * Queues the provided {@link GenerationFinishedMessageBody} {@code msg} to be published to the channel by using an
+     * {@link Emitter}. This method does not wait for the message to be sent, nor for the acknowledgement.
      *
      * @param msg the {@link GenerationFinishedMessageBody} message body to send
      */
@@ -91,26 +228,26 @@ public class AmqpMessageProducer {
             return;
         }
 
-        OutgoingAmqpMetadataBuilder metadataBuilder = OutgoingAmqpMetadata.builder();
+        Map<String, String> properties = new HashMap<>();
 
         // Add main generation request identifier
-        metadataBuilder.withApplicationProperty("generation_request_id", msg.getSbom().getGenerationRequest().getId());
+        properties.put("generation_request_id", msg.getSbom().getGenerationRequest().getId());
 
         // Add headers specific to the generation request type
         switch (msg.getSbom().getGenerationRequest().getType()) {
             case BUILD:
-                metadataBuilder.withApplicationProperty(
+                properties.put(
                         "pnc_build_id",
                         ((PncBuildGenerationRequest) msg.getSbom().getGenerationRequest()).getBuild().getId());
                 break;
             case CONTAINERIMAGE:
-                metadataBuilder.withApplicationProperty(
+                properties.put(
                         "container_image",
                         ((ContainerImageGenerationRequest) msg.getSbom().getGenerationRequest()).getContainerImage()
                                 .getName());
                 break;
             case OPERATION:
-                metadataBuilder.withApplicationProperty(
+                properties.put(
                         "operation_id",
                         ((OperationGenerationRequest) msg.getSbom().getGenerationRequest()).getOperation().getId());
                 break;
@@ -119,23 +256,250 @@ public class AmqpMessageProducer {
         }
 
         log.info(
-                "Sending notification for finished SBOM generation (Generation request: '{}', type: '{}', SBOM id: '{}') using the AMQP producer",
+                "Queueing notification for finished SBOM generation (Generation request: '{}', type: '{}', SBOM id: '{}') to be sent using the AMQP producer",
                 msg.getSbom().getGenerationRequest().getId(),
                 msg.getSbom().getGenerationRequest().getType(),
                 msg.getSbom().getId());
 
-        emitter.get().send(Message.of(data, () -> {
-            ackedMessages.incrementAndGet();
-            log.debug("Notification for SBOM id '{}' was ACKed", msg.getSbom().getId());
+        enqueue(new OutgoingNotification(msg.getSbom().getId(), data, properties, false));
+    }
+
+    /**
+     * <p>
+     * Sends again messages which failed and are due to be retried.
+     * </p>
+     *
+     * <p>
+     * This method is run periodically. By default every minute. It is controlled by the
+     * {@code sbomer.umb.producer.retry-interval} property.
+     * </p>
+     */
+    @Scheduled(
+            every = "${sbomer.umb.producer.retry-interval:1m}",
+            delay = 1,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    public void retryFailedNotifications() {
+        if (!umbConfig.isEnabled() || !umbConfig.producer().isEnabled() || emitter.isUnsatisfied()
+                || !leaderManager.isLeader()) {
+            return;
+        }
+
+        List<UmbNotification> notifications = notificationRepository.findRetryable(Instant.now(), retryBatch);
+
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        log.info("Sending again {} failed notifications...", notifications.size());
+
+        notifications.forEach(notification -> {
+            notificationRepository.markPending(notification.getId(), Instant.now().plus(PENDING_TIMEOUT));
+            retriedMessages.incrementAndGet();
+            enqueue(
+                    new OutgoingNotification(
+                            notification.getId(),
+                            notification.getPayload(),
+                            notification.getProperties(),
+                            true));
+        });
+    }
+
+    /**
+     * Stores the messages which are still queued, so that these are sent after the restart instead of being lost.
+     * Messages which were loaded from the database are stored already and are sent again once their pending timeout
+     * expires.
+     */
+    void onStop(@Observes ShutdownEvent event) {
+        closed = true;
+
+        List<OutgoingNotification> pending = new ArrayList<>();
+        queue.drainTo(pending);
+
+        List<OutgoingNotification> notStored = pending.stream().filter(n -> !n.stored()).toList();
 
-            return CompletableFuture.completedFuture(null);
-        }, reason -> {
-            log.error("Notification for SBOM id '{}' was NACKed", msg.getSbom().getId());
-            log.error("Got NACK", reason);
+        if (notStored.isEmpty()) {
+            return;
+        }
+
+        log.info("Storing {} queued notifications to be sent after the restart", notStored.size());
+
+        notStored.forEach(notification -> store(notification, "Not sent before the service shut down"));
+    }
+
+    private void enqueue(OutgoingNotification notification) {
+        if (closed) {
+            if (!notification.stored()) {
+                store(notification, "Queued while the service was shutting down");
+            }
+
+            return;
+        }
+
+        if (!queue.offer(notification)) {
+            log.warn(
+                    "Outbound notification queue is full, notification for SBOM id '{}' will be sent later",
+                    notification.sbomId());
+            storeFailed(notification, "Outbound notification queue is full");
+            return;
+        }
+
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            managedExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.error("Unable to start sending queued notifications, these will be sent with the next one", e);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<OutgoingNotification> batch = new ArrayList<>();
 
-            nackedMessages.incrementAndGet();
-            return CompletableFuture.completedFuture(null);
-        }).addMetadata(metadataBuilder.build()));
+            while (!closed && queue.drainTo(batch, Math.max(1, batchSize)) > 0) {
+                log.debug("Sending batch of {} notifications", batch.size());
+                sendBatch(batch);
+                batch.clear();
+            }
+        } finally {
+            draining.set(false);
+        }
+
+        // Messages could be queued after the queue was found empty, but before the flag was cleared
+        if (!closed && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Sends the batch of notifications. The notifications are admitted by the in-flight limit together, split in parts
+     * only if the batch is larger than the limit, instead of waiting for every single notification. If previously sent
+     * notifications are not acknowledged within {@code max-in-flight-wait}, the rest of the batch is stored to be sent
+     * later.
+     */
+    private void sendBatch(List<OutgoingNotification> batch) {
+        int[] sizes = batch.stream().mapToInt(this::size).toArray();
+        int start = 0;
+
+        while (start < batch.size()) {
+            int end = start;
+            int permits = 0;
+
+            while (end < batch.size() && permits + sizes[end] <= maxInFlightBytes) {
+                permits += sizes[end];
+                end++;
+            }
+
+            String reason = acquireInFlight(permits);
+
+            if (reason != null) {
+                log.warn("{}, {} notifications will be sent later", reason, batch.size() - start);
+                batch.subList(start, batch.size()).forEach(notification -> storeFailed(notification, reason));
+                return;
+            }
+
+            for (int i = start; i < end; i++) {
+                send(batch.get(i), sizes[i]);
+            }
+
+            start = end;
+        }
+    }
+
+    /**
+     * The size of the notification counted by the in-flight limit: its payload in bytes, at most the limit itself.
+     */
+    private int size(OutgoingNotification notification) {
+        return Math.min(notification.payload().getBytes(StandardCharsets.UTF_8).length, maxInFlightBytes);
+    }
+
+    /**
+     * @return {@code null} if the permits were acquired, otherwise the reason why not
+     */
+    private String acquireInFlight(int permits) {
+        try {
+            if (!inFlight.tryAcquire(permits, maxInFlightWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                return "Previously sent notifications were not acknowledged in time";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting to send the notifications";
+        }
+
+        return null;
+    }
+
+    private void send(OutgoingNotification notification, int size) {
+        OutgoingAmqpMetadataBuilder metadataBuilder = OutgoingAmqpMetadata.builder();
+        notification.properties().forEach(metadataBuilder::withApplicationProperty);
+
+        try {
+            emitter.get().send(Message.of(notification.payload(), () -> {
+                inFlight.release(size);
+                ackedMessages.incrementAndGet();
+                log.debug("Notification for SBOM id '{}' was ACKed", notification.sbomId());
+
+                if (notification.stored()) {
+                    managedExecutor.runAsync(
+                            () -> notificationRepository.markSent(notification.sbomId(), notification.payload()))
+                            .exceptionally(e -> {
+                                log.warn(
+                                        "Unable to remove delivered notification for SBOM id '{}'",
+                                        notification.sbomId(),
+                                        e);
+                                return null;
+                            });
+                }
+
+                return CompletableFuture.completedFuture(null);
+            }, reason -> {
+                inFlight.release(size);
+                log.error("Notification for SBOM id '{}' was NACKed", notification.sbomId());
+                log.error("Got NACK", reason);
+
+                nackedMessages.incrementAndGet();
+                storeFailed(notification, reason.getMessage());
+                return CompletableFuture.completedFuture(null);
+            }).addMetadata(metadataBuilder.build()));
+        } catch (RuntimeException e) {
+            inFlight.release(size);
+            log.error("Unable to send notification for SBOM id '{}', it will be sent later", notification.sbomId(), e);
+            storeFailed(notification, e.getMessage());
+        }
+    }
+
+    private void storeFailed(OutgoingNotification notification, String reason) {
+        managedExecutor.runAsync(() -> store(notification, reason));
+    }
+
+    private void store(OutgoingNotification notification, String reason) {
+        try {
+            notificationRepository.markFailed(
+                    notification.sbomId(),
+                    notification.payload(),
+                    notification.properties(),
+                    reason,
+                    this::nextAttempt);
+        } catch (RuntimeException e) {
+            log.error("Unable to store failed notification for SBOM id '{}'", notification.sbomId(), e);
+        }
+    }
+
+    private Instant nextAttempt(int attempts) {
+        if (attempts >= maxAttempts) {
+            return null;
+        }
+
+        long delayMillis = retryDelay.toMillis() << Math.min(attempts - 1, 20);
+        return Instant.now().plusMillis(Math.min(delayMillis, MAX_RETRY_DELAY.toMillis()));
     }
 
     public int getAckedMessages() {
@@ -145,4 +509,12 @@ public class AmqpMessageProducer {
     public int getNackedMessages() {
         return nackedMessages.get();
     }
+
+    public int getRetriedMessages() {
+        return retriedMessages.get();
+    }
+
+    public int getQueuedMessages() {
+        return queue.size();
+    }
 }
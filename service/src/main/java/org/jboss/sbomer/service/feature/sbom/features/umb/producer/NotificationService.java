@@ -19,13 +19,11 @@ package org.jboss.sbomer.service.feature.sbom.features.umb.producer;
 
 import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_BUILD_ID;
 import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_OPERATION_ID;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.fromJsonNode;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.getExternalReferences;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.StreamSupport;
 
-import org.cyclonedx.model.Component;
 import org.cyclonedx.model.ExternalReference;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
 import org.jboss.sbomer.core.errors.ApplicationException;
@@ -48,12 +46,22 @@ import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.Op
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.PncBuildGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * <p>
  * Service implementation responsible for the notification of completed SBOMs.
+ * </p>
+ *
+ * <p>
+ * Messages are built from the indexed columns of the manifest and the few fields of the main component read directly
+ * from the stored JSON, without converting the whole BOM. Built messages are handed over to the
+ * {@link AmqpMessageProducer} outbound queue, so the caller does not wait for the broker.
+ * </p>
  *
  * @author Andrea Vibelli
  */
@@ -100,15 +108,17 @@ public class NotificationService {
         }
 
         sboms.forEach(sbom -> {
-            org.cyclonedx.model.Bom bom = fromJsonNode(sbom.getSbom());
+            JsonNode bom = sbom.getSbom();
 
-            if (bom == null) {
+            if (bom == null || !bom.isObject()) {
                 throw new NotificationException(
                         "Could not find a valid bom for SBOM id '{}', skipping sending UMB notification",
                         sbom.getId());
             }
 
-            if (bom.getComponents().isEmpty()) {
+            JsonNode component = bom.path("components").path(0);
+
+            if (component.isMissingNode()) {
                 throw new NotificationException(
                         "Could not find main component for SBOM id '{}', skipping sending UMB notification",
                         sbom.getId());
@@ -119,7 +129,10 @@ public class NotificationService {
              *
              * Skips sending UMB messages for manifests not related to a product build.
              */
-            if (ProductConfig.ErrataProductConfig.fromBom(bom) == null) {
+            ProductConfig.ErrataProductConfig errataProductConfig = ProductConfig.ErrataProductConfig
+                    .fromJsonNode(component);
+
+            if (errataProductConfig == null) {
                 log.warn(
                         "Could not retrieve product configuration from the main component (purl = '{}') in the '{}' SBOM, skipping sending UMB notification",
                         sbom.getRootPurl(),
@@ -134,11 +147,15 @@ public class NotificationService {
                         sbom.getGenerationRequest().getType());
             }
 
-            GenerationFinishedMessageBody msg = createGenerationFinishedMessage(sbom, bom);
+            GenerationFinishedMessageBody msg = createGenerationFinishedMessage(
+                    sbom,
+                    bom,
+                    component,
+                    errataProductConfig);
 
             ValidationResult result = validator.validate(msg);
             if (result.isValid()) {
-                log.info("GenerationFinishedMessage is valid, sending it to the topic!");
+                log.info("GenerationFinishedMessage is valid, queueing it to be sent to the topic!");
 
                 amqpMessageProducer.notify(msg);
             } else {
@@ -152,23 +169,24 @@ public class NotificationService {
 
     private GenerationFinishedMessageBody createGenerationFinishedMessage(
             org.jboss.sbomer.service.feature.sbom.model.Sbom sbom,
-            org.cyclonedx.model.Bom bom) {
+            JsonNode bom,
+            JsonNode component,
+            ProductConfig.ErrataProductConfig errataProductConfigPayload) {
 
-        Component component = bom.getComponents().get(0);
         BomFormat bomFormat = null;
 
         try {
-            bomFormat = BomFormat.valueOf(bom.getBomFormat().toUpperCase());
+            bomFormat = BomFormat.valueOf(bom.path("bomFormat").asText().toUpperCase());
         } catch (IllegalArgumentException exc) {
             log.warn(
                     "Could not find compatible bom format for SBOM id '{}', found '{}', skipping sending UMB notification",
                     sbom.getId(),
-                    bom.getBomFormat());
+                    bom.path("bomFormat").asText(null));
         }
 
         Sbom.Bom bomPayload = Sbom.Bom.builder()
                 .format(bomFormat)
-                .version(bom.getSpecVersion())
+                .version(bom.path("specVersion").asText(null))
                 .link(sbomerConfig.apiUrl() + "manifests/" + sbom.getId() + "/bom")
                 .build();
 
@@ -179,11 +197,7 @@ public class NotificationService {
                 .bom(bomPayload)
                 .build();
 
-        Optional<ExternalReference> pncBuildSystemRef = getExternalReferences(
-                component,
-                ExternalReference.Type.BUILD_SYSTEM).stream()
-                .filter(r -> r.getComment().equals(SBOM_RED_HAT_PNC_BUILD_ID))
-                .findFirst();
+        Optional<String> pncBuildSystemRef = findBuildSystemUrl(component, SBOM_RED_HAT_PNC_BUILD_ID);
 
         Build buildPayload = null;
         Operation operationPayload = null;
@@ -201,7 +215,7 @@ public class NotificationService {
                 buildPayload = Build.builder()
                         .id(sbom.getIdentifier())
                         .buildSystem(pncBuildSystemRef.isPresent() ? BuildSystem.PNC : null)
-                        .link(pncBuildSystemRef.map(ExternalReference::getUrl).orElse(null))
+                        .link(pncBuildSystemRef.orElse(null))
                         .build();
 
                 generationRequest = PncBuildGenerationRequest.builder()
@@ -212,17 +226,13 @@ public class NotificationService {
 
                 break;
             case OPERATION:
-                Optional<ExternalReference> pncOperationRef = getExternalReferences(
-                        component,
-                        ExternalReference.Type.BUILD_SYSTEM).stream()
-                        .filter(r -> r.getComment().equals(SBOM_RED_HAT_PNC_OPERATION_ID))
-                        .findFirst();
+                Optional<String> pncOperationRef = findBuildSystemUrl(component, SBOM_RED_HAT_PNC_OPERATION_ID);
 
                 operationPayload = Operation.builder()
                         .id(sbom.getIdentifier())
                         .buildSystem(pncOperationRef.isPresent() ? Operation.BuildSystem.PNC : null)
-                        .link(pncOperationRef.map(ExternalReference::getUrl).orElse(null))
-                        .deliverable(component.getVersion())
+                        .link(pncOperationRef.orElse(null))
+                        .deliverable(component.path("version").asText(null))
                         .build();
 
                 generationRequest = OperationGenerationRequest.builder()
@@ -240,7 +250,6 @@ public class NotificationService {
 
         sbomPayload.setGenerationRequest(generationRequest);
 
-        ProductConfig.ErrataProductConfig errataProductConfigPayload = ProductConfig.ErrataProductConfig.fromBom(bom);
         ProductConfig productConfigPayload = ProductConfig.builder().errataTool(errataProductConfigPayload).build();
 
         return GenerationFinishedMessageBody.builder()
@@ -253,4 +262,15 @@ public class NotificationService {
                 .productConfig(productConfigPayload)
                 .build();
     }
+
+    /**
+     * Finds the URL of the build system external reference of the component with the provided comment.
+     */
+    private static Optional<String> findBuildSystemUrl(JsonNode component, String comment) {
+        return StreamSupport.stream(component.path("externalReferences").spliterator(), false)
+                .filter(r -> ExternalReference.Type.BUILD_SYSTEM.getTypeName().equals(r.path("type").asText()))
+                .filter(r -> comment.equals(r.path("comment").asText(null)))
+                .findFirst()
+                .map(r -> r.path("url").asText(null));
+    }
 }
@@ -21,7 +21,6 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -49,7 +48,6 @@ import org.jboss.sbomer.service.feature.sbom.k8s.resources.TaskRunInitDependentR
 import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
-import org.slf4j.MDC;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -136,10 +134,11 @@ public class BuildController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile INITIALIZING for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-initializing", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-initializing",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     TaskRun initTaskRun = findTaskRun(secondaryResources, SbomGenerationPhase.INIT);
 
                     if (initTaskRun == null) {
@@ -158,6 +157,8 @@ public class BuildController extends AbstractController {
                         return UpdateControl.noUpdate();
                     }
 
+                    recordPhase(initTaskRun, SbomGenerationPhase.INIT);
+
                     if (Boolean.TRUE.equals(isSuccessful(initTaskRun))) {
                         setConfig(generationRequest, initTaskRun);
                         return updateRequest(generationRequest, SbomGenerationStatus.INITIALIZED, null, null);
@@ -231,10 +232,11 @@ public class BuildController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile INITIALIZED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-initialized", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-initialized",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     PncBuildConfig config = generationRequest.getConfig(PncBuildConfig.class);
 
                     if (config == null) {
@@ -265,10 +267,11 @@ public class BuildController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile GENERATING for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-generating", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-generating",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     PncBuildConfig config = generationRequest.getConfig(PncBuildConfig.class);
 
                     if (config == null) {
@@ -320,6 +323,8 @@ public class BuildController extends AbstractController {
                         return UpdateControl.noUpdate();
                     }
 
+                    generateTaskRuns.forEach(tr -> recordPhase(tr, SbomGenerationPhase.GENERATE));
+
                     // Get list of failed TaskRuns
                     List<TaskRun> failedTaskRuns = generateTaskRuns.stream()
                             .filter(tr -> !isSuccessful(tr))
@@ -475,10 +480,11 @@ public class BuildController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile SCHEDULED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-scheduled", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-scheduled",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     TaskRun initTaskRun = findTaskRun(secondaryResources, SbomGenerationPhase.INIT);
 
                     if (initTaskRun == null) {
@@ -21,7 +21,6 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -48,7 +47,6 @@ import org.jboss.sbomer.service.feature.sbom.k8s.resources.TaskRunOperationInitD
 import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
-import org.slf4j.MDC;
 import org.slf4j.helpers.MessageFormatter;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -142,11 +140,13 @@ public class OperationController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile NEW for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper.withSpan(this.getClass(), ".reconcile-new", attributes, MDC.getCopyOfContextMap(), () -> {
-            return updateRequest(generationRequest, SbomGenerationStatus.SCHEDULED, null, null);
-        });
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-new",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
+                    return updateRequest(generationRequest, SbomGenerationStatus.SCHEDULED, null, null);
+                });
     }
 
     /**
@@ -168,10 +168,11 @@ public class OperationController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile SCHEDULED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-scheduled", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-scheduled",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
 
                     TaskRun initTaskRun = findTaskRun(secondaryResources, SbomGenerationPhase.OPERATIONINIT);
 
@@ -196,10 +197,11 @@ public class OperationController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile INITIALIZING for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-initializing", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-initializing",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     TaskRun initTaskRun = findTaskRun(secondaryResources, SbomGenerationPhase.OPERATIONINIT);
 
                     if (initTaskRun == null) {
@@ -218,6 +220,8 @@ public class OperationController extends AbstractController {
                         return UpdateControl.noUpdate();
                     }
 
+                    recordPhase(initTaskRun, SbomGenerationPhase.OPERATIONINIT);
+
                     if (Boolean.TRUE.equals(isSuccessful(initTaskRun))) {
                         setOperationConfig(generationRequest, initTaskRun);
                         return updateRequest(generationRequest, SbomGenerationStatus.INITIALIZED, null, null);
@@ -291,10 +295,11 @@ public class OperationController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile INITIALIZED for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-initialized", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-initialized",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     OperationConfig config = generationRequest.getConfig(OperationConfig.class);
 
                     if (config == null) {
@@ -344,10 +349,11 @@ public class OperationController extends AbstractController {
             Set<TaskRun> secondaryResources) {
 
         log.debug("Reconcile GENERATING for '{}'...", generationRequest.getName());
-        Map<String, String> attributes = createBaseGenerationSpanAttibutes(generationRequest);
-
-        return OtelHelper
-                .withSpan(this.getClass(), ".reconcile-generating", attributes, MDC.getCopyOfContextMap(), () -> {
+        return OtelHelper.withSpan(
+                this.getClass(),
+                ".reconcile-generating",
+                () -> createBaseGenerationSpanAttibutes(generationRequest),
+                () -> {
                     OperationConfig config = generationRequest.getConfig(OperationConfig.class);
 
                     if (config == null) {
@@ -411,6 +417,8 @@ public class OperationController extends AbstractController {
                         return UpdateControl.noUpdate();
                     }
 
+                    generateTaskRuns.forEach(tr -> recordPhase(tr, SbomGenerationPhase.OPERATIONGENERATE));
+
                     // Get list of failed TaskRuns
                     List<TaskRun> failedTaskRuns = generateTaskRuns.stream().filter(tr -> !isSuccessful(tr)).toList();
 
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The state of the upload of a single manifest to one of the Atlas instances.
+ */
+@DynamicUpdate
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(
+        name = "atlas_publication",
+        indexes = { @Index(name = "idx_atlas_publication_sbom", columnList = "sbom_id"),
+                @Index(name = "idx_atlas_publication_next_attempt", columnList = "status,next_attempt") })
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(setterPrefix = "with")
+@RegisterForReflection
+public class AtlasPublication {
+
+    public enum Status {
+        PENDING, PUBLISHED, FAILED
+    }
+
+    @Id
+    @Column(nullable = false, updatable = false, length = 100)
+    private String id;
+
+    @Column(name = "sbom_id", nullable = false, updatable = false)
+    private String sbomId;
+
+    /**
+     * The Atlas instance, {@code build} or {@code release}.
+     */
+    @Column(name = "instance", nullable = false, updatable = false, length = 20)
+    private String instance;
+
+    /**
+     * The SHA-256 digest of the uploaded manifest content.
+     */
+    @Column(name = "digest", nullable = false, length = 64)
+    private String digest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+
+    @Column(name = "update_time")
+    private Instant updateTime;
+
+    /**
+     * When the upload should be (re)tried, {@code null} if it should not.
+     */
+    @Column(name = "next_attempt")
+    private Instant nextAttempt;
+
+    @Lob
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "reason")
+    private String reason;
+
+    public static String toId(String instance, String sbomId) {
+        return instance + ":" + sbomId;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        creationTime = Instant.now();
+        updateTime = creationTime;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updateTime = Instant.now();
+    }
+}
@@ -58,6 +58,8 @@ public class Stats {
     public static class Producer {
         long nacked;
         long acked;
+        long queued;
+        long retried;
     }
 
     @Data
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A generation finished notification which could not be delivered to the UMB and needs to be sent again. At most one
+ * notification is stored for every manifest, the latest one.
+ */
+@DynamicUpdate
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(
+        name = "umb_notification",
+        indexes = { @Index(name = "idx_umb_notification_next_attempt", columnList = "next_attempt") })
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(setterPrefix = "with")
+@RegisterForReflection
+public class UmbNotification {
+
+    /**
+     * The identifier of the manifest the notification is about.
+     */
+    @Id
+    @Column(nullable = false, updatable = false)
+    private String id;
+
+    /**
+     * The message body, serialized to JSON.
+     */
+    @Lob
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "payload", nullable = false)
+    @ToString.Exclude
+    private String payload;
+
+    /**
+     * The application properties of the message.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "properties")
+    private Map<String, String> properties;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+
+    @Column(name = "update_time")
+    private Instant updateTime;
+
+    /**
+     * When the notification should be sent again, {@code null} if it should not.
+     */
+    @Column(name = "next_attempt")
+    private Instant nextAttempt;
+
+    @Lob
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "reason")
+    private String reason;
+
+    @PrePersist
+    public void prePersist() {
+        creationTime = Instant.now();
+        updateTime = creationTime;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updateTime = Instant.now();
+    }
+}
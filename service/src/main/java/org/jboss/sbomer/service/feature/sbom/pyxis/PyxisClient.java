@@ -35,6 +35,8 @@ import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
 import org.jboss.sbomer.service.feature.sbom.kerberos.PyxisKrb5ClientRequestFilter;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepository;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
+import org.jboss.sbomer.service.rest.faulttolerance.Guarded;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 import org.jboss.sbomer.service.rest.otel.SpanName;
 import org.jboss.sbomer.service.rest.otel.Traced;
 
@@ -57,6 +59,7 @@ import jakarta.ws.rs.core.Response;
  */
 @ApplicationScoped
 @ClientHeaderParam(name = "User-Agent", value = "SBOMer")
+@Guarded(IntegrationGuards.PYXIS)
 @RegisterRestClient(configKey = "pyxis")
 @Path("/v1")
 @RegisterProvider(PyxisKrb5ClientRequestFilter.class)
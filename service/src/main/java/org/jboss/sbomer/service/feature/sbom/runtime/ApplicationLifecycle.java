@@ -17,6 +17,9 @@
  */
 package org.jboss.sbomer.service.feature.sbom.runtime;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+import org.jboss.sbomer.core.features.sbom.utils.SpanSampler;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 
 import io.quarkus.runtime.ShutdownEvent;
@@ -27,7 +30,7 @@ import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Observes application startup and shutdown events and logs them
+ * Observes application startup and shutdown events and logs them, on startup it also configures the span sampler
  *
  * @author Andrea Vibelli
  */
@@ -38,7 +41,20 @@ public class ApplicationLifecycle {
     @Inject
     FeatureFlags featureFlags;
 
+    @ConfigProperty(name = "sbomer.service.tracing.sample-ratio", defaultValue = "1.0")
+    double tracingSampleRatio;
+
+    @ConfigProperty(name = "sbomer.service.tracing.max-spans-per-second", defaultValue = "0")
+    double tracingMaxSpansPerSecond;
+
     void onStart(@Observes StartupEvent event) {
+        OtelHelper.setSampler(new SpanSampler(tracingSampleRatio, tracingMaxSpansPerSecond));
+
+        log.debug(
+                "Tracing {} of the traces, with at most {} spans per second per operation (0 means no limit)",
+                tracingSampleRatio,
+                tracingMaxSpansPerSecond);
+
         // we need to log startup and shutdown events
         log.info("Application has started");
     }
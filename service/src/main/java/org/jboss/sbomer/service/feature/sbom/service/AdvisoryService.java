@@ -80,6 +80,7 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 import org.jboss.sbomer.service.rest.otel.TracingRestClient;
 import org.slf4j.MDC;
 
@@ -113,6 +114,10 @@ public class AdvisoryService {
 
     KojiClientSession kojiSession;
 
+    @Inject
+    @Setter
+    IntegrationGuards integrationGuards;
+
     @Inject
     KubernetesClient kubernetesClient;
 
@@ -790,7 +795,8 @@ public class AdvisoryService {
             Map<Long, String> buildsToImageName = new HashMap<>();
             List<KojiIdOrName> ids = buildIds.stream().map(id -> new KojiIdOrName(id.intValue())).toList();
 
-            List<KojiBuildInfo> buildInfos = getKojiSession().getBuild(ids);
+            List<KojiBuildInfo> buildInfos = integrationGuards.get(IntegrationGuards.KOJI)
+                    .call(() -> getKojiSession().getBuild(ids));
 
             for (KojiBuildInfo info : buildInfos) {
                 Map<String, Object> extra = info.getExtra();
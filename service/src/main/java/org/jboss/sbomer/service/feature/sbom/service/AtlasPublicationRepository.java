@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.sbomer.service.feature.sbom.model.AtlasPublication;
+import org.jboss.sbomer.service.feature.sbom.model.AtlasPublication.Status;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps track of the manifests uploaded to Atlas. Every method runs in its own transaction, so that the state is stored
+ * independently of the (long running) upload itself.
+ */
+@Slf4j
+@ApplicationScoped
+public class AtlasPublicationRepository implements PanacheRepositoryBase<AtlasPublication, String> {
+
+    /**
+     * Marks the upload of the manifest as pending, unless the same content was already published. The existing state
+     * is locked while it is updated. If the state is created by a concurrent upload of the same manifest at the same
+     * time, the resulting constraint violation is caught and the (now existing) state is updated instead.
+     *
+     * @param instance the Atlas instance
+     * @param sbomId the manifest identifier
+     * @param digest the digest of the manifest content
+     * @param retryAt when the upload should be retried in case it is interrupted
+     * @return {@code false} if the manifest with the same digest was already published, {@code true} otherwise
+     */
+    public boolean markPending(String instance, String sbomId, String digest, Instant retryAt) {
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> doMarkPending(instance, sbomId, digest, retryAt));
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+
+            log.debug("Upload state of manifest '{}' to '{}' was created concurrently, updating it", sbomId, instance);
+            return QuarkusTransaction.requiringNew().call(() -> doMarkPending(instance, sbomId, digest, retryAt));
+        }
+    }
+
+    private boolean doMarkPending(String instance, String sbomId, String digest, Instant retryAt) {
+        AtlasPublication publication = findForUpdate(instance, sbomId);
+
+        if (publication == null) {
+            publication = AtlasPublication.builder()
+                    .withId(AtlasPublication.toId(instance, sbomId))
+                    .withSbomId(sbomId)
+                    .withInstance(instance)
+                    .withDigest(digest)
+                    .withStatus(Status.PENDING)
+                    .withNextAttempt(retryAt)
+                    .build();
+
+            // Flush right away, so that a concurrent insert fails here rather than at commit
+            persistAndFlush(publication);
+            return true;
+        }
+
+        if (digest.equals(publication.getDigest()) && publication.getStatus() == Status.PUBLISHED) {
+            return false;
+        }
+
+        if (!digest.equals(publication.getDigest())) {
+            // The content has changed, start over
+            publication.setDigest(digest);
+            publication.setAttempts(0);
+        }
+
+        publication.setStatus(Status.PENDING);
+        publication.setNextAttempt(retryAt);
+        return true;
+    }
+
+    private AtlasPublication findForUpdate(String instance, String sbomId) {
+        return findById(AtlasPublication.toId(instance, sbomId), LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Transactional(TxType.REQUIRES_NEW)
+    public void markPublished(String instance, String sbomId) {
+        AtlasPublication publication = findForUpdate(instance, sbomId);
+
+        if (publication == null) {
+            return;
+        }
+
+        publication.setStatus(Status.PUBLISHED);
+        publication.setAttempts(publication.getAttempts() + 1);
+        publication.setNextAttempt(null);
+        publication.setReason(null);
+    }
+
+    /**
+     * Marks the upload of the manifest as failed.
+     *
+     * @param instance the Atlas instance
+     * @param sbomId the manifest identifier
+     * @param reason the reason of the failure
+     * @param nextAttempt computes when the upload should be retried from the number of attempts made so far,
+     *        {@code null} if it should not be retried anymore
+     */
+    @Transactional(TxType.REQUIRES_NEW)
+    public void markFailed(String instance, String sbomId, String reason, IntFunction<Instant> nextAttempt) {
+        AtlasPublication publication = findForUpdate(instance, sbomId);
+
+        if (publication == null) {
+            return;
+        }
+
+        publication.setStatus(Status.FAILED);
+        publication.setAttempts(publication.getAttempts() + 1);
+        publication.setNextAttempt(nextAttempt.apply(publication.getAttempts()));
+        publication.setReason(reason);
+    }
+
+    /**
+     * Returns uploads which were not finished and are due to be retried.
+     *
+     * @param now the current time
+     * @param limit the maximum number of uploads to return
+     * @return the list of {@link AtlasPublication}s, the ones waiting the longest first
+     */
+    @Transactional(TxType.REQUIRES_NEW)
+    public List<AtlasPublication> findRetryable(Instant now, int limit) {
+        return find("status != ?1 and nextAttempt <= ?2", Sort.ascending("nextAttempt"), Status.PUBLISHED, now)
+                .page(0, limit)
+                .list();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.jboss.sbomer.service.feature.sbom.model.UmbNotification;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+/**
+ * Stores the UMB notifications which could not be delivered, so that these can be sent again later, also after a
+ * restart. Every method runs in its own transaction, independently of the sending itself.
+ */
+@ApplicationScoped
+public class UmbNotificationRepository implements PanacheRepositoryBase<UmbNotification, String> {
+
+    /**
+     * Stores the notification as failed. If there is a notification for the same manifest stored already, it is
+     * replaced with the provided one.
+     *
+     * @param sbomId the manifest identifier
+     * @param payload the message body
+     * @param properties the message application properties
+     * @param reason the reason of the failure
+     * @param nextAttempt computes when the notification should be sent again from the number of attempts made so far,
+     *        {@code null} if it should not be sent anymore
+     */
+    @Transactional(TxType.REQUIRES_NEW)
+    public void markFailed(
+            String sbomId,
+            String payload,
+            Map<String, String> properties,
+            String reason,
+            IntFunction<Instant> nextAttempt) {
+        UmbNotification notification = findById(sbomId);
+        int attempts = 1;
+
+        if (notification != null) {
+            attempts = payload.equals(notification.getPayload()) ? notification.getAttempts() + 1 : 1;
+        } else {
+            notification = UmbNotification.builder().withId(sbomId).build();
+        }
+
+        notification.setPayload(payload);
+        notification.setProperties(properties);
+        notification.setAttempts(attempts);
+        notification.setNextAttempt(nextAttempt.apply(attempts));
+        notification.setReason(reason);
+
+        if (!isPersistent(notification)) {
+            persist(notification);
+        }
+    }
+
+    /**
+     * Removes the stored notification for the manifest after it was delivered, unless it was replaced by a different
+     * one in the meantime.
+     *
+     * @param sbomId the manifest identifier
+     * @param payload the message body which was delivered
+     */
+    @Transactional(TxType.REQUIRES_NEW)
+    public void markSent(String sbomId, String payload) {
+        UmbNotification notification = findById(sbomId);
+
+        if (notification != null && payload.equals(notification.getPayload())) {
+            delete(notification);
+        }
+    }
+
+    /**
+     * Postpones the next attempt to send the notification, so that it is not picked up again while it is being sent.
+     *
+     * @param sbomId the manifest identifier
+     * @param retryAt when the notification should be sent again in case the delivery is not confirmed
+     */
+    @Transactional(TxType.REQUIRES_NEW)
+    public void markPending(String sbomId, Instant retryAt) {
+        UmbNotification notification = findById(sbomId);
+
+        if (notification != null) {
+            notification.setNextAttempt(retryAt);
+        }
+    }
+
+    /**
+     * Returns notifications which are due to be sent again.
+     *
+     * @param now the current time
+     * @param limit the maximum number of notifications to return
+     * @return the list of {@link UmbNotification}s, the ones waiting the longest first
+     */
+    @Transactional(TxType.REQUIRES_NEW)
+    public List<UmbNotification> findRetryable(Instant now, int limit) {
+        return find("nextAttempt <= ?1", Sort.ascending("nextAttempt"), now).page(0, limit).list();
+    }
+
+    @Transactional(TxType.REQUIRES_NEW)
+    public long countPending() {
+        return count("nextAttempt is not null");
+    }
+}
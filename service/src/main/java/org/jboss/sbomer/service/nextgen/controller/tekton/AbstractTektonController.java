@@ -29,6 +29,8 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
+import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
 import org.jboss.sbomer.service.feature.sbom.k8s.reconciler.TektonExitCodeUtils;
 import org.jboss.sbomer.service.leader.LeaderManager;
@@ -47,6 +49,7 @@ import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
 import io.fabric8.tekton.v1beta1.StepState;
 import io.fabric8.tekton.v1beta1.TaskRun;
 import io.fabric8.tekton.v1beta1.TaskRunStatus;
+import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.control.ActivateRequestContext;
 import lombok.extern.slf4j.Slf4j;
 
@@ -210,6 +213,22 @@ public abstract class AbstractTektonController extends AbstractGenerator
 
     @Override
     public void reconcile(GenerationRecord generationRecord, Set<TaskRun> relatedTaskRuns) {
+        Timer.Sample sample = MetricsHelper.start();
+
+        try {
+            doReconcile(generationRecord, relatedTaskRuns);
+        } finally {
+            MetricsHelper.stop(
+                    sample,
+                    MetricsHelper.RECONCILE,
+                    "controller",
+                    OtelHelper.getEffectiveClassName(this.getClass()),
+                    "status",
+                    String.valueOf(generationRecord.status()));
+        }
+    }
+
+    private void doReconcile(GenerationRecord generationRecord, Set<TaskRun> relatedTaskRuns) {
         log.info("Reconciling Generation {}", generationRecord);
         log.debug("Related TaskRuns: {}", relatedTaskRuns.stream().map(tr -> tr.getMetadata().getName()).toList());
 
@@ -45,7 +45,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public abstract class AbstractGenerator implements Generator {
 
-    ManagedExecutor managedExecutor;
+    protected ManagedExecutor managedExecutor;
     protected SBOMerClient sbomerClient;
 
     public AbstractGenerator(SBOMerClient sbomerClient, ManagedExecutor managedExecutor) {
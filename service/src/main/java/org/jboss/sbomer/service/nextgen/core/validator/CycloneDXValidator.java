@@ -22,7 +22,7 @@ import java.util.List;
 
 import org.cyclonedx.Version;
 import org.cyclonedx.exception.ParseException;
-import org.cyclonedx.parsers.JsonParser;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxSchemaValidator;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -42,9 +42,7 @@ public class CycloneDXValidator implements BomValidator {
         List<ParseException> exceptions;
 
         try {
-            exceptions = new JsonParser().validate(
-                    bom.isTextual() ? bom.textValue().getBytes() : bom.toString().getBytes(),
-                    Version.valueOf(version));
+            exceptions = CycloneDxSchemaValidator.validate(bom, Version.fromVersionString(version));
 
             if (exceptions.isEmpty()) {
                 return new BomValidationResult(true, null, null);
@@ -22,10 +22,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ParallelUtils;
 import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
@@ -41,6 +43,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @ApplicationScoped
@@ -51,6 +54,14 @@ public class RedHatReleaseGenerator extends AbstractGenerator {
         super(null, null);
     }
 
+    /**
+     * Maximum number of concurrent requests to the SBOMer API when fetching and uploading manifests. A value of
+     * {@code 1} processes manifests sequentially.
+     */
+    @ConfigProperty(name = "sbomer.generator.redhat-release.parallelism", defaultValue = "8")
+    @Setter
+    int parallelism;
+
     @Inject
     public RedHatReleaseGenerator(@RestClient SBOMerClient sbomerClient, ManagedExecutor managedExecutor) {
         super(sbomerClient, managedExecutor);
@@ -90,34 +101,20 @@ public class RedHatReleaseGenerator extends AbstractGenerator {
                     ex);
         }
 
-        List<JsonNode> boms = new ArrayList<>();
-
-        // Iterate over each generation that was part of that particular event and create copies
-        // updates
-        for (GenerationRecord g : generations) {
-            log.info("Processing generation '{}'", g.id());
-
-            log.debug("Fetching manifests related to generation '{}'", g.id());
-
-            List<ManifestRecord> manifests;
-
-            try {
-                manifests = sbomerClient.getGenerationManifests(g.id());
-            } catch (NotFoundException ex) {
-                throw new ApplicationException(
-                        "Generation with id '{}' could not be found, cannot process manifests",
-                        g.id(),
-                        ex);
-            }
+        // Fetch the manifests of every generation that was part of that particular event, keeping the order of
+        // generations and manifests
+        List<ManifestRecord> manifests = ParallelUtils
+                .mapOrdered(generations, parallelism, managedExecutor, this::fetchGenerationManifests)
+                .stream()
+                .flatMap(List::stream)
+                .toList();
 
-            for (ManifestRecord m : manifests) {
-                log.info("Processing manifest '{}'", m.id());
+        log.debug("Fetching content of {} manifests...", manifests.size());
 
-                JsonNode bom = sbomerClient.getManifestContent(m.id());
-
-                boms.add(bom);
-            }
-        }
+        List<JsonNode> boms = new ArrayList<>(ParallelUtils.mapOrdered(manifests, parallelism, managedExecutor, m -> {
+            log.info("Processing manifest '{}'", m.id());
+            return sbomerClient.getManifestContent(m.id());
+        }));
 
         // Apply qualifier transformations to all manifests
         boms.forEach(m -> adjustQualifiers(m));
@@ -141,15 +138,36 @@ public class RedHatReleaseGenerator extends AbstractGenerator {
         upload(boms, generationRecord.id());
     }
 
+    private List<ManifestRecord> fetchGenerationManifests(GenerationRecord generation) {
+        log.info("Processing generation '{}'", generation.id());
+
+        log.debug("Fetching manifests related to generation '{}'", generation.id());
+
+        try {
+            return sbomerClient.getGenerationManifests(generation.id());
+        } catch (NotFoundException ex) {
+            throw new ApplicationException(
+                    "Generation with id '{}' could not be found, cannot process manifests",
+                    generation.id(),
+                    ex);
+        }
+    }
+
     @Retry(maxRetries = 5, delay = 10, delayUnit = ChronoUnit.SECONDS, abortOn = NotFoundException.class)
     protected void upload(List<JsonNode> boms, String generationId) {
         log.info("Uploading {} manifests...", boms.size());
 
-        for (JsonNode bom : boms) {
+        // Upload the updated manifests concurrently, the release manifest (last one) is uploaded at the end
+        ParallelUtils.mapOrdered(boms.subList(0, boms.size() - 1), parallelism, managedExecutor, bom -> {
             log.info("Uploading manifest...");
             ManifestRecord manifestRecord = sbomerClient.uploadManifest(generationId, bom);
             log.info("Manifest uploaded, registered with id '{}", manifestRecord.id());
-        }
+            return manifestRecord;
+        });
+
+        log.info("Uploading release manifest...");
+        ManifestRecord releaseManifestRecord = sbomerClient.uploadManifest(generationId, boms.get(boms.size() - 1));
+        log.info("Release manifest uploaded, registered with id '{}", releaseManifestRecord.id());
 
         updateStatus(
                 generationId,
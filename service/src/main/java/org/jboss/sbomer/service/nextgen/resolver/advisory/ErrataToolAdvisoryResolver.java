@@ -50,6 +50,7 @@ import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationsResp
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.TargetSpec;
 import org.jboss.sbomer.service.nextgen.core.resolver.AbstractResolver;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 import org.jboss.sbomer.service.rest.otel.TracingRestClient;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -74,6 +75,8 @@ public class ErrataToolAdvisoryResolver extends AbstractResolver {
 
     ErrataClient errataClient;
 
+    IntegrationGuards integrationGuards;
+
     private ErrataToolAdvisoryResolver() {
         super(null, null);
     }
@@ -83,11 +86,13 @@ public class ErrataToolAdvisoryResolver extends AbstractResolver {
             ManagedExecutor managedExecutor,
             @TracingRestClient ErrataClient errataClient,
             KojiProvider kojiProvider,
-            @RestClient SBOMerClient sbomerClient) {
+            @RestClient SBOMerClient sbomerClient,
+            IntegrationGuards integrationGuards) {
         super(sbomerClient, managedExecutor);
 
         this.errataClient = errataClient;
         this.kojiProvider = kojiProvider;
+        this.integrationGuards = integrationGuards;
     }
 
     @Override
@@ -316,7 +321,8 @@ public class ErrataToolAdvisoryResolver extends AbstractResolver {
             Map<Long, String> buildsToImageName = new HashMap<>();
             List<KojiIdOrName> ids = buildIds.stream().map(id -> new KojiIdOrName(id.intValue())).toList();
 
-            List<KojiBuildInfo> buildInfos = getKojiSession().getBuild(ids);
+            List<KojiBuildInfo> buildInfos = integrationGuards.get(IntegrationGuards.KOJI)
+                    .call(() -> getKojiSession().getBuild(ids));
 
             for (KojiBuildInfo info : buildInfos) {
                 Map<String, Object> extra = info.getExtra();
@@ -28,6 +28,8 @@ import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
 import org.jboss.pnc.dto.requests.DeliverablesAnalysisRequest;
 import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
+import org.jboss.sbomer.service.rest.faulttolerance.Guarded;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 
 import io.quarkus.oidc.client.filter.OidcClientFilter;
 import io.smallrye.faulttolerance.api.BeforeRetry;
@@ -43,6 +45,7 @@ import jakarta.ws.rs.core.MediaType;
 
 @ApplicationScoped
 @ClientHeaderParam(name = "User-Agent", value = "SBOMer")
+@Guarded(IntegrationGuards.PNC)
 @RegisterRestClient(configKey = "pnc")
 @Path("/pnc-rest/v2")
 @OidcClientFilter
@@ -17,10 +17,14 @@
  */
 package org.jboss.sbomer.service.rest.api.v1beta1;
 
+import java.util.List;
+
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1StatsRecord;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationGuards;
 import org.jboss.sbomer.service.rest.mapper.V1Beta1Mapper;
 import org.jboss.sbomer.service.stats.StatsService;
 
@@ -46,6 +50,9 @@ public class StatsV1Beta1 {
     @Inject
     StatsService statsService;
 
+    @Inject
+    IntegrationGuards integrationGuards;
+
     @GET
     @Operation(summary = "Retrieve service runtime information", description = "Service information and statistics.")
     @APIResponse(responseCode = "200", description = "Available runtime information")
@@ -53,4 +60,14 @@ public class StatsV1Beta1 {
         return mapper.toRecord(statsService.getStats());
     }
 
+    @GET
+    @Path("/integrations")
+    @Operation(
+            summary = "Retrieve state of integrations",
+            description = "State of the limits applied to the calls made to every external system.")
+    @APIResponse(responseCode = "200", description = "State of integrations")
+    public List<IntegrationGuard.Status> getIntegrations() {
+        return integrationGuards.getStatus();
+    }
+
 }
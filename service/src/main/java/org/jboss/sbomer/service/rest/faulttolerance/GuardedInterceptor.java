@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest.faulttolerance;
+
+import io.quarkus.arc.ArcInvocationContext;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs before (around) the fault tolerance interceptor, so that a call together with all its {@code @Retry} attempts
+ * counts once in the bulkhead and the circuit breaker, and an open circuit rejects the call without any retries.
+ */
+@Guarded("")
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_AFTER)
+public class GuardedInterceptor {
+
+    @Inject
+    IntegrationGuards integrationGuards;
+
+    @AroundInvoke
+    Object guard(InvocationContext context) throws Exception {
+        Guarded guarded = ArcInvocationContext.findIterceptorBinding(context, Guarded.class);
+
+        if (guarded == null) {
+            return context.proceed();
+        }
+
+        return integrationGuards.get(guarded.value()).call(context::proceed);
+    }
+}
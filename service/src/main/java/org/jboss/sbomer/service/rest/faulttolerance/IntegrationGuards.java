@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest.faulttolerance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuard;
+import org.jboss.sbomer.core.rest.faulttolerance.IntegrationGuardConfig;
+import org.jboss.sbomer.service.rest.faulttolerance.IntegrationsConfig.IntegrationConfig;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds a separate {@link IntegrationGuard} for every external system, so that a single slow or failing system does not
+ * use up the resources needed to talk to the other ones.
+ */
+@ApplicationScoped
+@Slf4j
+public class IntegrationGuards {
+
+    public static final String ERRATA = "errata";
+    public static final String PYXIS = "pyxis";
+    public static final String PNC = "pnc";
+    public static final String KOJI = "koji";
+    public static final String ATLAS = "atlas";
+
+    public static final List<String> INTEGRATIONS = List.of(ERRATA, PYXIS, PNC, KOJI, ATLAS);
+
+    @Inject
+    IntegrationsConfig config;
+
+    private final Map<String, IntegrationGuard> guards = new ConcurrentHashMap<>();
+
+    public IntegrationGuard get(String name) {
+        return guards.computeIfAbsent(name, this::createGuard);
+    }
+
+    /**
+     * Returns the state of the guards of all known integrations.
+     *
+     * @return the list of {@link IntegrationGuard.Status}
+     */
+    public List<IntegrationGuard.Status> getStatus() {
+        return INTEGRATIONS.stream().map(name -> get(name).getStatus()).toList();
+    }
+
+    private IntegrationGuard createGuard(String name) {
+        IntegrationConfig integrationConfig = config.integrations().get(name);
+
+        log.debug("Creating guard for the '{}' integration", name);
+
+        IntegrationGuardConfig defaults = IntegrationGuardConfig.builder().build();
+
+        return new IntegrationGuard(
+                name,
+                IntegrationGuardConfig.builder()
+                        .withEnabled(integrationConfig.enabled())
+                        .withMaxConcurrentCalls(integrationConfig.maxConcurrentCalls())
+                        .withMaxWait(integrationConfig.maxWait())
+                        .withRateLimit(integrationConfig.rateLimit())
+                        .withRateLimitBurst(integrationConfig.rateLimitBurst())
+                        .withRequestVolumeThreshold(integrationConfig.requestVolumeThreshold())
+                        .withFailureRatio(integrationConfig.failureRatio())
+                        .withCircuitBreakerDelay(integrationConfig.circuitBreakerDelay())
+                        .withMinTimeout(integrationConfig.minTimeout())
+                        .withMaxTimeout(integrationConfig.maxTimeout())
+                        .withFailurePredicate(
+                                // Responses with 4xx status codes are caused by the request, not by the integration
+                                e -> !(e instanceof WebApplicationException wae && wae.getResponse().getStatus() < 500)
+                                        && defaults.getFailurePredicate().test(e))
+                        .build());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest.faulttolerance;
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithDefaults;
+import io.smallrye.config.WithParentName;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Limits applied to the calls made to the external systems, see {@link IntegrationGuards}. The key is the name of the
+ * integration, for example {@code sbomer.service.integrations.errata.max-concurrent-calls}.
+ */
+@ApplicationScoped
+@ConfigMapping(prefix = "sbomer.service.integrations")
+public interface IntegrationsConfig {
+
+    @WithParentName
+    @WithDefaults
+    Map<String, IntegrationConfig> integrations();
+
+    interface IntegrationConfig {
+        /**
+         * Whether limits are applied to the calls made to the integration.
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of calls made to the integration at the same time.
+         */
+        @WithDefault("10")
+        int maxConcurrentCalls();
+
+        /**
+         * Maximum time a call waits for a free slot or a rate limit token before it is rejected.
+         */
+        @WithDefault("30s")
+        Duration maxWait();
+
+        /**
+         * Maximum number of calls per second, {@code 0} means no limit.
+         */
+        @WithDefault("0")
+        double rateLimit();
+
+        /**
+         * Number of calls which can be made in a burst, above the rate limit.
+         */
+        @WithDefault("10")
+        int rateLimitBurst();
+
+        /**
+         * Number of most recent calls considered by the circuit breaker.
+         */
+        @WithDefault("20")
+        int requestVolumeThreshold();
+
+        /**
+         * Ratio of failed calls which opens the circuit.
+         */
+        @WithDefault("0.5")
+        double failureRatio();
+
+        /**
+         * How long the circuit stays open before a trial call is let through.
+         */
+        @WithDefault("1m")
+        Duration circuitBreakerDelay();
+
+        /**
+         * Lower bound of the adaptive timeout.
+         */
+        @WithDefault("1s")
+        Duration minTimeout();
+
+        /**
+         * Upper bound of the adaptive timeout.
+         */
+        @WithDefault("5m")
+        Duration maxTimeout();
+    }
+}
@@ -22,9 +22,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
-import org.slf4j.MDC;
 
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
@@ -36,6 +36,8 @@ public class TracingInvocationHandler<T> implements InvocationHandler {
     private final T delegate;
     private final Class<T> clientClass;
 
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
     public TracingInvocationHandler(T delegate, Class<T> clientClass) {
         this.delegate = delegate;
         this.clientClass = clientClass;
@@ -52,17 +54,12 @@ public class TracingInvocationHandler<T> implements InvocationHandler {
             return method.invoke(delegate, args);
         }
 
-        String spanName = extractSpanName(method);
-        Map<String, String> spanAttributes = extractAttributes(method, args);
+        String spanName = spanNames.computeIfAbsent(method, this::extractSpanName);
 
         try {
-            log.debug(
-                    "Calling invoke on {} for span {} with attributes",
-                    clientClass.getSimpleName(),
-                    spanName,
-                    spanAttributes);
+            log.debug("Calling invoke on {} for span {}", clientClass.getSimpleName(), spanName);
             // Wrap the call inside a new Span for better traceability
-            return OtelHelper.withSpan(clientClass, "." + spanName, spanAttributes, MDC.getCopyOfContextMap(), () -> {
+            return OtelHelper.withSpan(clientClass, "." + spanName, () -> extractAttributes(method, args), () -> {
 
                 try {
 
@@ -17,16 +17,12 @@
  */
 package org.jboss.sbomer.service.scheduler;
 
-import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_SPAN_ID_KEY;
-import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_FLAGS_KEY;
-import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_ID_KEY;
-import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_STATE_KEY;
-
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.pnc.common.otel.OtelUtils;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
@@ -34,15 +30,12 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
 import org.jboss.sbomer.service.leader.LeaderManager;
-import org.slf4j.MDC;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.micrometer.core.instrument.Timer;
 import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.SpanBuilder;
-import io.opentelemetry.api.trace.SpanKind;
-import io.opentelemetry.context.Scope;
+import io.opentelemetry.api.trace.SpanContext;
 import io.quarkus.scheduler.Scheduled;
 import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -106,6 +99,16 @@ public class GenerationRequestScheduler {
             return;
         }
 
+        Timer.Sample sample = MetricsHelper.start();
+
+        try {
+            doScheduleGenerations();
+        } finally {
+            MetricsHelper.stop(sample, MetricsHelper.SCHEDULER_TICK);
+        }
+    }
+
+    private void doScheduleGenerations() {
         // Get all ConfigMaps that represent generation requests within the namespace that are in progress
         int scheduledGenerationsCount = kubernetesClient.configMaps()
                 .withLabelSelector(
@@ -115,6 +118,7 @@ public class GenerationRequestScheduler {
                 .size();
 
         log.info("There are {} generations in progress", scheduledGenerationsCount);
+        MetricsHelper.gauge(MetricsHelper.SCHEDULER_IN_PROGRESS, scheduledGenerationsCount);
 
         // In case we will exceed the max number of concurrent generations, do nothing and wait
         if (scheduledGenerationsCount > generationSchedulerConfig.maxConcurrentGenerations()) {
@@ -127,6 +131,11 @@ public class GenerationRequestScheduler {
 
         log.debug("There is space in the cluster to process new generations, fetching them now...");
 
+        // The number of generations waiting to be scheduled, including the ones fetched below
+        MetricsHelper.gauge(
+                MetricsHelper.SCHEDULER_QUEUE_DEPTH,
+                requestRepository.count("status", SbomGenerationStatus.NEW));
+
         @SuppressWarnings("unchecked")
         List<SbomGenerationRequest> oldestResultsBatch = requestRepository.getEntityManager()
                 .createNativeQuery(
@@ -169,65 +178,49 @@ public class GenerationRequestScheduler {
             return;
         }
 
-        Map<String, String> attributes = Map.of(
-                "generation.id",
-                sbomGenerationRequest.getId(),
-                "generation.identifier",
-                sbomGenerationRequest.getIdentifier(),
-                "generation.config",
-                sbomGenerationRequest.getConfig() != null ? sbomGenerationRequest.getConfig().toJson() : "{}",
-                "generation.type",
-                sbomGenerationRequest.getType().toString(),
-                "generation.resource",
-                configMapName);
-
-        // Create a parent child span with values from MDC. This is to differentiate each generationRequest with its own
-        // span
-        SpanBuilder spanBuilder = OtelUtils.buildChildSpan(
-                GlobalOpenTelemetry.get().getTracer(""),
-                OtelHelper.getEffectiveClassName(this.getClass()) + ".schedule",
-                SpanKind.CLIENT,
-                MDC.get(MDC_TRACE_ID_KEY),
-                MDC.get(MDC_SPAN_ID_KEY),
-                MDC.get(MDC_TRACE_FLAGS_KEY),
-                MDC.get(MDC_TRACE_STATE_KEY),
-                Span.current().getSpanContext(),
-                attributes);
-
-        Span span = spanBuilder.startSpan();
-
-        log.debug(
-                "Started a new span context with traceId: {}, spanId: {}, traceFlags: {}",
-                span.getSpanContext().getTraceId(),
-                span.getSpanContext().getSpanId(),
-                span.getSpanContext().getTraceFlags().asHex());
-
-        // put the span into the current Context
-        try (Scope scope = span.makeCurrent()) {
-            request = new GenerationRequestBuilder(sbomGenerationRequest.getType())
-                    .withId(sbomGenerationRequest.getId())
-                    .withConfig(sbomGenerationRequest.getConfig())
-                    .withIdentifier(sbomGenerationRequest.getIdentifier())
-                    .withStatus(sbomGenerationRequest.getStatus())
-                    .withReason(sbomGenerationRequest.getReason())
-                    .withResult(sbomGenerationRequest.getResult())
-                    .withTraceId(span.getSpanContext().getTraceId())
-                    .withSpanId(span.getSpanContext().getSpanId())
-                    .withTraceParent(
-                            OtelUtils.createTraceParent(
-                                    span.getSpanContext().getTraceId(),
-                                    span.getSpanContext().getSpanId(),
-                                    span.getSpanContext().getTraceFlags().asHex()))
-                    .build();
-
-            ConfigMap cm = kubernetesClient.configMaps().resource(request).createOrReplace();
-
-            log.debug(
-                    "ConfigMap '{}' created as a representation of the Generation Request '{}'...",
-                    cm.getMetadata().getName(),
-                    sbomGenerationRequest.getId());
-        } finally {
-            span.end(); // closing the scope does not end the span, this has to be done manually
-        }
+        // Create a child span with values from MDC. This is to differentiate each generationRequest with its own span
+        OtelHelper.withSpan(
+                this.getClass(),
+                ".schedule",
+                () -> Map.of(
+                        "generation.id",
+                        sbomGenerationRequest.getId(),
+                        "generation.identifier",
+                        sbomGenerationRequest.getIdentifier(),
+                        "generation.config",
+                        sbomGenerationRequest.getConfig() != null ? sbomGenerationRequest.getConfig().toJson() : "{}",
+                        "generation.type",
+                        sbomGenerationRequest.getType().toString(),
+                        "generation.resource",
+                        configMapName),
+                () -> {
+                    // The span is not recorded if it was not sampled, but it still carries the trace context
+                    SpanContext spanContext = Span.current().getSpanContext();
+
+                    GenerationRequest generationRequest = new GenerationRequestBuilder(sbomGenerationRequest.getType())
+                            .withId(sbomGenerationRequest.getId())
+                            .withConfig(sbomGenerationRequest.getConfig())
+                            .withIdentifier(sbomGenerationRequest.getIdentifier())
+                            .withStatus(sbomGenerationRequest.getStatus())
+                            .withReason(sbomGenerationRequest.getReason())
+                            .withResult(sbomGenerationRequest.getResult())
+                            .withTraceId(spanContext.getTraceId())
+                            .withSpanId(spanContext.getSpanId())
+                            .withTraceParent(
+                                    OtelUtils.createTraceParent(
+                                            spanContext.getTraceId(),
+                                            spanContext.getSpanId(),
+                                            spanContext.getTraceFlags().asHex()))
+                            .build();
+
+                    ConfigMap cm = kubernetesClient.configMaps().resource(generationRequest).createOrReplace();
+
+                    log.debug(
+                            "ConfigMap '{}' created as a representation of the Generation Request '{}'...",
+                            cm.getMetadata().getName(),
+                            sbomGenerationRequest.getId());
+
+                    return null;
+                });
     }
 }
@@ -103,6 +103,8 @@ public class StatsService {
                             Producer.builder()
                                     .withAcked(messageProducer.getAckedMessages())
                                     .withNacked(messageProducer.getNackedMessages())
+                                    .withQueued(messageProducer.getQueuedMessages())
+                                    .withRetried(messageProducer.getRetriedMessages())
                                     .build())
                     .build();
         }
@@ -0,0 +1,45 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+CREATE TABLE
+    atlas_publication (
+        id character varying(100) NOT NULL,
+        sbom_id character varying(255) NOT NULL,
+        instance character varying(20) NOT NULL,
+        digest character varying(64) NOT NULL,
+        status character varying(20) NOT NULL,
+        attempts integer NOT NULL,
+        creation_time timestamp(6) without time zone NOT NULL,
+        update_time timestamp(6) without time zone,
+        next_attempt timestamp(6) without time zone,
+        reason text,
+        CONSTRAINT atlas_publication_pkey PRIMARY KEY (id)
+    );
+
+CREATE INDEX idx_atlas_publication_sbom ON atlas_publication (sbom_id);
+
+CREATE INDEX idx_atlas_publication_next_attempt ON atlas_publication (status, next_attempt);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00026', now ());
+
+COMMIT;
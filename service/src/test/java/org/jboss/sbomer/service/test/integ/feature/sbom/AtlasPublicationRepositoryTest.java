@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.sbomer.service.feature.sbom.model.AtlasPublication;
+import org.jboss.sbomer.service.feature.sbom.model.AtlasPublication.Status;
+import org.jboss.sbomer.service.feature.sbom.service.AtlasPublicationRepository;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class AtlasPublicationRepositoryTest {
+
+    @Inject
+    AtlasPublicationRepository repository;
+
+    private AtlasPublication get(String instance, String sbomId) {
+        return QuarkusTransaction.requiringNew()
+                .call(() -> repository.findById(AtlasPublication.toId(instance, sbomId)));
+    }
+
+    @Test
+    void testPublicationLifecycle() {
+        Instant later = Instant.now().plus(1, ChronoUnit.HOURS);
+
+        assertTrue(repository.markPending("build", "PUB1", "digest1", later));
+        assertEquals(Status.PENDING, get("build", "PUB1").getStatus());
+
+        repository.markFailed("build", "PUB1", "Boom", attempts -> Instant.now().minusSeconds(1));
+
+        AtlasPublication failed = get("build", "PUB1");
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("Boom", failed.getReason());
+
+        List<AtlasPublication> retryable = repository.findRetryable(Instant.now(), 10);
+        assertTrue(retryable.stream().anyMatch(p -> p.getSbomId().equals("PUB1")));
+
+        assertTrue(repository.markPending("build", "PUB1", "digest1", later));
+        repository.markPublished("build", "PUB1");
+
+        AtlasPublication published = get("build", "PUB1");
+        assertEquals(Status.PUBLISHED, published.getStatus());
+        assertEquals(2, published.getAttempts());
+        assertNull(published.getNextAttempt());
+        assertTrue(repository.findRetryable(Instant.now(), 10).stream().noneMatch(p -> p.getSbomId().equals("PUB1")));
+
+        // Same content is not published again, to the same instance
+        assertFalse(repository.markPending("build", "PUB1", "digest1", later));
+        assertTrue(repository.markPending("release", "PUB1", "digest1", later));
+
+        // Changed content is
+        assertTrue(repository.markPending("build", "PUB1", "digest2", later));
+        assertEquals(0, get("build", "PUB1").getAttempts());
+    }
+
+    @Test
+    void testConcurrentMarkPending() throws Exception {
+        Instant later = Instant.now().plus(1, ChronoUnit.HOURS);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return repository.markPending("build", "PUB2", "digest1", later);
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AtlasPublication publication = get("build", "PUB2");
+        assertEquals(Status.PENDING, publication.getStatus());
+        assertEquals("digest1", publication.getDigest());
+        assertEquals(0, publication.getAttempts());
+    }
+}
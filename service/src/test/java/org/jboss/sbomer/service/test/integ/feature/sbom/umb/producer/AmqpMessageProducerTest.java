@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom.umb.producer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.AmqpMessageProducer;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Build;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.GenerationFinishedMessageBody;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.PncBuildGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.service.UmbNotificationRepository;
+import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.reactive.messaging.amqp.OutgoingAmqpMetadata;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class AmqpMessageProducerTest {
+
+    @Inject
+    AmqpMessageProducer producer;
+
+    @Inject
+    UmbNotificationRepository notificationRepository;
+
+    @InjectMock
+    LeaderManager leaderManager;
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    InMemorySink<String> sink;
+
+    @BeforeEach
+    void beforeEach() {
+        sink = connector.sink("finished");
+        sink.clear();
+    }
+
+    private GenerationFinishedMessageBody createMessage(String sbomId) {
+        return GenerationFinishedMessageBody.builder()
+                .purl("pkg:maven/org.acme/app@1.0.0?type=jar")
+                .sbom(
+                        Sbom.builder()
+                                .id(sbomId)
+                                .generationRequest(
+                                        PncBuildGenerationRequest.builder()
+                                                .id("GR" + sbomId)
+                                                .type(GenerationRequestType.BUILD)
+                                                .build(Build.builder().id("BUILD" + sbomId).build())
+                                                .build())
+                                .build())
+                .build();
+    }
+
+    @Test
+    void shouldSendQueuedNotifications() {
+        int acked = producer.getAckedMessages();
+
+        for (int i = 0; i < 120; i++) {
+            producer.notify(createMessage("QUEUED" + i));
+        }
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> sink.received().size() == 120);
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> producer.getAckedMessages() == acked + 120);
+
+        List<String> ids = sink.received()
+                .stream()
+                .map(message -> message.getMetadata(OutgoingAmqpMetadata.class).orElseThrow())
+                .map(metadata -> metadata.getProperties().getString("pnc_build_id"))
+                .toList();
+
+        // Order is kept
+        assertEquals("BUILDQUEUED0", ids.get(0));
+        assertEquals("BUILDQUEUED119", ids.get(119));
+    }
+
+    @Test
+    void shouldResendStoredNotifications() {
+        Mockito.when(leaderManager.isLeader()).thenReturn(true);
+
+        notificationRepository.markFailed(
+                "STORED1",
+                "{\"purl\":\"pkg:generic/stored\"}",
+                Map.of("generation_request_id", "GRSTORED1"),
+                "NACKed",
+                attempts -> Instant.now().minusSeconds(1));
+
+        producer.retryFailedNotifications();
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> sink.received().size() == 1);
+
+        Message<String> message = sink.received().get(0);
+        assertEquals("{\"purl\":\"pkg:generic/stored\"}", message.getPayload());
+        assertEquals(
+                "GRSTORED1",
+                message.getMetadata(OutgoingAmqpMetadata.class)
+                        .orElseThrow()
+                        .getProperties()
+                        .getString("generation_request_id"));
+
+        // Delivered notification is removed
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .until(
+                        () -> QuarkusTransaction.requiringNew()
+                                .call(() -> notificationRepository.findById("STORED1")) == null);
+        assertNull(QuarkusTransaction.requiringNew().call(() -> notificationRepository.findById("STORED1")));
+    }
+}
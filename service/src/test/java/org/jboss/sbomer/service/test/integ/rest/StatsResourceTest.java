@@ -140,6 +140,19 @@ class StatsResourceTest {
                     .body("resources.manifests.total", CoreMatchers.is(12))
                     .body("resources.generations.total", CoreMatchers.is(500));
         }
+
+        @Test
+        void testIntegrationsEndpoint() {
+            RestAssured.given()
+                    .when()
+                    .get(String.format("/api/%s/stats/integrations", apiVersion))
+                    .then()
+                    .statusCode(200)
+                    .body("size()", CoreMatchers.is(5))
+                    .body("name", CoreMatchers.hasItems("errata", "pyxis", "pnc", "koji", "atlas"))
+                    .body("find { it.name == 'koji' }.maxConcurrentCalls", CoreMatchers.is(5))
+                    .body("find { it.name == 'errata' }.circuitState", CoreMatchers.is("CLOSED"));
+        }
     }
 
 }
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs an embedded Artemis broker with the AMQP acceptor defined in {@code broker.xml}, standing in for UMB.
+ */
+@Slf4j
+public class EmbeddedBrokerResource implements QuarkusTestResourceLifecycleManager {
+
+    public static final String HOST = "localhost";
+    public static final int PORT = 5672;
+
+    /**
+     * The data directory configured in {@code broker.xml}.
+     */
+    private static final Path DATA_DIR = Path.of("target", "artemis");
+
+    private EmbeddedActiveMQ broker;
+
+    @Override
+    public Map<String, String> start() {
+        // Messages left over from a previous run would be delivered again
+        deleteDataDir();
+
+        broker = new EmbeddedActiveMQ();
+        broker.setConfigResourcePath("broker.xml");
+
+        try {
+            broker.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to start the embedded AMQP broker", e);
+        }
+
+        log.info("Embedded AMQP broker started on {}:{}", HOST, PORT);
+
+        return Map.of("UMB_BROKER_HOST", HOST, "UMB_BROKER_PORT", String.valueOf(PORT));
+    }
+
+    @Override
+    public void stop() {
+        if (broker == null) {
+            return;
+        }
+
+        try {
+            broker.stop();
+        } catch (Exception e) {
+            log.warn("Unable to stop the embedded AMQP broker", e);
+        }
+    }
+
+    private static void deleteDataDir() {
+        if (!Files.exists(DATA_DIR)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(DATA_DIR)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
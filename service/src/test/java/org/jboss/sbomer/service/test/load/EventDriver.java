@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.test.TestResources;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.vertx.amqp.AmqpClientOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.amqp.AmqpClient;
+import io.vertx.mutiny.amqp.AmqpConnection;
+import io.vertx.mutiny.amqp.AmqpMessage;
+import io.vertx.mutiny.amqp.AmqpSender;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Sends synthetic UMB messages to the broker, the same way PNC and the Errata Tool do: successful persistent PNC builds
+ * and RPM advisories moving to {@code QE}. PNC builds and advisories are interleaved randomly and sent at a constant
+ * rate.
+ * </p>
+ *
+ * <p>
+ * Every build and every advisory is unique, so that no manifest is deduplicated. The time each message was sent is
+ * recorded for all manifests expected as a result, keyed by the identifier of the generation.
+ * </p>
+ */
+@Slf4j
+public class EventDriver implements AutoCloseable {
+
+    private static final String PNC_BUILD_ID_PLACEHOLDER = "AX5TJMYHQAIAE";
+
+    private static final long FIRST_ADVISORY_ID = 1_000_000;
+
+    private final AmqpClient client;
+    private final AmqpConnection connection;
+    private final AmqpSender pncSender;
+    private final AmqpSender errataSender;
+
+    private final String pncBody;
+    private final ObjectNode errataBody;
+
+    public EventDriver(Vertx vertx, String host, int port) throws IOException {
+        this.pncBody = TestResources.asString("payloads/umb-pnc-build-body.json");
+        this.errataBody = (ObjectNode) ObjectMapperProvider.json()
+                .readTree(TestResources.asString("errata/umb/errata_status_change_QE.json"));
+
+        this.client = AmqpClient.create(vertx, new AmqpClientOptions().setHost(host).setPort(port));
+        this.connection = client.connectAndAwait();
+        this.pncSender = connection.createSenderAndAwait(LoadTestProfile.PNC_ADDRESS);
+        this.errataSender = connection.createSenderAndAwait(LoadTestProfile.ERRATA_ADDRESS);
+    }
+
+    /**
+     * Sends all the messages requested in the given configuration.
+     *
+     * @param config the load test configuration
+     * @return the time a message was sent, for every expected manifest identifier
+     */
+    public Map<String, Instant> run(LoadTestConfig config) {
+        List<Boolean> advisories = new ArrayList<>(config.builds() + config.advisories());
+        advisories.addAll(Collections.nCopies(config.builds(), false));
+        advisories.addAll(Collections.nCopies(config.advisories(), true));
+        Collections.shuffle(advisories, new Random(42));
+
+        Map<String, Instant> sentAt = new ConcurrentHashMap<>();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        int builds = 0;
+        int errata = 0;
+
+        for (int i = 0; i < advisories.size(); i++) {
+            LockSupport.parkNanos(start + i * intervalNanos - System.nanoTime());
+
+            if (Boolean.TRUE.equals(advisories.get(i))) {
+                long advisoryId = FIRST_ADVISORY_ID + errata++;
+                sendAdvisory(advisoryId);
+
+                Instant now = Instant.now();
+                advisoryNvrs(advisoryId).forEach(nvr -> sentAt.put(nvr, now));
+            } else {
+                String buildId = String.format("LOAD%09d", builds++);
+                sendBuild(buildId);
+                sentAt.put(buildId, Instant.now());
+            }
+        }
+
+        log.info(
+                "Sent {} PNC build and {} advisory messages in {} ms",
+                builds,
+                errata,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return sentAt;
+    }
+
+    private void sendBuild(String buildId) {
+        AmqpMessage message = AmqpMessage.create()
+                .id(UUID.randomUUID().toString())
+                .creationTime(System.currentTimeMillis())
+                .applicationProperties(new JsonObject().put("type", "BuildStateChange"))
+                .withBody(pncBody.replace(PNC_BUILD_ID_PLACEHOLDER, buildId))
+                .build();
+
+        pncSender.sendWithAckAndAwait(message);
+    }
+
+    private void sendAdvisory(long advisoryId) {
+        ObjectNode body = errataBody.deepCopy();
+        body.put("errata_id", advisoryId);
+        body.putArray("content_types").add("rpm");
+
+        AmqpMessage message = AmqpMessage.create()
+                .id(UUID.randomUUID().toString())
+                .creationTime(System.currentTimeMillis())
+                .applicationProperties(new JsonObject().put("subject", "errata.activity.status"))
+                .withBufferAsBody(Buffer.buffer(body.toString()))
+                .build();
+
+        errataSender.sendWithAckAndAwait(message);
+    }
+
+    /**
+     * The NVRs of the builds attached to the given advisory by the Errata stand-in, see
+     * {@code load/errata/builds_list.json}.
+     */
+    static List<String> advisoryNvrs(long advisoryId) {
+        return List.of("load-a-1.0-" + advisoryId + ".el9", "load-b-1.0-" + advisoryId + ".el9");
+    }
+
+    @Override
+    public void close() {
+        connection.closeAndAwait();
+        client.closeAndAwait();
+    }
+}
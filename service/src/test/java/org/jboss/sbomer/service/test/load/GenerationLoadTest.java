@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.core.features.sbom.utils.MetricsHelper;
+import org.jboss.sbomer.service.feature.sbom.features.generator.rpm.controller.BrewRPMController;
+import org.jboss.sbomer.service.feature.sbom.k8s.reconciler.BuildController;
+import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
+import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.test.load.StandInsResource.StandIns;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Synthetic load test of the main workflows: thousands of PNC build and Errata advisory notifications are sent through
+ * UMB, turned into generations, scheduled in the cluster, generated and stored. The throughput, the time-to-manifest
+ * percentiles and the resources used are written to {@code target/load-report.json}, together with a summary of the
+ * service metrics in {@code target/load-metrics.json}.
+ * </p>
+ *
+ * <p>
+ * Run it with {@code ./hack/run-maven.sh -pl service -am test -P load-test}, see {@link LoadTestConfig} for the
+ * available settings.
+ * </p>
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("load")
+@Slf4j
+class GenerationLoadTest {
+
+    /**
+     * Time after which waiting for the remaining manifests stops if none was stored in the meantime, this happens when
+     * some of the events failed because of the injected errors.
+     */
+    private static final Duration STALL_TIMEOUT = Duration.ofMinutes(1);
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    LeaderManager leaderManager;
+
+    @Inject
+    BuildController buildController;
+
+    @Inject
+    BrewRPMController brewRPMController;
+
+    @Inject
+    SbomRepository sbomRepository;
+
+    // Injected by the StandInsResource
+    StandIns standIns;
+
+    @Test
+    void testLoad() throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        log.info("Starting the load test with {}", config);
+
+        // Generations are scheduled only by the leader, the scheduler starts a minute after the service
+        Awaitility.await()
+                .atMost(3, TimeUnit.MINUTES)
+                .pollInterval(1, TimeUnit.SECONDS)
+                .until(() -> leaderManager.isLeader() && schedulerTicks() > 0);
+
+        try (ResourceSampler sampler = new ResourceSampler();
+                SimulatedGenerator generator = new SimulatedGenerator(
+                        kubernetesClient,
+                        Map.of(
+                                GenerationRequestType.BUILD,
+                                buildController,
+                                GenerationRequestType.BREW_RPM,
+                                brewRPMController),
+                        config.generationTime());
+                EventDriver driver = new EventDriver(vertx, EmbeddedBrokerResource.HOST, EmbeddedBrokerResource.PORT)) {
+
+            sampler.start();
+            generator.start();
+
+            Map<String, Instant> sentAt = driver.run(config);
+
+            awaitManifests(config, sentAt, generator.getFinishedAt());
+
+            LoadReport report = LoadReport.of(
+                    config,
+                    sentAt,
+                    generator.getFinishedAt(),
+                    sbomRepository.count(),
+                    standIns,
+                    sampler.usage());
+
+            report.write(config.report());
+            MetricsHelper.writeSummary(Metrics.globalRegistry, config.report().resolveSibling("load-metrics.json"));
+
+            log.info("Load test finished: {}", report);
+
+            if (config.errorRatio() == 0) {
+                assertEquals(config.expectedManifests(), report.storedManifests());
+            } else {
+                assertTrue(report.storedManifests() > 0, "No manifest was stored");
+            }
+        }
+    }
+
+    /**
+     * Waits until the manifests for all events sent are stored, the timeout elapses or no manifest was stored for
+     * {@link #STALL_TIMEOUT}.
+     */
+    private void awaitManifests(LoadTestConfig config, Map<String, Instant> sentAt, Map<String, Instant> finishedAt)
+            throws InterruptedException {
+        Instant deadline = Instant.now().plus(config.timeout());
+        Instant lastProgress = Instant.now();
+        int finished = 0;
+
+        while (!finishedAt.keySet().containsAll(sentAt.keySet())) {
+            Instant now = Instant.now();
+
+            if (finishedAt.size() > finished) {
+                finished = finishedAt.size();
+                lastProgress = now;
+                log.info("{}/{} manifests stored", finished, sentAt.size());
+            }
+
+            if (now.isAfter(deadline) || now.isAfter(lastProgress.plus(STALL_TIMEOUT))) {
+                log.warn("Stopped waiting with {}/{} manifests stored", finishedAt.size(), sentAt.size());
+                return;
+            }
+
+            TimeUnit.SECONDS.sleep(1);
+        }
+    }
+
+    private static long schedulerTicks() {
+        return Metrics.globalRegistry.find(MetricsHelper.SCHEDULER_TICK)
+                .timers()
+                .stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
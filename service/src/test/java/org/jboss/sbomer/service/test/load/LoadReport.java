@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.service.test.load.StandInsResource.StandIns;
+
+/**
+ * The outcome of a load test run.
+ *
+ * @param builds number of PNC build messages sent
+ * @param advisories number of advisory messages sent
+ * @param expectedManifests number of manifests expected
+ * @param storedManifests number of manifests stored in the database
+ * @param durationMs time between the first message sent and the last manifest stored
+ * @param throughputPerSecond manifests stored per second
+ * @param timeToManifestMs percentiles of the time between a message sent and its manifest stored
+ * @param standIns calls received and errors injected by every stand-in
+ * @param resources resources used by the JVM
+ */
+public record LoadReport(
+        int builds,
+        int advisories,
+        int expectedManifests,
+        long storedManifests,
+        long durationMs,
+        double throughputPerSecond,
+        Map<String, Long> timeToManifestMs,
+        Map<String, Map<String, Long>> standIns,
+        ResourceSampler.Usage resources) {
+
+    public static LoadReport of(
+            LoadTestConfig config,
+            Map<String, Instant> sentAt,
+            Map<String, Instant> finishedAt,
+            long storedManifests,
+            StandIns standIns,
+            ResourceSampler.Usage resources) {
+
+        long[] timesToManifest = sentAt.entrySet()
+                .stream()
+                .filter(entry -> finishedAt.containsKey(entry.getKey()))
+                .mapToLong(entry -> Duration.between(entry.getValue(), finishedAt.get(entry.getKey())).toMillis())
+                .sorted()
+                .toArray();
+
+        Instant firstSent = sentAt.values().stream().min(Instant::compareTo).orElse(Instant.now());
+        Instant lastFinished = finishedAt.values().stream().max(Instant::compareTo).orElse(firstSent);
+        long durationMs = Duration.between(firstSent, lastFinished).toMillis();
+
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", percentile(timesToManifest, 50));
+        percentiles.put("p90", percentile(timesToManifest, 90));
+        percentiles.put("p99", percentile(timesToManifest, 99));
+        percentiles.put("max", timesToManifest.length == 0 ? 0 : timesToManifest[timesToManifest.length - 1]);
+
+        Map<String, Map<String, Long>> calls = new LinkedHashMap<>();
+        standIns.all()
+                .forEach(
+                        standIn -> calls.put(
+                                standIn.getName(),
+                                Map.of("requests", standIn.requests(), "injectedErrors", standIn.injectedErrors())));
+
+        return new LoadReport(
+                config.builds(),
+                config.advisories(),
+                config.expectedManifests(),
+                storedManifests,
+                durationMs,
+                durationMs == 0 ? 0 : timesToManifest.length * 1000.0 / durationMs,
+                percentiles,
+                calls,
+                resources);
+    }
+
+    /**
+     * Nearest-rank percentile of the given sorted values.
+     */
+    static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public void write(Path path) throws IOException {
+        Path parent = Objects.requireNonNullElse(path.toAbsolutePath().getParent(), Path.of("."));
+        Files.createDirectories(parent);
+        ObjectMapperProvider.json().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d/%d manifests stored in %d ms (%.1f/s), time-to-manifest p50 %d ms, p99 %d ms, stand-ins %s, %s",
+                storedManifests,
+                expectedManifests,
+                durationMs,
+                throughputPerSecond,
+                timeToManifestMs.get("p50"),
+                timeToManifestMs.get("p99"),
+                standIns,
+                resources);
+    }
+}
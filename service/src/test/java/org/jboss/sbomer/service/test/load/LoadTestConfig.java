@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the load test, read from system properties so that they can be passed on the command line, for example
+ * {@code -Dload.builds=5000 -Dload.rate=200}.
+ *
+ * @param builds number of synthetic PNC build notifications sent
+ * @param advisories number of synthetic Errata advisory status changes sent, every advisory has
+ *        {@link #RPMS_PER_ADVISORY} builds attached
+ * @param rate number of messages sent per second
+ * @param latency median latency of the stand-ins of the external systems
+ * @param errorRatio ratio of calls to the stand-ins which fail with a 503 error, between 0 and 1
+ * @param generationTime time needed by the simulated generator to finish a generation
+ * @param maxConcurrentGenerations maximum number of generations in progress, passed to the scheduler
+ * @param timeout maximum time to wait for all manifests to be stored
+ * @param report the file where the report is written to
+ */
+public record LoadTestConfig(
+        int builds,
+        int advisories,
+        int rate,
+        Duration latency,
+        double errorRatio,
+        Duration generationTime,
+        int maxConcurrentGenerations,
+        Duration timeout,
+        Path report) {
+
+    /**
+     * Number of RPM builds attached to every synthetic advisory, see {@code load/errata/builds_list.json}.
+     */
+    public static final int RPMS_PER_ADVISORY = 2;
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("load.builds", 1000),
+                Integer.getInteger("load.advisories", 250),
+                Integer.getInteger("load.rate", 100),
+                Duration.parse(System.getProperty("load.latency", "PT0.05S")),
+                Double.parseDouble(System.getProperty("load.error-ratio", "0")),
+                Duration.parse(System.getProperty("load.generation-time", "PT1S")),
+                Integer.getInteger("load.max-concurrent-generations", 100),
+                Duration.parse(System.getProperty("load.timeout", "PT15M")),
+                Path.of(System.getProperty("load.report", "target/load-report.json")));
+    }
+
+    /**
+     * @return the number of manifests expected to be stored once all events are processed
+     */
+    public int expectedManifests() {
+        return builds + advisories * RPMS_PER_ADVISORY;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.sbomer.service.test.utils.umb.TestAmqpUmbClientOptionProducer;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * <p>
+ * Runs the service as close to a production deployment as possible: against PostgreSQL (started with Dev Services, so
+ * Docker or Podman is required), with UMB enabled and connected to an embedded AMQP broker, and with the stand-ins of
+ * the external systems.
+ * </p>
+ *
+ * <p>
+ * The generation scheduler runs every second, so that the time-to-manifest is not dominated by its interval.
+ * </p>
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    public static final String PNC_ADDRESS = "load.pnc.builds";
+    public static final String ERRATA_ADDRESS = "load.errata.status";
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Map<String, String> overrides = new HashMap<>();
+
+        // PostgreSQL is required by the generation scheduler. It is the only Dev Service needed, the broker and the
+        // cluster are provided by the test resources
+        overrides.put("quarkus.devservices.enabled", "true");
+        overrides.put("quarkus.amqp.devservices.enabled", "false");
+        overrides.put("quarkus.kubernetes-client.devservices.enabled", "false");
+        overrides.put("quarkus.datasource.db-kind", "postgresql");
+        overrides.put("quarkus.datasource.jdbc.url", "");
+        overrides.put("quarkus.datasource.jdbc.max-size", "20");
+        // The test data set in import.sql targets H2, start from an empty database instead
+        overrides.put("quarkus.hibernate-orm.sql-load-script", "no-file");
+
+        // UMB
+        overrides.put("sbomer.features.umb.enabled", "true");
+        overrides.put("sbomer.features.umb.producer.enabled", "false");
+        overrides.put("mp.messaging.incoming.builds.address", PNC_ADDRESS);
+        overrides.put("mp.messaging.incoming.errata.address", ERRATA_ADDRESS);
+        overrides.put("mp.messaging.outgoing.finished.address", "topic://load.finished");
+
+        // Feature flags needed to generate manifests for RPM advisories
+        overrides.put("SBOMER_FEATURE_ERRATA_INTEGRATION_ENABLED", "true");
+        overrides.put("SBOMER_FEATURE_STANDARD_ERRATA_RPM_MANIFEST_ENABLED", "true");
+
+        overrides.put(
+                "sbomer.service.generation-scheduler.max-concurrent-generations",
+                String.valueOf(config.maxConcurrentGenerations()));
+        overrides.put("sbomer.service.generation-scheduler.sync-batch", "50");
+        overrides.put("sbomer.service.generation-scheduler.sync-interval", "1s");
+        overrides.put("sbomer.service.leader.check-interval", "1s");
+
+        return overrides;
+    }
+
+    @Override
+    public Set<Class<?>> getEnabledAlternatives() {
+        return Set.of(TestAmqpUmbClientOptionProducer.class);
+    }
+
+    @Override
+    public List<TestResourceEntry> testResources() {
+        return List.of(
+                new TestResourceEntry(EmbeddedBrokerResource.class),
+                new TestResourceEntry(StandInsResource.class));
+    }
+}
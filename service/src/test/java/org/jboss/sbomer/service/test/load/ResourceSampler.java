@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * Samples the resources used by the JVM running the service (and the test) every second.
+ */
+public class ResourceSampler implements AutoCloseable {
+
+    /**
+     * @param avgProcessCpuLoad average CPU load of the process, between 0 and 1 (for all cores)
+     * @param maxProcessCpuLoad maximum CPU load of the process, between 0 and 1 (for all cores)
+     * @param maxHeapUsedBytes maximum heap used
+     * @param maxThreads maximum number of live threads
+     * @param gcCount number of garbage collections during the run
+     * @param gcTimeMs time spent in garbage collection during the run
+     */
+    public record Usage(
+            double avgProcessCpuLoad,
+            double maxProcessCpuLoad,
+            long maxHeapUsedBytes,
+            int maxThreads,
+            long gcCount,
+            long gcTimeMs) {
+    }
+
+    private final OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    private final long gcCountAtStart = gcCount();
+    private final long gcTimeAtStart = gcTime();
+
+    private double cpuLoadSum;
+    private double maxCpuLoad;
+    private int samples;
+    private long maxHeapUsed;
+    private int maxThreads;
+
+    public void start() {
+        executor.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    private synchronized void sample() {
+        double cpuLoad = os.getProcessCpuLoad();
+
+        if (cpuLoad >= 0) {
+            cpuLoadSum += cpuLoad;
+            maxCpuLoad = Math.max(maxCpuLoad, cpuLoad);
+            samples++;
+        }
+
+        maxHeapUsed = Math.max(maxHeapUsed, memory.getHeapMemoryUsage().getUsed());
+        maxThreads = Math.max(maxThreads, threads.getThreadCount());
+    }
+
+    public synchronized Usage usage() {
+        return new Usage(
+                samples == 0 ? 0 : cpuLoadSum / samples,
+                maxCpuLoad,
+                maxHeapUsed,
+                maxThreads,
+                gcCount() - gcCountAtStart,
+                gcTime() - gcTimeAtStart);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans()
+                .stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans()
+                .stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
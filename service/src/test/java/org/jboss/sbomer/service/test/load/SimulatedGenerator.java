@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component.Type;
+import org.cyclonedx.model.Metadata;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.features.generator.AbstractController;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Stands in for Tekton and the generators in the load test. Generations scheduled in the (mock) cluster are finished
+ * successfully after the configured generation time: the {@link GenerationRequest} is marked as finished, which frees
+ * its slot in the scheduler, and a synthetic manifest is stored through the controller, exactly as it happens once a
+ * real generation succeeds.
+ * </p>
+ *
+ * <p>
+ * The status is updated first, so that a failed update can be retried without storing the manifest twice; a
+ * generation whose manifest could not be stored is not retried and is missing from {@link #getFinishedAt()}.
+ * </p>
+ */
+@Slf4j
+public class SimulatedGenerator implements AutoCloseable {
+
+    private static final int WORKERS = 4;
+
+    private final KubernetesClient kubernetesClient;
+    private final Map<GenerationRequestType, AbstractController> controllers;
+    private final Duration generationTime;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+
+    private final Map<String, Instant> scheduledAt = new ConcurrentHashMap<>();
+    private final Set<String> finishing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The time the manifest was stored, for every generation identifier.
+     */
+    @Getter
+    private final Map<String, Instant> finishedAt = new ConcurrentHashMap<>();
+
+    public SimulatedGenerator(
+            KubernetesClient kubernetesClient,
+            Map<GenerationRequestType, AbstractController> controllers,
+            Duration generationTime) {
+        this.kubernetesClient = kubernetesClient;
+        this.controllers = controllers;
+        this.generationTime = generationTime;
+    }
+
+    public void start() {
+        poller.scheduleWithFixedDelay(this::poll, 0, 200, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        try {
+            List<GenerationRequest> scheduled = kubernetesClient.resources(GenerationRequest.class)
+                    .withLabel(Labels.LABEL_STATUS, SbomGenerationStatus.SCHEDULED.name())
+                    .list()
+                    .getItems();
+
+            Instant now = Instant.now();
+
+            scheduled.forEach(request -> {
+                String name = request.getMetadata().getName();
+                Instant since = scheduledAt.computeIfAbsent(name, n -> now);
+
+                if (Duration.between(since, now).compareTo(generationTime) >= 0 && finishing.add(name)) {
+                    workers.submit(() -> finish(request));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Unable to poll the scheduled generations", e);
+        }
+    }
+
+    private void finish(GenerationRequest request) {
+        String name = request.getMetadata().getName();
+
+        try {
+            AbstractController controller = controllers.get(request.getType());
+
+            if (controller == null) {
+                throw new IllegalStateException("No controller for generations of type " + request.getType());
+            }
+
+            request.setStatus(SbomGenerationStatus.FINISHED);
+            request.setResult(GenerationResult.SUCCESS);
+            request.setReason("Generated by the load test");
+
+            kubernetesClient.resource(request).update();
+            scheduledAt.remove(name);
+        } catch (RuntimeException e) {
+            log.warn("Unable to finish the generation '{}', will retry", name, e);
+            finishing.remove(name);
+            return;
+        }
+
+        try {
+            controllers.get(request.getType()).storeBoms(request, List.of(createBom(request.getIdentifier())));
+            finishedAt.put(request.getIdentifier(), Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Unable to store the manifest of the generation '{}'", name, e);
+        }
+    }
+
+    private static Bom createBom(String identifier) {
+        String purl = "pkg:generic/" + identifier + "@1.0";
+
+        Bom bom = SbomUtils.createBom();
+        Metadata metadata = new Metadata();
+        metadata.setComponent(SbomUtils.createComponent(null, identifier, "1.0", null, purl, Type.LIBRARY));
+        bom.setMetadata(metadata);
+        bom.addComponent(SbomUtils.createComponent(null, identifier, "1.0", null, purl, Type.LIBRARY));
+
+        return bom;
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+}
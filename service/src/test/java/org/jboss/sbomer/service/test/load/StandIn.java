@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import lombok.Getter;
+
+/**
+ * A local stand-in for an external system, backed by WireMock. Every response is delayed following a log-normal
+ * distribution around the configured latency and a configurable ratio of calls fails with a {@code 503} error, so that
+ * the retries and limits of the service get exercised too.
+ */
+public class StandIn {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final WireMockServer server;
+
+    private final FaultInjector faultInjector;
+
+    public StandIn(String name, Duration latency, double errorRatio) {
+        this.name = name;
+        this.faultInjector = new FaultInjector(errorRatio);
+        this.server = new WireMockServer(new WireMockConfiguration().dynamicPort().extensions(faultInjector));
+
+        server.start();
+
+        if (!latency.isZero()) {
+            server.updateGlobalSettings(
+                    GlobalSettings.builder().delayDistribution(new LogNormal(latency.toMillis(), 0.5)).build());
+        }
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    /**
+     * @return the number of calls received so far
+     */
+    public long requests() {
+        return server.countRequestsMatching(RequestPattern.everything()).getCount();
+    }
+
+    /**
+     * @return the number of calls which failed on purpose so far
+     */
+    public long injectedErrors() {
+        return faultInjector.injected.get();
+    }
+
+    public void stop() {
+        server.stop();
+    }
+
+    /**
+     * Replaces the response of a random share of the calls with a {@code 503 Service Unavailable} error.
+     */
+    static class FaultInjector implements ResponseTransformerV2 {
+
+        private final double errorRatio;
+
+        private final AtomicLong injected = new AtomicLong();
+
+        FaultInjector(double errorRatio) {
+            this.errorRatio = errorRatio;
+        }
+
+        @Override
+        public Response transform(Response response, ServeEvent serveEvent) {
+            if (errorRatio <= 0 || ThreadLocalRandom.current().nextDouble() >= errorRatio) {
+                return response;
+            }
+
+            injected.incrementAndGet();
+
+            return Response.Builder.like(response).but().status(503).body("Injected failure").build();
+        }
+
+        @Override
+        public String getName() {
+            return "fault-injector";
+        }
+    }
+}
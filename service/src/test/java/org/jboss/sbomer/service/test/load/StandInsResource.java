@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.load;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.sbomer.core.test.TestResources;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+/**
+ * Starts the stand-ins for the external systems used in the load test (PNC, Errata, Pyxis and Koji) and points the
+ * service to them. The started {@link StandIns} are injected into the test, so that the calls can be reported.
+ */
+public class StandInsResource implements QuarkusTestResourceLifecycleManager {
+
+    private static final String KOJI_EMPTY_RESPONSE = "<?xml version=\"1.0\"?><methodResponse><params><param><value>"
+            + "<array><data/></array></value></param></params></methodResponse>";
+
+    /**
+     * All stand-ins started for the load test.
+     */
+    public record StandIns(StandIn pnc, StandIn errata, StandIn pyxis, StandIn koji) {
+        public List<StandIn> all() {
+            return List.of(pnc, errata, pyxis, koji);
+        }
+    }
+
+    private StandIns standIns;
+
+    @Override
+    public Map<String, String> start() {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        standIns = new StandIns(
+                new StandIn("pnc", config.latency(), config.errorRatio()),
+                new StandIn("errata", config.latency(), config.errorRatio()),
+                new StandIn("pyxis", config.latency(), config.errorRatio()),
+                new StandIn("koji", config.latency(), config.errorRatio()));
+
+        stubErrata(standIns.errata());
+
+        // PNC and Pyxis are not called for successful builds and RPM advisories, answer with an empty object anyway
+        standIns.pnc().getServer().stubFor(any(anyUrl()).atPriority(10).willReturn(json("{}")));
+        standIns.pyxis().getServer().stubFor(any(anyUrl()).atPriority(10).willReturn(json("{}")));
+
+        // Koji is only queried for container image advisories
+        standIns.koji()
+                .getServer()
+                .stubFor(
+                        any(anyUrl()).willReturn(
+                                aResponse().withHeader("Content-Type", "text/xml").withBody(KOJI_EMPTY_RESPONSE)));
+
+        return Map.of(
+                "quarkus.rest-client.pnc.url",
+                standIns.pnc().baseUrl(),
+                "quarkus.rest-client.errata.url",
+                standIns.errata().baseUrl(),
+                "quarkus.rest-client.pyxis.url",
+                standIns.pyxis().baseUrl(),
+                "sbomer.koji.hub.url",
+                standIns.koji().baseUrl() + "/kojihub",
+                "sbomer.koji.web.url",
+                standIns.koji().baseUrl());
+    }
+
+    /**
+     * Every advisory id gets its own erratum with {@link LoadTestConfig#RPMS_PER_ADVISORY} unique RPM builds attached.
+     */
+    private void stubErrata(StandIn errata) {
+        WireMockServer server = errata.getServer();
+
+        server.stubFor(
+                get(urlPathMatching("/api/v1/erratum/[0-9]+"))
+                        .willReturn(template(resource("load/errata/erratum.json"))));
+        server.stubFor(
+                get(urlPathMatching("/api/v1/erratum/[0-9]+/builds_list"))
+                        .willReturn(template(resource("load/errata/builds_list.json"))));
+        server.stubFor(
+                get(urlPathMatching("/api/v1/products/.*")).willReturn(json(resource("errata/api/product.json"))));
+        server.stubFor(
+                get(urlPathMatching("/api/v1/releases/.*")).willReturn(json(resource("errata/api/release.json"))));
+    }
+
+    private static ResponseDefinitionBuilder json(String body) {
+        return aResponse().withHeader("Content-Type", "application/json").withBody(body);
+    }
+
+    private static ResponseDefinitionBuilder template(String body) {
+        return json(body).withTransformers("response-template");
+    }
+    private static String resource(String path) {
+        try {
+            return TestResources.asString(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void inject(TestInjector testInjector) {
+        testInjector.injectIntoFields(standIns, new TestInjector.MatchesType(StandIns.class));
+    }
+
+    @Override
+    public void stop() {
+        if (standIns != null) {
+            standIns.all().forEach(StandIn::stop);
+        }
+    }
+}
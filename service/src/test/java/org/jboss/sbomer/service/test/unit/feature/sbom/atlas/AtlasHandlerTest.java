@@ -5,21 +5,27 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.cyclonedx.model.Bom;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.FeatureFlags;
@@ -28,8 +34,10 @@ import org.jboss.sbomer.service.feature.sbom.atlas.AtlasClient;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasHandler;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasReleaseClient;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.service.AtlasPublicationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -45,6 +53,7 @@ class AtlasHandlerTest {
 
     final AtlasBuildClient atlasBuildClient = mock(AtlasBuildClient.class);
     final AtlasReleaseClient atlasReleaseClient = mock(AtlasReleaseClient.class);
+    final AtlasPublicationRepository publicationRepository = mock(AtlasPublicationRepository.class);
 
     private Sbom generateSbom(String id, String purl) throws IOException {
         return generateSbom(id, purl, "sboms/complete_operation_sbom.json");
@@ -72,6 +81,10 @@ class AtlasHandlerTest {
 
         atlasHandler.setAtlasBuildClient(atlasBuildClient);
         atlasHandler.setAtlasReleaseClient(atlasReleaseClient);
+
+        when(publicationRepository.markPending(anyString(), anyString(), anyString(), any(Instant.class)))
+                .thenReturn(true);
+        atlasHandler.setPublicationRepository(publicationRepository);
     }
 
     @Test
@@ -127,4 +140,57 @@ class AtlasHandlerTest {
         assertEquals(message, ex1.getMessage());
         assertEquals(message, ex2.getMessage());
     }
+
+    @Test
+    void testSkipAlreadyPublished() throws Exception {
+        Sbom sbomA = generateSbom("AAA", "pkg:maven/compA@1.1.0?type=pom");
+        Sbom sbomB = generateSbom("BBB", "pkg:maven/compB@1.1.0?type=pom");
+
+        when(publicationRepository.markPending(eq("build"), eq("AAA"), anyString(), any(Instant.class)))
+                .thenReturn(false);
+
+        atlasHandler.publishBuildManifests(List.of(sbomA, sbomB));
+
+        verify(atlasBuildClient, never()).upload(eq(LABELS), eq(sbomA.getSbom()));
+        verify(atlasBuildClient, times(1)).upload(eq(LABELS), eq(sbomB.getSbom()));
+        verify(publicationRepository, never()).markPublished("build", "AAA");
+        verify(publicationRepository, times(1)).markPublished("build", "BBB");
+    }
+
+    @Test
+    void testUploadAllAndRecordFailures() throws Exception {
+        Sbom sbomA = generateSbom("AAA", "pkg:maven/compA@1.1.0?type=pom");
+        Sbom sbomB = generateSbom("BBB", "pkg:maven/compB@1.1.0?type=pom");
+        Sbom sbomC = generateSbom("CCC", "pkg:maven/compC@1.1.0?type=pom");
+
+        doThrow(new ClientException("A reason")).when(atlasReleaseClient).upload(eq(LABELS), eq(sbomA.getSbom()));
+        doThrow(new ClientException("A reason")).when(atlasReleaseClient).upload(eq(LABELS), eq(sbomB.getSbom()));
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> atlasHandler.publishReleaseManifests(List.of(sbomA, sbomB, sbomC)));
+
+        assertEquals("Unable to store 2 of 3 manifests in Atlas, these will be retried later", ex.getMessage());
+
+        verify(atlasReleaseClient, times(1)).upload(eq(LABELS), eq(sbomC.getSbom()));
+        verify(publicationRepository, times(1)).markFailed(eq("release"), eq("AAA"), anyString(), any());
+        verify(publicationRepository, times(1)).markFailed(eq("release"), eq("BBB"), anyString(), any());
+        verify(publicationRepository, times(1)).markPublished("release", "CCC");
+    }
+
+    @Test
+    void testUploadCompressed() throws Exception {
+        Sbom sbom = generateSbom("AAA", "pkg:maven/compA@1.1.0?type=pom");
+        ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+
+        atlasHandler.setCompressUploads(true);
+        atlasHandler.publishBuildManifests(List.of(sbom));
+
+        verify(atlasBuildClient, never()).upload(any(), any());
+        verify(atlasBuildClient, times(1)).uploadCompressed(eq(LABELS), content.capture());
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content.getValue()))) {
+            assertEquals(sbom.getSbom(), ObjectMapperProvider.json().readTree(gzip));
+        }
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.errata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.service.feature.sbom.errata.event.release.AbstractEventsListener;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+class ReleaseBuildsProcessingTest {
+
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    static class TestEventsListener extends AbstractEventsListener {
+        <T, R> List<R> process(List<T> items, Function<T, R> task) {
+            return processBuilds(items, task);
+        }
+    }
+
+    private TestEventsListener listener(int parallelism) {
+        TestEventsListener listener = new TestEventsListener();
+        listener.setManagedExecutor(managedExecutor);
+        listener.setBuildParallelism(parallelism);
+        return listener;
+    }
+
+    @Test
+    void testSequentialProcessingKeepsOrder() {
+        List<Integer> items = IntStream.range(0, 20).boxed().toList();
+
+        List<Integer> results = listener(1).process(items, i -> i % 3 == 0 ? null : i * 2);
+
+        assertEquals(items.stream().filter(i -> i % 3 != 0).map(i -> i * 2).toList(), results);
+    }
+
+    @Test
+    void testParallelProcessingKeepsOrder() {
+        List<Integer> items = IntStream.range(0, 50).boxed().toList();
+
+        List<Integer> results = listener(8).process(items, i -> {
+            try {
+                // Make later items finish first
+                Thread.sleep(50 - i);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return i % 3 == 0 ? null : i * 2;
+        });
+
+        assertEquals(items.stream().filter(i -> i % 3 != 0).map(i -> i * 2).toList(), results);
+    }
+
+    @Test
+    void testParallelProcessingStopsOnFailure() {
+        List<Integer> items = IntStream.range(0, 200).boxed().toList();
+        AtomicInteger started = new AtomicInteger();
+
+        TestEventsListener listener = listener(4);
+        ApplicationException ex = assertThrows(ApplicationException.class, () -> listener.process(items, i -> {
+            started.incrementAndGet();
+            if (i == 5) {
+                throw new ApplicationException("Build {} failed", i);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return i;
+        }));
+
+        assertEquals("Build 5 failed", ex.getMessage());
+        assertTrue(started.get() < items.size());
+    }
+}
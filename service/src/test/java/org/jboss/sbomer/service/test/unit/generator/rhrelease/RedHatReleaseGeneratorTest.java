@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -15,6 +16,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
@@ -217,4 +219,54 @@ public class RedHatReleaseGeneratorTest {
         verify(client, times(1)).getEventGenerations(anyString());
         verify(client, times(2)).getGenerationManifests(anyString());
     }
+
+    @Test
+    void handleGenerationInParallel() {
+        // Run the tasks submitted to the executor inline
+        doAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return null;
+        }).when(managedExecutor).execute(any());
+
+        generator.setParallelism(4);
+
+        when(client.getEventGenerations(eq("E1MMM"))).thenReturn(genGenerations(3));
+        when(client.getGenerationManifests(eq("G0"))).thenReturn(genManifests(2));
+        when(client.getGenerationManifests(eq("G1"))).thenReturn(genManifests(3));
+        when(client.getGenerationManifests(eq("G2"))).thenReturn(List.of());
+        when(client.getManifestContent(anyString()))
+                .thenAnswer(invocation -> JacksonUtils.toObjectNode(Map.of("id", invocation.getArgument(0))));
+
+        GenerationRecord generationRecord = new GenerationRecord(
+                "G1",
+                Instant.now(),
+                Instant.now(),
+                null,
+                JacksonUtils.toObjectNode(new GenerationRequest(null, new Target("EVENT", "E1MMM"))),
+                null,
+                null,
+                null,
+                null);
+
+        ArgumentCaptor<JsonNode> argumentCaptor = ArgumentCaptor.forClass(JsonNode.class);
+
+        when(client.uploadManifest(eq("G1"), argumentCaptor.capture()))
+                .thenReturn(new ManifestRecord("MX", "G1", Instant.now(), Collections.emptyMap()));
+
+        generator.generate(generationRecord);
+
+        List<JsonNode> boms = argumentCaptor.getAllValues();
+
+        assertEquals(6, boms.size()); // 5 updated manifests + 1 release manifest
+
+        // Manifests keep the order of generations and manifests, the release manifest is uploaded last
+        assertEquals(
+                List.of("M0", "M1", "M0", "M1", "M2"),
+                boms.subList(0, 5).stream().map(bom -> bom.get("id").asText()).toList());
+        assertFalse(boms.get(5).has("id"));
+
+        verify(client, times(5)).getManifestContent(anyString());
+        verify(client, times(6)).uploadManifest(anyString(), any());
+        verify(client, times(3)).getGenerationManifests(anyString());
+    }
 }